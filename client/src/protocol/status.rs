@@ -28,6 +28,7 @@ pub enum Status {
     ErrorGroupAddress,
     ErrorDataPointType,
     ErrorClientNotAuthorized,
+    ErrorBusy,
 }
 
 /// Error in case no suitable [`Status`] could be found
@@ -48,6 +49,7 @@ impl TryFrom<u8> for Status {
             4 => Ok(Status::ErrorGroupAddress),
             5 => Ok(Status::ErrorDataPointType),
             6 => Ok(Status::ErrorClientNotAuthorized),
+            7 => Ok(Status::ErrorBusy),
             _ => Err(UnknownStatusError)
         }
     }
@@ -63,6 +65,7 @@ impl From<Status> for u8 {
             Status::ErrorGroupAddress => 4,
             Status::ErrorDataPointType => 5,
             Status::ErrorClientNotAuthorized => 6,
+            Status::ErrorBusy => 7,
         }
     }
 }
@@ -80,6 +83,7 @@ mod tests {
         assert_eq!(u8::from(Status::ErrorGroupAddress), 4);
         assert_eq!(u8::from(Status::ErrorDataPointType), 5);
         assert_eq!(u8::from(Status::ErrorClientNotAuthorized), 6);
+        assert_eq!(u8::from(Status::ErrorBusy), 7);
     }
 
     #[test]
@@ -91,6 +95,7 @@ mod tests {
         assert_eq!(Status::ErrorGroupAddress, Status::try_from(u8::from(Status::ErrorGroupAddress)).unwrap());
         assert_eq!(Status::ErrorDataPointType, Status::try_from(u8::from(Status::ErrorDataPointType)).unwrap());
         assert_eq!(Status::ErrorClientNotAuthorized, Status::try_from(u8::from(Status::ErrorClientNotAuthorized)).unwrap());
+        assert_eq!(Status::ErrorBusy, Status::try_from(u8::from(Status::ErrorBusy)).unwrap());
     }
 
     #[test]
@@ -8,22 +8,22 @@ KNX_LINK_SERVER_PORT=3672
 echo "********************************************************************"
 echo "                    CHECKING MINIMUM REQUIREMENTS                   "
 echo "                                                                    "
-echo " 1) 'java' for KNX service and must be Java 11 and above            "
+echo " 1) 'java' for KNX service and must be Java 17 and above            "
 echo " 2) 'curl' to download the latest file                              "
 echo " 3) 'systemctl' to run KNX as a daemon service                      "
 echo "********************************************************************"
 
 # Check if 'java' is available
 if [[ -z "$(type -p java)" ]]; then
-  echo "[ERROR] Java not installed? Please install Java 11 or above."
+  echo "[ERROR] Java not installed? Please install Java 17 or above."
   exit 1
 else
-  # Check if 'java' is version 11 or above
+  # Check if 'java' is version 17 or above
   # 1.8 will be interpreted as 18
-  # 11.0 will be interpreted as 110
+  # 17.0 will be interpreted as 170
   javaVersion=$(java -version 2>&1 | sed 's/.*"\([^\.]*\)\.\([^\.]*\).*".*/\1\2/; 1q')
-  if [[ $javaVersion -lt 110 ]]; then
-    echo "[ERROR] Old Java version? Please install Java 11 or above."
+  if [[ $javaVersion -lt 170 ]]; then
+    echo "[ERROR] Old Java version? Please install Java 17 or above."
     exit 1
   fi
 fi
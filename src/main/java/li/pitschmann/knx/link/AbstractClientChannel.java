@@ -0,0 +1,243 @@
+/*
+ * Copyright (C) 2021 Pitschmann Christoph
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package li.pitschmann.knx.link;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.Objects;
+import java.util.function.Consumer;
+
+/**
+ * {@link ClientChannel} with an outbound queue.
+ *
+ * <p> A packet is written directly to the transport if nothing is pending, otherwise it
+ * is queued and the transport is asked to call {@link #flush()} when it is ready to write
+ * again (e.g. the selector on {@code OP_WRITE}). The queue is bounded by
+ * {@link #MAX_PENDING_BYTES}; a client that doesn't read its packets is disconnected
+ * when the limit is exceeded.
+ *
+ * <p> A stream of packets (e.g. history records read from the journal) is never pulled
+ * by the caller of {@link #stream(Iterator)}; it is pulled by {@link #flush()} when the
+ * transport is ready to write, and at most {@link #STREAM_BUDGET_BYTES} octets per call,
+ * so that a long stream doesn't hold up the thread that flushes the other channels.
+ *
+ * <p> The close listener is notified once when the channel is closed, no matter if it has
+ * been closed by the client, by the server or due to an I/O failure.
+ */
+abstract class AbstractClientChannel implements ClientChannel {
+    /**
+     * Maximum number of octets that may be pending for a client
+     */
+    static final int MAX_PENDING_BYTES = 1024 * 1024;
+    /**
+     * Number of pending octets from which the channel is not writable anymore
+     */
+    static final int WRITABLE_WATERMARK = 64 * 1024;
+    /**
+     * Maximum number of octets that are pulled from streams in a single {@link #flush()}
+     */
+    static final int STREAM_BUDGET_BYTES = 64 * 1024;
+    private static final Logger LOG = LoggerFactory.getLogger(AbstractClientChannel.class);
+    // pending packets (ByteBuffer) and streams (Iterator<byte[]>) in order they have been sent
+    private final Deque<Object> pending = new ArrayDeque<>();
+    private final Consumer<ClientChannel> closeListener;
+    private int pendingBytes;
+    private int pendingStreams;
+    private boolean flushRequested;
+    private volatile boolean closed;
+
+    /**
+     * Creates a new {@link AbstractClientChannel}
+     *
+     * @param closeListener the listener that is notified when the channel is closed; may not be null
+     */
+    protected AbstractClientChannel(final Consumer<ClientChannel> closeListener) {
+        this.closeListener = Objects.requireNonNull(closeListener);
+    }
+
+    @Override
+    public final synchronized boolean send(final byte[] packet) {
+        Objects.requireNonNull(packet);
+        if (closed) {
+            return false;
+        }
+
+        final var buffer = ByteBuffer.wrap(packet);
+        if (pending.isEmpty() && tryTransfer(buffer)) {
+            return true;
+        } else if (closed) {
+            return false;
+        }
+        pending.add(buffer);
+        pendingBytes += buffer.remaining();
+        if (pendingBytes > MAX_PENDING_BYTES) {
+            LOG.warn("Client doesn't read its packets ({} octets pending). Disconnect the channel: {}", pendingBytes, this);
+            close();
+            return false;
+        }
+        setFlushRequested(true);
+        return true;
+    }
+
+    @Override
+    public final synchronized void stream(final Iterator<byte[]> packets) {
+        Objects.requireNonNull(packets);
+        if (!closed) {
+            pending.add(packets);
+            pendingStreams++;
+            // the stream is pulled by the transport when it is ready to write
+            setFlushRequested(true);
+        }
+    }
+
+    @Override
+    public final synchronized boolean isWritable() {
+        return !closed && pendingStreams == 0 && pendingBytes < WRITABLE_WATERMARK;
+    }
+
+    /**
+     * Writes the pending packets to the transport until all packets have been written,
+     * the transport is not ready to take more packets or the budget for streams has been
+     * used up; in the latter cases the flush stays requested
+     *
+     * @return {@code true} if all pending packets have been written, otherwise {@code false}
+     */
+    final synchronized boolean flush() {
+        var streamBytes = 0;
+        while (!closed) {
+            final var next = pending.peek();
+            if (next == null) {
+                setFlushRequested(false);
+                return true;
+            } else if (next instanceof ByteBuffer) {
+                final var buffer = (ByteBuffer) next;
+                final var remaining = buffer.remaining();
+                final var transferred = tryTransfer(buffer);
+                pendingBytes -= remaining - buffer.remaining();
+                if (!transferred) {
+                    setFlushRequested(true);
+                    return false;
+                }
+                pending.poll();
+            } else {
+                @SuppressWarnings("unchecked") final var stream = (Iterator<byte[]>) next;
+                if (streamBytes >= STREAM_BUDGET_BYTES) {
+                    // continue with the stream in next flush, after the other channels
+                    setFlushRequested(true);
+                    return false;
+                }
+                final byte[] packet;
+                try {
+                    packet = stream.hasNext() ? stream.next() : null;
+                } catch (final RuntimeException e) {
+                    LOG.error("Could not read the next packet of stream. Disconnect the channel: {}", this, e);
+                    close();
+                    return true;
+                }
+                if (packet != null) {
+                    // put the packet in front of stream, it is written in next round
+                    final var buffer = ByteBuffer.wrap(packet);
+                    pending.addFirst(buffer);
+                    pendingBytes += buffer.remaining();
+                    streamBytes += buffer.remaining();
+                } else {
+                    pending.poll();
+                    pendingStreams--;
+                }
+            }
+        }
+        return true;
+    }
+
+    private boolean tryTransfer(final ByteBuffer buffer) {
+        try {
+            return transfer(buffer);
+        } catch (final IOException e) {
+            LOG.debug("I/O Exception during writing to channel: {}", this, e);
+            close();
+            return false;
+        }
+    }
+
+    private void setFlushRequested(final boolean requested) {
+        if (flushRequested != requested) {
+            flushRequested = requested;
+            requestFlush(requested);
+        }
+    }
+
+    @Override
+    public final boolean isConnected() {
+        return !closed && isTransportOpen();
+    }
+
+    @Override
+    public final void close() {
+        synchronized (this) {
+            if (closed) {
+                return;
+            }
+            closed = true;
+            pending.clear();
+            pendingBytes = 0;
+            pendingStreams = 0;
+        }
+        closeTransport();
+        try {
+            closeListener.accept(this);
+        } catch (final RuntimeException e) {
+            LOG.error("Close listener failed for channel: {}", this, e);
+        }
+    }
+
+    /**
+     * Writes the remaining bytes of buffer to the transport as far as the transport takes them
+     *
+     * @param buffer the buffer of packet; may not be null
+     * @return {@code true} if the packet has been written completely, otherwise {@code false}
+     * @throws IOException if the transport failed
+     */
+    protected abstract boolean transfer(ByteBuffer buffer) throws IOException;
+
+    /**
+     * Asks the transport to call {@link #flush()} when it is ready to write again, or
+     * withdraws the request when nothing is pending anymore. Called while holding the
+     * lock of channel, the transport must not block.
+     *
+     * @param requested {@code true} if packets are pending, otherwise {@code false}
+     */
+    protected abstract void requestFlush(boolean requested);
+
+    /**
+     * Indicates if the transport is open
+     *
+     * @return {@code true} if open, otherwise {@code false}
+     */
+    protected abstract boolean isTransportOpen();
+
+    /**
+     * Closes the transport
+     */
+    protected abstract void closeTransport();
+}
@@ -17,15 +17,28 @@
 
 package li.pitschmann.knx.link;
 
+import li.pitschmann.knx.core.annotations.Nullable;
 import li.pitschmann.knx.core.communication.KnxClient;
 import li.pitschmann.knx.core.datapoint.DPT1;
 import li.pitschmann.knx.core.datapoint.DataPointRegistry;
 import li.pitschmann.knx.core.utils.Closeables;
 import li.pitschmann.knx.core.utils.Sleeper;
+import li.pitschmann.knx.link.cache.ValueCache;
+import li.pitschmann.knx.link.cache.ValueTable;
 import li.pitschmann.knx.link.config.Config;
+import li.pitschmann.knx.link.journal.Journal;
+import li.pitschmann.knx.link.journal.JournalCompactor;
+import li.pitschmann.knx.link.subscription.SubscriptionManager;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import javax.management.JMException;
+import javax.management.MalformedObjectNameException;
+import javax.management.ObjectName;
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.util.Objects;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
@@ -37,21 +50,44 @@ import java.util.concurrent.atomic.AtomicBoolean;
  * <p> Will create a server socket, listens to incoming socket channels
  * for requests and acts as a proxy between socket channel and the KNX
  * Net/IP device.
+ *
+ * <p> The configuration can be reloaded while the server is running by {@link #reload(Config)}.
  */
 public abstract class AbstractServer implements Runnable, AutoCloseable {
     private static final Logger LOG = LoggerFactory.getLogger(AbstractServer.class);
-    protected final Config config;
-    private final ExecutorService executorService = Executors.newFixedThreadPool(2);
+    protected volatile Config config;
+    protected final TelegramPlugin telegramPlugin = new TelegramPlugin();
+    private final ResponseCorrelator responseCorrelator;
+    private final SubscriptionManager subscriptionManager;
+    private final ChangeWaiter changeWaiter = new ChangeWaiter();
+    /**
+     * Executor for the long-running loops of server, each loop gets a thread of its own
+     */
+    private final ExecutorService executorService = Executors.newCachedThreadPool();
     private final AtomicBoolean running = new AtomicBoolean();
+    private final Object reloadLock = new Object();
+    private volatile KnxClient knxClient;
+    private volatile boolean reconnecting;
+    private Config knxClientConfig;
+    private SocketListener socketListener;
+    private SocketWorker socketWorker;
 
     protected AbstractServer(final Config config) {
         this.config = Objects.requireNonNull(config);
+        this.responseCorrelator = new ResponseCorrelator(config.getServerReadTimeout());
+        this.subscriptionManager = new SubscriptionManager(config.getServerEventBufferSize(), config.getServerEventOverflowPolicy());
+        this.telegramPlugin.addListener(responseCorrelator);
+        this.telegramPlugin.addListener(subscriptionManager);
+        this.telegramPlugin.addListener(changeWaiter);
         DataPointRegistry.getDataPointType(DPT1.SWITCH.getId()); // warm up!
     }
 
     /**
      * Lazy initialization of {@link KnxClient}
      *
+     * <p> The {@link #telegramPlugin} must be registered to the {@link KnxClient}
+     * as it is used to forward the incoming telegrams to the server.
+     *
      * @return the {@link KnxClient}
      */
     protected abstract KnxClient getKnxClient();
@@ -60,7 +96,7 @@ public abstract class AbstractServer implements Runnable, AutoCloseable {
      * Starts the KNX Link Server
      */
     public void start() {
-        executorService.submit(this);
+        submit("Server", this);
         // wait until running state is true (up to 10 sec)
         if (Sleeper.milliseconds(100, this::isRunning, 10000)) {
             LOG.info("Server started up: {}", this);
@@ -70,6 +106,26 @@ public abstract class AbstractServer implements Runnable, AutoCloseable {
         }
     }
 
+    /**
+     * Submits the long-running loop to the executor. The loop runs in a thread of its own,
+     * which is named after the loop while it is running.
+     *
+     * @param name the name of loop for the thread; may not be null
+     * @param loop the loop to be submitted; may not be null
+     */
+    private void submit(final String name, final Runnable loop) {
+        executorService.submit(() -> {
+            final var thread = Thread.currentThread();
+            final var previousName = thread.getName();
+            thread.setName("KnxLink-" + name);
+            try {
+                loop.run();
+            } finally {
+                thread.setName(previousName);
+            }
+        });
+    }
+
     /**
      * Stops and closes the KNX Link Server
      */
@@ -78,6 +134,114 @@ public abstract class AbstractServer implements Runnable, AutoCloseable {
         Closeables.shutdownQuietly(executorService);
     }
 
+    /**
+     * Reloads the KNX Link Server with the new {@link Config}.
+     *
+     * <p> The security auditor (allowed addresses, rate limits, access rules), the watermarks,
+     * the connection limits and timeouts of requests and connections are applied immediately.
+     * The rate limits that clients have used up are carried over to the new security auditor.
+     * The connection to the KNX Net/IP device is re-established only if the KNX settings have
+     * been changed. Other settings (e.g. ports, paths) are applied after a restart only.
+     *
+     * <p> The reconnect doesn't hold the lock of server; the requests are still taken from the
+     * clients in the meantime, but the requests to the KNX Net/IP device are rejected with
+     * {@link Status#ERROR_BUSY} until the new {@link KnxClient} is swapped in. If the new
+     * {@link KnxClient} could not connect, the server is stopped.
+     *
+     * @param newConfig the reloaded configuration; may not be null
+     */
+    public void reload(final Config newConfig) {
+        Objects.requireNonNull(newConfig);
+        synchronized (reloadLock) {
+            final KnxClient previousKnxClient;
+            final SocketWorker worker;
+            synchronized (this) {
+                newConfig.getSecurityAuditor().inheritRateLimits(config.getSecurityAuditor());
+                this.config = newConfig;
+                if (socketListener == null || socketWorker == null) {
+                    LOG.debug("Server is not running yet, config will be applied on start");
+                    return;
+                }
+
+                socketListener.reconfigure(newConfig);
+                socketWorker.reconfigure(newConfig.getServerBusyInflightWatermark(), newConfig.getSecurityAuditor());
+                if (newConfig.hasSameKnxSettings(knxClientConfig)) {
+                    LOG.info("Server reloaded");
+                    return;
+                }
+                previousKnxClient = knxClient;
+                worker = socketWorker;
+                reconnecting = true;
+                worker.setReconnecting(true);
+            }
+
+            LOG.info("KNX settings have been changed, reconnect to the KNX Net/IP device");
+            try {
+                // close the previous KNX client first, as the new one may use the same local ports
+                Closeables.closeQuietly(previousKnxClient);
+                final var newKnxClient = getKnxClient();
+                synchronized (this) {
+                    if (socketWorker == worker) {
+                        knxClientConfig = newConfig;
+                        knxClient = newKnxClient;
+                        worker.setKnxClient(newKnxClient);
+                    } else {
+                        // server has been stopped in the meantime
+                        Closeables.closeQuietly(newKnxClient);
+                    }
+                }
+                LOG.info("Server reloaded");
+            } catch (final Exception e) {
+                LOG.error("Could not connect to the KNX Net/IP device with reloaded config, server will be stopped", e);
+                close();
+            } finally {
+                worker.setReconnecting(false);
+                reconnecting = false;
+            }
+        }
+    }
+
+    /**
+     * Connects to the KNX Net/IP device with the current {@link Config}
+     */
+    private void connectKnxClient() {
+        final var currentConfig = config;
+        final var newKnxClient = getKnxClient();
+        synchronized (this) {
+            knxClientConfig = currentConfig;
+            knxClient = newKnxClient;
+        }
+    }
+
+    /**
+     * Indicates if the {@link KnxClient} is connected to the KNX Net/IP device. While the
+     * {@link KnxClient} is reconnecting due to a reload, it is considered as running.
+     *
+     * @return {@code true} if running, otherwise {@code false}
+     */
+    private boolean isKnxClientRunning() {
+        while (true) {
+            final var client = knxClient;
+            if ((client != null && client.isRunning()) || reconnecting) {
+                return true;
+            } else if (client == knxClient) {
+                return false;
+            }
+            // the KNX client has been replaced in the meantime, check the new one
+        }
+    }
+
+    /**
+     * Releases the resources of a client when its channel has been closed, either by
+     * the client, by an idle eviction or due to a failure
+     *
+     * @param channel the channel that has been closed; may not be null
+     */
+    private void onChannelClosed(final ClientChannel channel) {
+        subscriptionManager.unsubscribeAll(channel);
+        config.getSecurityAuditor().release(channel);
+    }
+
     /**
      * Indicates if the KNX Link Server is still running
      *
@@ -95,13 +259,44 @@ public abstract class AbstractServer implements Runnable, AutoCloseable {
         }
 
         LOG.trace("*** START ***");
-        try (final var knxClient = getKnxClient()) {
-            final var socketListener = new SocketListener(config);
-            executorService.submit(socketListener);
+        final var journal = openJournal();
+        final var valueTable = openValueTable();
+        final var valueCache = new ValueCache(valueTable);
+        telegramPlugin.addListener(valueCache);
+        try {
+            connectKnxClient();
+            final var socketListener = new SocketListener(config, this::onChannelClosed);
+            submit("SocketListener", socketListener);
+            if (config.getServerIpcPath() != null) {
+                submit("IpcListener", new IpcListener(config.getServerIpcPath(), config.getServerRequestTimeout(), socketListener::addPacket, this::onChannelClosed));
+            }
+            submit("EventDispatcher", subscriptionManager.getEventDispatcher());
+            registerMBean(subscriptionManager, "Subscriptions");
+            if (journal != null) {
+                submit("JournalCompactor", new JournalCompactor(journal,
+                        config.getServerJournalRetainedSegments(),
+                        config.getServerJournalDownsampleInterval(),
+                        config.getServerJournalCompactionRate()));
+            }
 
-            final var socketWorker = new SocketWorker(knxClient);
+            final var timeoutService = new TimeoutService(config.getServerAckTimeout());
+            submit("TimeoutService", timeoutService);
+            registerMBean(timeoutService, "Timeouts");
 
-            while (!Thread.currentThread().isInterrupted() && knxClient.isRunning()) {
+            final var concurrencyLimiter = new ConcurrencyLimiter(config.getServerLimiterMax());
+            registerMBean(concurrencyLimiter, "Limiter");
+
+            final var circuitBreaker = new CircuitBreaker(config.getServerBreakerThreshold(), config.getServerBreakerOpenDuration());
+            registerMBean(circuitBreaker, "CircuitBreaker");
+
+            final var socketWorker = new SocketWorker(knxClient, timeoutService, concurrencyLimiter, circuitBreaker, config.getServerBusyInflightWatermark(), config.getSecurityAuditor(), responseCorrelator, subscriptionManager, changeWaiter, valueCache, journal);
+            registerMBean(socketWorker, "Worker");
+            synchronized (this) {
+                this.socketListener = socketListener;
+                this.socketWorker = socketWorker;
+            }
+
+            while (!Thread.currentThread().isInterrupted() && isKnxClientRunning()) {
                 final var packet = socketListener.nextPacket();
                 try {
                     socketWorker.execute(packet);
@@ -116,9 +311,131 @@ public abstract class AbstractServer implements Runnable, AutoCloseable {
         } catch (final Exception e) {
             LOG.error("An other exception occurred", e);
         } finally {
+            synchronized (this) {
+                Closeables.closeQuietly(knxClient);
+                socketListener = null;
+                socketWorker = null;
+            }
+            if (journal != null) {
+                telegramPlugin.removeListener(journal);
+                Closeables.closeQuietly(journal);
+            }
+            telegramPlugin.removeListener(valueCache);
+            Closeables.closeQuietly(valueTable);
+            unregisterMBean("Subscriptions");
+            unregisterMBean("Worker");
+            unregisterMBean("Timeouts");
+            unregisterMBean("Limiter");
+            unregisterMBean("CircuitBreaker");
             Closeables.shutdownQuietly(executorService);
             running.set(false);
             LOG.trace("*** END ***");
         }
     }
+
+    /**
+     * Opens the {@link Journal} and registers it for incoming telegrams
+     * if enabled by {@link Config#getServerJournalPath()}
+     *
+     * @return the journal, or {@code null} if disabled or it could not be opened
+     */
+    @Nullable
+    private Journal openJournal() {
+        final var journalPath = config.getServerJournalPath();
+        if (journalPath == null) {
+            return null;
+        }
+
+        try {
+            final var journal = Journal.open(journalPath, config.getServerJournalSegmentSize());
+            telegramPlugin.addListener(journal);
+            return journal;
+        } catch (final IOException e) {
+            LOG.error("Could not open the journal at: {}", journalPath, e);
+            return null;
+        }
+    }
+
+    /**
+     * Opens the {@link ValueTable}. If enabled by {@link Config#getServerSnapshotPath()} the
+     * table is placed in the snapshot file and the values are restored from it; the file of
+     * {@link Config#getServerStateTablePath()} is then a symbolic link to the snapshot file.
+     * Otherwise the table is placed in the file of {@link Config#getServerStateTablePath()}
+     * if enabled, or held in off-heap memory.
+     *
+     * @return the value table
+     */
+    private ValueTable openValueTable() {
+        final var snapshotPath = config.getServerSnapshotPath();
+        final var stateTablePath = config.getServerStateTablePath();
+        if (snapshotPath != null) {
+            try {
+                final var table = ValueTable.restore(snapshotPath);
+                if (stateTablePath != null) {
+                    linkStateTable(stateTablePath, snapshotPath);
+                }
+                return table;
+            } catch (final IOException e) {
+                LOG.error("Could not open the snapshot at: {}", snapshotPath, e);
+            }
+        }
+        if (stateTablePath != null) {
+            try {
+                return ValueTable.open(stateTablePath);
+            } catch (final IOException e) {
+                LOG.error("Could not open the state table at: {}", stateTablePath, e);
+            }
+        }
+        return new ValueTable();
+    }
+
+    /**
+     * Replaces the state table file by a symbolic link to the snapshot file,
+     * which holds the table when the values are persisted
+     *
+     * @param stateTablePath the path of state table file
+     * @param snapshotPath   the path of snapshot file
+     */
+    private static void linkStateTable(final Path stateTablePath, final Path snapshotPath) {
+        try {
+            if (stateTablePath.getParent() != null) {
+                Files.createDirectories(stateTablePath.getParent());
+            }
+            Files.deleteIfExists(stateTablePath);
+            Files.createSymbolicLink(stateTablePath, snapshotPath.toAbsolutePath());
+        } catch (final IOException | UnsupportedOperationException e) {
+            LOG.error("Could not link the state table at '{}' to the snapshot: {}", stateTablePath, snapshotPath, e);
+        }
+    }
+
+    /**
+     * Registers the MXBean at the platform MBean server to export the metrics via JMX
+     *
+     * @param mbean the MXBean to be registered; may not be null
+     * @param type  the type of MXBean that is used in the object name
+     */
+    private void registerMBean(final Object mbean, final String type) {
+        try {
+            ManagementFactory.getPlatformMBeanServer().registerMBean(mbean, createObjectName(type));
+        } catch (final JMException e) {
+            LOG.warn("Could not register the MXBean for: {}", type, e);
+        }
+    }
+
+    /**
+     * Un-registers the MXBean from the platform MBean server
+     *
+     * @param type the type of MXBean that is used in the object name
+     */
+    private void unregisterMBean(final String type) {
+        try {
+            ManagementFactory.getPlatformMBeanServer().unregisterMBean(createObjectName(type));
+        } catch (final JMException e) {
+            LOG.debug("Could not un-register the MXBean for: {}", type, e);
+        }
+    }
+
+    private static ObjectName createObjectName(final String type) throws MalformedObjectNameException {
+        return new ObjectName("li.pitschmann.knx.link:type=" + type);
+    }
 }
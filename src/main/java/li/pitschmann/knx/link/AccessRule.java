@@ -0,0 +1,134 @@
+/*
+ * Copyright (C) 2021 Pitschmann Christoph
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package li.pitschmann.knx.link;
+
+import li.pitschmann.knx.core.address.GroupAddress;
+import li.pitschmann.knx.core.utils.Preconditions;
+import li.pitschmann.knx.core.utils.Strings;
+
+import java.net.InetAddress;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Access rule that defines the group addresses which may be read and written
+ * by clients from a set of IP addresses or networks.
+ *
+ * <p> The readable and writable group addresses are compiled into bitsets with a bit
+ * per group address (65536 bits each), so the authorization of a request is a single
+ * bit test (or a single scan for a range of group addresses).
+ */
+public final class AccessRule {
+    private static final int GROUP_ADDRESS_COUNT = 65536;
+    private final String name;
+    private final List<String> clients;
+    private final List<String> readable;
+    private final List<String> writable;
+    private final AddressTrie clientTrie = new AddressTrie();
+    private final BitSet readableBits = new BitSet(GROUP_ADDRESS_COUNT);
+    private final BitSet writableBits = new BitSet(GROUP_ADDRESS_COUNT);
+
+    /**
+     * Creates a new {@link AccessRule}
+     *
+     * @param name     the name of rule; may not be null
+     * @param clients  the IP addresses or networks in CIDR notation the rule applies to; may not be null
+     * @param readable the group addresses or group address ranges (e.g. {@code 1/0/0-1/7/255})
+     *                 which may be read; may not be null
+     * @param writable the group addresses or group address ranges which may be written; may not be null
+     */
+    public AccessRule(final String name,
+                      final Collection<String> clients,
+                      final Collection<String> readable,
+                      final Collection<String> writable) {
+        this.name = Objects.requireNonNull(name);
+        this.clients = List.copyOf(clients);
+        this.readable = List.copyOf(readable);
+        this.writable = List.copyOf(writable);
+        this.clients.forEach(clientTrie::add);
+        this.readable.forEach(range -> setRange(readableBits, range));
+        this.writable.forEach(range -> setRange(writableBits, range));
+    }
+
+    /**
+     * Sets the bits of group address range (e.g. {@code 1/0/0-1/7/255}) or
+     * of a single group address (e.g. {@code 1/2/3})
+     *
+     * @param bits  the bitset to be set
+     * @param range the group address range or group address
+     */
+    private static void setRange(final BitSet bits, final String range) {
+        final var separatorIndex = range.indexOf('-');
+        final var first = GroupAddress.of(separatorIndex < 0 ? range : range.substring(0, separatorIndex).trim()).getAddressAsInt();
+        final var last = separatorIndex < 0 ? first : GroupAddress.of(range.substring(separatorIndex + 1).trim()).getAddressAsInt();
+        Preconditions.checkArgument(first <= last, "Group address range must be ascending: {}", range);
+        bits.set(first, last + 1);
+    }
+
+    /**
+     * Returns the name of rule
+     *
+     * @return name of rule
+     */
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * Checks if the rule applies to the IP address
+     *
+     * @param address the IP address of client; may not be null
+     * @return {@code true} if the rule applies, otherwise {@code false}
+     */
+    boolean appliesTo(final InetAddress address) {
+        return clientTrie.contains(address);
+    }
+
+    /**
+     * Checks if all group addresses of range may be read
+     *
+     * @param first the first group address of range as integer
+     * @param last  the last group address of range as integer (inclusive)
+     * @return {@code true} if readable, otherwise {@code false}
+     */
+    boolean isReadable(final int first, final int last) {
+        return readableBits.nextClearBit(first) > last;
+    }
+
+    /**
+     * Checks if the group address may be written
+     *
+     * @param address the group address as integer
+     * @return {@code true} if writable, otherwise {@code false}
+     */
+    boolean isWritable(final int address) {
+        return writableBits.get(address);
+    }
+
+    @Override
+    public String toString() {
+        return Strings.toStringHelper(this)
+                .add("name", name)
+                .add("clients", clients)
+                .add("readable", readable)
+                .add("writable", writable)
+                .toString();
+    }
+}
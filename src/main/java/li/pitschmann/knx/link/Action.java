@@ -43,6 +43,47 @@ public enum Action {
      * WRITE Response. Here we will send a WRITE Response to the KNX Link Client
      */
     WRITE_RESPONSE(0x03),
+    /**
+     * SUBSCRIBE Request. Here the KNX Link Client wants to get notified about value changes of group address.
+     * See: {@link li.pitschmann.knx.link.protocol.SubscribeRequestBody}
+     */
+    SUBSCRIBE_REQUEST(0x04),
+    /**
+     * SUBSCRIBE Response. Here we will send a SUBSCRIBE Response to the KNX Link Client
+     */
+    SUBSCRIBE_RESPONSE(0x05),
+    /**
+     * UNSUBSCRIBE Request. Here the KNX Link Client doesn't want to get notified anymore.
+     * See: {@link li.pitschmann.knx.link.protocol.UnsubscribeRequestBody}
+     */
+    UNSUBSCRIBE_REQUEST(0x06),
+    /**
+     * UNSUBSCRIBE Response. Here we will send an UNSUBSCRIBE Response to the KNX Link Client
+     */
+    UNSUBSCRIBE_RESPONSE(0x07),
+    /**
+     * EVENT. Here we will push the new value of a subscribed group address to the KNX Link Client.
+     * See: {@link li.pitschmann.knx.link.protocol.EventBody}
+     */
+    EVENT(0x08),
+    /**
+     * WAIT Request. Here the KNX Link Client waits for the next value change of group address.
+     * See: {@link li.pitschmann.knx.link.protocol.WaitRequestBody}
+     */
+    WAIT_REQUEST(0x09),
+    /**
+     * WAIT Response. Here we will send the new value of group address, or a timeout, to the KNX Link Client
+     */
+    WAIT_RESPONSE(0x0A),
+    /**
+     * HISTORY Request. Here the KNX Link Client requests the values of group address within a time range.
+     * See: {@link li.pitschmann.knx.link.protocol.HistoryRequestBody}
+     */
+    HISTORY_REQUEST(0x0B),
+    /**
+     * HISTORY Response. Here we will stream the values of group address to the KNX Link Client
+     */
+    HISTORY_RESPONSE(0x0C),
     /**
      * General Message that should be sent to the KNX Link Client
      */
@@ -61,6 +102,30 @@ public enum Action {
                 .orElseThrow(() -> new KnxEnumNotFoundException(Action.class, code));
     }
 
+    /**
+     * Returns the action of response that is sent back for this request action
+     *
+     * @return the response action, or {@link #GENERAL_MESSAGE} if this action is not a request
+     */
+    public Action getResponseAction() {
+        switch (this) {
+            case READ_REQUEST:
+                return READ_RESPONSE;
+            case WRITE_REQUEST:
+                return WRITE_RESPONSE;
+            case SUBSCRIBE_REQUEST:
+                return SUBSCRIBE_RESPONSE;
+            case UNSUBSCRIBE_REQUEST:
+                return UNSUBSCRIBE_RESPONSE;
+            case WAIT_REQUEST:
+                return WAIT_RESPONSE;
+            case HISTORY_REQUEST:
+                return HISTORY_RESPONSE;
+            default:
+                return GENERAL_MESSAGE;
+        }
+    }
+
     public byte getByte() {
         return (byte) (code % 0xFF);
     }
@@ -0,0 +1,109 @@
+/*
+ * Copyright (C) 2021 Pitschmann Christoph
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package li.pitschmann.knx.link;
+
+import li.pitschmann.knx.core.utils.Preconditions;
+
+import java.net.Inet4Address;
+import java.net.InetAddress;
+import java.net.UnknownHostException;
+import java.util.regex.Pattern;
+
+/**
+ * Binary prefix trie of IPv4 and IPv6 networks (e.g. {@code 192.168.1.0/24}, {@code fd00::/8}).
+ *
+ * <p> Each level of trie represents a bit of address; a network is marked at the level of its
+ * prefix length. The lookup walks the bits of address bytes and stops at the first marked
+ * network, so it takes at most 32 steps for IPv4 and 128 steps for IPv6 addresses,
+ * regardless of the number of networks.
+ */
+final class AddressTrie {
+    private static final Pattern IPV4_PATTERN = Pattern.compile("\\d{1,3}(\\.\\d{1,3}){3}");
+    private final Node ipv4Root = new Node();
+    private final Node ipv6Root = new Node();
+
+    /**
+     * Adds a network in CIDR notation (e.g. {@code 10.0.0.0/8}) or a single IP address
+     * (e.g. {@code 192.168.1.4}, {@code ::1}) to the trie
+     *
+     * @param network the network or IP address; must be an IP literal, host names are not resolved
+     * @throws IllegalArgumentException if the network is not valid
+     */
+    void add(final String network) {
+        final var slashIndex = network.indexOf('/');
+        final var address = toInetAddress(slashIndex < 0 ? network : network.substring(0, slashIndex));
+        final var bytes = address.getAddress();
+        final var prefixLength = slashIndex < 0 ? bytes.length * 8 : Integer.parseInt(network.substring(slashIndex + 1));
+        Preconditions.checkArgument(prefixLength >= 0 && prefixLength <= bytes.length * 8,
+                "Prefix length is not valid for network: {}", network);
+
+        var node = address instanceof Inet4Address ? ipv4Root : ipv6Root;
+        for (var i = 0; i < prefixLength; i++) {
+            final var bit = bitAt(bytes, i);
+            if (node.children[bit] == null) {
+                node.children[bit] = new Node();
+            }
+            node = node.children[bit];
+        }
+        node.network = true;
+    }
+
+    /**
+     * Checks if the IP address is part of any network of trie
+     *
+     * @param address the IP address to be checked; may not be null
+     * @return {@code true} if the IP address is part of a network, otherwise {@code false}
+     */
+    boolean contains(final InetAddress address) {
+        final var bytes = address.getAddress();
+        var node = address instanceof Inet4Address ? ipv4Root : ipv6Root;
+        for (var i = 0; !node.network; i++) {
+            if (i == bytes.length * 8) {
+                return false;
+            }
+            node = node.children[bitAt(bytes, i)];
+            if (node == null) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static int bitAt(final byte[] bytes, final int index) {
+        return (bytes[index >>> 3] >>> (7 - (index & 0x07))) & 0x01;
+    }
+
+    private static InetAddress toInetAddress(final String address) {
+        // only IP literals are accepted, otherwise the address would be resolved via DNS
+        Preconditions.checkArgument(address.indexOf(':') >= 0 || IPV4_PATTERN.matcher(address).matches(),
+                "IP address expected: {}", address);
+        try {
+            return InetAddress.getByName(address);
+        } catch (final UnknownHostException e) {
+            throw new IllegalArgumentException("IP address is not valid: " + address, e);
+        }
+    }
+
+    /**
+     * Node of trie, one per bit of address
+     */
+    private static final class Node {
+        private final Node[] children = new Node[2];
+        private boolean network;
+    }
+}
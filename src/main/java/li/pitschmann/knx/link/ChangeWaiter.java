@@ -0,0 +1,96 @@
+/*
+ * Copyright (C) 2021 Pitschmann Christoph
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package li.pitschmann.knx.link;
+
+import li.pitschmann.knx.core.address.GroupAddress;
+import li.pitschmann.knx.core.cemi.APCI;
+import li.pitschmann.knx.core.cemi.CEMI;
+import li.pitschmann.knx.core.communication.KnxStatusData;
+import li.pitschmann.knx.core.utils.Preconditions;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Parks the clients that wait for the next value change of a {@link GroupAddress}.
+ *
+ * <p> Every group address has a wait list of futures; no thread is blocked for a
+ * waiting client. The wait list is released as soon a {@link APCI#GROUP_VALUE_WRITE}
+ * or {@link APCI#GROUP_VALUE_RESPONSE} telegram for the group address arrives, or
+ * the future of a single waiter is completed exceptionally when its timeout expires.
+ */
+public final class ChangeWaiter implements TelegramListener {
+    private static final Logger LOG = LoggerFactory.getLogger(ChangeWaiter.class);
+    private final Map<GroupAddress, List<CompletableFuture<KnxStatusData>>> waitLists = new ConcurrentHashMap<>();
+
+    /**
+     * Registers a waiter for the next value change of {@link GroupAddress}
+     *
+     * @param groupAddress the group address to wait for; may not be null
+     * @param timeout      the time in milliseconds to wait for the value change; must be positive
+     * @return future that is completed with the {@link KnxStatusData} of the next telegram,
+     * or completed exceptionally with {@link java.util.concurrent.TimeoutException}
+     */
+    public CompletableFuture<KnxStatusData> await(final GroupAddress groupAddress, final long timeout) {
+        Preconditions.checkArgument(timeout > 0, "Timeout must be positive: {}", timeout);
+
+        final var future = new CompletableFuture<KnxStatusData>();
+        waitLists.compute(groupAddress, (ga, list) -> {
+            final var waitList = list == null ? new ArrayList<CompletableFuture<KnxStatusData>>() : list;
+            waitList.add(future);
+            return waitList;
+        });
+        future.orTimeout(timeout, TimeUnit.MILLISECONDS)
+                .whenComplete((data, throwable) -> waitLists.computeIfPresent(groupAddress, (ga, list) -> {
+                    list.remove(future);
+                    return list.isEmpty() ? null : list;
+                }));
+        return future;
+    }
+
+    /**
+     * Returns the number of clients that are waiting for a value change
+     *
+     * @return number of waiters
+     */
+    public int getWaitingCount() {
+        return waitLists.values().stream().mapToInt(List::size).sum();
+    }
+
+    @Override
+    public void onTelegram(final CEMI cemi) {
+        if (cemi.getAPCI() != APCI.GROUP_VALUE_WRITE && cemi.getAPCI() != APCI.GROUP_VALUE_RESPONSE) {
+            return;
+        }
+
+        final var waitList = waitLists.remove(cemi.getDestinationAddress());
+        if (waitList != null) {
+            LOG.debug("Value change for group address '{}' released {} waiter(s)", cemi.getDestinationAddress(), waitList.size());
+            final var data = new KnxStatusData(cemi);
+            for (final var future : waitList) {
+                future.complete(data);
+            }
+        }
+    }
+}
@@ -17,40 +17,52 @@
 
 package li.pitschmann.knx.link;
 
+import li.pitschmann.knx.core.exceptions.KnxEnumNotFoundException;
 import li.pitschmann.knx.core.utils.ByteFormatter;
 import li.pitschmann.knx.core.utils.Strings;
 
-import java.nio.channels.SocketChannel;
 import java.util.Objects;
+import java.util.concurrent.TimeUnit;
 
 /**
  * Immutable implementation of bytes arrived from a channel
  *
  * <p> We keep the channel which allows us to respond something back to the channel
  *
+ * <p> The packet may have a timeout: if the packet has not been executed within the
+ * timeout after it has been received, the client is not expected to wait for the
+ * response anymore and the packet is considered as expired.
+ *
  * @author PITSCHR
  */
 public final class ChannelPacket {
 
-    private final SocketChannel channel;
+    private final ClientChannel channel;
     private final byte[] bytes;
+    private final long receivedTime = System.nanoTime();
+    private final long timeout;
+
+    ChannelPacket(final ClientChannel channel, final byte[] bytes) {
+        this(channel, bytes, 0);
+    }
 
-    ChannelPacket(final SocketChannel channel, final byte[] bytes) {
+    ChannelPacket(final ClientChannel channel, final byte[] bytes, final long timeout) {
         this.channel = Objects.requireNonNull(channel);
         this.bytes = bytes.clone();
+        this.timeout = TimeUnit.MILLISECONDS.toNanos(timeout);
     }
 
     /**
      * The source channel where we got the byte array packet
      *
-     * @return the {@link SocketChannel}
+     * @return the {@link ClientChannel}
      */
-    public SocketChannel getChannel() {
+    public ClientChannel getChannel() {
         return channel;
     }
 
     /**
-     * Byte array that were arrived at the {@link SocketChannel}
+     * Byte array that were arrived at the {@link ClientChannel}
      *
      * @return byte array, defensively copied
      */
@@ -58,6 +70,33 @@ public final class ChannelPacket {
         return bytes.clone();
     }
 
+    /**
+     * Returns the action of response for the request in this packet. The packet is
+     * rejected with this action when it is not executed.
+     *
+     * @return the response action, or {@link Action#GENERAL_MESSAGE} if the request
+     * action is missing or unknown
+     */
+    public Action getResponseAction() {
+        if (bytes.length > 1) {
+            try {
+                return Action.of(Byte.toUnsignedInt(bytes[1])).getResponseAction();
+            } catch (final KnxEnumNotFoundException e) {
+                // unknown action, the packet is rejected anyway
+            }
+        }
+        return Action.GENERAL_MESSAGE;
+    }
+
+    /**
+     * Indicates if the packet has not been executed within the timeout after it has been received
+     *
+     * @return {@code true} if expired, {@code false} if not expired or the packet has no timeout
+     */
+    public boolean isExpired() {
+        return timeout > 0 && System.nanoTime() - receivedTime > timeout;
+    }
+
     @Override
     public String toString() {
         return Strings.toStringHelper(this)
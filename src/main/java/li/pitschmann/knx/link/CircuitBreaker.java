@@ -0,0 +1,166 @@
+/*
+ * Copyright (C) 2021 Pitschmann Christoph
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package li.pitschmann.knx.link;
+
+import li.pitschmann.knx.core.utils.Preconditions;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Circuit breaker for the read and write requests sent to the KNX client.
+ *
+ * <p> The circuit breaker opens after a number of consecutive requests that have not been
+ * acknowledged (e.g. {@code false} completion or timeout) by the KNX Net/IP device. While open,
+ * the requests are rejected immediately. When the open duration has elapsed, the circuit breaker
+ * becomes half-open and permits a single request as probe: if the probe is acknowledged the circuit
+ * breaker closes again, otherwise it opens for another period.
+ */
+public final class CircuitBreaker implements CircuitBreakerMXBean {
+    private static final Logger LOG = LoggerFactory.getLogger(CircuitBreaker.class);
+    private final int threshold;
+    private final long openDuration;
+    private State state = State.CLOSED;
+    private int consecutiveFailures;
+    private long stateTime;
+    private long openCount;
+    private long rejectedCount;
+
+    /**
+     * Creates a new {@link CircuitBreaker}
+     *
+     * @param threshold    the number of consecutive failed requests to open the circuit breaker;
+     *                     {@code 0} to disable the circuit breaker
+     * @param openDuration the time in milliseconds the circuit breaker stays open; must be positive
+     */
+    public CircuitBreaker(final int threshold, final long openDuration) {
+        Preconditions.checkArgument(threshold >= 0, "Threshold must not be negative: {}", threshold);
+        Preconditions.checkArgument(openDuration > 0, "Open duration must be positive: {}", openDuration);
+        this.threshold = threshold;
+        this.openDuration = TimeUnit.MILLISECONDS.toNanos(openDuration);
+    }
+
+    /**
+     * Checks if a request may be sent to the KNX client. If permitted, the future of request
+     * must be passed to {@link #track(CompletableFuture)} to record the outcome of request.
+     *
+     * @return {@code true} if the request is permitted, {@code false} if the circuit breaker is open
+     */
+    public synchronized boolean tryAcquire() {
+        if (threshold == 0 || state == State.CLOSED) {
+            return true;
+        }
+
+        // a single probe per open duration; the probe may have been lost, e.g. rejected by the limiter
+        if (System.nanoTime() - stateTime < openDuration) {
+            rejectedCount++;
+            return false;
+        }
+        if (state == State.OPEN) {
+            transition(State.HALF_OPEN);
+        }
+        stateTime = System.nanoTime();
+        return true;
+    }
+
+    /**
+     * Tracks the future of a request that has been permitted by {@link #tryAcquire()}.
+     * The outcome of request is recorded as soon the future is completed.
+     *
+     * @param future the future of request; may not be null
+     * @return a new future that is completed after the outcome has been recorded
+     */
+    public CompletableFuture<Boolean> track(final CompletableFuture<Boolean> future) {
+        return future.whenComplete((acknowledged, failure) -> record(failure == null && Boolean.TRUE.equals(acknowledged)));
+    }
+
+    /**
+     * Records the outcome of a request
+     *
+     * @param acknowledged {@code true} if the request has been acknowledged, otherwise {@code false}
+     */
+    synchronized void record(final boolean acknowledged) {
+        if (threshold == 0) {
+            return;
+        }
+
+        if (acknowledged) {
+            consecutiveFailures = 0;
+            if (state != State.CLOSED) {
+                transition(State.CLOSED);
+            }
+        } else {
+            consecutiveFailures++;
+            if (state == State.HALF_OPEN || (state == State.CLOSED && consecutiveFailures >= threshold)) {
+                openCount++;
+                transition(State.OPEN);
+            }
+        }
+    }
+
+    private void transition(final State newState) {
+        if (newState == State.OPEN) {
+            LOG.warn("Circuit breaker changed from {} to {} after {} consecutive failed requests",
+                    state, newState, consecutiveFailures);
+        } else {
+            LOG.info("Circuit breaker changed from {} to {}", state, newState);
+        }
+        state = newState;
+        stateTime = System.nanoTime();
+    }
+
+    @Override
+    public synchronized String getState() {
+        return state.name();
+    }
+
+    @Override
+    public synchronized int getConsecutiveFailures() {
+        return consecutiveFailures;
+    }
+
+    @Override
+    public synchronized long getOpenCount() {
+        return openCount;
+    }
+
+    @Override
+    public synchronized long getRejectedCount() {
+        return rejectedCount;
+    }
+
+    /**
+     * State of circuit breaker
+     */
+    public enum State {
+        /**
+         * Requests are sent to the KNX client
+         */
+        CLOSED,
+        /**
+         * Requests are rejected immediately
+         */
+        OPEN,
+        /**
+         * A single request is sent to the KNX client as probe
+         */
+        HALF_OPEN
+    }
+}
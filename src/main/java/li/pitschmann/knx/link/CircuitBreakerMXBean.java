@@ -0,0 +1,53 @@
+/*
+ * Copyright (C) 2021 Pitschmann Christoph
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package li.pitschmann.knx.link;
+
+/**
+ * Management interface of {@link CircuitBreaker} to export the
+ * state of circuit breaker via JMX
+ */
+public interface CircuitBreakerMXBean {
+
+    /**
+     * Returns the current state of circuit breaker (see {@link CircuitBreaker.State})
+     *
+     * @return name of state
+     */
+    String getState();
+
+    /**
+     * Returns the number of consecutive requests that have not been acknowledged
+     *
+     * @return number of consecutive failed requests
+     */
+    int getConsecutiveFailures();
+
+    /**
+     * Returns how many times the circuit breaker has been opened
+     *
+     * @return number of times opened
+     */
+    long getOpenCount();
+
+    /**
+     * Returns the total number of requests that have been rejected by the open circuit breaker
+     *
+     * @return number of rejected requests
+     */
+    long getRejectedCount();
+}
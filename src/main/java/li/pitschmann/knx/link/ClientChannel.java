@@ -0,0 +1,83 @@
+/*
+ * Copyright (C) 2021 Pitschmann Christoph
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package li.pitschmann.knx.link;
+
+import java.net.SocketAddress;
+import java.util.Iterator;
+
+/**
+ * Channel to a connected client, regardless of the transport (TCP, Unix domain socket,
+ * shared memory or datagram).
+ *
+ * <p> All packets to a client are written through its channel, which serializes them:
+ * a packet is written completely before the next packet is started, no matter which
+ * thread (worker, KNX callback, event dispatcher or listener) has sent it. Sending a
+ * packet never blocks; a packet that cannot be written immediately is queued and
+ * written when the transport is ready again.
+ */
+public interface ClientChannel extends AutoCloseable {
+
+    /**
+     * Returns the address of client
+     *
+     * @return the remote address (e.g. {@link java.net.InetSocketAddress} for network clients)
+     */
+    SocketAddress getRemoteAddress();
+
+    /**
+     * Indicates if the client is still connected
+     *
+     * @return {@code true} if connected, otherwise {@code false}
+     */
+    boolean isConnected();
+
+    /**
+     * Sends the packet to the client. The packet is queued after the packets that have
+     * not been written yet. A client that doesn't read its packets is disconnected when
+     * too many packets are pending.
+     *
+     * @param packet the bytes of packet; may not be null and must not be modified afterwards
+     * @return {@code true} if the packet has been written or queued, {@code false} if the
+     * channel is closed
+     */
+    boolean send(byte[] packet);
+
+    /**
+     * Streams the packets to the client. The packets are taken from the iterator only
+     * when the transport is ready to write, so a large response doesn't pile up in the
+     * queue; the iterator is not pulled by the calling thread. Packets sent afterwards
+     * are written after the last packet of stream.
+     *
+     * @param packets the packets to be written; may not be null
+     */
+    void stream(Iterator<byte[]> packets);
+
+    /**
+     * Indicates if the channel can take more packets without queueing them, which is used
+     * to hold back the events of a slow subscriber in its event buffer
+     *
+     * @return {@code true} if writable, otherwise {@code false}
+     */
+    boolean isWritable();
+
+    /**
+     * Closes the channel and discards the pending packets
+     */
+    @Override
+    void close();
+}
@@ -0,0 +1,165 @@
+/*
+ * Copyright (C) 2021 Pitschmann Christoph
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package li.pitschmann.knx.link;
+
+import li.pitschmann.knx.core.utils.Preconditions;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Adaptive limiter for the read and write requests that are in-flight to the KNX client
+ * at the same time. The limit is tuned between {@code 1} and the maximum limit:
+ *
+ * <ul>
+ *     <li>Acknowledged requests are used as round-trip time samples. The limit follows the
+ *     gradient of the minimum and the smoothed round-trip time: it grows as long as the round-trip
+ *     time stays within {@link #RTT_TOLERANCE} times of the minimum round-trip time and shrinks
+ *     if the requests are getting slower because they are queued up.</li>
+ *     <li>Requests that are not acknowledged (e.g. {@code false} completion or timeout)
+ *     decrease the limit multiplicatively by {@link #FAILURE_BACKOFF}.</li>
+ * </ul>
+ *
+ * <p> The limiter is disabled when the maximum limit is {@code 0}; in this case every request
+ * is permitted but the round-trip time is still measured.
+ */
+public final class ConcurrencyLimiter implements ConcurrencyLimiterMXBean {
+    /**
+     * Limit at start, capped by the maximum limit
+     */
+    static final int INITIAL_LIMIT = 10;
+    /**
+     * Ratio of smoothed and minimum round-trip time that is tolerated before the limit is decreased
+     */
+    static final double RTT_TOLERANCE = 2.0;
+    /**
+     * Factor the limit is multiplied with when a request has not been acknowledged
+     */
+    static final double FAILURE_BACKOFF = 0.5;
+    private static final int MIN_LIMIT = 1;
+    private static final double MIN_GRADIENT = 0.5;
+    private static final double LIMIT_SMOOTHING = 0.2;
+    private static final double RTT_SMOOTHING = 0.1;
+    /**
+     * Number of samples after which the minimum round-trip time is renewed
+     * to follow a slower KNX Net/IP device or network
+     */
+    private static final int MIN_RTT_WINDOW = 1000;
+    private final int maxLimit;
+    private double limit;
+    private int inFlight;
+    private double smoothedRtt;
+    private long minRtt;
+    private long windowMinRtt = Long.MAX_VALUE;
+    private int windowSamples;
+
+    /**
+     * Creates a new {@link ConcurrencyLimiter}
+     *
+     * @param maxLimit the upper bound of limit; {@code 0} to disable the limiter
+     */
+    public ConcurrencyLimiter(final int maxLimit) {
+        Preconditions.checkArgument(maxLimit >= 0, "Maximum limit must not be negative: {}", maxLimit);
+        this.maxLimit = maxLimit;
+        this.limit = Math.min(INITIAL_LIMIT, maxLimit);
+    }
+
+    /**
+     * Tries to acquire a permit for a request. If acquired, the future of request
+     * must be passed to {@link #track(CompletableFuture)} to release the permit.
+     *
+     * @return {@code true} if the request is permitted, {@code false} if the limit has been reached
+     */
+    public synchronized boolean tryAcquire() {
+        if (maxLimit > 0 && inFlight >= (int) limit) {
+            return false;
+        }
+        inFlight++;
+        return true;
+    }
+
+    /**
+     * Tracks the future of a request that has been permitted by {@link #tryAcquire()}.
+     * The permit is released and the limit is updated as soon the future is completed.
+     *
+     * @param future the future of request; may not be null
+     * @return a new future that is completed after the limiter has been updated
+     */
+    public CompletableFuture<Boolean> track(final CompletableFuture<Boolean> future) {
+        final var startTime = System.nanoTime();
+        return future.whenComplete((acknowledged, failure) ->
+                release(System.nanoTime() - startTime, failure == null && Boolean.TRUE.equals(acknowledged)));
+    }
+
+    /**
+     * Releases a permit and updates the limit with the outcome of request
+     *
+     * @param rtt          the round-trip time of request in nanoseconds
+     * @param acknowledged {@code true} if the request has been acknowledged, otherwise {@code false}
+     */
+    synchronized void release(final long rtt, final boolean acknowledged) {
+        final var utilized = inFlight >= limit / 2;
+        inFlight--;
+
+        if (!acknowledged) {
+            if (maxLimit > 0) {
+                limit = Math.max(MIN_LIMIT, limit * FAILURE_BACKOFF);
+            }
+            return;
+        }
+
+        updateRtt(rtt);
+        if (maxLimit > 0) {
+            final var gradient = Math.max(MIN_GRADIENT, Math.min(1.0, RTT_TOLERANCE * minRtt / smoothedRtt));
+            // don't grow the limit if it wasn't utilized, otherwise it grows without any evidence
+            final var newLimit = limit * gradient + (utilized ? Math.sqrt(limit) : 0);
+            limit = Math.max(MIN_LIMIT, Math.min(maxLimit, limit * (1 - LIMIT_SMOOTHING) + newLimit * LIMIT_SMOOTHING));
+        }
+    }
+
+    private void updateRtt(final long rtt) {
+        smoothedRtt = smoothedRtt == 0 ? rtt : smoothedRtt * (1 - RTT_SMOOTHING) + rtt * RTT_SMOOTHING;
+        minRtt = minRtt == 0 ? rtt : Math.min(minRtt, rtt);
+        windowMinRtt = Math.min(windowMinRtt, rtt);
+        if (++windowSamples >= MIN_RTT_WINDOW) {
+            minRtt = windowMinRtt;
+            windowMinRtt = Long.MAX_VALUE;
+            windowSamples = 0;
+        }
+    }
+
+    @Override
+    public synchronized int getLimit() {
+        return (int) limit;
+    }
+
+    @Override
+    public synchronized int getInFlightCount() {
+        return inFlight;
+    }
+
+    @Override
+    public synchronized double getRttMillis() {
+        return smoothedRtt / TimeUnit.MILLISECONDS.toNanos(1);
+    }
+
+    @Override
+    public synchronized double getMinRttMillis() {
+        return (double) minRtt / TimeUnit.MILLISECONDS.toNanos(1);
+    }
+}
@@ -0,0 +1,53 @@
+/*
+ * Copyright (C) 2021 Pitschmann Christoph
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package li.pitschmann.knx.link;
+
+/**
+ * Management interface of {@link ConcurrencyLimiter} to export the
+ * adaptive limit and the round-trip time of KNX requests via JMX
+ */
+public interface ConcurrencyLimiterMXBean {
+
+    /**
+     * Returns the current number of KNX requests that may be in-flight at the same time
+     *
+     * @return current limit, {@code 0} if the limiter is disabled
+     */
+    int getLimit();
+
+    /**
+     * Returns the number of KNX requests that have been permitted and are not completed yet
+     *
+     * @return number of in-flight requests
+     */
+    int getInFlightCount();
+
+    /**
+     * Returns the smoothed round-trip time of acknowledged KNX requests
+     *
+     * @return round-trip time in milliseconds
+     */
+    double getRttMillis();
+
+    /**
+     * Returns the minimum round-trip time of acknowledged KNX requests
+     *
+     * @return minimum round-trip time in milliseconds
+     */
+    double getMinRttMillis();
+}
@@ -0,0 +1,105 @@
+/*
+ * Copyright (C) 2021 Pitschmann Christoph
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package li.pitschmann.knx.link;
+
+import li.pitschmann.knx.core.utils.Strings;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.net.SocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.DatagramChannel;
+import java.util.Iterator;
+import java.util.Objects;
+
+/**
+ * Channel of a datagram that has been received by the UDP {@link DatagramChannel}.
+ * The packet written to the channel is sent back as an acknowledge datagram to the
+ * source address of datagram if enabled, otherwise the packet is discarded.
+ *
+ * <p> Acknowledges are best-effort: a datagram that doesn't fit into the socket send
+ * buffer is dropped, as the datagram channel is shared by all clients.
+ */
+final class DatagramReplyChannel implements ClientChannel {
+    private static final Logger LOG = LoggerFactory.getLogger(DatagramReplyChannel.class);
+    private final DatagramChannel datagramChannel;
+    private final SocketAddress sourceAddress;
+    private final boolean ackEnabled;
+    private volatile boolean closed;
+
+    DatagramReplyChannel(final DatagramChannel datagramChannel, final SocketAddress sourceAddress, final boolean ackEnabled) {
+        this.datagramChannel = Objects.requireNonNull(datagramChannel);
+        this.sourceAddress = Objects.requireNonNull(sourceAddress);
+        this.ackEnabled = ackEnabled;
+    }
+
+    @Override
+    public boolean send(final byte[] packet) {
+        Objects.requireNonNull(packet);
+        if (!isConnected()) {
+            return false;
+        } else if (!ackEnabled) {
+            // fire-and-forget: the packet is discarded
+            return true;
+        }
+
+        try {
+            if (datagramChannel.send(ByteBuffer.wrap(packet), sourceAddress) == 0) {
+                LOG.debug("Socket send buffer is full, acknowledge dropped for: {}", sourceAddress);
+            }
+        } catch (final IOException e) {
+            LOG.debug("Could not send the acknowledge to: {}", sourceAddress, e);
+        }
+        return true;
+    }
+
+    @Override
+    public void stream(final Iterator<byte[]> packets) {
+        packets.forEachRemaining(this::send);
+    }
+
+    @Override
+    public boolean isWritable() {
+        return isConnected();
+    }
+
+    @Override
+    public boolean isConnected() {
+        return !closed && datagramChannel.isOpen();
+    }
+
+    @Override
+    public SocketAddress getRemoteAddress() {
+        return sourceAddress;
+    }
+
+    @Override
+    public void close() {
+        // the datagram channel is shared by all clients and is not closed
+        closed = true;
+    }
+
+    @Override
+    public String toString() {
+        return Strings.toStringHelper(this)
+                .add("sourceAddress", sourceAddress)
+                .add("ackEnabled", ackEnabled)
+                .toString();
+    }
+}
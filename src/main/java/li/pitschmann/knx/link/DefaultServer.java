@@ -62,6 +62,6 @@ public final class DefaultServer extends AbstractServer {
      * @return the {@link KnxClient}
      */
     protected KnxClient getKnxClient() {
-        return DefaultKnxClient.createStarted(config.getKnxClientConfig());
+        return DefaultKnxClient.createStarted(config.getKnxClientConfig(telegramPlugin));
     }
 }
@@ -0,0 +1,175 @@
+/*
+ * Copyright (C) 2021 Pitschmann Christoph
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package li.pitschmann.knx.link;
+
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Queue;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Blocking queue of {@link ChannelPacket} that is shared fairly between the clients
+ * by deficit round robin. Each client has its own queue of packets and the clients
+ * are visited in turn; per visit a client may dequeue as many packets as its weight.
+ * All packets have the same cost, as each request is executed as a single telegram.
+ *
+ * <p> Clients are identified by their IP address, so multiple connections and datagrams
+ * of the same host share a queue. Clients without IP address (e.g. Unix domain socket,
+ * shared-memory transport) are identified by their channel.
+ */
+final class FairQueue {
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition notEmpty = lock.newCondition();
+    private final Map<Object, Flow> flows = new HashMap<>();
+    private final Deque<Flow> activeFlows = new ArrayDeque<>();
+    private volatile Map<InetAddress, Integer> weights;
+    private int size;
+
+    /**
+     * Creates a new {@link FairQueue}
+     *
+     * @param weights the weights per IP address; clients not listed have a weight of {@code 1}
+     */
+    FairQueue(final Map<InetAddress, Integer> weights) {
+        this.weights = Map.copyOf(weights);
+    }
+
+    /**
+     * Replaces the weights per IP address. Clients with queued packets keep their
+     * previous weight until their queue has been drained.
+     *
+     * @param weights the weights per IP address; clients not listed have a weight of {@code 1}
+     */
+    void setWeights(final Map<InetAddress, Integer> weights) {
+        this.weights = Map.copyOf(weights);
+    }
+
+    /**
+     * Adds the {@link ChannelPacket} to the queue of its client
+     *
+     * @param packet the packet to be added; may not be null
+     */
+    void add(final ChannelPacket packet) {
+        final var key = clientKeyOf(packet.getChannel());
+        lock.lock();
+        try {
+            var flow = flows.get(key);
+            if (flow == null) {
+                flow = new Flow(key, weightOf(key));
+                flows.put(key, flow);
+                activeFlows.addLast(flow);
+            }
+            flow.packets.add(packet);
+            size++;
+            notEmpty.signal();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Returns the next {@link ChannelPacket} by deficit round robin. This method is
+     * blocking until the next {@link ChannelPacket} is available.
+     *
+     * @return the {@link ChannelPacket}
+     * @throws InterruptedException if the thread has been interrupted
+     */
+    ChannelPacket take() throws InterruptedException {
+        lock.lockInterruptibly();
+        try {
+            while (size == 0) {
+                notEmpty.await();
+            }
+            final var flow = activeFlows.getFirst();
+            if (flow.deficit == 0) {
+                flow.deficit = flow.weight;
+            }
+
+            final var packet = flow.packets.remove();
+            flow.deficit--;
+            size--;
+            if (flow.packets.isEmpty()) {
+                // idle clients don't keep their deficit
+                activeFlows.removeFirst();
+                flows.remove(flow.key);
+            } else if (flow.deficit == 0) {
+                activeFlows.addLast(activeFlows.removeFirst());
+            }
+            return packet;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Returns the total number of queued packets of all clients
+     *
+     * @return number of packets
+     */
+    int size() {
+        lock.lock();
+        try {
+            return size;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private int weightOf(final Object key) {
+        if (key instanceof InetAddress) {
+            return weights.getOrDefault((InetAddress) key, 1);
+        }
+        return 1;
+    }
+
+    /**
+     * Returns the key of client: the IP address for network clients, otherwise the channel itself
+     *
+     * @param channel the channel of packet
+     * @return the key of client
+     */
+    private static Object clientKeyOf(final ClientChannel channel) {
+        final var address = channel.getRemoteAddress();
+        if (address instanceof InetSocketAddress) {
+            // port is not relevant, all connections of client share the same queue
+            return ((InetSocketAddress) address).getAddress();
+        }
+        return Objects.requireNonNull(channel);
+    }
+
+    /**
+     * Queue and deficit of a single client
+     */
+    private static final class Flow {
+        private final Queue<ChannelPacket> packets = new ArrayDeque<>();
+        private final Object key;
+        private final int weight;
+        private int deficit;
+
+        private Flow(final Object key, final int weight) {
+            this.key = key;
+            this.weight = weight;
+        }
+    }
+}
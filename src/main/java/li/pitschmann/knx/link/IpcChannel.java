@@ -0,0 +1,113 @@
+/*
+ * Copyright (C) 2021 Pitschmann Christoph
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package li.pitschmann.knx.link;
+
+import li.pitschmann.knx.core.utils.Strings;
+import li.pitschmann.knx.link.ipc.IpcConnection;
+
+import java.net.SocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.file.Path;
+import java.util.Objects;
+import java.util.function.Consumer;
+
+/**
+ * Channel of a local client that is connected via {@link IpcConnection}. The packets
+ * are put into the response ring of connection; packets which don't fit into the ring
+ * are pending until {@link IpcListener} flushes them after the client has read the ring.
+ */
+final class IpcChannel extends AbstractClientChannel {
+    private final IpcConnection connection;
+    private final IpcAddress remoteAddress;
+    private volatile boolean flushRequested;
+
+    IpcChannel(final IpcConnection connection, final Consumer<ClientChannel> closeListener) {
+        super(closeListener);
+        this.connection = Objects.requireNonNull(connection);
+        this.remoteAddress = new IpcAddress(connection.getPath());
+    }
+
+    /**
+     * Returns the connection of channel
+     *
+     * @return the {@link IpcConnection}
+     */
+    IpcConnection getConnection() {
+        return connection;
+    }
+
+    /**
+     * Indicates if packets are pending and should be flushed
+     *
+     * @return {@code true} if packets are pending, otherwise {@code false}
+     */
+    boolean isFlushRequested() {
+        return flushRequested;
+    }
+
+    @Override
+    public SocketAddress getRemoteAddress() {
+        return remoteAddress;
+    }
+
+    @Override
+    protected boolean transfer(final ByteBuffer buffer) {
+        // the response ring is single-producer: the writes are serialized by the lock of channel
+        return connection.getResponseRing().offer(buffer);
+    }
+
+    @Override
+    protected void requestFlush(final boolean requested) {
+        flushRequested = requested;
+    }
+
+    @Override
+    protected boolean isTransportOpen() {
+        return !connection.isClosed();
+    }
+
+    @Override
+    protected void closeTransport() {
+        connection.close();
+    }
+
+    @Override
+    public String toString() {
+        return Strings.toStringHelper(this)
+                .add("path", connection.getPath())
+                .add("connected", isConnected())
+                .toString();
+    }
+
+    /**
+     * Address of client which is the path of connection file
+     */
+    private static final class IpcAddress extends SocketAddress {
+        private static final long serialVersionUID = 1L;
+        private final String path;
+
+        private IpcAddress(final Path path) {
+            this.path = path.toString();
+        }
+
+        @Override
+        public String toString() {
+            return "ipc:" + path;
+        }
+    }
+}
@@ -0,0 +1,206 @@
+/*
+ * Copyright (C) 2021 Pitschmann Christoph
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package li.pitschmann.knx.link;
+
+import li.pitschmann.knx.core.utils.Closeables;
+import li.pitschmann.knx.link.ipc.IpcConnection;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.PosixFilePermissions;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Consumer;
+
+/**
+ * Shared-memory listener for {@link AbstractServer}. Local clients connect by creating an
+ * {@link IpcConnection} file in the IPC directory; the listener polls the request rings
+ * of all connections and forwards the packets as a {@link ChannelPacket}, the responses
+ * are written to the response ring via {@link IpcChannel}. Responses which didn't fit
+ * into the response ring are flushed by the listener.
+ *
+ * <p> The listener spins for a short while when the rings are empty and parks afterwards;
+ * the park time is doubled on every idle round up to {@link #MAX_PARK_NANOS} and reset when
+ * a packet has been received. New connection files are looked up periodically. The access
+ * is controlled by the file permissions of IPC directory, which is created accessible for
+ * the owner only if it doesn't exist yet.
+ */
+public final class IpcListener implements Runnable {
+    private static final Logger LOG = LoggerFactory.getLogger(IpcListener.class);
+    private static final long SCAN_INTERVAL_NANOS = TimeUnit.MILLISECONDS.toNanos(100);
+    private static final long MIN_PARK_NANOS = TimeUnit.MICROSECONDS.toNanos(50);
+    private static final long MAX_PARK_NANOS = TimeUnit.MILLISECONDS.toNanos(2);
+    private static final int SPIN_LIMIT = 1000;
+    private static final int MAX_PACKETS_PER_POLL = 16;
+    private final Path directory;
+    private final long requestTimeout;
+    private final Consumer<ChannelPacket> consumer;
+    private final Consumer<ClientChannel> closeListener;
+    private final Map<Path, IpcChannel> channels = new HashMap<>();
+    private final Set<Path> invalidFiles = new HashSet<>();
+
+    IpcListener(final Path directory,
+                final long requestTimeout,
+                final Consumer<ChannelPacket> consumer,
+                final Consumer<ClientChannel> closeListener) {
+        this.directory = Objects.requireNonNull(directory);
+        this.requestTimeout = requestTimeout;
+        this.consumer = Objects.requireNonNull(consumer);
+        this.closeListener = Objects.requireNonNull(closeListener);
+    }
+
+    @Override
+    public void run() {
+        LOG.trace("*** START ***");
+        try {
+            createDirectory();
+            var nextScan = System.nanoTime();
+            var idleCount = 0;
+            var parkNanos = MIN_PARK_NANOS;
+            while (!Thread.interrupted()) {
+                if (System.nanoTime() - nextScan >= 0) {
+                    scan();
+                    nextScan = System.nanoTime() + SCAN_INTERVAL_NANOS;
+                }
+
+                if (poll()) {
+                    idleCount = 0;
+                    parkNanos = MIN_PARK_NANOS;
+                } else if (idleCount < SPIN_LIMIT) {
+                    idleCount++;
+                    Thread.onSpinWait();
+                } else {
+                    LockSupport.parkNanos(parkNanos);
+                    parkNanos = Math.min(parkNanos * 2, MAX_PARK_NANOS);
+                }
+            }
+        } catch (final IOException ioe) {
+            LOG.error("I/O Exception", ioe);
+        } finally {
+            // tell the clients that server is gone
+            channels.values().forEach(Closeables::closeQuietly);
+            channels.clear();
+            LOG.trace("*** END ***");
+        }
+    }
+
+    private void createDirectory() throws IOException {
+        if (Files.notExists(directory)) {
+            if (FileSystems.getDefault().supportedFileAttributeViews().contains("posix")) {
+                Files.createDirectories(directory, PosixFilePermissions.asFileAttribute(PosixFilePermissions.fromString("rwx------")));
+            } else {
+                Files.createDirectories(directory);
+            }
+        }
+        LOG.debug("IPC directory opened at: {}", directory.toAbsolutePath());
+    }
+
+    /**
+     * Looks up the connection files in IPC directory. New connections are opened, and
+     * the connections are closed when their file has been deleted.
+     *
+     * @throws IOException if the directory could not be read
+     */
+    void scan() throws IOException {
+        final var paths = new HashSet<Path>();
+        try (final var stream = Files.newDirectoryStream(directory, "*" + IpcConnection.FILE_SUFFIX)) {
+            stream.forEach(paths::add);
+        }
+
+        for (final var path : paths) {
+            if (!channels.containsKey(path) && !invalidFiles.contains(path)) {
+                try {
+                    final var connection = IpcConnection.open(path);
+                    if (connection.isClosed()) {
+                        Files.deleteIfExists(path);
+                    } else {
+                        channels.put(path, new IpcChannel(connection, closeListener));
+                        LOG.debug("Client accepted: {}", path);
+                    }
+                } catch (final IOException ioe) {
+                    invalidFiles.add(path);
+                    LOG.warn("Could not open the connection file: {}", path, ioe);
+                }
+            }
+        }
+
+        invalidFiles.retainAll(paths);
+        final var iterator = channels.entrySet().iterator();
+        while (iterator.hasNext()) {
+            final var entry = iterator.next();
+            if (!paths.contains(entry.getKey())) {
+                iterator.remove();
+                Closeables.closeQuietly(entry.getValue());
+                LOG.debug("Connection file deleted: {}", entry.getKey());
+            }
+        }
+    }
+
+    /**
+     * Polls the request rings of all connections and flushes the pending responses.
+     * Closed connections are removed and their connection file is deleted.
+     *
+     * @return {@code true} if at least one packet has been received, otherwise {@code false}
+     */
+    boolean poll() {
+        var received = false;
+        final var iterator = channels.values().iterator();
+        while (iterator.hasNext()) {
+            final var channel = iterator.next();
+            final var ring = channel.getConnection().getRequestRing();
+            for (var i = 0; i < MAX_PACKETS_PER_POLL; i++) {
+                final var bytes = ring.poll();
+                if (bytes == null) {
+                    break;
+                }
+                consumer.accept(new ChannelPacket(channel, bytes, requestTimeout));
+                received = true;
+            }
+
+            // write the pending responses when the client has made room in the response ring
+            if (channel.isFlushRequested()) {
+                channel.flush();
+            }
+
+            if (!channel.isConnected()) {
+                iterator.remove();
+                Closeables.closeQuietly(channel);
+                deleteQuietly(channel.getConnection().getPath());
+                LOG.debug("Client says bye! {}", channel);
+            }
+        }
+        return received;
+    }
+
+    private static void deleteQuietly(final Path path) {
+        try {
+            Files.deleteIfExists(path);
+        } catch (final IOException e) {
+            LOG.debug("Could not delete the connection file: {}", path, e);
+        }
+    }
+}
@@ -17,14 +17,19 @@
 
 package li.pitschmann.knx.link;
 
+import li.pitschmann.knx.core.annotations.Nullable;
 import li.pitschmann.knx.core.utils.Sleeper;
 import li.pitschmann.knx.link.config.Config;
 import li.pitschmann.knx.link.config.ConfigReader;
+import li.pitschmann.knx.link.config.ConfigWatcher;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.io.IOException;
 import java.nio.file.Files;
+import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.util.concurrent.TimeUnit;
 
 /**
  * The main class to start the KNX Link Server
@@ -46,14 +51,41 @@ public class Main {
 
         // start the KNX Link server and try to keep it alive forever
         // in case of issue, the restart will be done by the systemd
-        try (final var server = DefaultServer.createStarted(config)) {
+        try (final var server = DefaultServer.createStarted(config);
+             final var watcher = watchConfig(serverConfigPath, server)) {
             LOG.info("KNX Link Server started");
             while (server.isRunning()) {
-                Sleeper.seconds(5);
+                if (watcher == null) {
+                    Sleeper.seconds(5);
+                } else {
+                    // changes of config file are applied without restart
+                    watcher.poll(5, TimeUnit.SECONDS);
+                }
             }
         } finally {
             LOG.info("KNX Link Server stopped");
         }
     }
 
+    /**
+     * Watches the config file for changes, which are reloaded by the server
+     *
+     * @param path   the path of config file; may not be null
+     * @param server the server to be reloaded; may not be null
+     * @return the watcher, or {@code null} if the config file is not readable or cannot be watched
+     */
+    @Nullable
+    private static ConfigWatcher watchConfig(final Path path, final AbstractServer server) {
+        if (!Files.isReadable(path)) {
+            return null;
+        }
+
+        try {
+            return ConfigReader.watch(path, server::reload);
+        } catch (final IOException e) {
+            LOG.warn("Could not watch the config file, changes require a restart: {}", path.toAbsolutePath(), e);
+            return null;
+        }
+    }
+
 }
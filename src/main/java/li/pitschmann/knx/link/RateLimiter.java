@@ -0,0 +1,119 @@
+/*
+ * Copyright (C) 2021 Pitschmann Christoph
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package li.pitschmann.knx.link;
+
+import li.pitschmann.knx.core.utils.Preconditions;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Token bucket rate limiter per key (e.g. IP address or connection).
+ *
+ * <p> Each bucket is a single {@link AtomicLong} with the theoretical arrival time of the
+ * next request (generic cell rate algorithm), which is equivalent to a token bucket that is
+ * refilled with {@code rate} tokens per second up to {@code burst} tokens. A request takes a
+ * token by a compare-and-set of the arrival time, without any lock.
+ *
+ * <p> Buckets that have been refilled completely are identical to new buckets and are
+ * removed from time to time, so keys of disconnected clients don't pile up. Buckets of
+ * keys that are known to be gone (e.g. closed connections) are removed by {@link #remove(Object)}.
+ */
+final class RateLimiter {
+    private static final int SWEEP_THRESHOLD = 1024;
+    private static final long SWEEP_INTERVAL = TimeUnit.SECONDS.toNanos(1);
+    private final Map<Object, AtomicLong> buckets = new ConcurrentHashMap<>();
+    private final long interval;
+    private final long tolerance;
+    private volatile long lastSweep = System.nanoTime();
+
+    /**
+     * Creates a new {@link RateLimiter}
+     *
+     * @param rate  the number of requests per second per key; must be positive
+     * @param burst the number of requests per key that may be sent at once; must be positive
+     */
+    RateLimiter(final int rate, final int burst) {
+        Preconditions.checkArgument(rate > 0, "Rate must be positive: {}", rate);
+        Preconditions.checkArgument(burst > 0, "Burst must be positive: {}", burst);
+        this.interval = TimeUnit.SECONDS.toNanos(1) / rate;
+        this.tolerance = interval * burst;
+    }
+
+    /**
+     * Tries to take a token from the bucket of key
+     *
+     * @param key the key of bucket; may not be null
+     * @return {@code true} if the request is within the rate limit, otherwise {@code false}
+     */
+    boolean tryAcquire(final Object key) {
+        final var now = System.nanoTime();
+        var bucket = buckets.get(key);
+        if (bucket == null) {
+            sweep(now);
+            bucket = buckets.computeIfAbsent(key, k -> new AtomicLong(now));
+        }
+
+        while (true) {
+            final var arrivalTime = bucket.get();
+            final var nextArrivalTime = Math.max(arrivalTime - now, 0) + now + interval;
+            if (nextArrivalTime - now > tolerance) {
+                return false;
+            } else if (bucket.compareAndSet(arrivalTime, nextArrivalTime)) {
+                return true;
+            }
+        }
+    }
+
+    /**
+     * Removes the bucket of key, e.g. when the connection of key has been closed
+     *
+     * @param key the key of bucket; may not be null
+     */
+    void remove(final Object key) {
+        buckets.remove(key);
+    }
+
+    /**
+     * Takes over the buckets of the previous {@link RateLimiter}, so the clients don't
+     * get a full burst when the rate limiter is replaced (e.g. by a reload of config)
+     *
+     * @param previous the rate limiter to be replaced; may not be null
+     */
+    void inherit(final RateLimiter previous) {
+        previous.buckets.forEach(buckets::putIfAbsent);
+    }
+
+    /**
+     * Returns the number of buckets
+     *
+     * @return number of buckets
+     */
+    int size() {
+        return buckets.size();
+    }
+
+    private void sweep(final long now) {
+        if (buckets.size() >= SWEEP_THRESHOLD && now - lastSweep > SWEEP_INTERVAL) {
+            lastSweep = now;
+            buckets.values().removeIf(bucket -> bucket.get() - now <= 0);
+        }
+    }
+}
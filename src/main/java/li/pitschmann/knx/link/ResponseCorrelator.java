@@ -0,0 +1,97 @@
+/*
+ * Copyright (C) 2021 Pitschmann Christoph
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package li.pitschmann.knx.link;
+
+import li.pitschmann.knx.core.address.GroupAddress;
+import li.pitschmann.knx.core.cemi.APCI;
+import li.pitschmann.knx.core.cemi.CEMI;
+import li.pitschmann.knx.core.communication.KnxStatusData;
+import li.pitschmann.knx.core.utils.Preconditions;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Correlates the read requests with the {@link APCI#GROUP_VALUE_RESPONSE} telegrams
+ * that are sent by the KNX devices.
+ *
+ * <p> A future has to be registered for the {@link GroupAddress} <strong>before</strong>
+ * the read request is sent to the KNX Net/IP device. It will be completed as soon the
+ * response telegram for the group address arrives, or exceptionally when the response
+ * didn't arrive within the timeout. Concurrent read requests for the same group address
+ * share the same future.
+ */
+public final class ResponseCorrelator implements TelegramListener {
+    private static final Logger LOG = LoggerFactory.getLogger(ResponseCorrelator.class);
+    private final Map<GroupAddress, CompletableFuture<KnxStatusData>> pendingResponses = new ConcurrentHashMap<>();
+    private final long timeout;
+
+    /**
+     * Creates a new {@link ResponseCorrelator}
+     *
+     * @param timeout the time in milliseconds to wait for the response telegram; must be positive
+     */
+    public ResponseCorrelator(final long timeout) {
+        Preconditions.checkArgument(timeout > 0, "Timeout must be positive: {}", timeout);
+        this.timeout = timeout;
+    }
+
+    /**
+     * Registers a future for response of {@link GroupAddress}.
+     *
+     * @param groupAddress the group address we are waiting for response; may not be null
+     * @return future that is completed with the {@link KnxStatusData} of response telegram,
+     * or completed exceptionally with {@link java.util.concurrent.TimeoutException}
+     */
+    public CompletableFuture<KnxStatusData> register(final GroupAddress groupAddress) {
+        return pendingResponses.computeIfAbsent(groupAddress, this::createFuture);
+    }
+
+    private CompletableFuture<KnxStatusData> createFuture(final GroupAddress groupAddress) {
+        final var future = new CompletableFuture<KnxStatusData>();
+        future.orTimeout(timeout, TimeUnit.MILLISECONDS)
+                .whenComplete((data, throwable) -> pendingResponses.remove(groupAddress, future));
+        return future;
+    }
+
+    /**
+     * Returns the number of group addresses that are waiting for a response
+     *
+     * @return number of pending responses
+     */
+    public int getPendingCount() {
+        return pendingResponses.size();
+    }
+
+    @Override
+    public void onTelegram(final CEMI cemi) {
+        if (cemi.getAPCI() != APCI.GROUP_VALUE_RESPONSE) {
+            return;
+        }
+
+        final var future = pendingResponses.remove(cemi.getDestinationAddress());
+        if (future != null) {
+            LOG.debug("Response received for group address: {}", cemi.getDestinationAddress());
+            future.complete(new KnxStatusData(cemi));
+        }
+    }
+}
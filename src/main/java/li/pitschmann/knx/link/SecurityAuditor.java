@@ -17,27 +17,75 @@
 
 package li.pitschmann.knx.link;
 
+import li.pitschmann.knx.core.address.GroupAddress;
+import li.pitschmann.knx.core.annotations.Nullable;
 import li.pitschmann.knx.core.utils.Strings;
 import li.pitschmann.knx.link.protocol.ResponseBody;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-import java.io.IOException;
+import java.net.InetAddress;
 import java.net.InetSocketAddress;
-import java.nio.channels.SocketChannel;
+import java.net.SocketAddress;
+import java.net.UnixDomainSocketAddress;
+import java.util.List;
 import java.util.Set;
 
 /**
  * Security Auditor
  *
- * <p> Guards the KNX server with some actions like if connected clients are acceptable.
+ * <p> Guards the KNX server with some actions like if connected clients are acceptable,
+ * if the requests of clients are within the rate limits per IP address and per connection,
+ * and if the clients are authorized to read or write the group addresses by the {@link AccessRule}s.
  */
 public final class SecurityAuditor {
     private static final Logger LOG = LoggerFactory.getLogger(SecurityAuditor.class);
+    /**
+     * Packet for rejected clients, encoded once as it is the same for all clients
+     */
+    private static final byte[] NOT_AUTHORIZED_PACKET = SocketWriter.toPacketBytes(
+            ResponseBody.of(
+                    true,
+                    Status.ERROR_CLIENT_NOT_AUTHORIZED,
+                    "Your IP Address is not whitelisted. To add your IP Address to whitelist, add it to the " +
+                            "property 'server.allowed.addresses' of your 'server.cfg' file."
+            )
+    );
     private final Set<String> allowedAddresses;
+    private final AddressTrie allowedAddressTrie = new AddressTrie();
+    private final int addressRateLimit;
+    private final int connectionRateLimit;
+    private final int rateLimitBurst;
+    private final RateLimiter addressRateLimiter;
+    private final RateLimiter connectionRateLimiter;
+    private final List<AccessRule> accessRules;
 
     public SecurityAuditor(final Set<String> allowedAddresses) {
+        this(allowedAddresses, 0, 0, 1, List.of());
+    }
+
+    /**
+     * Creates a new {@link SecurityAuditor} with rate limits
+     *
+     * @param allowedAddresses    the IP addresses that are allowed to connect; may not be null
+     * @param addressRateLimit    the number of requests per second per IP address; {@code 0} if unlimited
+     * @param connectionRateLimit the number of requests per second per connection; {@code 0} if unlimited
+     * @param rateLimitBurst      the number of requests that may be sent at once within the rate limits
+     * @param accessRules         the rules of group addresses that clients may read and write; may not be null
+     */
+    public SecurityAuditor(final Set<String> allowedAddresses,
+                           final int addressRateLimit,
+                           final int connectionRateLimit,
+                           final int rateLimitBurst,
+                           final List<AccessRule> accessRules) {
         this.allowedAddresses = Set.copyOf(allowedAddresses);
+        this.allowedAddresses.forEach(allowedAddressTrie::add);
+        this.addressRateLimit = addressRateLimit;
+        this.connectionRateLimit = connectionRateLimit;
+        this.rateLimitBurst = rateLimitBurst;
+        this.addressRateLimiter = addressRateLimit > 0 ? new RateLimiter(addressRateLimit, rateLimitBurst) : null;
+        this.connectionRateLimiter = connectionRateLimit > 0 ? new RateLimiter(connectionRateLimit, rateLimitBurst) : null;
+        this.accessRules = List.copyOf(accessRules);
         LOG.info("Instantiate with allowed addresses: {}", this.allowedAddresses);
     }
 
@@ -52,46 +100,228 @@ public final class SecurityAuditor {
     }
 
     /**
-     * Checks if the {@link SocketChannel} is coming from a valid remote address.
-     * The remote address from {@link SocketChannel} will be compared against the
-     * {@link #allowedAddresses}.
+     * Returns the number of requests per second per IP address
      *
-     * <p> If the remote address could not be read for any reasons
-     * (e.g. due {@link IOException}), then {@code false} is returned.
+     * @return rate limit, {@code 0} if unlimited
+     */
+    public int getAddressRateLimit() {
+        return addressRateLimit;
+    }
+
+    /**
+     * Returns the number of requests per second per connection
      *
-     * @param socketChannel the socket channel to be checked; may not be null
-     * @return {@code true} if the socket channel is valid, {@code false} otherwise
+     * @return rate limit, {@code 0} if unlimited
      */
-    public boolean isRemoteAddressValid(final SocketChannel socketChannel) {
-        try {
-            final var socketAddress = socketChannel.getRemoteAddress();
-            if (socketAddress instanceof InetSocketAddress) {
-                final var inetSocketAddress = (InetSocketAddress) socketAddress;
-                final var ipAddress = inetSocketAddress.getAddress().getHostAddress();
-
-                if ("127.0.0.1".equals(ipAddress)) {
-                    LOG.debug("Socket channel IP address is loopback. Accepted.");
+    public int getConnectionRateLimit() {
+        return connectionRateLimit;
+    }
+
+    /**
+     * Returns the number of requests that may be sent at once within the rate limits
+     *
+     * @return burst size
+     */
+    public int getRateLimitBurst() {
+        return rateLimitBurst;
+    }
+
+    /**
+     * Returns the rules of group addresses that clients may read and write
+     *
+     * @return immutable list of access rules
+     */
+    public List<AccessRule> getAccessRules() {
+        return accessRules;
+    }
+
+    /**
+     * Checks if the client of {@link ClientChannel} may read the range of group addresses.
+     *
+     * <p> Clients to which no {@link AccessRule} applies are not restricted, otherwise the
+     * range must be readable by any of the applying rules.
+     *
+     * @param channel the channel of request; may not be null
+     * @param first         the first group address of range; may not be null
+     * @param last          the last group address of range (inclusive); may not be null
+     * @return {@code true} if authorized, otherwise {@code false}
+     */
+    public boolean isReadAuthorized(final ClientChannel channel, final GroupAddress first, final GroupAddress last) {
+        if (accessRules.isEmpty()) {
+            return true;
+        }
+        final var address = inetAddressOf(channel);
+        if (address == null) {
+            return true;
+        }
+
+        var applied = false;
+        for (final var rule : accessRules) {
+            if (rule.appliesTo(address)) {
+                if (rule.isReadable(first.getAddressAsInt(), last.getAddressAsInt())) {
                     return true;
                 }
-                else if (allowedAddresses.contains(ipAddress)) {
-                    LOG.debug("Socket channel IP address found in whitelist: {}", ipAddress);
+                applied = true;
+            }
+        }
+        return !applied;
+    }
+
+    /**
+     * Checks if the client of {@link ClientChannel} may write the group address.
+     *
+     * <p> Clients to which no {@link AccessRule} applies are not restricted, otherwise the
+     * group address must be writable by any of the applying rules.
+     *
+     * @param channel the channel of request; may not be null
+     * @param groupAddress  the group address to be written; may not be null
+     * @return {@code true} if authorized, otherwise {@code false}
+     */
+    public boolean isWriteAuthorized(final ClientChannel channel, final GroupAddress groupAddress) {
+        if (accessRules.isEmpty()) {
+            return true;
+        }
+        final var address = inetAddressOf(channel);
+        if (address == null) {
+            return true;
+        }
+
+        var applied = false;
+        for (final var rule : accessRules) {
+            if (rule.appliesTo(address)) {
+                if (rule.isWritable(groupAddress.getAddressAsInt())) {
                     return true;
                 }
-                else {
-                    SocketWriter.writeToChannel(socketChannel,
-                            ResponseBody.of(
-                                    true,
-                                    Status.ERROR_CLIENT_NOT_AUTHORIZED,
-                                    String.format("Your IP Address '%s' is not whitelisted. To add your IP Address to " +
-                                            "whitelist, add it to the property 'server.allowed.addresses' of your " +
-                                            "'server.cfg' file.", ipAddress)
-                            )
-                    );
-                    LOG.warn("Socket channel IP address not found in whitelist: {}", ipAddress);
-                }
+                applied = true;
+            }
+        }
+        return !applied;
+    }
+
+    /**
+     * Returns the IP address of client. Channels without IP address (e.g. Unix domain socket,
+     * shared-memory transport) are local clients, protected by the file permissions.
+     *
+     * @param channel the channel; may not be null
+     * @return the IP address, or {@code null} if the channel has no IP address
+     */
+    @Nullable
+    private static InetAddress inetAddressOf(final ClientChannel channel) {
+        final var socketAddress = channel.getRemoteAddress();
+        return socketAddress instanceof InetSocketAddress ? ((InetSocketAddress) socketAddress).getAddress() : null;
+    }
+
+    /**
+     * Checks if the request of {@link ClientChannel} is within the rate limits
+     * of its IP address and of its connection.
+     *
+     * <p> Datagrams are limited by the IP address only, as every datagram has its own channel.
+     * Channels without IP address (e.g. Unix domain socket) are limited by the connection only.
+     *
+     * @param channel the channel of request; may not be null
+     * @return {@code true} if the request is permitted, {@code false} if a rate limit has been exceeded
+     */
+    public boolean isRequestPermitted(final ClientChannel channel) {
+        if (connectionRateLimiter != null
+                && !(channel instanceof DatagramReplyChannel)
+                && !connectionRateLimiter.tryAcquire(channel)) {
+            LOG.debug("Request rate limit of connection exceeded: {}", channel);
+            return false;
+        }
+        if (addressRateLimiter != null) {
+            final var address = inetAddressOf(channel);
+            if (address != null && !addressRateLimiter.tryAcquire(address)) {
+                LOG.debug("Request rate limit of IP address exceeded: {}", address);
+                return false;
             }
-        } catch (final IOException e) {
-            LOG.error("Could not validate the IP address of socket channel: {}", socketChannel, e);
+        }
+        return true;
+    }
+
+    /**
+     * Releases the rate limit of connection when the {@link ClientChannel} has been closed.
+     * The rate limit of IP address is kept, as other connections of the IP address may
+     * still be open.
+     *
+     * @param channel the channel that has been closed; may not be null
+     */
+    public void release(final ClientChannel channel) {
+        if (connectionRateLimiter != null) {
+            connectionRateLimiter.remove(channel);
+        }
+    }
+
+    /**
+     * Takes over the state of rate limiters of the previous {@link SecurityAuditor}, so that
+     * a reload of config doesn't reset the rate limits of clients
+     *
+     * @param previous the security auditor to be replaced; may not be null
+     */
+    public void inheritRateLimits(final SecurityAuditor previous) {
+        if (addressRateLimiter != null && previous.addressRateLimiter != null) {
+            addressRateLimiter.inherit(previous.addressRateLimiter);
+        }
+        if (connectionRateLimiter != null && previous.connectionRateLimiter != null) {
+            connectionRateLimiter.inherit(previous.connectionRateLimiter);
+        }
+    }
+
+    /**
+     * Checks if the {@link ClientChannel} is coming from a valid remote address.
+     * The remote address from {@link ClientChannel} will be compared against the
+     * {@link #allowedAddresses}, which may contain IPv4 and IPv6 addresses and networks
+     * in CIDR notation. Loopback addresses are always accepted.
+     *
+     * <p> Channels from a Unix domain socket are always accepted, the access is
+     * controlled by the file permissions of socket file.
+     *
+     * <p> A rejected client is told so by a best-effort packet, which is dropped
+     * if it cannot be written immediately.
+     *
+     * @param channel the channel to be checked; may not be null
+     * @return {@code true} if the channel is valid, {@code false} otherwise
+     */
+    public boolean isRemoteAddressValid(final ClientChannel channel) {
+        final var socketAddress = channel.getRemoteAddress();
+        if (socketAddress instanceof UnixDomainSocketAddress) {
+            LOG.debug("Socket channel is from Unix domain socket. Accepted.");
+            return true;
+        } else if (socketAddress instanceof InetSocketAddress) {
+            final var inetAddress = ((InetSocketAddress) socketAddress).getAddress();
+            if (isAllowed(inetAddress)) {
+                return true;
+            }
+            channel.send(NOT_AUTHORIZED_PACKET);
+            LOG.warn("Socket channel IP address not found in whitelist: {}", inetAddress);
+        }
+        return false;
+    }
+
+    /**
+     * Checks if the source address of a datagram is a valid address. The address
+     * will be compared against the {@link #allowedAddresses}.
+     *
+     * @param sourceAddress the source address of datagram; may not be null
+     * @return {@code true} if the source address is valid, {@code false} otherwise
+     */
+    public boolean isSourceAddressValid(final SocketAddress sourceAddress) {
+        if (sourceAddress instanceof InetSocketAddress) {
+            final var inetAddress = ((InetSocketAddress) sourceAddress).getAddress();
+            if (isAllowed(inetAddress)) {
+                return true;
+            }
+            LOG.warn("Datagram source IP address not found in whitelist: {}", inetAddress);
+        }
+        return false;
+    }
+
+    private boolean isAllowed(final InetAddress inetAddress) {
+        if (inetAddress.isLoopbackAddress()) {
+            LOG.debug("IP address is loopback. Accepted.");
+            return true;
+        } else if (allowedAddressTrie.contains(inetAddress)) {
+            LOG.debug("IP address found in whitelist: {}", inetAddress);
+            return true;
         }
         return false;
     }
@@ -100,6 +330,10 @@ public final class SecurityAuditor {
     public String toString() {
         return Strings.toStringHelper(this)
                 .add("allowedAddresses", allowedAddresses)
+                .add("addressRateLimit", addressRateLimit)
+                .add("connectionRateLimit", connectionRateLimit)
+                .add("rateLimitBurst", rateLimitBurst)
+                .add("accessRules", accessRules)
                 .toString();
     }
 }
@@ -0,0 +1,103 @@
+/*
+ * Copyright (C) 2021 Pitschmann Christoph
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package li.pitschmann.knx.link;
+
+import li.pitschmann.knx.core.utils.Closeables;
+import li.pitschmann.knx.core.utils.Strings;
+
+import java.io.IOException;
+import java.net.SocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.CancelledKeyException;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.SocketChannel;
+import java.util.Objects;
+import java.util.function.Consumer;
+
+/**
+ * Channel of a client that is connected via TCP or Unix domain socket. The pending packets
+ * are written by the selector thread of {@link SocketListener} when the socket is writable
+ * ({@link SelectionKey#OP_WRITE}).
+ */
+final class SocketClientChannel extends AbstractClientChannel {
+    private final SocketChannel socketChannel;
+    private final SelectionKey key;
+    private final SocketAddress remoteAddress;
+
+    /**
+     * Creates a new {@link SocketClientChannel}
+     *
+     * @param socketChannel the non-blocking socket channel; may not be null
+     * @param key           the key of socket channel at the selector; may not be null
+     * @param remoteAddress the address of client; may not be null
+     * @param closeListener the listener that is notified when the channel is closed; may not be null
+     */
+    SocketClientChannel(final SocketChannel socketChannel,
+                        final SelectionKey key,
+                        final SocketAddress remoteAddress,
+                        final Consumer<ClientChannel> closeListener) {
+        super(closeListener);
+        this.socketChannel = Objects.requireNonNull(socketChannel);
+        this.key = Objects.requireNonNull(key);
+        this.remoteAddress = Objects.requireNonNull(remoteAddress);
+    }
+
+    @Override
+    public SocketAddress getRemoteAddress() {
+        return remoteAddress;
+    }
+
+    @Override
+    protected boolean transfer(final ByteBuffer buffer) throws IOException {
+        socketChannel.write(buffer);
+        return !buffer.hasRemaining();
+    }
+
+    @Override
+    protected void requestFlush(final boolean requested) {
+        try {
+            if (requested) {
+                key.interestOpsOr(SelectionKey.OP_WRITE);
+                key.selector().wakeup();
+            } else {
+                key.interestOpsAnd(~SelectionKey.OP_WRITE);
+            }
+        } catch (final CancelledKeyException e) {
+            // channel has been closed in the meantime
+        }
+    }
+
+    @Override
+    protected boolean isTransportOpen() {
+        return socketChannel.isConnected();
+    }
+
+    @Override
+    protected void closeTransport() {
+        key.cancel();
+        Closeables.closeQuietly(socketChannel);
+    }
+
+    @Override
+    public String toString() {
+        return Strings.toStringHelper(this)
+                .add("remoteAddress", remoteAddress)
+                .add("connected", isConnected())
+                .toString();
+    }
+}
@@ -17,36 +17,124 @@
 
 package li.pitschmann.knx.link;
 
+import li.pitschmann.knx.core.annotations.Nullable;
 import li.pitschmann.knx.core.utils.ByteFormatter;
 import li.pitschmann.knx.core.utils.Closeables;
 import li.pitschmann.knx.link.config.Config;
+import li.pitschmann.knx.link.protocol.ResponseBody;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.io.IOException;
+import java.net.InetAddress;
 import java.net.InetSocketAddress;
+import java.net.StandardProtocolFamily;
+import java.net.UnixDomainSocketAddress;
 import java.nio.ByteBuffer;
+import java.nio.channels.DatagramChannel;
 import java.nio.channels.SelectionKey;
 import java.nio.channels.Selector;
 import java.nio.channels.ServerSocketChannel;
 import java.nio.channels.SocketChannel;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.util.HashMap;
+import java.util.Map;
 import java.util.Objects;
-import java.util.concurrent.BlockingQueue;
-import java.util.concurrent.LinkedBlockingQueue;
+import java.util.function.Consumer;
+
+import static li.pitschmann.knx.link.SocketWriter.writeToChannel;
 
 /**
  * TCP socket listener for {@link AbstractServer}. Accepts channel and reads bytes
- * from channel. The read bytes are added to {@link BlockingQueue}
- * as a {@link ChannelPacket}.
+ * from channel. The read bytes are added to {@link FairQueue}
+ * as a {@link ChannelPacket}, which shares the worker fairly between the clients.
+ *
+ * <p> If enabled by {@link Config#getServerUnixPath()} the listener accepts channels
+ * from a Unix domain socket as well, which is registered on the same {@link Selector}.
+ *
+ * <p> If enabled by {@link Config#getServerUdpPort()} the listener receives write requests
+ * in single datagrams from a {@link DatagramChannel} on the same {@link Selector}.
+ *
+ * <p> When the number of queued packets reaches {@link Config#getServerBusyQueueWatermark()}
+ * new packets are not queued anymore and are answered immediately with {@link Status#ERROR_BUSY}.
+ *
+ * <p> New connections are limited by {@link Config#getServerAcceptRate()}, {@link Config#getServerConnectionsMax()}
+ * and {@link Config#getServerConnectionsMaxAddress()}. Connections without requests within
+ * {@link Config#getServerIdleTimeout()} are closed by a {@link TimeoutService.Wheel} on the selector thread.
  */
 public final class SocketListener implements Runnable {
     private static final Logger LOG = LoggerFactory.getLogger(SocketListener.class);
-    private final Config config;
+    private static final int MAX_DATAGRAMS_PER_SELECT = 64;
+    private static final int IDLE_WHEEL_SIZE = 512;
+    private static final long IDLE_WHEEL_MAX_TICK_MILLIS = 1000;
+    private static final Object ACCEPT_RATE_KEY = new Object();
+    /**
+     * Packet for rejected connections, encoded once as it is the same for all clients
+     */
+    private static final byte[] TOO_MANY_CONNECTIONS_PACKET = SocketWriter.toPacketBytes(
+            ResponseBody.of(true, Status.ERROR_BUSY, "Too many connections, please try again later")
+    );
+    private volatile Config config;
     private final ByteBuffer buff = ByteBuffer.allocate(512);
-    private final BlockingQueue<ChannelPacket> queue = new LinkedBlockingQueue<>();
+    private final ByteBuffer datagramBuff = ByteBuffer.allocate(512);
+    private final FairQueue queue;
+    private final Consumer<ClientChannel> closeListener;
+    private final Map<ClientChannel, Connection> connections = new HashMap<>();
+    private final Map<InetAddress, Integer> connectionsPerAddress = new HashMap<>();
+    private volatile RateLimiter acceptRateLimiter;
+    private final TimeoutService.Wheel<Connection> idleWheel;
+    /**
+     * Idle timeout the connections are scheduled for, only accessed by the selector thread
+     */
+    private long scheduledIdleTimeout;
 
-    SocketListener(final Config config) {
+    /**
+     * Creates a new {@link SocketListener}
+     *
+     * @param config        the configuration of server; may not be null
+     * @param closeListener the listener that is notified when a connection is closed; may not be null
+     */
+    SocketListener(final Config config, final Consumer<ClientChannel> closeListener) {
         this.config = Objects.requireNonNull(config);
+        this.queue = new FairQueue(config.getServerFairWeights());
+        this.closeListener = Objects.requireNonNull(closeListener);
+
+        this.acceptRateLimiter = createAcceptRateLimiter(config.getServerAcceptRate());
+
+        // the idle timeouts don't need a finer resolution than a 16th of timeout; the wheel is
+        // created even if idle timeout is disabled, as it may be enabled by a reload
+        final var idleTimeout = config.getServerIdleTimeout();
+        final var tickMillis = idleTimeout > 0 ? Math.min(Math.max(idleTimeout / 16, 10), IDLE_WHEEL_MAX_TICK_MILLIS) : IDLE_WHEEL_MAX_TICK_MILLIS;
+        this.idleWheel = new TimeoutService.Wheel<>(tickMillis, IDLE_WHEEL_SIZE, System.currentTimeMillis());
+        this.scheduledIdleTimeout = idleTimeout;
+    }
+
+    @Nullable
+    private static RateLimiter createAcceptRateLimiter(final int acceptRate) {
+        return acceptRate > 0 ? new RateLimiter(acceptRate, acceptRate) : null;
+    }
+
+    /**
+     * Applies the reloaded {@link Config} to the listener. The settings that are read
+     * for every packet or connection are applied immediately, the ports and paths of the
+     * channels are kept until restart. An enabled idle timeout is applied to the existing
+     * connections by the selector thread within a tick of idle {@link TimeoutService.Wheel}.
+     *
+     * @param config the reloaded config; may not be null
+     */
+    void reconfigure(final Config config) {
+        final var previousConfig = this.config;
+        this.config = Objects.requireNonNull(config);
+        queue.setWeights(config.getServerFairWeights());
+        if (config.getServerAcceptRate() != previousConfig.getServerAcceptRate()) {
+            final var previousAcceptRateLimiter = this.acceptRateLimiter;
+            final var newAcceptRateLimiter = createAcceptRateLimiter(config.getServerAcceptRate());
+            if (newAcceptRateLimiter != null && previousAcceptRateLimiter != null) {
+                newAcceptRateLimiter.inherit(previousAcceptRateLimiter);
+            }
+            acceptRateLimiter = newAcceptRateLimiter;
+        }
     }
 
     /**
@@ -60,6 +148,35 @@ public final class SocketListener implements Runnable {
         return this.queue.take();
     }
 
+    /**
+     * Adds a {@link ChannelPacket} that has been received by another transport
+     *
+     * @param packet the packet to be added; may not be null
+     */
+    void addPacket(final ChannelPacket packet) {
+        enqueue(Objects.requireNonNull(packet));
+    }
+
+    /**
+     * Adds the {@link ChannelPacket} to the queue, or rejects it with {@link Status#ERROR_BUSY}
+     * when the rate limits of {@link SecurityAuditor} have been exceeded or the queue has reached
+     * the watermark of {@link Config#getServerBusyQueueWatermark()}
+     *
+     * @param packet the packet to be added; may not be null
+     */
+    private void enqueue(final ChannelPacket packet) {
+        final var watermark = config.getServerBusyQueueWatermark();
+        if (!config.getSecurityAuditor().isRequestPermitted(packet.getChannel())) {
+            LOG.debug("Packet rejected because rate limit has been exceeded: {}", packet);
+            writeToChannel(packet.getChannel(), packet.getResponseAction(), ResponseBody.of(true, Status.ERROR_BUSY, "Rate limit exceeded, please try again later"));
+        } else if (watermark > 0 && queue.size() >= watermark) {
+            LOG.debug("Packet rejected because queue has reached the watermark ({}): {}", watermark, packet);
+            writeToChannel(packet.getChannel(), packet.getResponseAction(), ResponseBody.of(true, Status.ERROR_BUSY, "Server is busy, please try again later"));
+        } else {
+            queue.add(packet);
+        }
+    }
+
     /**
      * Opens a {@link Selector} and configures the {@link ServerSocketChannel} to
      * listen on the port defined by {@link Config#getServerPort()}
@@ -80,13 +197,77 @@ public final class SocketListener implements Runnable {
         return selector;
     }
 
+    /**
+     * Opens the {@link ServerSocketChannel} for the Unix domain socket at {@link Config#getServerUnixPath()}
+     * and sets the file permissions of socket file to {@link Config#getServerUnixPermissions()}
+     *
+     * @return the {@link ServerSocketChannel}, or {@code null} if the Unix domain socket is disabled
+     * @throws IOException if an I/O exception occurred
+     */
+    @Nullable
+    private ServerSocketChannel openUnixChannel() throws IOException {
+        final var path = config.getServerUnixPath();
+        if (path == null) {
+            return null;
+        }
+
+        // socket file may be left over from a previous run that didn't terminate gracefully
+        Files.deleteIfExists(path);
+        final var channel = ServerSocketChannel.open(StandardProtocolFamily.UNIX);
+        try {
+            channel.bind(UnixDomainSocketAddress.of(path));
+            if (FileSystems.getDefault().supportedFileAttributeViews().contains("posix")) {
+                Files.setPosixFilePermissions(path, config.getServerUnixPermissions());
+            }
+            channel.configureBlocking(false);
+        } catch (final IOException ioe) {
+            Closeables.closeQuietly(channel);
+            throw ioe;
+        }
+        LOG.debug("Unix Domain Socket Channel opened at: {}", path);
+        return channel;
+    }
+
+    /**
+     * Opens the {@link DatagramChannel} at the port defined by {@link Config#getServerUdpPort()}
+     *
+     * @return the {@link DatagramChannel}, or {@code null} if disabled
+     * @throws IOException if an I/O exception occurred
+     */
+    @Nullable
+    private DatagramChannel openDatagramChannel() throws IOException {
+        final var port = config.getServerUdpPort();
+        if (port == 0) {
+            return null;
+        }
+
+        final var channel = DatagramChannel.open();
+        try {
+            channel.bind(new InetSocketAddress(port));
+            channel.configureBlocking(false);
+        } catch (final IOException ioe) {
+            Closeables.closeQuietly(channel);
+            throw ioe;
+        }
+        LOG.debug("Datagram Channel opened at port: {}", port);
+        return channel;
+    }
+
     @Override
     public void run() {
         LOG.trace("*** START ***");
         try (final var serverSocketChannel = ServerSocketChannel.open();
+             final var unixChannel = openUnixChannel();
+             final var datagramChannel = openDatagramChannel();
              final var selector = createSelector(serverSocketChannel)) {
+            if (unixChannel != null) {
+                unixChannel.register(selector, SelectionKey.OP_ACCEPT);
+            }
+            if (datagramChannel != null) {
+                datagramChannel.register(selector, SelectionKey.OP_READ);
+            }
             while (!Thread.interrupted()) {
-                selector.select();
+                selector.select(idleWheel.getTickDuration());
                 final var selectedKeys = selector.selectedKeys().iterator();
                 while (selectedKeys.hasNext()) {
                     final var key = selectedKeys.next();
@@ -99,41 +280,218 @@ public final class SocketListener implements Runnable {
 
                     // new request from client?
                     if (key.isValid() && key.isReadable()) {
-                        read(key);
+                        if (key.channel() instanceof DatagramChannel) {
+                            receive(key);
+                        } else {
+                            read(key);
+                        }
+                    }
+
+                    // pending packets to client can be written?
+                    if (key.isValid() && key.isWritable()) {
+                        ((Connection) key.attachment()).channel.flush();
                     }
                 }
+
+                applyIdleTimeout();
+                idleWheel.advance(System.currentTimeMillis(), this::checkIdle);
             }
         } catch (final IOException ioe) {
             LOG.error("I/O Exception", ioe);
         } finally {
+            deleteUnixSocketFile();
             LOG.trace("*** END ***");
         }
     }
 
+    private void deleteUnixSocketFile() {
+        final var path = config.getServerUnixPath();
+        if (path != null) {
+            try {
+                Files.deleteIfExists(path);
+            } catch (final IOException ioe) {
+                LOG.debug("Could not delete the socket file: {}", path, ioe);
+            }
+        }
+    }
+
     /**
      * Accepts the channel from {@link SelectionKey} and registers
      * it for the read operation.
      *
+     * <p> The channel is closed immediately when the client doesn't pass the checks of
+     * {@link SecurityAuditor}, when the accept rate has been exceeded, or when the maximum number
+     * of connections (in total or of the client IP address) has been reached. The rejection
+     * is written best-effort and never blocks the selector.
+     *
      * @param key the selection key that contains channel to be accepted; may not be null.
      */
     private void acceptAndRegister(final SelectionKey key) {
         try {
             final var client = ((ServerSocketChannel) key.channel()).accept();
+            if (client == null) {
+                return;
+            }
 
-            // check if client passes the security checks
-            if (config.getSecurityAuditor().isRemoteAddressValid(client)) {
+            // register without interest, the channel is needed to write the rejection
+            final SelectionKey clientKey;
+            final SocketClientChannel channel;
+            try {
                 client.configureBlocking(false);
-                client.register(key.selector(), SelectionKey.OP_READ);
-                LOG.debug("Client accepted: {}", client.getRemoteAddress());
-            } else {
+                clientKey = client.register(key.selector(), 0);
+                channel = new SocketClientChannel(client, clientKey, client.getRemoteAddress(), closeListener);
+            } catch (final IOException ioe) {
                 Closeables.closeQuietly(client);
-                LOG.warn("Client rejected: {}", client);
+                throw ioe;
+            }
+
+            // check if client passes the security checks, clients that are not allowed
+            // at all must not use up the accept rate of allowed clients
+            if (!config.getSecurityAuditor().isRemoteAddressValid(channel)) {
+                channel.close();
+                LOG.warn("Client rejected: {}", channel);
+                return;
             }
+
+            final var acceptRateLimiter = this.acceptRateLimiter;
+            if (acceptRateLimiter != null && !acceptRateLimiter.tryAcquire(ACCEPT_RATE_KEY)) {
+                channel.send(TOO_MANY_CONNECTIONS_PACKET);
+                channel.close();
+                LOG.warn("Client rejected because accept rate has been exceeded: {}", channel);
+                return;
+            }
+
+            final var remoteAddress = channel.getRemoteAddress();
+            final var address = remoteAddress instanceof InetSocketAddress ? ((InetSocketAddress) remoteAddress).getAddress() : null;
+            if (!hasConnectionCapacity(address)) {
+                channel.send(TOO_MANY_CONNECTIONS_PACKET);
+                channel.close();
+                LOG.warn("Client rejected because maximum number of connections has been reached: {}", channel);
+                return;
+            }
+
+            final var connection = new Connection(channel, address);
+            clientKey.attach(connection);
+            clientKey.interestOpsOr(SelectionKey.OP_READ);
+            connections.put(channel, connection);
+            if (address != null) {
+                connectionsPerAddress.merge(address, 1, Integer::sum);
+            }
+            final var idleTimeout = config.getServerIdleTimeout();
+            if (idleTimeout > 0) {
+                scheduleIdle(connection, connection.lastActivity + idleTimeout);
+            }
+            LOG.debug("Client accepted: {}", remoteAddress);
         } catch (final IOException ioe) {
             LOG.error("Could not accept the client due I/O Exception", ioe);
         }
     }
 
+    /**
+     * Checks if a new connection of IP address is within {@link Config#getServerConnectionsMax()}
+     * and {@link Config#getServerConnectionsMaxAddress()}
+     *
+     * @param address the IP address of client; {@code null} if the client has no IP address
+     * @return {@code true} if the connection can be accepted, otherwise {@code false}
+     */
+    private boolean hasConnectionCapacity(final @Nullable InetAddress address) {
+        if (isWithinConnectionLimits(address)) {
+            return true;
+        }
+        // connections may have been closed by other threads in the meantime (e.g. slow subscribers)
+        connections.values().removeIf(connection -> {
+            if (!connection.channel.isConnected()) {
+                decrementAddressCount(connection.address);
+                return true;
+            }
+            return false;
+        });
+        return isWithinConnectionLimits(address);
+    }
+
+    private boolean isWithinConnectionLimits(final @Nullable InetAddress address) {
+        final var max = config.getServerConnectionsMax();
+        final var maxPerAddress = config.getServerConnectionsMaxAddress();
+        return (max <= 0 || connections.size() < max)
+                && (address == null || maxPerAddress <= 0 || connectionsPerAddress.getOrDefault(address, 0) < maxPerAddress);
+    }
+
+    /**
+     * Releases the {@link Connection} from the connection limits
+     *
+     * @param connection the connection to be released; may not be null
+     */
+    private void release(final Connection connection) {
+        if (connections.remove(connection.channel, connection)) {
+            decrementAddressCount(connection.address);
+        }
+    }
+
+    private void decrementAddressCount(final @Nullable InetAddress address) {
+        if (address != null) {
+            connectionsPerAddress.computeIfPresent(address, (a, count) -> count > 1 ? count - 1 : null);
+        }
+    }
+
+    /**
+     * Schedules the connections in the idle {@link TimeoutService.Wheel} when the idle timeout
+     * has been enabled by a reload. The idle time is counted from now on, so the clients
+     * that were idle before are not disconnected all at once.
+     */
+    private void applyIdleTimeout() {
+        final var idleTimeout = config.getServerIdleTimeout();
+        if (idleTimeout > 0 && scheduledIdleTimeout <= 0) {
+            LOG.debug("Idle timeout has been enabled ({} ms), schedule {} connections", idleTimeout, connections.size());
+            final var now = System.currentTimeMillis();
+            for (final var connection : connections.values()) {
+                connection.lastActivity = Math.max(connection.lastActivity, now);
+                scheduleIdle(connection, connection.lastActivity + idleTimeout);
+            }
+        }
+        scheduledIdleTimeout = idleTimeout;
+    }
+
+    /**
+     * Schedules the {@link Connection} in the idle {@link TimeoutService.Wheel} unless it is already scheduled
+     *
+     * @param connection     the connection to be scheduled; may not be null
+     * @param deadlineMillis the deadline in milliseconds
+     */
+    private void scheduleIdle(final Connection connection, final long deadlineMillis) {
+        if (!connection.idleScheduled) {
+            connection.idleScheduled = true;
+            idleWheel.schedule(connection, deadlineMillis);
+        }
+    }
+
+    /**
+     * Checks the {@link Connection} that has been expired in the idle {@link TimeoutService.Wheel}. The channel
+     * is closed if there was no request since the idle timeout, otherwise it is scheduled again.
+     *
+     * @param connection the connection to be checked; may not be null
+     */
+    private void checkIdle(final Connection connection) {
+        connection.idleScheduled = false;
+        if (!connection.channel.isConnected()) {
+            release(connection);
+            return;
+        } else if (!connections.containsKey(connection.channel)) {
+            return;
+        }
+
+        final var idleTimeout = config.getServerIdleTimeout();
+        final var deadline = connection.lastActivity + idleTimeout;
+        if (idleTimeout <= 0) {
+            LOG.trace("Idle timeout is disabled, connection won't be checked anymore: {}", connection.channel);
+        } else if (deadline > System.currentTimeMillis()) {
+            scheduleIdle(connection, deadline);
+        } else {
+            LOG.debug("Client disconnected because it has been idle for {} ms: {}", idleTimeout, connection.channel);
+            release(connection);
+            connection.channel.close();
+        }
+    }
+
     /**
      * Reads the byte array stream from {@link SelectionKey}
      *
@@ -141,17 +499,19 @@ public final class SocketListener implements Runnable {
      *            to read the data from; may not be null
      */
     private void read(final SelectionKey key) {
-        final var channel = (SocketChannel) key.channel();
+        final var connection = (Connection) key.attachment();
+        final var channel = connection.channel;
 
         try {
-            int read = channel.read(buff);
+            int read = ((SocketChannel) key.channel()).read(buff);
 
             if (read < 0) {
-                key.cancel();
+                release(connection);
                 LOG.debug("Client says bye! {}", channel.getRemoteAddress());
-                key.channel().close();
+                channel.close();
                 return;
             } else {
+                connection.lastActivity = System.currentTimeMillis();
                 LOG.debug("Receiving packet.");
             }
 
@@ -162,13 +522,86 @@ public final class SocketListener implements Runnable {
                 LOG.debug("Receiving packet: {}", ByteFormatter.formatHexAsString(receivedBytes));
             }
 
-            queue.add(new ChannelPacket(channel, receivedBytes));
+            enqueue(new ChannelPacket(channel, receivedBytes, config.getServerRequestTimeout()));
         } catch (final IOException ioe) {
             LOG.error("Could not read the stream from channel: {}", channel, ioe);
+            release(connection);
+            channel.close();
         } finally {
             buff.clear();
         }
     }
 
-}
+    /**
+     * Receives the pending datagrams from {@link SelectionKey}. Each datagram must contain
+     * a single write request, other datagrams and datagrams from addresses that are not
+     * allowed by {@link SecurityAuditor} are dropped.
+     *
+     * @param key the selection key that contains the datagram channel where we want
+     *            to receive the datagrams from; may not be null
+     */
+    private void receive(final SelectionKey key) {
+        final var channel = (DatagramChannel) key.channel();
+
+        try {
+            // receive a batch of datagrams to not select for every single datagram
+            for (var i = 0; i < MAX_DATAGRAMS_PER_SELECT; i++) {
+                final var sourceAddress = channel.receive(datagramBuff);
+                if (sourceAddress == null) {
+                    break;
+                }
+
+                datagramBuff.flip();
+                final byte[] receivedBytes = new byte[datagramBuff.limit()];
+                datagramBuff.get(receivedBytes);
+                datagramBuff.clear();
+                if (LOG.isDebugEnabled()) {
+                    LOG.debug("Receiving datagram from '{}': {}", sourceAddress, ByteFormatter.formatHexAsString(receivedBytes));
+                }
 
+                if (!config.getSecurityAuditor().isSourceAddressValid(sourceAddress)) {
+                    LOG.warn("Datagram rejected: {}", sourceAddress);
+                } else if (!isWriteRequest(receivedBytes)) {
+                    LOG.warn("Datagram is not a write request and will be ignored: {}", ByteFormatter.formatHexAsString(receivedBytes));
+                } else {
+                    enqueue(new ChannelPacket(
+                            new DatagramReplyChannel(channel, sourceAddress, config.isServerUdpAckEnabled()),
+                            receivedBytes,
+                            config.getServerRequestTimeout()));
+                }
+            }
+        } catch (final IOException ioe) {
+            LOG.error("Could not receive the datagram from channel: {}", channel, ioe);
+        } finally {
+            datagramBuff.clear();
+        }
+    }
+
+    /**
+     * Checks if the bytes are a complete write request of protocol V1
+     *
+     * @param bytes the bytes of datagram
+     * @return {@code true} if write request, otherwise {@code false}
+     */
+    private static boolean isWriteRequest(final byte[] bytes) {
+        return bytes.length >= 3
+                && bytes[0] == 0x01
+                && bytes[1] == Action.WRITE_REQUEST.getByte()
+                && Byte.toUnsignedInt(bytes[2]) == bytes.length - 3;
+    }
+
+    /**
+     * Client connection that has been accepted by the {@link SocketListener}
+     */
+    private static final class Connection {
+        private final SocketClientChannel channel;
+        private final InetAddress address;
+        private long lastActivity = System.currentTimeMillis();
+        private boolean idleScheduled;
+
+        private Connection(final SocketClientChannel channel, final @Nullable InetAddress address) {
+            this.channel = channel;
+            this.address = address;
+        }
+    }
+}
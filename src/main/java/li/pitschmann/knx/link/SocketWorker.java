@@ -17,32 +17,123 @@
 
 package li.pitschmann.knx.link;
 
+import li.pitschmann.knx.core.address.GroupAddress;
+import li.pitschmann.knx.core.annotations.Nullable;
 import li.pitschmann.knx.core.communication.KnxClient;
+import li.pitschmann.knx.core.datapoint.DataPointType;
 import li.pitschmann.knx.core.datapoint.value.DataPointValue;
 import li.pitschmann.knx.core.exceptions.KnxException;
 import li.pitschmann.knx.core.utils.ByteFormatter;
 import li.pitschmann.knx.core.utils.Preconditions;
+import li.pitschmann.knx.link.cache.ValueCache;
+import li.pitschmann.knx.link.cache.ValueTable;
+import li.pitschmann.knx.link.journal.Journal;
+import li.pitschmann.knx.link.journal.JournalRecord;
 import li.pitschmann.knx.link.protocol.Header;
+import li.pitschmann.knx.link.protocol.HistoryRequestBody;
 import li.pitschmann.knx.link.protocol.ReadRequestBody;
 import li.pitschmann.knx.link.protocol.ResponseBody;
+import li.pitschmann.knx.link.protocol.SubscribeRequestBody;
+import li.pitschmann.knx.link.protocol.UnsubscribeRequestBody;
+import li.pitschmann.knx.link.protocol.WaitRequestBody;
 import li.pitschmann.knx.link.protocol.WriteRequestBody;
+import li.pitschmann.knx.link.subscription.SubscriptionManager;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.NoSuchElementException;
 import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.LongAdder;
 
 import static li.pitschmann.knx.link.SocketWriter.writeToChannel;
 
 /**
  * Worker for Server
  */
-public final class SocketWorker {
+public final class SocketWorker implements SocketWorkerMXBean {
     private static final Logger LOG = LoggerFactory.getLogger(SocketWorker.class);
-    private final KnxClient knxClient;
+    private final Map<DropReason, LongAdder> droppedCounters = new EnumMap<>(DropReason.class);
+    private volatile KnxClient knxClient;
+    private volatile boolean reconnecting;
+    private final TimeoutService timeoutService;
+    private final ConcurrencyLimiter concurrencyLimiter;
+    private final CircuitBreaker circuitBreaker;
+    private volatile int inflightWatermark;
+    private volatile SecurityAuditor securityAuditor;
+    private final ResponseCorrelator responseCorrelator;
+    private final SubscriptionManager subscriptionManager;
+    private final ChangeWaiter changeWaiter;
+    private final ValueCache valueCache;
+    private final Journal journal;
 
-    SocketWorker(final KnxClient knxClient) {
+    SocketWorker(final KnxClient knxClient,
+                 final TimeoutService timeoutService,
+                 final ConcurrencyLimiter concurrencyLimiter,
+                 final CircuitBreaker circuitBreaker,
+                 final int inflightWatermark,
+                 final SecurityAuditor securityAuditor,
+                 final ResponseCorrelator responseCorrelator,
+                 final SubscriptionManager subscriptionManager,
+                 final ChangeWaiter changeWaiter,
+                 final ValueCache valueCache,
+                 final @Nullable Journal journal) {
         this.knxClient = Objects.requireNonNull(knxClient);
+        this.timeoutService = Objects.requireNonNull(timeoutService);
+        this.concurrencyLimiter = Objects.requireNonNull(concurrencyLimiter);
+        this.circuitBreaker = Objects.requireNonNull(circuitBreaker);
+        this.inflightWatermark = inflightWatermark;
+        this.securityAuditor = Objects.requireNonNull(securityAuditor);
+        this.responseCorrelator = Objects.requireNonNull(responseCorrelator);
+        this.subscriptionManager = Objects.requireNonNull(subscriptionManager);
+        this.changeWaiter = Objects.requireNonNull(changeWaiter);
+        this.valueCache = Objects.requireNonNull(valueCache);
+        this.journal = journal;
+        for (final var reason : DropReason.values()) {
+            droppedCounters.put(reason, new LongAdder());
+        }
+    }
+
+    /**
+     * Replaces the {@link KnxClient}, e.g. after the KNX settings have been reloaded.
+     * The previous KNX client has been closed already, requests which are in-flight at
+     * the previous KNX client are not acknowledged anymore and end by timeout.
+     *
+     * @param knxClient the new KNX client; may not be null
+     */
+    void setKnxClient(final KnxClient knxClient) {
+        this.knxClient = Objects.requireNonNull(knxClient);
+    }
+
+    /**
+     * Sets if the {@link KnxClient} is reconnecting to the KNX Net/IP device, e.g. after the
+     * KNX settings have been reloaded. In the meantime, the requests that need the KNX client
+     * are rejected with {@link Status#ERROR_BUSY}.
+     *
+     * @param reconnecting {@code true} if reconnecting, otherwise {@code false}
+     */
+    void setReconnecting(final boolean reconnecting) {
+        this.reconnecting = reconnecting;
+    }
+
+    /**
+     * Applies the reloaded settings to the worker
+     *
+     * @param inflightWatermark the number of in-flight requests from which new requests are rejected; {@code 0} if disabled
+     * @param securityAuditor   the security auditor to authorize the requests; may not be null
+     */
+    void reconfigure(final int inflightWatermark, final SecurityAuditor securityAuditor) {
+        this.inflightWatermark = inflightWatermark;
+        this.securityAuditor = Objects.requireNonNull(securityAuditor);
     }
 
     /**
@@ -59,6 +150,19 @@ public final class SocketWorker {
         Preconditions.checkArgument(header.getVersion() == 0x01,
                 "Protocol Version '{}' is not supported: {}", header.getVersion(), ByteFormatter.formatHexAsString(bytes));
 
+        // drop stale requests before they reach the KNX Net/IP device
+        final var channel = packet.getChannel();
+        if (!channel.isConnected()) {
+            droppedCounters.get(DropReason.ORPHANED).increment();
+            LOG.debug("Request dropped because channel is closed: {}", packet);
+            return;
+        } else if (packet.isExpired()) {
+            droppedCounters.get(DropReason.EXPIRED).increment();
+            LOG.debug("Request dropped because it has expired: {}", packet);
+            writeToChannel(channel, header.getAction().getResponseAction(), ResponseBody.of(true, Status.ERROR_TIMEOUT, "Request expired before it could be executed"));
+            return;
+        }
+
         switch (header.getAction()) {
             case READ_REQUEST:
                 actionRead(packet);
@@ -66,6 +170,18 @@ public final class SocketWorker {
             case WRITE_REQUEST:
                 actionWrite(packet);
                 break;
+            case SUBSCRIBE_REQUEST:
+                actionSubscribe(packet);
+                break;
+            case UNSUBSCRIBE_REQUEST:
+                actionUnsubscribe(packet);
+                break;
+            case WAIT_REQUEST:
+                actionWait(packet);
+                break;
+            case HISTORY_REQUEST:
+                actionHistory(packet);
+                break;
         }
     }
 
@@ -79,42 +195,50 @@ public final class SocketWorker {
         final var readRequest = ReadRequestBody.of(bytes);
         final var groupAddress = readRequest.getGroupAddress();
         final var channel = packet.getChannel();
+        final var action = Action.READ_RESPONSE;
+        if (isDenied(channel, action, groupAddress, groupAddress, false)) {
+            return;
+        }
+        valueCache.setDataPointTypeHint(groupAddress, readRequest.getDataPointType());
+
+        if (readRequest.getMaxAge() > 0) {
+            final var cachedValue = valueCache.get(groupAddress);
+            if (cachedValue != null
+                    && (!cachedValue.isRestored() || readRequest.isRestoredAccepted())
+                    && System.currentTimeMillis() - cachedValue.getTimestamp() <= readRequest.getMaxAge()) {
+                LOG.debug("Cached value used for group address: {}", groupAddress);
+                writeValue(channel, action, groupAddress, readRequest.getDataPointType(), cachedValue.getData());
+                return;
+            }
+        }
+
+        if (isReconnecting(channel, action) || isUnavailable(channel, action) || isBusy(channel, action)) {
+            return;
+        }
+
         LOG.debug("Send read request to group address: {}", groupAddress);
 
-        final var action = Action.READ_RESPONSE;
-        knxClient.readRequest(groupAddress)
-                .thenAccept(b -> {
-                    if (b) {
+        // register before sending the read request, otherwise we may miss a fast response
+        final var response = responseCorrelator.register(groupAddress);
+        track(knxClient.readRequest(groupAddress))
+                .whenComplete((b, failure) -> {
+                    if (failure != null) {
+                        writeFailure(channel, action, groupAddress, failure);
+                    } else if (b) {
                         // Success Request
                         LOG.debug("Read Request success for group address: {}", groupAddress);
                         writeToChannel(channel, action, ResponseBody.of(false, Status.SUCCESS));
 
-                        // Try to get the KNX status
-                        final var value = knxClient.getStatusPool().getStatusFor(groupAddress);
-                        if (value == null) {
-                            var message = String.format("Could not get read data for group address: %s", groupAddress.getAddressLevel3());
-                            LOG.warn(message);
-                            writeToChannel(channel, action, ResponseBody.of(true, Status.ERROR_TIMEOUT, message));
-                            return;
-                        }
-
-                        // KNX status received, now try to translate it to Data Point Type
-                        final var dpt = readRequest.getDataPointType();
-                        DataPointValue dpv = null;
-                        try {
-                            dpv = dpt.of(value.getData());
-                        } catch (final Exception e) {
-                            var message = String.format("Could not parse the read data for group address '%s' and data point type '%s': %s",
-                                    groupAddress.getAddressLevel3(), dpt.getId(), ByteFormatter.formatHexAsString(value.getData()));
-                            LOG.warn(message);
-                            writeToChannel(channel, action, ResponseBody.of(true, Status.ERROR_INCOMPATIBLE_DATA_POINT_TYPE, message));
-                            return;
-                        }
-
-                        // Translation successful
-                        final var message = dpv.toText() + dpt.getUnit();
-                        LOG.debug("Forward text of read request to channel ({}) from {}: {}", channel, groupAddress, message);
-                        writeToChannel(channel, action, ResponseBody.of(true, Status.SUCCESS, message));
+                        // Wait for the response telegram from KNX
+                        response.whenComplete((value, throwable) -> {
+                            if (throwable != null) {
+                                var message = String.format("Could not get read data for group address: %s", groupAddress.getAddressLevel3());
+                                LOG.warn(message);
+                                writeToChannel(channel, action, ResponseBody.of(true, Status.ERROR_TIMEOUT, message));
+                            } else {
+                                writeValue(channel, action, groupAddress, readRequest.getDataPointType(), value.getData());
+                            }
+                        });
                     } else {
                         // Request failed, No Acknowledge
                         LOG.warn("Read Request failed for group address: {}", groupAddress);
@@ -123,6 +247,163 @@ public final class SocketWorker {
                 });
     }
 
+    /**
+     * Checks if the client is authorized by the {@link SecurityAuditor} to read the range of
+     * group addresses or to write the group address. If not, the request is rejected with
+     * {@link Status#ERROR_CLIENT_NOT_AUTHORIZED}.
+     *
+     * @param channel the channel to be written; may not be null
+     * @param action  the action of response; may not be null
+     * @param first   the first group address of request; may not be null
+     * @param last    the last group address of request (inclusive); may not be null
+     * @param write   {@code true} if the group address should be written, {@code false} if read
+     * @return {@code true} if the request has been rejected, otherwise {@code false}
+     */
+    private boolean isDenied(final ClientChannel channel,
+                             final Action action,
+                             final GroupAddress first,
+                             final GroupAddress last,
+                             final boolean write) {
+        final var authorized = write
+                ? securityAuditor.isWriteAuthorized(channel, first)
+                : securityAuditor.isReadAuthorized(channel, first, last);
+        if (!authorized) {
+            final var message = first.equals(last)
+                    ? String.format("Access denied for group address: %s", first.getAddressLevel3())
+                    : String.format("Access denied for group addresses: %s - %s", first.getAddressLevel3(), last.getAddressLevel3());
+            LOG.warn("{} (channel: {})", message, channel);
+            writeToChannel(channel, action, ResponseBody.of(true, Status.ERROR_CLIENT_NOT_AUTHORIZED, message));
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * Checks if the {@link KnxClient} is reconnecting. If so, the request is rejected
+     * with {@link Status#ERROR_BUSY} as the client may try again shortly.
+     *
+     * @param channel the channel to be written; may not be null
+     * @param action  the action of response; may not be null
+     * @return {@code true} if the request has been rejected, otherwise {@code false}
+     */
+    private boolean isReconnecting(final ClientChannel channel, final Action action) {
+        if (reconnecting) {
+            droppedCounters.get(DropReason.BUSY).increment();
+            LOG.debug("Request rejected because KNX client is reconnecting");
+            writeToChannel(channel, action, ResponseBody.of(true, Status.ERROR_BUSY, "Server is reconnecting, please try again later"));
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * Checks if the {@link CircuitBreaker} is open. If so, the request is rejected
+     * with {@link Status#ERROR_REQUEST} without waiting for the KNX Net/IP device.
+     *
+     * @param channel the channel to be written; may not be null
+     * @param action  the action of response; may not be null
+     * @return {@code true} if the request has been rejected, otherwise {@code false}
+     */
+    private boolean isUnavailable(final ClientChannel channel, final Action action) {
+        if (!circuitBreaker.tryAcquire()) {
+            LOG.debug("Request rejected because circuit breaker is open");
+            writeToChannel(channel, action, ResponseBody.of(true, Status.ERROR_REQUEST, "KNX Net/IP device is not available"));
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * Checks if the number of in-flight requests to the KNX client has reached the
+     * in-flight watermark or the limit of {@link ConcurrencyLimiter}. If so, the request
+     * is rejected with {@link Status#ERROR_BUSY}. Otherwise, a permit of limiter has been
+     * acquired and the request must be tracked by {@link ConcurrencyLimiter#track(CompletableFuture)}.
+     *
+     * @param channel the channel to be written; may not be null
+     * @param action  the action of response; may not be null
+     * @return {@code true} if the request has been rejected, otherwise {@code false}
+     */
+    private boolean isBusy(final ClientChannel channel, final Action action) {
+        final var inflightWatermark = this.inflightWatermark;
+        if ((inflightWatermark > 0 && timeoutService.getInFlightCount() >= inflightWatermark)
+                || !concurrencyLimiter.tryAcquire()) {
+            droppedCounters.get(DropReason.BUSY).increment();
+            LOG.debug("Request rejected because in-flight requests have reached the watermark ({}) or limit ({})",
+                    inflightWatermark, concurrencyLimiter.getLimit());
+            writeToChannel(channel, action, ResponseBody.of(true, Status.ERROR_BUSY, "Server is busy, please try again later"));
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * Tracks the future of a read or write request by the {@link TimeoutService},
+     * the {@link ConcurrencyLimiter} and the {@link CircuitBreaker}
+     *
+     * @param future the future of KNX client; may not be null
+     * @return the tracked future
+     */
+    private CompletableFuture<Boolean> track(final CompletableFuture<Boolean> future) {
+        return circuitBreaker.track(concurrencyLimiter.track(timeoutService.track(future)));
+    }
+
+    /**
+     * Writes the failure of a request to the KNX client to the channel
+     *
+     * @param channel      the channel to be written; may not be null
+     * @param action       the action of response; may not be null
+     * @param groupAddress the group address of request; may not be null
+     * @param throwable    the reason why the future of KNX client has been completed exceptionally
+     */
+    private void writeFailure(final ClientChannel channel,
+                              final Action action,
+                              final GroupAddress groupAddress,
+                              final Throwable throwable) {
+        final var cause = throwable instanceof CompletionException && throwable.getCause() != null ? throwable.getCause() : throwable;
+        if (cause instanceof TimeoutException) {
+            final var message = String.format("No acknowledge received for group address: %s", groupAddress.getAddressLevel3());
+            LOG.warn(message);
+            writeToChannel(channel, action, ResponseBody.of(true, Status.ERROR_TIMEOUT, message));
+        } else {
+            final var message = String.format("Request failed for group address: %s", groupAddress.getAddressLevel3());
+            LOG.warn(message, cause);
+            writeToChannel(channel, action, ResponseBody.of(true, Status.ERROR_REQUEST, message));
+        }
+    }
+
+    /**
+     * Translates the raw value to the data point type of request
+     * and writes the text of value to the channel
+     *
+     * @param channel      the channel to be written; may not be null
+     * @param action       the action of response; may not be null
+     * @param groupAddress the group address of request; may not be null
+     * @param dpt          the data point type of request; may not be null
+     * @param data         the raw value that was received from KNX; may not be null
+     */
+    private void writeValue(final ClientChannel channel,
+                            final Action action,
+                            final GroupAddress groupAddress,
+                            final DataPointType dpt,
+                            final byte[] data) {
+        // KNX status received, now try to translate it to Data Point Type
+        final DataPointValue dpv;
+        try {
+            dpv = dpt.of(data);
+        } catch (final Exception e) {
+            var message = String.format("Could not parse the read data for group address '%s' and data point type '%s': %s",
+                    groupAddress.getAddressLevel3(), dpt.getId(), ByteFormatter.formatHexAsString(data));
+            LOG.warn(message);
+            writeToChannel(channel, action, ResponseBody.of(true, Status.ERROR_INCOMPATIBLE_DATA_POINT_TYPE, message));
+            return;
+        }
+
+        // Translation successful
+        final var message = dpv.toText() + dpt.getUnit();
+        LOG.debug("Forward text of {} to channel ({}) from {}: {}", action, channel, groupAddress, message);
+        writeToChannel(channel, action, ResponseBody.of(true, Status.SUCCESS, message));
+    }
+
     /**
      * Performs WRITE REQUEST to the KNX Client
      *
@@ -137,6 +418,10 @@ public final class SocketWorker {
         final var dpt = writeRequest.getDataPointType();
         final var groupAddress = writeRequest.getGroupAddress();
         final var channel = packet.getChannel();
+        if (isDenied(channel, action, groupAddress, groupAddress, true)) {
+            return;
+        }
+        valueCache.setDataPointTypeHint(groupAddress, dpt);
 
         final DataPointValue dpv;
         try {
@@ -149,9 +434,15 @@ public final class SocketWorker {
             return;
         }
 
-        knxClient.writeRequest(groupAddress, dpv)
-                .thenAccept(b -> {
-                    if (b) {
+        if (isReconnecting(channel, action) || isUnavailable(channel, action) || isBusy(channel, action)) {
+            return;
+        }
+
+        track(knxClient.writeRequest(groupAddress, dpv))
+                .whenComplete((b, failure) -> {
+                    if (failure != null) {
+                        writeFailure(channel, action, groupAddress, failure);
+                    } else if (b) {
                         writeToChannel(channel, action, ResponseBody.of(true, Status.SUCCESS));
                         LOG.debug("Write Request was successful for: {}", groupAddress);
                     } else {
@@ -160,4 +451,201 @@ public final class SocketWorker {
                     }
                 });
     }
+
+    /**
+     * Performs SUBSCRIBE REQUEST
+     *
+     * @param packet the channel packet
+     */
+    private void actionSubscribe(final ChannelPacket packet) {
+        final var bytes = Arrays.copyOfRange(packet.getBytes(), 3, packet.getBytes().length);
+        final var subscribeRequest = SubscribeRequestBody.of(bytes);
+        LOG.debug("Subscribe request for group addresses: {} - {}",
+                subscribeRequest.getGroupAddress(), subscribeRequest.getLastGroupAddress());
+        if (isDenied(packet.getChannel(), Action.SUBSCRIBE_RESPONSE, subscribeRequest.getGroupAddress(),
+                subscribeRequest.getLastGroupAddress(), false)) {
+            return;
+        }
+
+        subscriptionManager.subscribe(packet.getChannel(), subscribeRequest.getGroupAddress(),
+                subscribeRequest.getLastGroupAddress(), subscribeRequest.getDataPointType());
+        final var hint = ValueTable.toDataPointTypeHint(subscribeRequest.getDataPointType());
+        for (var address = subscribeRequest.getGroupAddress().getAddressAsInt();
+             address <= subscribeRequest.getLastGroupAddress().getAddressAsInt(); address++) {
+            valueCache.getTable().setDataPointTypeHint(address, hint);
+        }
+        writeToChannel(packet.getChannel(), Action.SUBSCRIBE_RESPONSE, ResponseBody.of(true, Status.SUCCESS));
+    }
+
+    /**
+     * Performs UNSUBSCRIBE REQUEST
+     *
+     * @param packet the channel packet
+     */
+    private void actionUnsubscribe(final ChannelPacket packet) {
+        final var bytes = Arrays.copyOfRange(packet.getBytes(), 3, packet.getBytes().length);
+        final var unsubscribeRequest = UnsubscribeRequestBody.of(bytes);
+        LOG.debug("Unsubscribe request for group addresses: {} - {}",
+                unsubscribeRequest.getGroupAddress(), unsubscribeRequest.getLastGroupAddress());
+
+        subscriptionManager.unsubscribe(packet.getChannel(), unsubscribeRequest.getGroupAddress(),
+                unsubscribeRequest.getLastGroupAddress());
+        writeToChannel(packet.getChannel(), Action.UNSUBSCRIBE_RESPONSE, ResponseBody.of(true, Status.SUCCESS));
+    }
+
+    /**
+     * Performs WAIT REQUEST. The response is written when the value of group
+     * address has been changed or the timeout of request has been expired.
+     *
+     * @param packet the channel packet
+     */
+    private void actionWait(final ChannelPacket packet) {
+        final var bytes = Arrays.copyOfRange(packet.getBytes(), 3, packet.getBytes().length);
+        final var waitRequest = WaitRequestBody.of(bytes);
+        final var groupAddress = waitRequest.getGroupAddress();
+        final var channel = packet.getChannel();
+        LOG.debug("Wait request for group address '{}' with timeout: {} ms", groupAddress, waitRequest.getTimeout());
+        final var action = Action.WAIT_RESPONSE;
+        if (isDenied(channel, action, groupAddress, groupAddress, false)) {
+            return;
+        }
+        valueCache.setDataPointTypeHint(groupAddress, waitRequest.getDataPointType());
+
+        changeWaiter.await(groupAddress, waitRequest.getTimeout())
+                .whenComplete((value, throwable) -> {
+                    if (throwable != null) {
+                        var message = String.format("No value change for group address: %s", groupAddress.getAddressLevel3());
+                        LOG.debug(message);
+                        writeToChannel(channel, action, ResponseBody.of(true, Status.ERROR_TIMEOUT, message));
+                    } else {
+                        writeValue(channel, action, groupAddress, waitRequest.getDataPointType(), value.getData());
+                    }
+                });
+    }
+
+    /**
+     * Performs HISTORY REQUEST. The values of group address are read from the
+     * {@link Journal} and streamed to the client, one packet per value. The worker only
+     * hands the stream over to the channel: the records are read by the thread that
+     * flushes the channel when the client is ready, in bounded rounds, so a long history
+     * neither blocks the worker nor the other channels.
+     *
+     * @param packet the channel packet
+     */
+    private void actionHistory(final ChannelPacket packet) {
+        final var action = Action.HISTORY_RESPONSE;
+        final var channel = packet.getChannel();
+        if (journal == null) {
+            writeToChannel(channel, action, ResponseBody.of(true, Status.ERROR, "Journal is not enabled"));
+            return;
+        }
+
+        final var bytes = Arrays.copyOfRange(packet.getBytes(), 3, packet.getBytes().length);
+        final var historyRequest = HistoryRequestBody.of(bytes);
+        final var groupAddress = historyRequest.getGroupAddress();
+        LOG.debug("History request for group address '{}': {} - {}", groupAddress, historyRequest.getFrom(), historyRequest.getTo());
+        if (isDenied(channel, action, groupAddress, groupAddress, false)) {
+            return;
+        }
+
+        final Iterator<JournalRecord> records;
+        try {
+            records = journal.iterate(groupAddress.getAddressAsInt(), historyRequest.getFrom(), historyRequest.getTo());
+        } catch (final IOException e) {
+            LOG.error("Could not read the history for group address: {}", groupAddress, e);
+            writeToChannel(channel, action, ResponseBody.of(true, Status.ERROR, "Could not read the journal"));
+            return;
+        }
+        channel.stream(new HistoryStream(groupAddress, historyRequest.getDataPointType(), records));
+    }
+
+    @Override
+    public Map<String, Long> getDroppedRequestCounts() {
+        final var counts = new LinkedHashMap<String, Long>();
+        droppedCounters.forEach((reason, counter) -> counts.put(reason.name(), counter.sum()));
+        return counts;
+    }
+
+    /**
+     * Reason why a request has been dropped before it has been executed
+     */
+    public enum DropReason {
+        /**
+         * Request has been waiting in the queue longer than its timeout
+         */
+        EXPIRED,
+        /**
+         * Channel of request has been closed in the meantime
+         */
+        ORPHANED,
+        /**
+         * Too many requests are in-flight to the KNX Net/IP device, either by the
+         * watermark or by the current limit of {@link ConcurrencyLimiter}, or the
+         * KNX client is reconnecting
+         */
+        BUSY
+    }
+
+    /**
+     * Packets of a HISTORY RESPONSE, one packet per record and a final packet
+     * when all records have been read
+     */
+    private static final class HistoryStream implements Iterator<byte[]> {
+        private final GroupAddress groupAddress;
+        private final DataPointType dpt;
+        private final Iterator<JournalRecord> records;
+        private int count;
+        private boolean done;
+        private byte[] next;
+
+        private HistoryStream(final GroupAddress groupAddress, final DataPointType dpt, final Iterator<JournalRecord> records) {
+            this.groupAddress = groupAddress;
+            this.dpt = dpt;
+            this.records = records;
+        }
+
+        @Override
+        public boolean hasNext() {
+            if (next == null && !done) {
+                next = advance();
+            }
+            return next != null;
+        }
+
+        @Override
+        public byte[] next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            final var packet = next;
+            next = null;
+            return packet;
+        }
+
+        private byte[] advance() {
+            final var action = Action.HISTORY_RESPONSE;
+            try {
+                while (records.hasNext()) {
+                    final var record = records.next();
+                    final String value;
+                    try {
+                        value = dpt.of(record.getValue()).toText() + dpt.getUnit();
+                    } catch (final Exception e) {
+                        LOG.debug("Could not parse the history data for group address '{}' and data point type '{}': {}",
+                                groupAddress.getAddressLevel3(), dpt.getId(), ByteFormatter.formatHexAsString(record.getValue()));
+                        continue;
+                    }
+                    count++;
+                    return SocketWriter.toPacketBytes(action, ResponseBody.of(false, Status.SUCCESS, record.getTimestamp() + " " + value));
+                }
+                LOG.debug("History of group address '{}' with {} record(s) sent", groupAddress, count);
+                done = true;
+                return SocketWriter.toPacketBytes(action, ResponseBody.of(true, Status.SUCCESS));
+            } catch (final UncheckedIOException e) {
+                LOG.error("Could not read the history for group address: {}", groupAddress, e);
+                done = true;
+                return SocketWriter.toPacketBytes(action, ResponseBody.of(true, Status.ERROR, "Could not read the journal"));
+            }
+        }
+    }
 }
@@ -0,0 +1,35 @@
+/*
+ * Copyright (C) 2021 Pitschmann Christoph
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package li.pitschmann.knx.link;
+
+import java.util.Map;
+
+/**
+ * Management interface of {@link SocketWorker} to export the
+ * request metrics via JMX
+ */
+public interface SocketWorkerMXBean {
+
+    /**
+     * Returns the number of requests that have been dropped before they have
+     * been executed, per reason (see {@link SocketWorker.DropReason})
+     *
+     * @return map of drop reason and number of dropped requests
+     */
+    Map<String, Long> getDroppedRequestCounts();
+}
@@ -17,14 +17,12 @@
 
 package li.pitschmann.knx.link;
 
+import li.pitschmann.knx.link.protocol.EventBody;
 import li.pitschmann.knx.link.protocol.Header;
 import li.pitschmann.knx.link.protocol.ResponseBody;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-import java.io.IOException;
-import java.nio.ByteBuffer;
-import java.nio.channels.SocketChannel;
 import java.util.Objects;
 
 public final class SocketWriter {
@@ -35,45 +33,93 @@ public final class SocketWriter {
     }
 
     /**
-     * Creates a general message to the {@link SocketChannel} with {@link ResponseBody}
-     * @param channel      the socket channel which should receive the packet; may not be null
+     * Creates a general message to the {@link ClientChannel} with {@link ResponseBody}
+     * @param channel      the channel which should receive the packet; may not be null
      * @param responseBody the body of response of the packet; may not be null
      */
-    public static void writeToChannel(final SocketChannel channel, final ResponseBody responseBody) {
+    public static void writeToChannel(final ClientChannel channel, final ResponseBody responseBody) {
         writeToChannel(channel, Action.GENERAL_MESSAGE, responseBody);
     }
 
     /**
-     * Creates a message to the {@link SocketChannel} with given {@link Action}
+     * Creates a message to the {@link ClientChannel} with given {@link Action}
      * and a response body
      *
-     * @param channel      the socket channel which should receive the packet; may not be null
+     * @param channel      the channel which should receive the packet; may not be null
      * @param action       the type of action that should represent the packet; may not be null
      * @param responseBody the body of response of the packet; may not be null
      */
-    public static void writeToChannel(final SocketChannel channel, final Action action, final ResponseBody responseBody) {
-        Objects.requireNonNull(channel);
-        Objects.requireNonNull(action);
+    public static void writeToChannel(final ClientChannel channel, final Action action, final ResponseBody responseBody) {
+        writeToChannel(channel, toPacketBytes(action, responseBody));
+    }
+
+    /**
+     * Writes the bytes of a packet that has been encoded before, e.g. by {@link #toPacketBytes(ResponseBody)}
+     * for a response that is the same for all channels. The packet is queued by the channel
+     * if it cannot be written immediately, this method never blocks.
+     *
+     * @param channel     the channel which should receive the packet; may not be null
+     * @param packetBytes the bytes of packet; may not be null
+     */
+    public static void writeToChannel(final ClientChannel channel, final byte[] packetBytes) {
+        Objects.requireNonNull(packetBytes);
+        if (!channel.send(packetBytes)) {
+            LOG.warn("The channel ({}) seems not be open anymore and could not respond: {}",
+                    channel,
+                    packetBytes);
+        }
+    }
+
+    /**
+     * Creates the bytes of a general message packet with {@link ResponseBody}
+     *
+     * @param responseBody the body of response of the packet; may not be null
+     * @return bytes of general message packet
+     */
+    public static byte[] toPacketBytes(final ResponseBody responseBody) {
+        return toPacketBytes(Action.GENERAL_MESSAGE, responseBody);
+    }
+
+    /**
+     * Creates the bytes of a packet with given {@link Action} and {@link ResponseBody}
+     *
+     * @param action       the type of action that should represent the packet; may not be null
+     * @param responseBody the body of response of the packet; may not be null
+     * @return bytes of packet
+     */
+    public static byte[] toPacketBytes(final Action action, final ResponseBody responseBody) {
         Objects.requireNonNull(responseBody);
+        return toPacketBytes(action, responseBody.getBytes());
+    }
+
+    /**
+     * Creates the bytes of an event packet with {@link EventBody}. The bytes are
+     * written by the {@link li.pitschmann.knx.link.subscription.EventDispatcher}
+     * and may be shared across all subscribers of the event.
+     *
+     * @param eventBody the body of event of the packet; may not be null
+     * @return bytes of event packet
+     */
+    public static byte[] toPacketBytes(final EventBody eventBody) {
+        Objects.requireNonNull(eventBody);
+        return toPacketBytes(Action.EVENT, eventBody.getBytes());
+    }
 
-        final var responseBytes = responseBody.getBytes();
+    /**
+     * Creates the bytes of packet with given {@link Action} and bytes of body
+     *
+     * @param action    the type of action that should represent the packet; may not be null
+     * @param bodyBytes the bytes of body of the packet; may not be null
+     * @return bytes of packet
+     */
+    private static byte[] toPacketBytes(final Action action, final byte[] bodyBytes) {
+        Objects.requireNonNull(action);
 
         // Currently we only have Protocol V1 - so no special strategy implementation required
-        final var headerBytes = Header.of(1, action, responseBytes.length).getBytes();
-        final var bytes = new byte[headerBytes.length + responseBytes.length];
+        final var headerBytes = Header.of(1, action, bodyBytes.length).getBytes();
+        final var bytes = new byte[headerBytes.length + bodyBytes.length];
         System.arraycopy(headerBytes, 0, bytes, 0, headerBytes.length);
-        System.arraycopy(responseBytes, 0, bytes, headerBytes.length, responseBytes.length);
-
-        if (channel.isConnected()) {
-            try {
-                channel.write(ByteBuffer.wrap(bytes));
-            } catch (final IOException e) {
-                LOG.error("I/O Exception during replying to channel: {}", channel, e);
-            }
-        } else {
-            LOG.warn("The channel ({}) seems not be open anymore and could not respond: {}",
-                    channel,
-                    bytes);
-        }
+        System.arraycopy(bodyBytes, 0, bytes, headerBytes.length, bodyBytes.length);
+        return bytes;
     }
 }
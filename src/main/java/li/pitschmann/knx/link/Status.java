@@ -54,7 +54,12 @@ public enum Status {
     /**
      * Error: The client is not authorized
      */
-    ERROR_CLIENT_NOT_AUTHORIZED(0x06);
+    ERROR_CLIENT_NOT_AUTHORIZED(0x06),
+    /**
+     * Error: The server is busy, the request has been rejected without being executed
+     * (client may retry the request later)
+     */
+    ERROR_BUSY(0x07);
 
     private final int code;
 
@@ -0,0 +1,39 @@
+/*
+ * Copyright (C) 2021 Pitschmann Christoph
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package li.pitschmann.knx.link;
+
+import li.pitschmann.knx.core.address.GroupAddress;
+import li.pitschmann.knx.core.cemi.CEMI;
+
+/**
+ * Listener for group telegrams that have been received from the KNX Net/IP device.
+ * Listeners are registered at the {@link TelegramPlugin}.
+ */
+@FunctionalInterface
+public interface TelegramListener {
+
+    /**
+     * Called for every incoming telegram that is addressed to a {@link GroupAddress}.
+     *
+     * <p> The method is invoked by the plugin executor thread of KNX client and
+     * should return as fast as possible; it may not block.
+     *
+     * @param cemi the CEMI of telegram; destination address is always a {@link GroupAddress}
+     */
+    void onTelegram(CEMI cemi);
+}
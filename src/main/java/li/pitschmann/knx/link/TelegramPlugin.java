@@ -0,0 +1,87 @@
+/*
+ * Copyright (C) 2021 Pitschmann Christoph
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package li.pitschmann.knx.link;
+
+import li.pitschmann.knx.core.CEMIAware;
+import li.pitschmann.knx.core.address.GroupAddress;
+import li.pitschmann.knx.core.body.Body;
+import li.pitschmann.knx.core.communication.KnxClient;
+import li.pitschmann.knx.core.plugin.ObserverPlugin;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * KNX Core plugin that observes all incoming bodies from the KNX Net/IP device
+ * and forwards every group telegram to the registered {@link TelegramListener}s.
+ */
+public final class TelegramPlugin implements ObserverPlugin {
+    private static final Logger LOG = LoggerFactory.getLogger(TelegramPlugin.class);
+    private final List<TelegramListener> listeners = new CopyOnWriteArrayList<>();
+
+    /**
+     * Registers a {@link TelegramListener} that should be notified about group telegrams
+     *
+     * @param listener the listener to be registered; may not be null
+     */
+    public void addListener(final TelegramListener listener) {
+        listeners.add(Objects.requireNonNull(listener));
+    }
+
+    /**
+     * Un-registers the {@link TelegramListener}
+     *
+     * @param listener the listener to be removed; may not be null
+     */
+    public void removeListener(final TelegramListener listener) {
+        listeners.remove(Objects.requireNonNull(listener));
+    }
+
+    @Override
+    public void onInitialization(final KnxClient client) {
+        LOG.debug("Plugin initialized for: {}", client);
+    }
+
+    @Override
+    public void onIncomingBody(final Body item) {
+        if (!(item instanceof CEMIAware)) {
+            return;
+        }
+
+        final var cemi = ((CEMIAware) item).getCEMI();
+        if (!(cemi.getDestinationAddress() instanceof GroupAddress)) {
+            return;
+        }
+
+        for (final var listener : listeners) {
+            try {
+                listener.onTelegram(cemi);
+            } catch (final Exception e) {
+                LOG.error("Exception in telegram listener '{}' for: {}", listener, cemi, e);
+            }
+        }
+    }
+
+    @Override
+    public void onOutgoingBody(final Body item) {
+        // NO-OP: we are only interested in incoming telegrams
+    }
+}
@@ -0,0 +1,284 @@
+/*
+ * Copyright (C) 2021 Pitschmann Christoph
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package li.pitschmann.knx.link;
+
+import li.pitschmann.knx.core.utils.Preconditions;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Consumer;
+
+/**
+ * Timeout service for the outstanding futures of KNX client (e.g. the acknowledge of
+ * a write request). A future that has not been completed within the timeout is completed
+ * exceptionally with a {@link TimeoutException}.
+ *
+ * <p> The timeouts are managed in a hashed timer {@link Wheel} of {@link #WHEEL_SIZE} buckets,
+ * each bucket covers a tick of {@link #TICK_DURATION} milliseconds. Adding a timeout is a
+ * lock-free enqueue; the timeouts are moved to their bucket and expired by the thread of
+ * service, which processes only a single bucket per tick. A timeout may therefore fire up
+ * to one tick later than requested.
+ */
+public final class TimeoutService implements Runnable, TimeoutServiceMXBean {
+    /**
+     * Duration of a tick in milliseconds
+     */
+    static final long TICK_DURATION = 10L;
+    /**
+     * Number of buckets of timer wheel, must be a power of two
+     */
+    static final int WHEEL_SIZE = 512;
+    private static final Logger LOG = LoggerFactory.getLogger(TimeoutService.class);
+    private static final long TICK_DURATION_NANOS = TimeUnit.MILLISECONDS.toNanos(TICK_DURATION);
+    private final Queue<Timeout> pendingTimeouts = new ConcurrentLinkedQueue<>();
+    private final Wheel<Timeout> wheel = new Wheel<>(TICK_DURATION_NANOS, WHEEL_SIZE, System.nanoTime());
+    private final AtomicInteger inFlightCounter = new AtomicInteger();
+    private final LongAdder timedOutCounter = new LongAdder();
+    private final long timeout;
+
+    /**
+     * Creates a new {@link TimeoutService}
+     *
+     * @param timeout the time in milliseconds to wait for completion of a future; must be positive
+     */
+    public TimeoutService(final long timeout) {
+        Preconditions.checkArgument(timeout > 0, "Timeout must be positive: {}", timeout);
+        this.timeout = TimeUnit.MILLISECONDS.toNanos(timeout);
+    }
+
+    /**
+     * Tracks the future until it is completed or the timeout has elapsed. The given future
+     * is not completed by this service, the returned future should be used instead.
+     *
+     * @param future the future to be tracked; may not be null
+     * @param <T>    the type of future result
+     * @return a new future that is completed with the result of given future, or completed
+     * exceptionally with {@link TimeoutException} if the timeout elapsed before
+     */
+    public <T> CompletableFuture<T> track(final CompletableFuture<T> future) {
+        final var tracked = future.copy();
+        if (!tracked.isDone()) {
+            inFlightCounter.incrementAndGet();
+            tracked.whenComplete((result, throwable) -> inFlightCounter.decrementAndGet());
+            pendingTimeouts.add(new Timeout(tracked, System.nanoTime() + timeout));
+        }
+        return tracked;
+    }
+
+    @Override
+    public int getInFlightCount() {
+        return inFlightCounter.get();
+    }
+
+    @Override
+    public long getTimedOutCount() {
+        return timedOutCounter.sum();
+    }
+
+    @Override
+    public void run() {
+        LOG.trace("*** START ***");
+        try {
+            while (!Thread.currentThread().isInterrupted()) {
+                // wait until the current tick has elapsed
+                final var sleepTime = wheel.getNextTickTime() - System.nanoTime();
+                if (sleepTime > 0) {
+                    LockSupport.parkNanos(sleepTime);
+                    continue;
+                }
+                tick();
+            }
+        } finally {
+            LOG.trace("*** END ***");
+        }
+    }
+
+    /**
+     * Moves the pending timeouts into the wheel and expires the timeouts of current
+     * bucket. Must be called once per elapsed tick by the thread of service only.
+     */
+    void tick() {
+        transferPendingTimeouts();
+        wheel.tick(timeout -> {
+            if (timeout.future.completeExceptionally(new TimeoutException("Future not completed within timeout"))) {
+                timedOutCounter.increment();
+            }
+        });
+    }
+
+    private void transferPendingTimeouts() {
+        Timeout timeout;
+        while ((timeout = pendingTimeouts.poll()) != null) {
+            if (!timeout.future.isDone()) {
+                wheel.schedule(timeout, timeout.deadline);
+            }
+        }
+    }
+
+    /**
+     * Timeout of a future with the deadline in nanoseconds of {@link System#nanoTime()}
+     */
+    private static final class Timeout {
+        private final CompletableFuture<?> future;
+        private final long deadline;
+
+        private Timeout(final CompletableFuture<?> future, final long deadline) {
+            this.future = future;
+            this.deadline = deadline;
+        }
+    }
+
+    /**
+     * Hashed timer wheel for a large number of timeouts with a coarse resolution, used for
+     * the futures of this service and the idle timeout of client connections.
+     *
+     * <p> The items are hashed by their deadline into the buckets of a wheel that turns by
+     * one bucket per tick. Scheduling an item is O(1); a tick only visits the items of its
+     * bucket and counts down the rounds of items with a deadline beyond one rotation. An item
+     * expires at the end of tick of its deadline, so it never expires before its deadline.
+     * The time unit (e.g. nanoseconds, milliseconds) is given by the caller.
+     *
+     * <p> This class is not thread-safe and is designed to be used by a single thread.
+     *
+     * @param <T> type of items to be scheduled
+     */
+    static final class Wheel<T> {
+        private final List<List<Entry<T>>> buckets;
+        private final long tickDuration;
+        private final long startTime;
+        private long tick;
+        private int size;
+
+        /**
+         * Creates a new {@link Wheel}
+         *
+         * @param tickDuration the duration of a tick; must be positive
+         * @param wheelSize    the number of buckets; must be a power of two
+         * @param startTime    the current time
+         */
+        Wheel(final long tickDuration, final int wheelSize, final long startTime) {
+            Preconditions.checkArgument(tickDuration > 0, "Tick duration must be positive: {}", tickDuration);
+            Preconditions.checkArgument(wheelSize > 0 && Integer.bitCount(wheelSize) == 1,
+                    "Wheel size must be a power of two: {}", wheelSize);
+            this.buckets = new ArrayList<>(wheelSize);
+            for (var i = 0; i < wheelSize; i++) {
+                buckets.add(new ArrayList<>());
+            }
+            this.tickDuration = tickDuration;
+            this.startTime = startTime;
+        }
+
+        /**
+         * Schedules the item to be expired at the end of tick of its deadline.
+         * Deadlines in the past expire with the next {@link #tick(Consumer)}.
+         *
+         * @param item     the item to be scheduled; may not be null
+         * @param deadline the deadline
+         */
+        void schedule(final T item, final long deadline) {
+            final var elapsed = deadline - startTime;
+            final var expiryTick = Math.max((elapsed + tickDuration - 1) / tickDuration - 1, tick);
+            buckets.get((int) (expiryTick & (buckets.size() - 1)))
+                    .add(new Entry<>(item, (expiryTick - tick) / buckets.size()));
+            size++;
+        }
+
+        /**
+         * Expires the items of current bucket and turns the wheel by one tick.
+         * Expired items may be re-scheduled by the consumer.
+         *
+         * @param expired the consumer for expired items; may not be null
+         */
+        void tick(final Consumer<T> expired) {
+            final var expiredItems = new ArrayList<T>();
+            final var iterator = buckets.get((int) (tick & (buckets.size() - 1))).iterator();
+            while (iterator.hasNext()) {
+                final var entry = iterator.next();
+                if (entry.remainingRounds > 0) {
+                    entry.remainingRounds--;
+                } else {
+                    iterator.remove();
+                    expiredItems.add(entry.item);
+                }
+            }
+            // turn first, as the consumer may re-schedule into the current bucket
+            tick++;
+            size -= expiredItems.size();
+            expiredItems.forEach(expired);
+        }
+
+        /**
+         * Turns the wheel by all ticks that have elapsed until {@code now}
+         *
+         * @param now     the current time
+         * @param expired the consumer for expired items; may not be null
+         */
+        void advance(final long now, final Consumer<T> expired) {
+            while (getNextTickTime() - now <= 0) {
+                tick(expired);
+            }
+        }
+
+        /**
+         * Returns the time when the current tick has elapsed
+         *
+         * @return time of next tick
+         */
+        long getNextTickTime() {
+            return startTime + (tick + 1) * tickDuration;
+        }
+
+        /**
+         * Returns the duration of a tick
+         *
+         * @return tick duration
+         */
+        long getTickDuration() {
+            return tickDuration;
+        }
+
+        /**
+         * Returns the number of scheduled items
+         *
+         * @return number of scheduled items
+         */
+        int size() {
+            return size;
+        }
+
+        private static final class Entry<T> {
+            private final T item;
+            private long remainingRounds;
+
+            private Entry(final T item, final long remainingRounds) {
+                this.item = item;
+                this.remainingRounds = remainingRounds;
+            }
+        }
+    }
+}
@@ -0,0 +1,39 @@
+/*
+ * Copyright (C) 2021 Pitschmann Christoph
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package li.pitschmann.knx.link;
+
+/**
+ * Management interface of {@link TimeoutService} to export the
+ * metrics of outstanding KNX requests via JMX
+ */
+public interface TimeoutServiceMXBean {
+
+    /**
+     * Returns the number of KNX requests that are waiting for completion
+     *
+     * @return number of in-flight requests
+     */
+    int getInFlightCount();
+
+    /**
+     * Returns the total number of KNX requests that have not been completed within the timeout
+     *
+     * @return number of timed out requests
+     */
+    long getTimedOutCount();
+}
@@ -0,0 +1,98 @@
+/*
+ * Copyright (C) 2021 Pitschmann Christoph
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package li.pitschmann.knx.link.cache;
+
+import li.pitschmann.knx.core.utils.ByteFormatter;
+import li.pitschmann.knx.core.utils.Strings;
+
+import java.util.Arrays;
+import java.util.Objects;
+
+/**
+ * Last known value of a group address. This class is immutable.
+ *
+ * <p> A value is <em>restored</em> when it has been loaded from the snapshot at startup
+ * (see {@link ValueTable#restore(java.nio.file.Path)}) and not been received from the KNX Net/IP device since the server is running.
+ * A restored value may be outdated as the value could have been changed while the
+ * server was down.
+ */
+public final class CachedValue {
+    private final byte[] data;
+    private final long timestamp;
+    private final boolean restored;
+
+    CachedValue(final byte[] data, final long timestamp, final boolean restored) {
+        this.data = data.clone();
+        this.timestamp = timestamp;
+        this.restored = restored;
+    }
+
+    /**
+     * Returns the raw value of group address
+     *
+     * @return copy of raw value
+     */
+    public byte[] getData() {
+        return data.clone();
+    }
+
+    /**
+     * Returns the time when the value has been received
+     *
+     * @return timestamp in milliseconds since epoch
+     */
+    public long getTimestamp() {
+        return timestamp;
+    }
+
+    /**
+     * Returns if the value has been restored from the snapshot
+     *
+     * @return {@code true} if restored, {@code false} if received while the server is running
+     */
+    public boolean isRestored() {
+        return restored;
+    }
+
+    @Override
+    public boolean equals(final Object obj) {
+        if (this == obj) {
+            return true;
+        } else if (obj instanceof CachedValue) {
+            final var other = (CachedValue) obj;
+            return Arrays.equals(this.data, other.data)
+                    && this.timestamp == other.timestamp
+                    && this.restored == other.restored;
+        }
+        return false;
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(Arrays.hashCode(data), timestamp, restored);
+    }
+
+    @Override
+    public String toString() {
+        return Strings.toStringHelper(this)
+                .add("data", ByteFormatter.formatHexAsString(data))
+                .add("timestamp", timestamp)
+                .add("restored", restored)
+                .toString();
+    }
+}
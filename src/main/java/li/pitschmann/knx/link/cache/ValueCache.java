@@ -0,0 +1,105 @@
+/*
+ * Copyright (C) 2021 Pitschmann Christoph
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package li.pitschmann.knx.link.cache;
+
+import li.pitschmann.knx.core.address.GroupAddress;
+import li.pitschmann.knx.core.annotations.Nullable;
+import li.pitschmann.knx.core.cemi.APCI;
+import li.pitschmann.knx.core.cemi.CEMI;
+import li.pitschmann.knx.core.datapoint.DataPointType;
+import li.pitschmann.knx.link.TelegramListener;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.Objects;
+
+/**
+ * Cache of the last known value of every group address.
+ *
+ * <p> The values are taken from the {@link APCI#GROUP_VALUE_WRITE} and
+ * {@link APCI#GROUP_VALUE_RESPONSE} telegrams and are held in an off-heap
+ * {@link ValueTable}, reads are lock-free. If the table has been restored from a
+ * file (see {@link ValueTable#restore(java.nio.file.Path)}), the cache is warm at
+ * startup and the restored values are marked as restored.
+ */
+public final class ValueCache implements TelegramListener {
+    private static final Logger LOG = LoggerFactory.getLogger(ValueCache.class);
+    private final ValueTable table;
+
+    /**
+     * Creates a new {@link ValueCache} with an off-heap {@link ValueTable}
+     */
+    public ValueCache() {
+        this(new ValueTable());
+    }
+
+    /**
+     * Creates a new {@link ValueCache}
+     *
+     * @param table the table that holds the values; may not be null
+     */
+    public ValueCache(final ValueTable table) {
+        this.table = Objects.requireNonNull(table);
+    }
+
+    /**
+     * Returns the last known value of group address
+     *
+     * @param groupAddress the group address; may not be null
+     * @return the cached value, or {@code null} if the value is not known
+     */
+    @Nullable
+    public CachedValue get(final GroupAddress groupAddress) {
+        return table.read(groupAddress.getAddressAsInt());
+    }
+
+    /**
+     * Remembers the data point type that has been requested by a client for the group
+     * address. The data point type is a hint for readers of the {@link ValueTable} how
+     * the value of group address should be interpreted.
+     *
+     * @param groupAddress  the group address; may not be null
+     * @param dataPointType the data point type; may not be null
+     */
+    public void setDataPointTypeHint(final GroupAddress groupAddress, final DataPointType dataPointType) {
+        table.setDataPointTypeHint(groupAddress.getAddressAsInt(), ValueTable.toDataPointTypeHint(dataPointType));
+    }
+
+    /**
+     * Returns the {@link ValueTable} that holds the values
+     *
+     * @return the value table
+     */
+    public ValueTable getTable() {
+        return table;
+    }
+
+    @Override
+    public void onTelegram(final CEMI cemi) {
+        if (cemi.getAPCI() != APCI.GROUP_VALUE_WRITE && cemi.getAPCI() != APCI.GROUP_VALUE_RESPONSE) {
+            return;
+        }
+
+        final var address = ((GroupAddress) cemi.getDestinationAddress()).getAddressAsInt();
+        final var timestamp = System.currentTimeMillis();
+        final var data = cemi.getData();
+        if (!table.write(address, timestamp, data, false)) {
+            LOG.debug("Value is too long for cache of group address '{}': {} octets", address, data.length);
+        }
+    }
+}
@@ -0,0 +1,373 @@
+/*
+ * Copyright (C) 2021 Pitschmann Christoph
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package li.pitschmann.knx.link.cache;
+
+import li.pitschmann.knx.core.annotations.Nullable;
+import li.pitschmann.knx.core.datapoint.DataPointType;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Objects;
+
+/**
+ * Off-heap table with a fixed slot for each of the 65536 group addresses.
+ *
+ * <p> The slot of a group address is at offset {@code groupAddress * SLOT_SIZE}
+ * and contains:
+ *
+ * <pre>
+ * Offset  Length  Field
+ * 0       4       Sequence; odd while the slot is written
+ * 4       2       Data Point Type hint; 0 if unknown
+ * 6       2       Data Point Sub Type hint
+ * 8       8       Timestamp in milliseconds since epoch; 0 if there is no value
+ * 16      1       Length of value
+ * 17      1       Flags; bit 0 = value restored from snapshot
+ * 18      14      Value
+ * </pre>
+ *
+ * <p> The slots are written under the lock of table, which is uncontended as the values
+ * are written by the telegram listener thread only. Reads don't take any locks: a slot
+ * is read with a seqlock, the read is repeated when the slot has been written in the
+ * meantime. The table has a predictable size of 2 MiB and doesn't create any garbage
+ * when writing.
+ *
+ * <p> The table may be placed in a file with {@link #open(Path)}, e.g. on a shared-memory
+ * file system like {@code /dev/shm}, which allows other processes on same host to read the
+ * values directly from memory. The file starts with a header of {@link #HEADER_SIZE} octets
+ * followed by the slots:
+ *
+ * <pre>
+ * Offset  Length  Field
+ * 0       4       Magic {@code KNXT}
+ * 4       2       Version
+ * 6       2       Slot size
+ * 8       4       Number of slots
+ * 12      4       State; 1 = server running, 0 = server stopped
+ * 16      8       Start time of server in milliseconds since epoch
+ * 24      8       (reserved)
+ * </pre>
+ *
+ * <p> All numbers are big-endian. A reader should read a slot like the {@link #read(int)}
+ * method: read the sequence, skip the slot if the sequence is odd, copy the slot and read the
+ * sequence again; if the sequence has changed the slot must be read again.
+ *
+ * <p> With {@link #restore(Path)} the file is kept when the server starts again, which makes
+ * the table a snapshot of the last known values on disk: the values are marked as restored,
+ * and a slot that has been left with an odd sequence (e.g. the process died in the middle of
+ * a write) is cleared.
+ */
+public final class ValueTable implements AutoCloseable {
+    /**
+     * Size of slot for a single group address in octets
+     */
+    public static final int SLOT_SIZE = 32;
+    /**
+     * Maximum length of value; longer values are not stored
+     */
+    public static final int MAX_VALUE_LENGTH = 14;
+    /**
+     * Size of table in octets
+     */
+    public static final int TABLE_SIZE = 65536 * SLOT_SIZE;
+    /**
+     * Size of header in octets when the table is placed in a file
+     */
+    public static final int HEADER_SIZE = 32;
+    static final int MAGIC = 0x4B4E5854; // KNXT
+    static final short VERSION = 1;
+    static final int OFFSET_STATE = 12;
+    static final int STATE_RUNNING = 1;
+    static final int STATE_STOPPED = 0;
+    static final int OFFSET_SEQUENCE = 0;
+    static final int OFFSET_DATA_POINT_TYPE = 4;
+    static final int OFFSET_TIMESTAMP = 8;
+    static final int OFFSET_VALUE_LENGTH = 16;
+    static final int OFFSET_FLAGS = 17;
+    static final int OFFSET_VALUE = 18;
+    static final int FLAG_RESTORED = 0x01;
+    private static final Logger LOG = LoggerFactory.getLogger(ValueTable.class);
+    private static final VarHandle INT = MethodHandles.byteBufferViewVarHandle(int[].class, ByteOrder.BIG_ENDIAN);
+    private final ByteBuffer buffer;
+    private final MappedByteBuffer file;
+
+    /**
+     * Creates a new {@link ValueTable} in off-heap memory
+     */
+    public ValueTable() {
+        this.buffer = ByteBuffer.allocateDirect(TABLE_SIZE);
+        this.file = null;
+    }
+
+    private ValueTable(final MappedByteBuffer file) {
+        this.buffer = file.duplicate().position(HEADER_SIZE).slice();
+        this.file = file;
+    }
+
+    /**
+     * Creates a new {@link ValueTable} in given file. An existing file is replaced by
+     * a new file, processes that have mapped the existing file keep their mapping of
+     * the old file and must open the file again.
+     *
+     * @param path the path of file, e.g. {@code /dev/shm/knx-link.table}; may not be null
+     * @return a new {@link ValueTable}
+     * @throws IOException if the file could not be created
+     */
+    public static ValueTable open(final Path path) throws IOException {
+        Objects.requireNonNull(path);
+        if (path.getParent() != null) {
+            Files.createDirectories(path.getParent());
+        }
+        Files.deleteIfExists(path);
+
+        final MappedByteBuffer file;
+        try (final var channel = FileChannel.open(path,
+                StandardOpenOption.CREATE_NEW, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            file = channel.map(FileChannel.MapMode.READ_WRITE, 0, HEADER_SIZE + TABLE_SIZE);
+        }
+        writeHeader(file);
+        LOG.info("Value table opened at: {}", path.toAbsolutePath());
+        return new ValueTable(file);
+    }
+
+    /**
+     * Opens the {@link ValueTable} in given file and restores the values of an existing
+     * file, e.g. of the previous run of server. The restored values are marked as restored.
+     * The file is created if it doesn't exist, and initialized again if it is not a valid
+     * table file.
+     *
+     * @param path the path of file, e.g. {@code /var/lib/knx-link/snapshot.bin}; may not be null
+     * @return a new {@link ValueTable}
+     * @throws IOException if the file could not be opened or created
+     */
+    public static ValueTable restore(final Path path) throws IOException {
+        Objects.requireNonNull(path);
+        if (path.getParent() != null) {
+            Files.createDirectories(path.getParent());
+        }
+
+        final MappedByteBuffer file;
+        final boolean sizeValid;
+        try (final var channel = FileChannel.open(path,
+                StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            sizeValid = channel.size() == HEADER_SIZE + TABLE_SIZE;
+            file = channel.map(FileChannel.MapMode.READ_WRITE, 0, HEADER_SIZE + TABLE_SIZE);
+        }
+
+        final var table = new ValueTable(file);
+        if (sizeValid && file.getInt(0) == MAGIC && file.getShort(4) == VERSION
+                && file.getShort(6) == SLOT_SIZE && file.getInt(8) == 65536) {
+            final var restoredCount = table.markRestored();
+            LOG.info("Values of {} group address(es) restored from: {}", restoredCount, path.toAbsolutePath());
+        } else {
+            if (sizeValid) {
+                LOG.warn("Not a valid value table file, it will be initialized again: {}", path);
+            }
+            for (var i = 0; i < HEADER_SIZE + TABLE_SIZE; i += 8) {
+                file.putLong(i, 0L);
+            }
+        }
+        writeHeader(file);
+        return table;
+    }
+
+    private static void writeHeader(final MappedByteBuffer file) {
+        file.putInt(0, MAGIC);
+        file.putShort(4, VERSION);
+        file.putShort(6, (short) SLOT_SIZE);
+        file.putInt(8, 65536);
+        file.putLong(16, System.currentTimeMillis());
+        file.putInt(OFFSET_STATE, STATE_RUNNING);
+    }
+
+    /**
+     * Marks the values of all slots as restored. A slot that has been left with an odd
+     * sequence has been written partially and is cleared.
+     *
+     * @return number of restored values
+     */
+    private synchronized int markRestored() {
+        var restoredCount = 0;
+        for (var i = 0; i < 65536; i++) {
+            final var offset = i * SLOT_SIZE;
+            final var sequence = (int) INT.get(buffer, offset + OFFSET_SEQUENCE);
+            if ((sequence & 1) != 0) {
+                LOG.warn("Torn value of group address '{}' is not restored", i);
+                // the sequence stays odd while the slot is cleared
+                for (var j = OFFSET_TIMESTAMP; j < SLOT_SIZE; j++) {
+                    buffer.put(offset + j, (byte) 0);
+                }
+                INT.setRelease(buffer, offset + OFFSET_SEQUENCE, sequence + 1);
+            } else if (buffer.getLong(offset + OFFSET_TIMESTAMP) != 0) {
+                final var begin = beginWrite(offset);
+                buffer.put(offset + OFFSET_FLAGS, (byte) (buffer.get(offset + OFFSET_FLAGS) | FLAG_RESTORED));
+                endWrite(offset, begin);
+                restoredCount++;
+            }
+        }
+        return restoredCount;
+    }
+
+    /**
+     * Writes the value of group address to the table. Values that are
+     * longer than {@link #MAX_VALUE_LENGTH} are not stored.
+     *
+     * @param groupAddress the 16-bit group address
+     * @param timestamp    the timestamp in milliseconds since epoch; must be positive
+     * @param data         the raw value; may not be null
+     * @param restored     {@code true} if the value has been restored from snapshot
+     * @return {@code true} if stored, otherwise {@code false}
+     */
+    public synchronized boolean write(final int groupAddress, final long timestamp, final byte[] data, final boolean restored) {
+        if (data.length > MAX_VALUE_LENGTH) {
+            return false;
+        }
+
+        final var offset = groupAddress * SLOT_SIZE;
+        final var sequence = beginWrite(offset);
+        buffer.putLong(offset + OFFSET_TIMESTAMP, timestamp);
+        buffer.put(offset + OFFSET_VALUE_LENGTH, (byte) data.length);
+        buffer.put(offset + OFFSET_FLAGS, (byte) (restored ? FLAG_RESTORED : 0));
+        for (var i = 0; i < data.length; i++) {
+            buffer.put(offset + OFFSET_VALUE + i, data[i]);
+        }
+        endWrite(offset, sequence);
+        return true;
+    }
+
+    /**
+     * Sets the data point type hint of group address, which tells how the value
+     * of group address is to be interpreted
+     *
+     * @param groupAddress the 16-bit group address
+     * @param hint         the hint of data point type, see {@link #toDataPointTypeHint(DataPointType)}
+     */
+    public synchronized void setDataPointTypeHint(final int groupAddress, final int hint) {
+        final var offset = groupAddress * SLOT_SIZE;
+        if ((int) INT.get(buffer, offset + OFFSET_DATA_POINT_TYPE) != hint) {
+            final var sequence = beginWrite(offset);
+            INT.setOpaque(buffer, offset + OFFSET_DATA_POINT_TYPE, hint);
+            endWrite(offset, sequence);
+        }
+    }
+
+    private int beginWrite(final int offset) {
+        final var sequence = (int) INT.get(buffer, offset + OFFSET_SEQUENCE);
+        INT.setOpaque(buffer, offset + OFFSET_SEQUENCE, sequence + 1);
+        // the odd sequence must be visible before the slot is changed
+        VarHandle.storeStoreFence();
+        return sequence;
+    }
+
+    private void endWrite(final int offset, final int sequence) {
+        INT.setRelease(buffer, offset + OFFSET_SEQUENCE, sequence + 2);
+    }
+
+    /**
+     * Reads the value of group address from the table
+     *
+     * @param groupAddress the 16-bit group address
+     * @return the value, or {@code null} if there is no value for the group address
+     */
+    @Nullable
+    public CachedValue read(final int groupAddress) {
+        final var offset = groupAddress * SLOT_SIZE;
+        while (true) {
+            final var sequence = (int) INT.getAcquire(buffer, offset + OFFSET_SEQUENCE);
+            if ((sequence & 1) == 0) {
+                final var timestamp = buffer.getLong(offset + OFFSET_TIMESTAMP);
+                final var data = new byte[Math.min(Byte.toUnsignedInt(buffer.get(offset + OFFSET_VALUE_LENGTH)), MAX_VALUE_LENGTH)];
+                for (var i = 0; i < data.length; i++) {
+                    data[i] = buffer.get(offset + OFFSET_VALUE + i);
+                }
+                final var restored = (buffer.get(offset + OFFSET_FLAGS) & FLAG_RESTORED) != 0;
+
+                // the slot is consistent if it has not been written in the meantime
+                VarHandle.loadLoadFence();
+                if ((int) INT.get(buffer, offset + OFFSET_SEQUENCE) == sequence) {
+                    return timestamp == 0 ? null : new CachedValue(data, timestamp, restored);
+                }
+            }
+            Thread.onSpinWait();
+        }
+    }
+
+    /**
+     * Returns the data point type hint of group address
+     *
+     * @param groupAddress the 16-bit group address
+     * @return the hint of data point type, {@code 0} if unknown
+     */
+    public int getDataPointTypeHint(final int groupAddress) {
+        // a single aligned int is always read consistently
+        return (int) INT.getAcquire(buffer, groupAddress * SLOT_SIZE + OFFSET_DATA_POINT_TYPE);
+    }
+
+    /**
+     * Returns the sequence of slot, which is incremented by two for every write
+     *
+     * @param groupAddress the 16-bit group address
+     * @return sequence of slot
+     */
+    public int getSequence(final int groupAddress) {
+        return (int) INT.getAcquire(buffer, groupAddress * SLOT_SIZE + OFFSET_SEQUENCE);
+    }
+
+    /**
+     * Marks the table as stopped if placed in a file; the values are kept
+     */
+    @Override
+    public void close() {
+        if (file != null) {
+            file.putInt(OFFSET_STATE, STATE_STOPPED);
+            file.force();
+        }
+    }
+
+    /**
+     * Returns the data point type hint for given {@link DataPointType}, which contains the
+     * data point type in the upper and the data point sub type in the lower 16 bits
+     * (e.g. {@code 0x00010001} for {@code 1.001})
+     *
+     * @param dataPointType the data point type; may not be null
+     * @return hint of data point type, {@code 0} if the data point type has no numeric id
+     */
+    public static int toDataPointTypeHint(final DataPointType dataPointType) {
+        final var id = dataPointType.getId();
+        final var separator = id.indexOf('.');
+        try {
+            if (separator < 0) {
+                return Integer.parseInt(id) << 16;
+            }
+            return (Integer.parseInt(id.substring(0, separator)) << 16) | Integer.parseInt(id.substring(separator + 1));
+        } catch (final NumberFormatException e) {
+            return 0;
+        }
+    }
+}
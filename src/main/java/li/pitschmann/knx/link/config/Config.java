@@ -17,13 +17,21 @@
 
 package li.pitschmann.knx.link.config;
 
+import li.pitschmann.knx.core.annotations.Nullable;
 import li.pitschmann.knx.core.config.ConfigBuilder;
 import li.pitschmann.knx.core.config.CoreConfigs;
+import li.pitschmann.knx.core.plugin.Plugin;
 import li.pitschmann.knx.core.utils.Networker;
 import li.pitschmann.knx.core.utils.Strings;
 import li.pitschmann.knx.link.SecurityAuditor;
+import li.pitschmann.knx.link.subscription.OverflowPolicy;
 
 import java.net.InetAddress;
+import java.nio.file.Path;
+import java.nio.file.attribute.PosixFilePermission;
+import java.nio.file.attribute.PosixFilePermissions;
+import java.util.List;
+import java.util.Map;
 import java.util.Set;
 
 /**
@@ -33,7 +41,37 @@ import java.util.Set;
  */
 public final class Config {
     public static final int DEFAULT_SERVER_PORT = 3672;
+    public static final long DEFAULT_SERVER_READ_TIMEOUT = 3000L;
+    public static final int DEFAULT_SERVER_EVENT_BUFFER_SIZE = 1024;
+    public static final OverflowPolicy DEFAULT_SERVER_EVENT_OVERFLOW_POLICY = OverflowPolicy.CONFLATE;
+    public static final Path DEFAULT_SERVER_JOURNAL_PATH = null;
+    public static final long DEFAULT_SERVER_JOURNAL_SEGMENT_SIZE = 64L * 1024 * 1024;
+    public static final int DEFAULT_SERVER_JOURNAL_RETAINED_SEGMENTS = 4;
+    public static final long DEFAULT_SERVER_JOURNAL_DOWNSAMPLE_INTERVAL = 0L;
+    public static final long DEFAULT_SERVER_JOURNAL_COMPACTION_RATE = 1024L * 1024;
+    public static final Path DEFAULT_SERVER_SNAPSHOT_PATH = null;
+    public static final Path DEFAULT_SERVER_STATE_TABLE_PATH = null;
+    public static final Path DEFAULT_SERVER_IPC_PATH = null;
+    public static final Path DEFAULT_SERVER_UNIX_PATH = null;
+    public static final Set<PosixFilePermission> DEFAULT_SERVER_UNIX_PERMISSIONS = Set.copyOf(PosixFilePermissions.fromString("rw-rw----"));
+    public static final int DEFAULT_SERVER_UDP_PORT = 0;
+    public static final boolean DEFAULT_SERVER_UDP_ACK_ENABLED = false;
+    public static final long DEFAULT_SERVER_REQUEST_TIMEOUT = 10000L;
+    public static final long DEFAULT_SERVER_ACK_TIMEOUT = 5000L;
+    public static final int DEFAULT_SERVER_BUSY_QUEUE_WATERMARK = 1000;
+    public static final int DEFAULT_SERVER_BUSY_INFLIGHT_WATERMARK = 100;
+    public static final int DEFAULT_SERVER_LIMITER_MAX = 0;
+    public static final int DEFAULT_SERVER_BREAKER_THRESHOLD = 5;
+    public static final long DEFAULT_SERVER_BREAKER_OPEN_DURATION = 10000L;
+    public static final Map<InetAddress, Integer> DEFAULT_SERVER_FAIR_WEIGHTS = Map.of();
+    public static final int DEFAULT_SERVER_CONNECTIONS_MAX = 1000;
+    public static final int DEFAULT_SERVER_CONNECTIONS_MAX_ADDRESS = 0;
+    public static final int DEFAULT_SERVER_ACCEPT_RATE = 0;
+    public static final long DEFAULT_SERVER_IDLE_TIMEOUT = 0L;
     public static final Set<String> DEFAULT_SERVER_ALLOWED_ADDRESSES = Set.of("127.0.0.1");
+    public static final int DEFAULT_SERVER_RATE_LIMIT_ADDRESS = 0;
+    public static final int DEFAULT_SERVER_RATE_LIMIT_CONNECTION = 0;
+    public static final int DEFAULT_SERVER_RATE_LIMIT_BURST = 10;
     public static final KnxMode DEFAULT_KNX_MODE = KnxMode.TUNNELING;
     public static final boolean DEFAULT_KNX_NAT_ENABLED = false;
     public static final int DEFAULT_KNX_PORT = CoreConfigs.KNX_PORT;
@@ -43,34 +81,85 @@ public final class Config {
     private final boolean knxNatEnabled;
     private final InetAddress knxAddress;
     private final int knxPort;
+    private final Map<String, String> knxSettings;
     private final int serverPort;
+    private final long serverReadTimeout;
+    private final int serverEventBufferSize;
+    private final OverflowPolicy serverEventOverflowPolicy;
+    private final Path serverJournalPath;
+    private final long serverJournalSegmentSize;
+    private final int serverJournalRetainedSegments;
+    private final long serverJournalDownsampleInterval;
+    private final long serverJournalCompactionRate;
+    private final Path serverSnapshotPath;
+    private final Path serverStateTablePath;
+    private final Path serverIpcPath;
+    private final Path serverUnixPath;
+    private final Set<PosixFilePermission> serverUnixPermissions;
+    private final int serverUdpPort;
+    private final boolean serverUdpAckEnabled;
+    private final long serverRequestTimeout;
+    private final long serverAckTimeout;
+    private final int serverBusyQueueWatermark;
+    private final int serverBusyInflightWatermark;
+    private final int serverLimiterMax;
+    private final int serverBreakerThreshold;
+    private final long serverBreakerOpenDuration;
+    private final Map<InetAddress, Integer> serverFairWeights;
+    private final int serverConnectionsMax;
+    private final int serverConnectionsMaxAddress;
+    private final int serverAcceptRate;
+    private final long serverIdleTimeout;
     private final SecurityAuditor securityAuditor;
 
-    Config(
-            final int serverPort,
-            final KnxMode knxMode,
-            final boolean knxNatEnabled,
-            final InetAddress knxAddress,
-            final int knxPort,
-            final SecurityAuditor securityAuditor) {
-
-        this.serverPort = serverPort;
-        this.knxMode = knxMode;
-        this.knxNatEnabled = knxNatEnabled;
-        this.knxAddress = knxAddress;
-        this.knxPort = knxPort;
-        this.securityAuditor = securityAuditor;
+    private Config(final Builder builder) {
+        this.serverPort = builder.serverPort;
+        this.knxMode = builder.knxMode;
+        this.knxNatEnabled = builder.knxNatEnabled;
+        this.knxAddress = builder.knxAddress;
+        this.knxPort = builder.knxPort;
+        this.knxSettings = builder.knxSettings;
+        this.securityAuditor = builder.securityAuditor;
+        this.serverReadTimeout = builder.serverReadTimeout;
+        this.serverEventBufferSize = builder.serverEventBufferSize;
+        this.serverEventOverflowPolicy = builder.serverEventOverflowPolicy;
+        this.serverJournalPath = builder.serverJournalPath;
+        this.serverJournalSegmentSize = builder.serverJournalSegmentSize;
+        this.serverJournalRetainedSegments = builder.serverJournalRetainedSegments;
+        this.serverJournalDownsampleInterval = builder.serverJournalDownsampleInterval;
+        this.serverJournalCompactionRate = builder.serverJournalCompactionRate;
+        this.serverSnapshotPath = builder.serverSnapshotPath;
+        this.serverStateTablePath = builder.serverStateTablePath;
+        this.serverIpcPath = builder.serverIpcPath;
+        this.serverUnixPath = builder.serverUnixPath;
+        this.serverUnixPermissions = builder.serverUnixPermissions;
+        this.serverUdpPort = builder.serverUdpPort;
+        this.serverUdpAckEnabled = builder.serverUdpAckEnabled;
+        this.serverRequestTimeout = builder.serverRequestTimeout;
+        this.serverAckTimeout = builder.serverAckTimeout;
+        this.serverBusyQueueWatermark = builder.serverBusyQueueWatermark;
+        this.serverBusyInflightWatermark = builder.serverBusyInflightWatermark;
+        this.serverLimiterMax = builder.serverLimiterMax;
+        this.serverBreakerThreshold = builder.serverBreakerThreshold;
+        this.serverBreakerOpenDuration = builder.serverBreakerOpenDuration;
+        this.serverFairWeights = builder.serverFairWeights;
+        this.serverConnectionsMax = builder.serverConnectionsMax;
+        this.serverConnectionsMaxAddress = builder.serverConnectionsMaxAddress;
+        this.serverAcceptRate = builder.serverAcceptRate;
+        this.serverIdleTimeout = builder.serverIdleTimeout;
     }
 
     public static final Config useDefault() {
-        return new Config(
-                DEFAULT_SERVER_PORT,
-                DEFAULT_KNX_MODE,
-                DEFAULT_KNX_NAT_ENABLED,
-                DEFAULT_KNX_ADDRESS,
-                DEFAULT_KNX_PORT,
-                new SecurityAuditor(DEFAULT_SERVER_ALLOWED_ADDRESSES)
-        );
+        return builder().build();
+    }
+
+    /**
+     * Returns a new {@link Builder} with the default settings
+     *
+     * @return a new {@link Builder}
+     */
+    static Builder builder() {
+        return new Builder();
     }
 
     public SecurityAuditor getSecurityAuditor() {
@@ -81,12 +170,297 @@ public final class Config {
         return serverPort;
     }
 
+    /**
+     * Returns the time in milliseconds how long the server should wait for
+     * the response telegram of a read request
+     *
+     * @return read timeout in milliseconds
+     */
+    public long getServerReadTimeout() {
+        return serverReadTimeout;
+    }
+
+    /**
+     * Returns the maximum number of events that may be pending per subscriber
+     *
+     * @return event buffer size per subscriber
+     */
+    public int getServerEventBufferSize() {
+        return serverEventBufferSize;
+    }
+
+    /**
+     * Returns the policy what should happen when the event buffer of a subscriber is full
+     *
+     * @return the {@link OverflowPolicy}
+     */
+    public OverflowPolicy getServerEventOverflowPolicy() {
+        return serverEventOverflowPolicy;
+    }
+
+    /**
+     * Returns the directory of telegram journal
+     *
+     * @return path of journal directory, or {@code null} if the journal is disabled
+     */
+    @Nullable
+    public Path getServerJournalPath() {
+        return serverJournalPath;
+    }
+
+    /**
+     * Returns the size of a journal segment file in bytes
+     *
+     * @return size of journal segment
+     */
+    public long getServerJournalSegmentSize() {
+        return serverJournalSegmentSize;
+    }
+
+    /**
+     * Returns the number of most recent journal segments that are retained uncompacted
+     *
+     * @return number of retained segments
+     */
+    public int getServerJournalRetainedSegments() {
+        return serverJournalRetainedSegments;
+    }
+
+    /**
+     * Returns the interval in milliseconds of which the last value per group address
+     * is kept when compacting the journal
+     *
+     * @return downsample interval in milliseconds, {@code 0} if only the last value is kept
+     */
+    public long getServerJournalDownsampleInterval() {
+        return serverJournalDownsampleInterval;
+    }
+
+    /**
+     * Returns the maximum I/O bandwidth of journal compaction
+     *
+     * @return compaction rate in bytes per second
+     */
+    public long getServerJournalCompactionRate() {
+        return serverJournalCompactionRate;
+    }
+
+    /**
+     * Returns the path of snapshot file for the last known values
+     *
+     * @return path of snapshot file, or {@code null} if the values are not persisted
+     */
+    @Nullable
+    public Path getServerSnapshotPath() {
+        return serverSnapshotPath;
+    }
+
+    /**
+     * Returns the path of file for the state table with the last known values
+     *
+     * @return path of state table file, or {@code null} if the state table is held in memory only
+     */
+    @Nullable
+    public Path getServerStateTablePath() {
+        return serverStateTablePath;
+    }
+
+    /**
+     * Returns the path of directory for the shared-memory connections of local clients
+     *
+     * @return path of IPC directory, or {@code null} if the shared-memory transport is disabled
+     */
+    @Nullable
+    public Path getServerIpcPath() {
+        return serverIpcPath;
+    }
+
+    /**
+     * Returns the path of Unix domain socket for local clients
+     *
+     * @return path of Unix domain socket, or {@code null} if the Unix domain socket is disabled
+     */
+    @Nullable
+    public Path getServerUnixPath() {
+        return serverUnixPath;
+    }
+
+    /**
+     * Returns the file permissions of Unix domain socket
+     *
+     * @return immutable set of file permissions
+     */
+    public Set<PosixFilePermission> getServerUnixPermissions() {
+        return serverUnixPermissions;
+    }
+
+    /**
+     * Returns the UDP port for fire-and-forget write requests
+     *
+     * @return UDP port, or {@code 0} if disabled
+     */
+    public int getServerUdpPort() {
+        return serverUdpPort;
+    }
+
+    /**
+     * Returns if the response of a write request via UDP is sent back as an acknowledge datagram
+     *
+     * @return {@code true} if acknowledge datagrams are sent, otherwise {@code false}
+     */
+    public boolean isServerUdpAckEnabled() {
+        return serverUdpAckEnabled;
+    }
+
+    /**
+     * Returns the time in milliseconds a request may wait in the queue until it is executed
+     *
+     * @return request timeout in milliseconds, or {@code 0} if requests never expire
+     */
+    public long getServerRequestTimeout() {
+        return serverRequestTimeout;
+    }
+
+    /**
+     * Returns the time in milliseconds to wait for the KNX client to complete a read or write request
+     *
+     * @return acknowledge timeout in milliseconds
+     */
+    public long getServerAckTimeout() {
+        return serverAckTimeout;
+    }
+
+    /**
+     * Returns the number of requests waiting in the queue from which new requests
+     * are rejected with {@link li.pitschmann.knx.link.Status#ERROR_BUSY}
+     *
+     * @return queue watermark, {@code 0} if disabled
+     */
+    public int getServerBusyQueueWatermark() {
+        return serverBusyQueueWatermark;
+    }
+
+    /**
+     * Returns the number of read and write requests which have been handed over to the KNX client
+     * but are not acknowledged yet, from which new requests are rejected with
+     * {@link li.pitschmann.knx.link.Status#ERROR_BUSY}
+     *
+     * @return in-flight watermark, {@code 0} if disabled
+     */
+    public int getServerBusyInflightWatermark() {
+        return serverBusyInflightWatermark;
+    }
+
+    /**
+     * Returns the upper bound of the adaptive limit for read and write requests that may be
+     * in-flight to the KNX client at the same time
+     *
+     * @return maximum in-flight limit, {@code 0} if the adaptive limiter is disabled
+     */
+    public int getServerLimiterMax() {
+        return serverLimiterMax;
+    }
+
+    /**
+     * Returns the number of consecutive read or write requests that are not acknowledged
+     * by the KNX Net/IP device, after which the circuit breaker opens
+     *
+     * @return failure threshold, {@code 0} if the circuit breaker is disabled
+     */
+    public int getServerBreakerThreshold() {
+        return serverBreakerThreshold;
+    }
+
+    /**
+     * Returns the time in milliseconds the circuit breaker stays open, until a single
+     * request is sent as probe to the KNX Net/IP device
+     *
+     * @return open duration in milliseconds
+     */
+    public long getServerBreakerOpenDuration() {
+        return serverBreakerOpenDuration;
+    }
+
+    /**
+     * Returns the weights of client IP addresses for the fair queueing of requests.
+     * Clients that are not listed have a weight of {@code 1}.
+     *
+     * @return immutable map of IP address and weight
+     */
+    public Map<InetAddress, Integer> getServerFairWeights() {
+        return serverFairWeights;
+    }
+
+    /**
+     * Returns the number of client connections that may be open at the same time
+     *
+     * @return maximum number of connections, {@code 0} if unlimited
+     */
+    public int getServerConnectionsMax() {
+        return serverConnectionsMax;
+    }
+
+    /**
+     * Returns the number of client connections that may be open at the same time per IP address
+     *
+     * @return maximum number of connections per IP address, {@code 0} if unlimited
+     */
+    public int getServerConnectionsMaxAddress() {
+        return serverConnectionsMaxAddress;
+    }
+
+    /**
+     * Returns the number of new client connections that are accepted per second
+     *
+     * @return accept rate per second, {@code 0} if unlimited
+     */
+    public int getServerAcceptRate() {
+        return serverAcceptRate;
+    }
+
+    /**
+     * Returns the time in milliseconds after which a client connection is closed
+     * when no request has been received from the client
+     *
+     * @return idle timeout in milliseconds, {@code 0} if disabled
+     */
+    public long getServerIdleTimeout() {
+        return serverIdleTimeout;
+    }
+
+    /**
+     * Checks if the other {@link Config} has the same settings for the communication
+     * with the KNX Net/IP device ({@code knx.*} configuration keys). All {@code knx.*}
+     * configuration keys are compared, also those that are not known by this config.
+     *
+     * @param other the other config; may not be null
+     * @return {@code true} if the KNX settings are same, otherwise {@code false}
+     */
+    public boolean hasSameKnxSettings(final Config other) {
+        return knxMode == other.knxMode
+                && knxNatEnabled == other.knxNatEnabled
+                && knxAddress.equals(other.knxAddress)
+                && knxPort == other.knxPort
+                && knxSettings.equals(other.knxSettings);
+    }
+
     /**
      * Returns the configuration for {@link li.pitschmann.knx.core.communication.KnxClient}
      *
+     * @param plugins plugins to be registered for the {@link li.pitschmann.knx.core.communication.KnxClient}
      * @return immutable {@link li.pitschmann.knx.core.communication.KnxClient} configuration
      */
-    public li.pitschmann.knx.core.config.Config getKnxClientConfig() {
+    public li.pitschmann.knx.core.config.Config getKnxClientConfig(final Plugin... plugins) {
+        final var builder = createKnxClientConfigBuilder()
+                // one plugin thread only, otherwise the telegrams may be forwarded in a different order
+                .setting(CoreConfigs.Plugin.EXECUTOR_POOL_SIZE, 1);
+        for (final var plugin : plugins) {
+            builder.plugin(plugin);
+        }
+        return builder.build();
+    }
+
+    private ConfigBuilder createKnxClientConfigBuilder() {
         if (KnxMode.TUNNELING.equals(knxMode)) {
             if (knxAddress.isAnyLocalAddress()) {
                 // auto-discovery to be used
@@ -94,24 +468,23 @@ public final class Config {
                         // pre-defined ports for firewall otherwise the system would choose a random free one
                         .setting(CoreConfigs.Description.PORT, 40001)
                         .setting(CoreConfigs.Control.PORT, 40002)
-                        .setting(CoreConfigs.Data.PORT, 40003)
-                        .build();
+                        .setting(CoreConfigs.Data.PORT, 40003);
             } else {
                 return ConfigBuilder.tunneling(
                         knxAddress,
                         knxPort,
                         knxNatEnabled
-                ).build();
+                );
             }
         } else if (KnxMode.ROUTING.equals(knxMode)) {
             if (knxAddress.isAnyLocalAddress()) {
                 // auto-discovery to be used
-                return ConfigBuilder.routing().build();
+                return ConfigBuilder.routing();
             } else {
                 return ConfigBuilder.routing(
                         knxAddress,
                         knxPort
-                ).build();
+                );
             }
         } else {
             throw new AssertionError("Unsupported KNX communication mode selected: " + knxMode);
@@ -126,7 +499,252 @@ public final class Config {
                 .add("knxAddress", knxAddress.getHostAddress())
                 .add("knxPort", knxPort)
                 .add("serverPort", serverPort)
+                .add("serverReadTimeout", serverReadTimeout)
+                .add("serverEventBufferSize", serverEventBufferSize)
+                .add("serverEventOverflowPolicy", serverEventOverflowPolicy.name())
+                .add("serverJournalPath", serverJournalPath)
+                .add("serverJournalSegmentSize", serverJournalSegmentSize)
+                .add("serverJournalRetainedSegments", serverJournalRetainedSegments)
+                .add("serverJournalDownsampleInterval", serverJournalDownsampleInterval)
+                .add("serverJournalCompactionRate", serverJournalCompactionRate)
+                .add("serverSnapshotPath", serverSnapshotPath)
+                .add("serverStateTablePath", serverStateTablePath)
+                .add("serverIpcPath", serverIpcPath)
+                .add("serverUnixPath", serverUnixPath)
+                .add("serverUnixPermissions", PosixFilePermissions.toString(serverUnixPermissions))
+                .add("serverUdpPort", serverUdpPort)
+                .add("serverUdpAckEnabled", serverUdpAckEnabled)
+                .add("serverRequestTimeout", serverRequestTimeout)
+                .add("serverAckTimeout", serverAckTimeout)
+                .add("serverBusyQueueWatermark", serverBusyQueueWatermark)
+                .add("serverBusyInflightWatermark", serverBusyInflightWatermark)
+                .add("serverLimiterMax", serverLimiterMax)
+                .add("serverBreakerThreshold", serverBreakerThreshold)
+                .add("serverBreakerOpenDuration", serverBreakerOpenDuration)
+                .add("serverFairWeights", serverFairWeights)
+                .add("serverConnectionsMax", serverConnectionsMax)
+                .add("serverConnectionsMaxAddress", serverConnectionsMaxAddress)
+                .add("serverAcceptRate", serverAcceptRate)
+                .add("serverIdleTimeout", serverIdleTimeout)
                 .add("securityAuditor", securityAuditor)
                 .toString();
     }
+
+    /**
+     * Builder for {@link Config}, the settings that are not set have their default value
+     */
+    static final class Builder {
+        private int serverPort = DEFAULT_SERVER_PORT;
+        private KnxMode knxMode = DEFAULT_KNX_MODE;
+        private boolean knxNatEnabled = DEFAULT_KNX_NAT_ENABLED;
+        private InetAddress knxAddress = DEFAULT_KNX_ADDRESS;
+        private int knxPort = DEFAULT_KNX_PORT;
+        private Map<String, String> knxSettings = Map.of();
+        private SecurityAuditor securityAuditor = new SecurityAuditor(DEFAULT_SERVER_ALLOWED_ADDRESSES, DEFAULT_SERVER_RATE_LIMIT_ADDRESS,
+                DEFAULT_SERVER_RATE_LIMIT_CONNECTION, DEFAULT_SERVER_RATE_LIMIT_BURST, List.of());
+        private long serverReadTimeout = DEFAULT_SERVER_READ_TIMEOUT;
+        private int serverEventBufferSize = DEFAULT_SERVER_EVENT_BUFFER_SIZE;
+        private OverflowPolicy serverEventOverflowPolicy = DEFAULT_SERVER_EVENT_OVERFLOW_POLICY;
+        private Path serverJournalPath = DEFAULT_SERVER_JOURNAL_PATH;
+        private long serverJournalSegmentSize = DEFAULT_SERVER_JOURNAL_SEGMENT_SIZE;
+        private int serverJournalRetainedSegments = DEFAULT_SERVER_JOURNAL_RETAINED_SEGMENTS;
+        private long serverJournalDownsampleInterval = DEFAULT_SERVER_JOURNAL_DOWNSAMPLE_INTERVAL;
+        private long serverJournalCompactionRate = DEFAULT_SERVER_JOURNAL_COMPACTION_RATE;
+        private Path serverSnapshotPath = DEFAULT_SERVER_SNAPSHOT_PATH;
+        private Path serverStateTablePath = DEFAULT_SERVER_STATE_TABLE_PATH;
+        private Path serverIpcPath = DEFAULT_SERVER_IPC_PATH;
+        private Path serverUnixPath = DEFAULT_SERVER_UNIX_PATH;
+        private Set<PosixFilePermission> serverUnixPermissions = DEFAULT_SERVER_UNIX_PERMISSIONS;
+        private int serverUdpPort = DEFAULT_SERVER_UDP_PORT;
+        private boolean serverUdpAckEnabled = DEFAULT_SERVER_UDP_ACK_ENABLED;
+        private long serverRequestTimeout = DEFAULT_SERVER_REQUEST_TIMEOUT;
+        private long serverAckTimeout = DEFAULT_SERVER_ACK_TIMEOUT;
+        private int serverBusyQueueWatermark = DEFAULT_SERVER_BUSY_QUEUE_WATERMARK;
+        private int serverBusyInflightWatermark = DEFAULT_SERVER_BUSY_INFLIGHT_WATERMARK;
+        private int serverLimiterMax = DEFAULT_SERVER_LIMITER_MAX;
+        private int serverBreakerThreshold = DEFAULT_SERVER_BREAKER_THRESHOLD;
+        private long serverBreakerOpenDuration = DEFAULT_SERVER_BREAKER_OPEN_DURATION;
+        private Map<InetAddress, Integer> serverFairWeights = DEFAULT_SERVER_FAIR_WEIGHTS;
+        private int serverConnectionsMax = DEFAULT_SERVER_CONNECTIONS_MAX;
+        private int serverConnectionsMaxAddress = DEFAULT_SERVER_CONNECTIONS_MAX_ADDRESS;
+        private int serverAcceptRate = DEFAULT_SERVER_ACCEPT_RATE;
+        private long serverIdleTimeout = DEFAULT_SERVER_IDLE_TIMEOUT;
+
+        private Builder() {
+        }
+
+        Builder serverPort(final int serverPort) {
+            this.serverPort = serverPort;
+            return this;
+        }
+
+        Builder knxMode(final KnxMode knxMode) {
+            this.knxMode = knxMode;
+            return this;
+        }
+
+        Builder knxNatEnabled(final boolean knxNatEnabled) {
+            this.knxNatEnabled = knxNatEnabled;
+            return this;
+        }
+
+        Builder knxAddress(final InetAddress knxAddress) {
+            this.knxAddress = knxAddress;
+            return this;
+        }
+
+        Builder knxPort(final int knxPort) {
+            this.knxPort = knxPort;
+            return this;
+        }
+
+        Builder knxSettings(final Map<String, String> knxSettings) {
+            this.knxSettings = knxSettings;
+            return this;
+        }
+
+        Builder securityAuditor(final SecurityAuditor securityAuditor) {
+            this.securityAuditor = securityAuditor;
+            return this;
+        }
+
+        Builder serverReadTimeout(final long serverReadTimeout) {
+            this.serverReadTimeout = serverReadTimeout;
+            return this;
+        }
+
+        Builder serverEventBufferSize(final int serverEventBufferSize) {
+            this.serverEventBufferSize = serverEventBufferSize;
+            return this;
+        }
+
+        Builder serverEventOverflowPolicy(final OverflowPolicy serverEventOverflowPolicy) {
+            this.serverEventOverflowPolicy = serverEventOverflowPolicy;
+            return this;
+        }
+
+        Builder serverJournalPath(final @Nullable Path serverJournalPath) {
+            this.serverJournalPath = serverJournalPath;
+            return this;
+        }
+
+        Builder serverJournalSegmentSize(final long serverJournalSegmentSize) {
+            this.serverJournalSegmentSize = serverJournalSegmentSize;
+            return this;
+        }
+
+        Builder serverJournalRetainedSegments(final int serverJournalRetainedSegments) {
+            this.serverJournalRetainedSegments = serverJournalRetainedSegments;
+            return this;
+        }
+
+        Builder serverJournalDownsampleInterval(final long serverJournalDownsampleInterval) {
+            this.serverJournalDownsampleInterval = serverJournalDownsampleInterval;
+            return this;
+        }
+
+        Builder serverJournalCompactionRate(final long serverJournalCompactionRate) {
+            this.serverJournalCompactionRate = serverJournalCompactionRate;
+            return this;
+        }
+
+        Builder serverSnapshotPath(final @Nullable Path serverSnapshotPath) {
+            this.serverSnapshotPath = serverSnapshotPath;
+            return this;
+        }
+
+        Builder serverStateTablePath(final @Nullable Path serverStateTablePath) {
+            this.serverStateTablePath = serverStateTablePath;
+            return this;
+        }
+
+        Builder serverIpcPath(final @Nullable Path serverIpcPath) {
+            this.serverIpcPath = serverIpcPath;
+            return this;
+        }
+
+        Builder serverUnixPath(final @Nullable Path serverUnixPath) {
+            this.serverUnixPath = serverUnixPath;
+            return this;
+        }
+
+        Builder serverUnixPermissions(final Set<PosixFilePermission> serverUnixPermissions) {
+            this.serverUnixPermissions = serverUnixPermissions;
+            return this;
+        }
+
+        Builder serverUdpPort(final int serverUdpPort) {
+            this.serverUdpPort = serverUdpPort;
+            return this;
+        }
+
+        Builder serverUdpAckEnabled(final boolean serverUdpAckEnabled) {
+            this.serverUdpAckEnabled = serverUdpAckEnabled;
+            return this;
+        }
+
+        Builder serverRequestTimeout(final long serverRequestTimeout) {
+            this.serverRequestTimeout = serverRequestTimeout;
+            return this;
+        }
+
+        Builder serverAckTimeout(final long serverAckTimeout) {
+            this.serverAckTimeout = serverAckTimeout;
+            return this;
+        }
+
+        Builder serverBusyQueueWatermark(final int serverBusyQueueWatermark) {
+            this.serverBusyQueueWatermark = serverBusyQueueWatermark;
+            return this;
+        }
+
+        Builder serverBusyInflightWatermark(final int serverBusyInflightWatermark) {
+            this.serverBusyInflightWatermark = serverBusyInflightWatermark;
+            return this;
+        }
+
+        Builder serverLimiterMax(final int serverLimiterMax) {
+            this.serverLimiterMax = serverLimiterMax;
+            return this;
+        }
+
+        Builder serverBreakerThreshold(final int serverBreakerThreshold) {
+            this.serverBreakerThreshold = serverBreakerThreshold;
+            return this;
+        }
+
+        Builder serverBreakerOpenDuration(final long serverBreakerOpenDuration) {
+            this.serverBreakerOpenDuration = serverBreakerOpenDuration;
+            return this;
+        }
+
+        Builder serverFairWeights(final Map<InetAddress, Integer> serverFairWeights) {
+            this.serverFairWeights = serverFairWeights;
+            return this;
+        }
+
+        Builder serverConnectionsMax(final int serverConnectionsMax) {
+            this.serverConnectionsMax = serverConnectionsMax;
+            return this;
+        }
+
+        Builder serverConnectionsMaxAddress(final int serverConnectionsMaxAddress) {
+            this.serverConnectionsMaxAddress = serverConnectionsMaxAddress;
+            return this;
+        }
+
+        Builder serverAcceptRate(final int serverAcceptRate) {
+            this.serverAcceptRate = serverAcceptRate;
+            return this;
+        }
+
+        Builder serverIdleTimeout(final long serverIdleTimeout) {
+            this.serverIdleTimeout = serverIdleTimeout;
+            return this;
+        }
+
+        Config build() {
+            return new Config(this);
+        }
+    }
 }
@@ -18,18 +18,34 @@
 package li.pitschmann.knx.link.config;
 
 import li.pitschmann.knx.core.utils.Networker;
+import li.pitschmann.knx.core.utils.Preconditions;
 import li.pitschmann.knx.core.utils.Strings;
+import li.pitschmann.knx.link.AccessRule;
 import li.pitschmann.knx.link.SecurityAuditor;
+import li.pitschmann.knx.link.journal.Journal;
+import li.pitschmann.knx.link.journal.JournalRecord;
+import li.pitschmann.knx.link.subscription.OverflowPolicy;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.io.FileInputStream;
 import java.io.IOException;
 import java.net.InetAddress;
+import java.net.UnknownHostException;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.attribute.PosixFilePermission;
+import java.nio.file.attribute.PosixFilePermissions;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.Properties;
 import java.util.Set;
+import java.util.TreeSet;
+import java.util.function.Consumer;
+import java.util.regex.Pattern;
 
 /**
  * Utility to read a configuration file
@@ -40,6 +56,9 @@ import java.util.Set;
  */
 public final class ConfigReader {
     private static final Logger LOG = LoggerFactory.getLogger(ConfigReader.class);
+    private static final String ACL_PREFIX = "server.acl.";
+    private static final String ACL_CLIENTS_SUFFIX = ".clients";
+    private static final Pattern IPV4_PATTERN = Pattern.compile("\\d{1,3}(\\.\\d{1,3}){3}");
 
     private ConfigReader() {
         throw new AssertionError("Do not call me!");
@@ -52,21 +71,36 @@ public final class ConfigReader {
      * @return an immutable Config
      */
     public static Config load(final Path path) {
+        final var config = create(readProperties(path));
+        LOG.info("Config loaded with: {}", config);
+        return config;
+    }
+
+    /**
+     * Watches the configuration file at given {@link Path} for changes. Whenever the file
+     * has been changed, the configuration is read again and passed to the listener.
+     *
+     * @param path     the configuration path, must exists and readable; may not be null
+     * @param listener the listener that is called with the reloaded configuration; may not be null
+     * @return the {@link ConfigWatcher} that must be polled for changes, and closed when not needed anymore
+     * @throws IOException if the file could not be watched
+     */
+    public static ConfigWatcher watch(final Path path, final Consumer<Config> listener) throws IOException {
+        return new ConfigWatcher(path, listener);
+    }
+
+    /**
+     * Reads the properties of configuration file from given {@link Path}
+     *
+     * @param path the configuration path, must exists and readable; may not be null
+     * @return the loaded properties
+     */
+    static Properties readProperties(final Path path) {
         if (Files.isReadable(path)) {
             final var properties = new Properties();
             try (final var fis = new FileInputStream(path.toFile())) {
                 properties.load(fis);
-
-                final var config = new Config(
-                        getServerPort(properties),
-                        getKnxMode(properties),
-                        getKnxNatEnabled(properties),
-                        getKnxAddress(properties),
-                        getKnxPort(properties),
-                        getSecurityAuditor(properties)
-                );
-                LOG.info("Config loaded with: {}", config);
-                return config;
+                return properties;
             } catch (IOException e) {
                 LOG.error("I/O Exception during reading configuration", e);
             }
@@ -76,6 +110,51 @@ public final class ConfigReader {
         throw new ConfigException("Could not read the configuration: " + path);
     }
 
+    /**
+     * Creates the {@link Config} from the loaded properties
+     *
+     * @param properties the loaded properties; may not be null
+     * @return an immutable Config
+     */
+    static Config create(final Properties properties) {
+        return Config.builder()
+                .serverPort(getServerPort(properties))
+                .knxMode(getKnxMode(properties))
+                .knxNatEnabled(getKnxNatEnabled(properties))
+                .knxAddress(getKnxAddress(properties))
+                .knxPort(getKnxPort(properties))
+                .securityAuditor(getSecurityAuditor(properties))
+                .serverReadTimeout(getServerReadTimeout(properties))
+                .serverEventBufferSize(getServerEventBufferSize(properties))
+                .serverEventOverflowPolicy(getServerEventOverflowPolicy(properties))
+                .serverJournalPath(getServerJournalPath(properties))
+                .serverJournalSegmentSize(getServerJournalSegmentSize(properties))
+                .serverJournalRetainedSegments(getServerJournalRetainedSegments(properties))
+                .serverJournalDownsampleInterval(getServerJournalDownsampleInterval(properties))
+                .serverJournalCompactionRate(getServerJournalCompactionRate(properties))
+                .serverSnapshotPath(getServerSnapshotPath(properties))
+                .serverStateTablePath(getServerStateTablePath(properties))
+                .serverIpcPath(getServerIpcPath(properties))
+                .serverUnixPath(getServerUnixPath(properties))
+                .serverUnixPermissions(getServerUnixPermissions(properties))
+                .serverUdpPort(getServerUdpPort(properties))
+                .serverUdpAckEnabled(getServerUdpAckEnabled(properties))
+                .serverRequestTimeout(getServerRequestTimeout(properties))
+                .serverAckTimeout(getServerAckTimeout(properties))
+                .serverBusyQueueWatermark(getServerBusyQueueWatermark(properties))
+                .serverBusyInflightWatermark(getServerBusyInflightWatermark(properties))
+                .serverLimiterMax(getServerLimiterMax(properties))
+                .serverBreakerThreshold(getServerBreakerThreshold(properties))
+                .serverBreakerOpenDuration(getServerBreakerOpenDuration(properties))
+                .serverFairWeights(getServerFairWeights(properties))
+                .serverConnectionsMax(getServerConnectionsMax(properties))
+                .serverConnectionsMaxAddress(getServerConnectionsMaxAddress(properties))
+                .serverAcceptRate(getServerAcceptRate(properties))
+                .serverIdleTimeout(getServerIdleTimeout(properties))
+                .knxSettings(getKnxSettings(properties))
+                .build();
+    }
+
     /**
      * Returns the server port from {@code server.port} configuration key.
      * Defaults to {@link Config#DEFAULT_SERVER_PORT} if not specified
@@ -88,6 +167,388 @@ public final class ConfigReader {
         return Strings.isNullOrEmpty(serverPort) ? Config.DEFAULT_SERVER_PORT : Integer.parseInt(serverPort);
     }
 
+    /**
+     * Returns the time in milliseconds to wait for a response telegram of a read
+     * request from {@code server.read.timeout} configuration key. Defaults to
+     * {@link Config#DEFAULT_SERVER_READ_TIMEOUT} if not specified
+     *
+     * @param properties the loaded properties; may not be null
+     * @return the read timeout in milliseconds
+     */
+    private static long getServerReadTimeout(final Properties properties) {
+        return getLong(properties, "server.read.timeout", Config.DEFAULT_SERVER_READ_TIMEOUT, 1L, Long.MAX_VALUE);
+    }
+
+    /**
+     * Returns the maximum number of pending events per subscriber from
+     * {@code server.event.buffer.size} configuration key. Defaults to
+     * {@link Config#DEFAULT_SERVER_EVENT_BUFFER_SIZE} if not specified
+     *
+     * @param properties the loaded properties; may not be null
+     * @return the event buffer size
+     */
+    private static int getServerEventBufferSize(final Properties properties) {
+        final var bufferSize = properties.getProperty("server.event.buffer.size");
+        return Strings.isNullOrEmpty(bufferSize) ? Config.DEFAULT_SERVER_EVENT_BUFFER_SIZE : Integer.parseInt(bufferSize);
+    }
+
+    /**
+     * Returns the policy when the event buffer of a subscriber is full from
+     * {@code server.event.overflow.policy} configuration key. Defaults to
+     * {@link Config#DEFAULT_SERVER_EVENT_OVERFLOW_POLICY} if not specified
+     *
+     * @param properties the loaded properties; may not be null
+     * @return the overflow policy
+     */
+    private static OverflowPolicy getServerEventOverflowPolicy(final Properties properties) {
+        final var overflowPolicy = properties.getProperty("server.event.overflow.policy");
+        return Strings.isNullOrEmpty(overflowPolicy) ? Config.DEFAULT_SERVER_EVENT_OVERFLOW_POLICY : OverflowPolicy.of(overflowPolicy);
+    }
+
+    /**
+     * Returns the directory of telegram journal from {@code server.journal.path}
+     * configuration key. Defaults to {@link Config#DEFAULT_SERVER_JOURNAL_PATH}
+     * (journal disabled) if not specified
+     *
+     * @param properties the loaded properties; may not be null
+     * @return the journal directory, or {@code null} if disabled
+     */
+    private static Path getServerJournalPath(final Properties properties) {
+        final var journalPath = properties.getProperty("server.journal.path");
+        return Strings.isNullOrEmpty(journalPath) ? Config.DEFAULT_SERVER_JOURNAL_PATH : Paths.get(journalPath.trim());
+    }
+
+    /**
+     * Returns the size of journal segment file in bytes from {@code server.journal.segment.size}
+     * configuration key. Defaults to {@link Config#DEFAULT_SERVER_JOURNAL_SEGMENT_SIZE} if not specified
+     *
+     * @param properties the loaded properties; may not be null
+     * @return the journal segment size
+     */
+    private static long getServerJournalSegmentSize(final Properties properties) {
+        return getLong(properties, "server.journal.segment.size", Config.DEFAULT_SERVER_JOURNAL_SEGMENT_SIZE,
+                Journal.HEADER_SIZE + JournalRecord.RECORD_SIZE, Integer.MAX_VALUE);
+    }
+
+    /**
+     * Returns the number of most recent journal segments that are not compacted from
+     * {@code server.journal.retained.segments} configuration key. Defaults to
+     * {@link Config#DEFAULT_SERVER_JOURNAL_RETAINED_SEGMENTS} if not specified
+     *
+     * @param properties the loaded properties; may not be null
+     * @return the number of retained segments
+     */
+    private static int getServerJournalRetainedSegments(final Properties properties) {
+        return (int) getLong(properties, "server.journal.retained.segments", Config.DEFAULT_SERVER_JOURNAL_RETAINED_SEGMENTS,
+                0L, Integer.MAX_VALUE);
+    }
+
+    /**
+     * Returns the downsample interval in milliseconds for journal compaction from
+     * {@code server.journal.downsample.interval} configuration key. Defaults to
+     * {@link Config#DEFAULT_SERVER_JOURNAL_DOWNSAMPLE_INTERVAL} if not specified
+     *
+     * @param properties the loaded properties; may not be null
+     * @return the downsample interval in milliseconds
+     */
+    private static long getServerJournalDownsampleInterval(final Properties properties) {
+        return getLong(properties, "server.journal.downsample.interval", Config.DEFAULT_SERVER_JOURNAL_DOWNSAMPLE_INTERVAL,
+                0L, Long.MAX_VALUE);
+    }
+
+    /**
+     * Returns the maximum I/O bandwidth of journal compaction in bytes per second from
+     * {@code server.journal.compaction.rate} configuration key. Defaults to
+     * {@link Config#DEFAULT_SERVER_JOURNAL_COMPACTION_RATE} if not specified
+     *
+     * @param properties the loaded properties; may not be null
+     * @return the compaction rate in bytes per second
+     */
+    private static long getServerJournalCompactionRate(final Properties properties) {
+        return getLong(properties, "server.journal.compaction.rate", Config.DEFAULT_SERVER_JOURNAL_COMPACTION_RATE,
+                1L, Long.MAX_VALUE);
+    }
+
+    /**
+     * Returns the path of snapshot file for the last known values from {@code server.snapshot.path}
+     * configuration key. Defaults to {@link Config#DEFAULT_SERVER_SNAPSHOT_PATH}
+     * (values not persisted) if not specified
+     *
+     * @param properties the loaded properties; may not be null
+     * @return the snapshot file, or {@code null} if disabled
+     */
+    private static Path getServerSnapshotPath(final Properties properties) {
+        final var snapshotPath = properties.getProperty("server.snapshot.path");
+        return Strings.isNullOrEmpty(snapshotPath) ? Config.DEFAULT_SERVER_SNAPSHOT_PATH : Paths.get(snapshotPath.trim());
+    }
+
+    /**
+     * Returns the path of file for the state table from {@code server.state.table.path}
+     * configuration key. Defaults to {@link Config#DEFAULT_SERVER_STATE_TABLE_PATH}
+     * (held in memory only) if not specified
+     *
+     * @param properties the loaded properties; may not be null
+     * @return the state table file, or {@code null} if disabled
+     */
+    private static Path getServerStateTablePath(final Properties properties) {
+        final var stateTablePath = properties.getProperty("server.state.table.path");
+        return Strings.isNullOrEmpty(stateTablePath) ? Config.DEFAULT_SERVER_STATE_TABLE_PATH : Paths.get(stateTablePath.trim());
+    }
+
+    /**
+     * Returns the path of directory for the shared-memory connections from {@code server.ipc.path}
+     * configuration key. Defaults to {@link Config#DEFAULT_SERVER_IPC_PATH} (disabled) if not specified
+     *
+     * @param properties the loaded properties; may not be null
+     * @return the IPC directory, or {@code null} if disabled
+     */
+    private static Path getServerIpcPath(final Properties properties) {
+        final var ipcPath = properties.getProperty("server.ipc.path");
+        return Strings.isNullOrEmpty(ipcPath) ? Config.DEFAULT_SERVER_IPC_PATH : Paths.get(ipcPath.trim());
+    }
+
+    /**
+     * Returns the path of Unix domain socket from {@code server.unix.path} configuration key.
+     * Defaults to {@link Config#DEFAULT_SERVER_UNIX_PATH} (disabled) if not specified
+     *
+     * @param properties the loaded properties; may not be null
+     * @return the Unix domain socket path, or {@code null} if disabled
+     */
+    private static Path getServerUnixPath(final Properties properties) {
+        final var unixPath = properties.getProperty("server.unix.path");
+        return Strings.isNullOrEmpty(unixPath) ? Config.DEFAULT_SERVER_UNIX_PATH : Paths.get(unixPath.trim());
+    }
+
+    /**
+     * Returns the file permissions of Unix domain socket from {@code server.unix.permissions}
+     * configuration key. Defaults to {@link Config#DEFAULT_SERVER_UNIX_PERMISSIONS} if not specified
+     *
+     * @param properties the loaded properties; may not be null
+     * @return the file permissions
+     */
+    private static Set<PosixFilePermission> getServerUnixPermissions(final Properties properties) {
+        final var unixPermissions = properties.getProperty("server.unix.permissions");
+        return Strings.isNullOrEmpty(unixPermissions) ? Config.DEFAULT_SERVER_UNIX_PERMISSIONS : Set.copyOf(PosixFilePermissions.fromString(unixPermissions.trim()));
+    }
+
+    /**
+     * Returns the UDP port for fire-and-forget write requests from {@code server.udp.port}
+     * configuration key. Defaults to {@link Config#DEFAULT_SERVER_UDP_PORT} (disabled) if not specified
+     *
+     * @param properties the loaded properties; may not be null
+     * @return the UDP port, or {@code 0} if disabled
+     */
+    private static int getServerUdpPort(final Properties properties) {
+        final var udpPort = properties.getProperty("server.udp.port");
+        return Strings.isNullOrEmpty(udpPort) ? Config.DEFAULT_SERVER_UDP_PORT : Integer.parseInt(udpPort.trim());
+    }
+
+    /**
+     * Returns if the acknowledge datagrams are enabled from {@code server.udp.ack.enabled}
+     * configuration key. Defaults to {@link Config#DEFAULT_SERVER_UDP_ACK_ENABLED} if not specified
+     *
+     * @param properties the loaded properties; may not be null
+     * @return {@code true} if acknowledge datagrams are enabled
+     */
+    private static boolean getServerUdpAckEnabled(final Properties properties) {
+        final var udpAckEnabled = properties.getProperty("server.udp.ack.enabled");
+        return Strings.isNullOrEmpty(udpAckEnabled) ? Config.DEFAULT_SERVER_UDP_ACK_ENABLED : Boolean.parseBoolean(udpAckEnabled.trim());
+    }
+
+    /**
+     * Returns the time in milliseconds a request may wait in the queue from {@code server.request.timeout}
+     * configuration key. Defaults to {@link Config#DEFAULT_SERVER_REQUEST_TIMEOUT} if not specified
+     *
+     * @param properties the loaded properties; may not be null
+     * @return the request timeout in milliseconds
+     */
+    private static long getServerRequestTimeout(final Properties properties) {
+        final var requestTimeout = properties.getProperty("server.request.timeout");
+        return Strings.isNullOrEmpty(requestTimeout) ? Config.DEFAULT_SERVER_REQUEST_TIMEOUT : Long.parseLong(requestTimeout.trim());
+    }
+
+    /**
+     * Returns the time in milliseconds to wait for the KNX client to complete a read or write request
+     * from {@code server.ack.timeout} configuration key. Defaults to {@link Config#DEFAULT_SERVER_ACK_TIMEOUT}
+     * if not specified
+     *
+     * @param properties the loaded properties; may not be null
+     * @return the acknowledge timeout in milliseconds
+     */
+    private static long getServerAckTimeout(final Properties properties) {
+        return getLong(properties, "server.ack.timeout", Config.DEFAULT_SERVER_ACK_TIMEOUT, 1L, Long.MAX_VALUE);
+    }
+
+    /**
+     * Returns the number of queued requests from which new requests are rejected
+     * from {@code server.busy.queue.watermark} configuration key. Defaults to
+     * {@link Config#DEFAULT_SERVER_BUSY_QUEUE_WATERMARK} if not specified
+     *
+     * @param properties the loaded properties; may not be null
+     * @return the queue watermark
+     */
+    private static int getServerBusyQueueWatermark(final Properties properties) {
+        final var queueWatermark = properties.getProperty("server.busy.queue.watermark");
+        return Strings.isNullOrEmpty(queueWatermark) ? Config.DEFAULT_SERVER_BUSY_QUEUE_WATERMARK : Integer.parseInt(queueWatermark.trim());
+    }
+
+    /**
+     * Returns the number of in-flight requests from which new requests are rejected
+     * from {@code server.busy.inflight.watermark} configuration key. Defaults to
+     * {@link Config#DEFAULT_SERVER_BUSY_INFLIGHT_WATERMARK} if not specified
+     *
+     * @param properties the loaded properties; may not be null
+     * @return the in-flight watermark
+     */
+    private static int getServerBusyInflightWatermark(final Properties properties) {
+        final var inflightWatermark = properties.getProperty("server.busy.inflight.watermark");
+        return Strings.isNullOrEmpty(inflightWatermark) ? Config.DEFAULT_SERVER_BUSY_INFLIGHT_WATERMARK : Integer.parseInt(inflightWatermark.trim());
+    }
+
+    /**
+     * Returns the upper bound of the adaptive in-flight limit
+     * from {@code server.limiter.max} configuration key. Defaults to
+     * {@link Config#DEFAULT_SERVER_LIMITER_MAX} if not specified
+     *
+     * @param properties the loaded properties; may not be null
+     * @return the maximum in-flight limit
+     */
+    private static int getServerLimiterMax(final Properties properties) {
+        final var limiterMax = properties.getProperty("server.limiter.max");
+        return Strings.isNullOrEmpty(limiterMax) ? Config.DEFAULT_SERVER_LIMITER_MAX : Integer.parseInt(limiterMax.trim());
+    }
+
+    /**
+     * Returns the number of consecutive failed requests after which the circuit breaker opens
+     * from {@code server.breaker.threshold} configuration key. Defaults to
+     * {@link Config#DEFAULT_SERVER_BREAKER_THRESHOLD} if not specified
+     *
+     * @param properties the loaded properties; may not be null
+     * @return the failure threshold
+     */
+    private static int getServerBreakerThreshold(final Properties properties) {
+        final var threshold = properties.getProperty("server.breaker.threshold");
+        return Strings.isNullOrEmpty(threshold) ? Config.DEFAULT_SERVER_BREAKER_THRESHOLD : Integer.parseInt(threshold.trim());
+    }
+
+    /**
+     * Returns the time in milliseconds the circuit breaker stays open
+     * from {@code server.breaker.open.duration} configuration key. Defaults to
+     * {@link Config#DEFAULT_SERVER_BREAKER_OPEN_DURATION} if not specified
+     *
+     * @param properties the loaded properties; may not be null
+     * @return the open duration in milliseconds
+     */
+    private static long getServerBreakerOpenDuration(final Properties properties) {
+        final var openDuration = properties.getProperty("server.breaker.open.duration");
+        return Strings.isNullOrEmpty(openDuration) ? Config.DEFAULT_SERVER_BREAKER_OPEN_DURATION : Long.parseLong(openDuration.trim());
+    }
+
+    /**
+     * Returns the weights of client IP addresses from {@code server.fair.weights} configuration key
+     * in format {@code <address>=<weight>}, separated by comma. Defaults to
+     * {@link Config#DEFAULT_SERVER_FAIR_WEIGHTS} if not specified
+     *
+     * @param properties the loaded properties; may not be null
+     * @return the weights of client IP addresses
+     */
+    private static Map<InetAddress, Integer> getServerFairWeights(final Properties properties) {
+        final var weights = properties.getProperty("server.fair.weights");
+        return Strings.isNullOrEmpty(weights) ? Config.DEFAULT_SERVER_FAIR_WEIGHTS : parseFairWeights(weights);
+    }
+
+    /**
+     * Parses the weights of client IP addresses in format {@code <address>=<weight>}
+     * separated by comma (e.g. {@code 192.168.1.10=4, 192.168.1.11=2, ::1=2}). The IP
+     * addresses are parsed, so that different notations of same address are equal.
+     *
+     * @param weights the weights to be parsed; may not be null
+     * @return immutable map of IP address and weight
+     */
+    private static Map<InetAddress, Integer> parseFairWeights(final String weights) {
+        final var map = new HashMap<InetAddress, Integer>();
+        for (final var entry : weights.trim().split("\\s*,\\s*")) {
+            final var addressAndWeight = entry.split("\\s*=\\s*");
+            Preconditions.checkArgument(addressAndWeight.length == 2,
+                    "Weight must be in format '<address>=<weight>': {}", entry);
+            final var weight = Integer.parseInt(addressAndWeight[1]);
+            Preconditions.checkArgument(weight > 0, "Weight must be positive: {}", entry);
+            map.put(toInetAddress("server.fair.weights", addressAndWeight[0]), weight);
+        }
+        return Map.copyOf(map);
+    }
+
+    /**
+     * Parses the IP literal (e.g. {@code 192.168.1.10}, {@code ::1}); host names are not
+     * accepted, as they would be resolved via DNS
+     *
+     * @param key     the configuration key for the error message; may not be null
+     * @param address the IP address to be parsed; may not be null
+     * @return the {@link InetAddress}
+     * @throws IllegalArgumentException if the IP address is not valid
+     */
+    private static InetAddress toInetAddress(final String key, final String address) {
+        Preconditions.checkArgument(address.indexOf(':') >= 0 || IPV4_PATTERN.matcher(address).matches(),
+                "IP address expected for '{}': {}", key, address);
+        try {
+            return InetAddress.getByName(address);
+        } catch (final UnknownHostException e) {
+            throw new IllegalArgumentException("IP address is not valid for '" + key + "': " + address, e);
+        }
+    }
+
+    /**
+     * Returns the number of client connections that may be open at the same time
+     * from {@code server.connections.max} configuration key. Defaults to
+     * {@link Config#DEFAULT_SERVER_CONNECTIONS_MAX} if not specified
+     *
+     * @param properties the loaded properties; may not be null
+     * @return the maximum number of connections
+     */
+    private static int getServerConnectionsMax(final Properties properties) {
+        final var connectionsMax = properties.getProperty("server.connections.max");
+        return Strings.isNullOrEmpty(connectionsMax) ? Config.DEFAULT_SERVER_CONNECTIONS_MAX : Integer.parseInt(connectionsMax.trim());
+    }
+
+    /**
+     * Returns the number of client connections per IP address that may be open at the same time
+     * from {@code server.connections.max.address} configuration key. Defaults to
+     * {@link Config#DEFAULT_SERVER_CONNECTIONS_MAX_ADDRESS} if not specified
+     *
+     * @param properties the loaded properties; may not be null
+     * @return the maximum number of connections per IP address
+     */
+    private static int getServerConnectionsMaxAddress(final Properties properties) {
+        final var connectionsMaxAddress = properties.getProperty("server.connections.max.address");
+        return Strings.isNullOrEmpty(connectionsMaxAddress) ? Config.DEFAULT_SERVER_CONNECTIONS_MAX_ADDRESS : Integer.parseInt(connectionsMaxAddress.trim());
+    }
+
+    /**
+     * Returns the number of new client connections that are accepted per second
+     * from {@code server.accept.rate} configuration key. Defaults to
+     * {@link Config#DEFAULT_SERVER_ACCEPT_RATE} if not specified
+     *
+     * @param properties the loaded properties; may not be null
+     * @return the accept rate per second
+     */
+    private static int getServerAcceptRate(final Properties properties) {
+        final var acceptRate = properties.getProperty("server.accept.rate");
+        return Strings.isNullOrEmpty(acceptRate) ? Config.DEFAULT_SERVER_ACCEPT_RATE : Integer.parseInt(acceptRate.trim());
+    }
+
+    /**
+     * Returns the time in milliseconds after which idle client connections are closed
+     * from {@code server.idle.timeout} configuration key. Defaults to
+     * {@link Config#DEFAULT_SERVER_IDLE_TIMEOUT} if not specified
+     *
+     * @param properties the loaded properties; may not be null
+     * @return the idle timeout in milliseconds
+     */
+    private static long getServerIdleTimeout(final Properties properties) {
+        final var idleTimeout = properties.getProperty("server.idle.timeout");
+        return Strings.isNullOrEmpty(idleTimeout) ? Config.DEFAULT_SERVER_IDLE_TIMEOUT : Long.parseLong(idleTimeout.trim());
+    }
+
     /**
      * Returns the KNX mode for communication from {@code knx.mode} configuration
      * key. Defaults to {@link Config#DEFAULT_KNX_MODE} if not specified
@@ -113,6 +574,24 @@ public final class ConfigReader {
         return Strings.isNullOrEmpty(knxNatEnabled) ? Config.DEFAULT_KNX_NAT_ENABLED : Boolean.parseBoolean(knxNatEnabled);
     }
 
+    /**
+     * Returns all {@code knx.*} configuration keys with their values, which are compared
+     * to detect changed KNX settings on reload. Keys with empty values are omitted.
+     *
+     * @param properties the loaded properties; may not be null
+     * @return immutable map of {@code knx.*} configuration keys and values
+     */
+    private static Map<String, String> getKnxSettings(final Properties properties) {
+        final var knxSettings = new HashMap<String, String>();
+        for (final var key : properties.stringPropertyNames()) {
+            final var value = properties.getProperty(key).trim();
+            if (key.startsWith("knx.") && !value.isEmpty()) {
+                knxSettings.put(key, value);
+            }
+        }
+        return Map.copyOf(knxSettings);
+    }
+
     /**
      * Returns the address of KNX Net/IP device is specified by {@code knx.address}
      * configuration key. Defaults to {@code null}
@@ -139,18 +618,110 @@ public final class ConfigReader {
 
     /**
      * Returns the {@link SecurityAuditor} that is used to protect the server
-     * (e.g. accept requests only from allowed IP addresses)
+     * (e.g. accept requests only from allowed IP addresses, rate limits of requests,
+     * access rules of group addresses)
      *
      * @param properties the loaded properties; may not be null
      * @return the {@link SecurityAuditor}
      */
     private static SecurityAuditor getSecurityAuditor(final Properties properties) {
         final var allowedAddresses = properties.getProperty("server.allowed.addresses", "").trim();
+        final Set<String> allowedAddressesAsSet;
         if (Strings.isNullOrEmpty(allowedAddresses)) {
-            return new SecurityAuditor(Config.DEFAULT_SERVER_ALLOWED_ADDRESSES);
+            allowedAddressesAsSet = Config.DEFAULT_SERVER_ALLOWED_ADDRESSES;
         } else {
             final var securityClientsAsArray = allowedAddresses.trim().split("\\s*,\\s*");
-            return new SecurityAuditor(Set.of(securityClientsAsArray));
+            allowedAddressesAsSet = Set.of(securityClientsAsArray);
         }
+
+        final var addressRateLimit = getRateLimit(properties, "server.rate.limit.address", Config.DEFAULT_SERVER_RATE_LIMIT_ADDRESS);
+        final var connectionRateLimit = getRateLimit(properties, "server.rate.limit.connection", Config.DEFAULT_SERVER_RATE_LIMIT_CONNECTION);
+        final var rateLimitBurst = getRateLimit(properties, "server.rate.limit.burst", Config.DEFAULT_SERVER_RATE_LIMIT_BURST);
+        // a burst is only needed when at least one rate limit is enabled
+        Preconditions.checkArgument(rateLimitBurst > 0 || (addressRateLimit == 0 && connectionRateLimit == 0),
+                "Value of 'server.rate.limit.burst' must be positive when a rate limit is enabled: {}", rateLimitBurst);
+
+        return new SecurityAuditor(
+                allowedAddressesAsSet,
+                addressRateLimit,
+                connectionRateLimit,
+                rateLimitBurst,
+                getAccessRules(properties)
+        );
+    }
+
+    /**
+     * Returns the {@link AccessRule}s that are specified by {@code server.acl.<name>.clients},
+     * {@code server.acl.<name>.read} and {@code server.acl.<name>.write}, sorted by name.
+     *
+     * @param properties the loaded properties; may not be null
+     * @return list of access rules; empty if no access rule is specified
+     */
+    private static List<AccessRule> getAccessRules(final Properties properties) {
+        final var names = new TreeSet<String>();
+        for (final var key : properties.stringPropertyNames()) {
+            if (key.startsWith(ACL_PREFIX) && key.endsWith(ACL_CLIENTS_SUFFIX)) {
+                names.add(key.substring(ACL_PREFIX.length(), key.length() - ACL_CLIENTS_SUFFIX.length()));
+            }
+        }
+
+        final var accessRules = new ArrayList<AccessRule>(names.size());
+        for (final var name : names) {
+            final var clients = getList(properties, ACL_PREFIX + name + ACL_CLIENTS_SUFFIX);
+            Preconditions.checkArgument(!clients.isEmpty(), "No clients specified for access rule: {}", name);
+            accessRules.add(new AccessRule(
+                    name,
+                    clients,
+                    getList(properties, ACL_PREFIX + name + ".read"),
+                    getList(properties, ACL_PREFIX + name + ".write")
+            ));
+        }
+        return accessRules;
+    }
+
+    /**
+     * Returns the comma-separated values of configuration key
+     *
+     * @param properties the loaded properties; may not be null
+     * @param key        the configuration key; may not be null
+     * @return list of values; empty if not specified
+     */
+    private static List<String> getList(final Properties properties, final String key) {
+        final var value = properties.getProperty(key, "").trim();
+        return Strings.isNullOrEmpty(value) ? List.of() : List.of(value.split("\\s*,\\s*"));
+    }
+
+    /**
+     * Returns the value of a rate limit configuration key
+     * (e.g. {@code server.rate.limit.address}, {@code server.rate.limit.burst})
+     *
+     * @param properties   the loaded properties; may not be null
+     * @param key          the configuration key; may not be null
+     * @param defaultValue the default value if not specified
+     * @return the value of rate limit
+     */
+    private static int getRateLimit(final Properties properties, final String key, final int defaultValue) {
+        final var rateLimit = properties.getProperty(key);
+        final var value = Strings.isNullOrEmpty(rateLimit) ? defaultValue : Integer.parseInt(rateLimit.trim());
+        Preconditions.checkArgument(value >= 0, "Value of '{}' must not be negative: {}", key, value);
+        return value;
+    }
+
+    /**
+     * Returns the value of a numeric configuration key that must be within given range
+     * (e.g. {@code server.read.timeout}, {@code server.journal.segment.size})
+     *
+     * @param properties   the loaded properties; may not be null
+     * @param key          the configuration key; may not be null
+     * @param defaultValue the default value if not specified
+     * @param min          the minimum value (inclusive)
+     * @param max          the maximum value (inclusive)
+     * @return the value
+     */
+    private static long getLong(final Properties properties, final String key, final long defaultValue, final long min, final long max) {
+        final var property = properties.getProperty(key);
+        final var value = Strings.isNullOrEmpty(property) ? defaultValue : Long.parseLong(property.trim());
+        Preconditions.checkArgument(value >= min && value <= max, "Value of '{}' must be between {} and {}: {}", key, min, max, value);
+        return value;
     }
 }
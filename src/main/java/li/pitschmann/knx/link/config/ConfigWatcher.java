@@ -0,0 +1,142 @@
+/*
+ * Copyright (C) 2021 Pitschmann Christoph
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package li.pitschmann.knx.link.config;
+
+import li.pitschmann.knx.core.utils.Closeables;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.Path;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.util.Objects;
+import java.util.Properties;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+/**
+ * Watches the configuration file for changes by a {@link WatchService}. When the file
+ * has been changed, it is read again and the new {@link Config} is passed to the listener.
+ *
+ * <p> The watcher has no thread on its own: {@link #poll(long, TimeUnit)} has to be called
+ * periodically, the listener is called by the polling thread. Changes which don't change any
+ * property (e.g. comments only), and configuration files that cannot be read or have invalid
+ * values are ignored, the previous configuration is kept then.
+ */
+public final class ConfigWatcher implements AutoCloseable {
+    private static final Logger LOG = LoggerFactory.getLogger(ConfigWatcher.class);
+    /**
+     * Time in milliseconds to wait for further events, as editors write a file in multiple steps
+     */
+    private static final long SETTLE_TIME = 200;
+    private final Path path;
+    private final Consumer<Config> listener;
+    private final WatchService watchService;
+    private Properties properties;
+
+    ConfigWatcher(final Path path, final Consumer<Config> listener) throws IOException {
+        this.path = path.toAbsolutePath();
+        this.listener = Objects.requireNonNull(listener);
+        this.properties = ConfigReader.readProperties(this.path);
+        this.watchService = this.path.getFileSystem().newWatchService();
+        try {
+            // the directory is watched, as editors often replace the file instead of modifying it
+            this.path.getParent().register(watchService, StandardWatchEventKinds.ENTRY_CREATE, StandardWatchEventKinds.ENTRY_MODIFY);
+        } catch (final IOException ioe) {
+            Closeables.closeQuietly(watchService);
+            throw ioe;
+        }
+        LOG.debug("Watching configuration file: {}", this.path);
+    }
+
+    /**
+     * Waits up to the timeout for changes of configuration file and reloads it
+     *
+     * @param timeout the time to wait for changes
+     * @param unit    the time unit of timeout; may not be null
+     * @return {@code true} if the configuration has been reloaded, otherwise {@code false}
+     */
+    public boolean poll(final long timeout, final TimeUnit unit) {
+        try {
+            var key = watchService.poll(timeout, unit);
+            var changed = false;
+            while (key != null) {
+                changed |= isConfigFileChanged(key);
+                key = watchService.poll(SETTLE_TIME, TimeUnit.MILLISECONDS);
+            }
+            return changed && reload();
+        } catch (final InterruptedException ie) {
+            Thread.currentThread().interrupt();
+            return false;
+        } catch (final ClosedWatchServiceException e) {
+            LOG.debug("Watch service has been closed for: {}", path);
+            return false;
+        }
+    }
+
+    /**
+     * Checks if the events of {@link WatchKey} are about the configuration file
+     *
+     * @param key the watch key with events
+     * @return {@code true} if the configuration file may have been changed
+     */
+    private boolean isConfigFileChanged(final WatchKey key) {
+        var changed = false;
+        for (final var event : key.pollEvents()) {
+            changed |= event.kind() == StandardWatchEventKinds.OVERFLOW
+                    || path.getFileName().equals(event.context());
+        }
+        key.reset();
+        return changed;
+    }
+
+    /**
+     * Reads the configuration file and passes the new {@link Config} to the listener
+     * if any property has been changed
+     *
+     * @return {@code true} if the configuration has been reloaded, otherwise {@code false}
+     */
+    boolean reload() {
+        final Properties newProperties;
+        final Config config;
+        try {
+            newProperties = ConfigReader.readProperties(path);
+            if (newProperties.equals(properties)) {
+                LOG.debug("Configuration file changed, but no property has been changed: {}", path);
+                return false;
+            }
+            config = ConfigReader.create(newProperties);
+        } catch (final RuntimeException e) {
+            LOG.error("Could not reload the configuration, the previous configuration is kept: {}", path, e);
+            return false;
+        }
+
+        properties = newProperties;
+        LOG.info("Config reloaded with: {}", config);
+        listener.accept(config);
+        return true;
+    }
+
+    @Override
+    public void close() {
+        Closeables.closeQuietly(watchService);
+    }
+}
@@ -0,0 +1,184 @@
+/*
+ * Copyright (C) 2021 Pitschmann Christoph
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package li.pitschmann.knx.link.ipc;
+
+import li.pitschmann.knx.core.utils.Preconditions;
+
+import java.io.IOException;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.Objects;
+
+/**
+ * Connection of a local client via a memory-mapped file that contains a pair of {@link IpcRing}s:
+ * the request ring is written by the client and read by the server, the response ring is written
+ * by the server and read by the client. The packets in both rings are packets of protocol V1.
+ *
+ * <p> The file starts with a header of {@link #HEADER_SIZE} octets followed by the rings:
+ *
+ * <pre>
+ * Offset                 Length               Field
+ * 0                      4                    Magic {@code KNXI}
+ * 4                      2                    Version
+ * 6                      2                    (reserved)
+ * 8                      4                    Capacity of each ring
+ * 12                     4                    State; 1 = connected, 0 = closed
+ * 64                     128 + capacity       Request ring
+ * 192 + capacity         128 + capacity       Response ring
+ * </pre>
+ *
+ * <p> All numbers are big-endian. A client connects by creating the file with
+ * {@link #create(Path, int)} in the IPC directory of server; the connection
+ * is closed by either side with {@link #close()}.
+ */
+public final class IpcConnection implements AutoCloseable {
+    /**
+     * Size of file header in octets
+     */
+    public static final int HEADER_SIZE = 64;
+    /**
+     * Suffix of connection files in the IPC directory
+     */
+    public static final String FILE_SUFFIX = ".ring";
+    static final int MAGIC = 0x4B4E5849; // KNXI
+    static final short VERSION = 1;
+    static final int OFFSET_CAPACITY = 8;
+    static final int OFFSET_STATE = 12;
+    static final int STATE_CONNECTED = 1;
+    static final int STATE_CLOSED = 0;
+    private static final VarHandle INT = MethodHandles.byteBufferViewVarHandle(int[].class, ByteOrder.BIG_ENDIAN);
+    private final Path path;
+    private final MappedByteBuffer file;
+    private final IpcRing requestRing;
+    private final IpcRing responseRing;
+
+    private IpcConnection(final Path path, final MappedByteBuffer file, final int capacity) {
+        this.path = path;
+        this.file = file;
+        final var ringSize = IpcRing.sizeOf(capacity);
+        this.requestRing = new IpcRing(file.duplicate().position(HEADER_SIZE).limit(HEADER_SIZE + ringSize));
+        this.responseRing = new IpcRing(file.duplicate().position(HEADER_SIZE + ringSize).limit(HEADER_SIZE + 2 * ringSize));
+    }
+
+    /**
+     * Creates a new connection file. The file is written under a temporary name and moved
+     * to the given path when initialized, the server never sees a partially written file.
+     *
+     * @param path     the path of file in the IPC directory of server, must end with {@link #FILE_SUFFIX}; may not be null
+     * @param capacity the capacity of each ring, see {@link IpcRing#IpcRing(java.nio.ByteBuffer)}
+     * @return a new {@link IpcConnection}
+     * @throws IOException if the file could not be created
+     */
+    public static IpcConnection create(final Path path, final int capacity) throws IOException {
+        Objects.requireNonNull(path);
+        Preconditions.checkArgument(path.toString().endsWith(FILE_SUFFIX),
+                "File name must end with '{}': {}", FILE_SUFFIX, path);
+        Preconditions.checkArgument(capacity >= IpcRing.MIN_CAPACITY && Integer.bitCount(capacity) == 1,
+                "Capacity must be a power of two, not less than {}: {}", IpcRing.MIN_CAPACITY, capacity);
+
+        final var tmpPath = path.resolveSibling(path.getFileName() + ".tmp");
+        final MappedByteBuffer file;
+        try (final var channel = FileChannel.open(tmpPath,
+                StandardOpenOption.CREATE_NEW, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            file = channel.map(FileChannel.MapMode.READ_WRITE, 0, HEADER_SIZE + 2L * IpcRing.sizeOf(capacity));
+        }
+        file.putInt(0, MAGIC);
+        file.putShort(4, VERSION);
+        file.putInt(OFFSET_CAPACITY, capacity);
+        file.putInt(OFFSET_STATE, STATE_CONNECTED);
+        Files.move(tmpPath, path, StandardCopyOption.ATOMIC_MOVE);
+        return new IpcConnection(path, file, capacity);
+    }
+
+    /**
+     * Opens an existing connection file that has been created by {@link #create(Path, int)}
+     *
+     * @param path the path of file; may not be null
+     * @return the {@link IpcConnection}
+     * @throws IOException if the file could not be opened or is not a valid connection file
+     */
+    public static IpcConnection open(final Path path) throws IOException {
+        Objects.requireNonNull(path);
+        final MappedByteBuffer file;
+        try (final var channel = FileChannel.open(path, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            if (channel.size() < HEADER_SIZE) {
+                throw new IOException("File is too small for a connection file: " + path);
+            }
+            file = channel.map(FileChannel.MapMode.READ_WRITE, 0, channel.size());
+        }
+
+        final var capacity = file.getInt(OFFSET_CAPACITY);
+        if (file.getInt(0) != MAGIC || file.getShort(4) != VERSION
+                || capacity < IpcRing.MIN_CAPACITY || Integer.bitCount(capacity) != 1
+                || file.capacity() != HEADER_SIZE + 2L * IpcRing.sizeOf(capacity)) {
+            throw new IOException("File is not a valid connection file: " + path);
+        }
+        return new IpcConnection(path, file, capacity);
+    }
+
+    /**
+     * Returns the ring that contains the requests from client to server
+     *
+     * @return request ring
+     */
+    public IpcRing getRequestRing() {
+        return requestRing;
+    }
+
+    /**
+     * Returns the ring that contains the responses and events from server to client
+     *
+     * @return response ring
+     */
+    public IpcRing getResponseRing() {
+        return responseRing;
+    }
+
+    /**
+     * Returns the path of connection file
+     *
+     * @return path
+     */
+    public Path getPath() {
+        return path;
+    }
+
+    /**
+     * Indicates if the connection has been closed by client or server
+     *
+     * @return {@code true} if closed, otherwise {@code false}
+     */
+    public boolean isClosed() {
+        return (int) INT.getAcquire(file, OFFSET_STATE) == STATE_CLOSED;
+    }
+
+    /**
+     * Closes the connection; the other side will see the connection as closed
+     */
+    @Override
+    public void close() {
+        INT.setRelease(file, OFFSET_STATE, STATE_CLOSED);
+    }
+}
@@ -0,0 +1,162 @@
+/*
+ * Copyright (C) 2021 Pitschmann Christoph
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package li.pitschmann.knx.link.ipc;
+
+import li.pitschmann.knx.core.annotations.Nullable;
+import li.pitschmann.knx.core.utils.Preconditions;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+
+/**
+ * Single-producer/single-consumer ring buffer for packets of protocol V1 in
+ * a region of (shared) memory. The region starts with a header of
+ * {@link #HEADER_SIZE} octets followed by the data of ring:
+ *
+ * <pre>
+ * Offset  Length    Field
+ * 0       8         Tail; total number of octets written by the producer
+ * 64      8         Head; total number of octets read by the consumer
+ * 128     capacity  Data
+ * </pre>
+ *
+ * <p> Tail and head are on separate cache lines and are only incremented, the position
+ * in data is the counter modulo the capacity. The producer writes the packet to the data
+ * and publishes it by storing the tail with release semantics; the consumer loads the
+ * tail with acquire semantics, reads the packet and releases the space by storing the
+ * head. The packets are not framed: the length of a packet is taken from the
+ * {@link li.pitschmann.knx.link.protocol.Header} of packet.
+ *
+ * <p> The ring is lock-free for exactly one producer and one consumer thread; multiple
+ * producers have to synchronize the {@link #offer(ByteBuffer)} calls.
+ */
+public final class IpcRing {
+    /**
+     * Size of ring header in octets
+     */
+    public static final int HEADER_SIZE = 128;
+    /**
+     * Minimum capacity of ring in octets, which is large enough for the largest packet
+     */
+    public static final int MIN_CAPACITY = 1024;
+    static final int OFFSET_TAIL = 0;
+    static final int OFFSET_HEAD = 64;
+    private static final int PACKET_HEADER_SIZE = 3;
+    private static final int PACKET_OFFSET_LENGTH = 2;
+    private static final VarHandle LONG = MethodHandles.byteBufferViewVarHandle(long[].class, ByteOrder.BIG_ENDIAN);
+    private final ByteBuffer buffer;
+    private final int capacity;
+    private final int mask;
+
+    /**
+     * Creates a ring in given region of memory
+     *
+     * @param region the region of memory between position and limit of buffer; the capacity of
+     *               ring is the size of region minus {@link #HEADER_SIZE} and must be a power
+     *               of two, not less than {@link #MIN_CAPACITY}
+     */
+    public IpcRing(final ByteBuffer region) {
+        this.buffer = region.slice();
+        this.capacity = buffer.capacity() - HEADER_SIZE;
+        Preconditions.checkArgument(capacity >= MIN_CAPACITY && Integer.bitCount(capacity) == 1,
+                "Capacity must be a power of two, not less than {}: {}", MIN_CAPACITY, capacity);
+        this.mask = capacity - 1;
+    }
+
+    /**
+     * Returns the size of region for a ring with given capacity
+     *
+     * @param capacity the capacity of ring in octets
+     * @return size of region in octets
+     */
+    public static int sizeOf(final int capacity) {
+        return HEADER_SIZE + capacity;
+    }
+
+    /**
+     * Writes the packet to the ring. The packet is written completely or not at all.
+     *
+     * @param src the buffer with the remaining bytes of packet; may not be null
+     * @return {@code true} if written, {@code false} if there is not enough free space in the ring
+     */
+    public boolean offer(final ByteBuffer src) {
+        final var length = src.remaining();
+        final var tail = (long) LONG.getOpaque(buffer, OFFSET_TAIL);
+        final var head = (long) LONG.getAcquire(buffer, OFFSET_HEAD);
+        if (capacity - (tail - head) < length) {
+            return false;
+        }
+
+        for (var i = 0; i < length; i++) {
+            buffer.put(HEADER_SIZE + (int) ((tail + i) & mask), src.get());
+        }
+        LONG.setRelease(buffer, OFFSET_TAIL, tail + length);
+        return true;
+    }
+
+    /**
+     * Reads the next packet from the ring
+     *
+     * @return bytes of packet, or {@code null} if there is no complete packet in the ring
+     */
+    @Nullable
+    public byte[] poll() {
+        final var head = (long) LONG.getOpaque(buffer, OFFSET_HEAD);
+        final var tail = (long) LONG.getAcquire(buffer, OFFSET_TAIL);
+        final var available = tail - head;
+        if (available < PACKET_HEADER_SIZE) {
+            return null;
+        }
+
+        final var length = PACKET_HEADER_SIZE + Byte.toUnsignedInt(get(head + PACKET_OFFSET_LENGTH));
+        if (available < length) {
+            return null;
+        }
+
+        final var bytes = new byte[length];
+        for (var i = 0; i < length; i++) {
+            bytes[i] = get(head + i);
+        }
+        LONG.setRelease(buffer, OFFSET_HEAD, head + length);
+        return bytes;
+    }
+
+    /**
+     * Returns the number of octets that have been written but not read yet
+     *
+     * @return number of pending octets
+     */
+    public int size() {
+        return (int) ((long) LONG.getAcquire(buffer, OFFSET_TAIL) - (long) LONG.getAcquire(buffer, OFFSET_HEAD));
+    }
+
+    /**
+     * Returns the capacity of ring
+     *
+     * @return capacity in octets
+     */
+    public int getCapacity() {
+        return capacity;
+    }
+
+    private byte get(final long position) {
+        return buffer.get(HEADER_SIZE + (int) (position & mask));
+    }
+}
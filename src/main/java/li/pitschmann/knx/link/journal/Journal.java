@@ -0,0 +1,536 @@
+/*
+ * Copyright (C) 2021 Pitschmann Christoph
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package li.pitschmann.knx.link.journal;
+
+import li.pitschmann.knx.core.address.GroupAddress;
+import li.pitschmann.knx.core.annotations.Nullable;
+import li.pitschmann.knx.core.cemi.CEMI;
+import li.pitschmann.knx.core.utils.Preconditions;
+import li.pitschmann.knx.link.TelegramListener;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.function.Consumer;
+
+import static li.pitschmann.knx.link.journal.JournalRecord.FLAG_TRUNCATED;
+import static li.pitschmann.knx.link.journal.JournalRecord.MAX_VALUE_LENGTH;
+import static li.pitschmann.knx.link.journal.JournalRecord.OFFSET_APCI;
+import static li.pitschmann.knx.link.journal.JournalRecord.OFFSET_FLAGS;
+import static li.pitschmann.knx.link.journal.JournalRecord.OFFSET_GROUP_ADDRESS;
+import static li.pitschmann.knx.link.journal.JournalRecord.OFFSET_SOURCE_ADDRESS;
+import static li.pitschmann.knx.link.journal.JournalRecord.OFFSET_TIMESTAMP;
+import static li.pitschmann.knx.link.journal.JournalRecord.OFFSET_VALUE;
+import static li.pitschmann.knx.link.journal.JournalRecord.OFFSET_VALUE_LENGTH;
+import static li.pitschmann.knx.link.journal.JournalRecord.RECORD_SIZE;
+
+/**
+ * Append-only journal of all group telegrams.
+ *
+ * <p> The telegrams are appended as fixed-size {@link JournalRecord}s to memory-mapped
+ * segment files in the journal directory. A segment file starts with a header of
+ * {@link #HEADER_SIZE} octets (magic {@code KNXJ}, version and record size) followed
+ * by the records. When a segment is full, a new segment file is created. The segment
+ * files are named by an ascending sequence number, e.g. {@code 00000000000000000001.journal}.
+ *
+ * <p> The journal has a single writer, which is the telegram listener thread. Appending
+ * a record doesn't take any locks and doesn't allocate; the record is written with
+ * absolute puts to the mapped segment and the operating system writes the pages back.
+ * Only rolling to a new segment opens a file.
+ *
+ * <p> While appending, the records are added to a sparse {@link JournalIndex} per
+ * group address which is used by {@link #query(int, long, long, Consumer)} to read
+ * the history of a group address without scanning the whole journal. The index of
+ * existing segments is rebuilt when the journal is opened.
+ *
+ * <p> Older segments may be merged by the {@link JournalCompactor} into the compacted
+ * file {@link #COMPACTED_FILE_NAME}. It has the same format as a segment, but the
+ * records are sorted by group address and timestamp, and the header contains the
+ * sequence of last segment that has been merged into the compacted file.
+ */
+public final class Journal implements TelegramListener, AutoCloseable {
+    /**
+     * Size of segment header in octets
+     */
+    public static final int HEADER_SIZE = 32;
+    /**
+     * File extension of segment files
+     */
+    public static final String FILE_EXTENSION = ".journal";
+    /**
+     * Name of the compacted file in journal directory
+     */
+    public static final String COMPACTED_FILE_NAME = "compacted" + FILE_EXTENSION;
+    static final int MAGIC = 0x4B4E584A; // KNXJ
+    static final short VERSION = 1;
+    // offset in header of compacted file for the sequence of last merged segment
+    static final int OFFSET_COMPACTED_SEQUENCE = 8;
+    private static final Logger LOG = LoggerFactory.getLogger(Journal.class);
+    private final Path directory;
+    private final int segmentSize;
+    private final JournalIndex index = new JournalIndex();
+    private long segmentSequence;
+    private MappedByteBuffer segment;
+    private int position;
+    // position after the last complete record, see JournalIndex#toPosition(long, int)
+    private volatile long committedPosition;
+
+    private Journal(final Path directory, final int segmentSize, final long lastSegmentSequence) throws IOException {
+        this.directory = directory;
+        this.segmentSize = segmentSize;
+        this.segmentSequence = lastSegmentSequence;
+        rebuildIndex();
+        roll();
+    }
+
+    /**
+     * Opens the journal in given directory. A new segment is started, the existing
+     * segments in the directory are kept untouched.
+     *
+     * @param directory   the journal directory, created if it doesn't exist; may not be null
+     * @param segmentSize the size of a segment file in octets; the segment must fit
+     *                    the header and at least one record
+     * @return a new {@link Journal}
+     * @throws IOException if the journal directory or segment could not be created
+     */
+    public static Journal open(final Path directory, final long segmentSize) throws IOException {
+        Objects.requireNonNull(directory);
+        Preconditions.checkArgument(segmentSize >= HEADER_SIZE + RECORD_SIZE && segmentSize <= Integer.MAX_VALUE,
+                "Segment size out of range: {}", segmentSize);
+
+        Files.createDirectories(directory);
+        var lastSegmentSequence = getCompactedSequence(directory);
+        try (final var files = Files.list(directory)) {
+            lastSegmentSequence = Math.max(lastSegmentSequence, files.mapToLong(Journal::parseSegmentSequence).max().orElse(0L));
+        }
+
+        // align to record size
+        final var alignedSegmentSize = (int) (HEADER_SIZE + (segmentSize - HEADER_SIZE) / RECORD_SIZE * RECORD_SIZE);
+        final var journal = new Journal(directory, alignedSegmentSize, lastSegmentSequence);
+        LOG.info("Journal opened at: {}", directory.toAbsolutePath());
+        return journal;
+    }
+
+    /**
+     * Returns the sequence number of segment file
+     *
+     * @param path the path of segment file; may not be null
+     * @return sequence number, or {@code 0} if it is not a segment file
+     */
+    static long parseSegmentSequence(final Path path) {
+        final var fileName = path.getFileName().toString();
+        if (fileName.endsWith(FILE_EXTENSION)) {
+            try {
+                return Long.parseLong(fileName.substring(0, fileName.length() - FILE_EXTENSION.length()));
+            } catch (final NumberFormatException e) {
+                // not a segment file
+            }
+        }
+        return 0L;
+    }
+
+    /**
+     * Returns the path of segment file for given sequence number
+     *
+     * @param directory       the journal directory; may not be null
+     * @param segmentSequence the sequence number of segment
+     * @return path of segment file
+     */
+    static Path getSegmentPath(final Path directory, final long segmentSequence) {
+        return directory.resolve(String.format("%020d%s", segmentSequence, FILE_EXTENSION));
+    }
+
+    /**
+     * Returns the sequence of last segment that has been merged into the compacted file
+     *
+     * @param directory the journal directory; may not be null
+     * @return sequence of last merged segment, or {@code 0} if there is no compacted file
+     * @throws IOException if the compacted file could not be read
+     */
+    static long getCompactedSequence(final Path directory) throws IOException {
+        final var buffer = mapFile(directory.resolve(COMPACTED_FILE_NAME));
+        return buffer == null ? 0L : buffer.getLong(OFFSET_COMPACTED_SEQUENCE);
+    }
+
+    /**
+     * Rebuilds the {@link JournalIndex} from the existing segments
+     *
+     * @throws IOException if a segment could not be read
+     */
+    private void rebuildIndex() throws IOException {
+        for (var sequence = getCompactedSequence(directory) + 1; sequence <= segmentSequence; sequence++) {
+            final var buffer = mapSegment(sequence);
+            if (buffer == null) {
+                continue;
+            }
+            var offset = HEADER_SIZE;
+            for (var record = JournalRecord.of(buffer, offset); record != null; record = JournalRecord.of(buffer, offset)) {
+                index.add(record.getGroupAddress(), record.getTimestamp(), sequence, offset);
+                offset += RECORD_SIZE;
+            }
+        }
+    }
+
+    /**
+     * Maps the segment file read-only
+     *
+     * @param sequence the sequence of segment
+     * @return the mapped segment, or {@code null} if the segment doesn't exist or is not a valid segment
+     * @throws IOException if the segment could not be read
+     */
+    @Nullable
+    MappedByteBuffer mapSegment(final long sequence) throws IOException {
+        return mapFile(getSegmentPath(directory, sequence));
+    }
+
+    /**
+     * Maps the segment or compacted file read-only
+     *
+     * @param path the path of file
+     * @return the mapped file, or {@code null} if the file doesn't exist or is not a valid segment
+     * @throws IOException if the file could not be read
+     */
+    @Nullable
+    private static MappedByteBuffer mapFile(final Path path) throws IOException {
+        if (!Files.isReadable(path)) {
+            return null;
+        }
+        try (final var channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            final var buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            if (buffer.limit() < HEADER_SIZE || buffer.getInt(0) != MAGIC || buffer.getShort(6) != RECORD_SIZE) {
+                LOG.warn("Not a valid journal segment: {}", path);
+                return null;
+            }
+            return buffer;
+        }
+    }
+
+    /**
+     * Maps the compacted file read-only
+     *
+     * @return the mapped compacted file, or {@code null} if there is no compacted file
+     * @throws IOException if the compacted file could not be read
+     */
+    @Nullable
+    MappedByteBuffer mapCompacted() throws IOException {
+        return mapFile(directory.resolve(COMPACTED_FILE_NAME));
+    }
+
+    /**
+     * Creates and maps the next segment file
+     *
+     * @throws IOException if the segment file could not be created
+     */
+    private void roll() throws IOException {
+        final var path = getSegmentPath(directory, ++segmentSequence);
+        try (final var channel = FileChannel.open(path,
+                StandardOpenOption.CREATE_NEW, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            segment = channel.map(FileChannel.MapMode.READ_WRITE, 0, segmentSize);
+        }
+        segment.putInt(0, MAGIC);
+        segment.putShort(4, VERSION);
+        segment.putShort(6, (short) RECORD_SIZE);
+        position = HEADER_SIZE;
+        committedPosition = JournalIndex.toPosition(segmentSequence, position);
+        LOG.debug("New journal segment: {}", path);
+    }
+
+    @Override
+    public void onTelegram(final CEMI cemi) {
+        append(
+                System.currentTimeMillis(),
+                cemi.getSourceAddress().toByteArray(),
+                ((GroupAddress) cemi.getDestinationAddress()).getAddressAsInt(),
+                cemi.getAPCI().getCode(),
+                cemi.getData()
+        );
+    }
+
+    /**
+     * Appends a record to the journal
+     *
+     * @param timestamp     the timestamp in milliseconds since epoch; must be positive
+     * @param sourceAddress the individual address of sender as two octets; may not be null
+     * @param groupAddress  the 16-bit group address
+     * @param apci          the APCI code
+     * @param value         the raw value of telegram; may not be null
+     */
+    void append(final long timestamp,
+                final byte[] sourceAddress,
+                final int groupAddress,
+                final int apci,
+                final byte[] value) {
+        if (position + RECORD_SIZE > segmentSize) {
+            try {
+                roll();
+            } catch (final IOException e) {
+                throw new UncheckedIOException("Could not roll the journal segment", e);
+            }
+        }
+
+        final var length = Math.min(value.length, MAX_VALUE_LENGTH);
+        segment.put(position + OFFSET_SOURCE_ADDRESS, sourceAddress[0]);
+        segment.put(position + OFFSET_SOURCE_ADDRESS + 1, sourceAddress[1]);
+        segment.putShort(position + OFFSET_GROUP_ADDRESS, (short) groupAddress);
+        segment.putShort(position + OFFSET_APCI, (short) apci);
+        segment.put(position + OFFSET_VALUE_LENGTH, (byte) length);
+        segment.put(position + OFFSET_FLAGS, (byte) (value.length > MAX_VALUE_LENGTH ? FLAG_TRUNCATED : 0));
+        for (var i = 0; i < length; i++) {
+            segment.put(position + OFFSET_VALUE + i, value[i]);
+        }
+        // timestamp is written last, it marks the record as complete
+        segment.putLong(position + OFFSET_TIMESTAMP, timestamp);
+        index.add(groupAddress, timestamp, segmentSequence, position);
+        position += RECORD_SIZE;
+        committedPosition = JournalIndex.toPosition(segmentSequence, position);
+    }
+
+    /**
+     * Reads the records of group address within the time range from the journal.
+     * The records are passed to the consumer in order they have been appended.
+     *
+     * @param groupAddress the 16-bit group address
+     * @param from         the start of time range in milliseconds since epoch (inclusive)
+     * @param to           the end of time range in milliseconds since epoch (inclusive)
+     * @param consumer     the consumer of records; may not be null
+     * @return number of records that have been read
+     * @throws IOException if a segment could not be read
+     */
+    public int query(final int groupAddress, final long from, final long to, final Consumer<JournalRecord> consumer) throws IOException {
+        final var records = iterate(groupAddress, from, to);
+        var count = 0;
+        try {
+            while (records.hasNext()) {
+                consumer.accept(records.next());
+                count++;
+            }
+        } catch (final UncheckedIOException e) {
+            throw e.getCause();
+        }
+        return count;
+    }
+
+    /**
+     * Returns an iterator over the records of group address within the time range.
+     * The records are read lazily from the segments while iterating, so the history
+     * of a group address can be streamed without reading it at once.
+     *
+     * @param groupAddress the 16-bit group address
+     * @param from         the start of time range in milliseconds since epoch (inclusive)
+     * @param to           the end of time range in milliseconds since epoch (inclusive)
+     * @return iterator of records in order they have been appended; it throws an
+     * {@link UncheckedIOException} if a segment could not be read
+     * @throws IOException if the compacted file could not be read
+     */
+    public Iterator<JournalRecord> iterate(final int groupAddress, final long from, final long to) throws IOException {
+        return new RecordIterator(groupAddress, from, to, mapFile(directory.resolve(COMPACTED_FILE_NAME)));
+    }
+
+    /**
+     * Maintains the {@link JournalIndex} outside of the append path: the checkpoints that
+     * point into segments merged into the compacted file are removed, and the storage for
+     * new checkpoints is preallocated
+     *
+     * @param compactedSequence the sequence of last segment that has been merged into the compacted file
+     */
+    void maintainIndex(final long compactedSequence) {
+        index.prune(compactedSequence + 1);
+        index.preallocate();
+    }
+
+    /**
+     * Returns the sequence of segment that is currently written
+     *
+     * @return sequence of current segment
+     */
+    long getSegmentSequence() {
+        return JournalIndex.toSegmentSequence(committedPosition);
+    }
+
+    /**
+     * Returns the journal directory
+     *
+     * @return path of journal directory
+     */
+    public Path getDirectory() {
+        return directory;
+    }
+
+    @Override
+    public void close() {
+        segment.force();
+        LOG.info("Journal closed at: {}", directory.toAbsolutePath());
+    }
+
+    /**
+     * Iterator over the records of a group address. The compacted file is read first,
+     * the segments after the compacted file are looked up by the {@link JournalIndex}.
+     *
+     * <p> The timestamps are not monotonic if the clock has been stepped back (e.g. by NTP),
+     * therefore a record after the time range doesn't end the iteration: a candidate segment
+     * is read to its end and the later checkpoints are still checked for the time range.
+     * A candidate segment that has been deleted in the meantime (e.g. by compaction) is
+     * reported by an {@link UncheckedIOException}, as its records would be missing.
+     */
+    private final class RecordIterator implements Iterator<JournalRecord> {
+        private final int groupAddress;
+        private final long from;
+        private final long to;
+        private final long compactedSequence;
+        private final long committed = committedPosition;
+        private final JournalIndex.Cursor checkpoints;
+        private long lastSequence;
+        // the segment of current checkpoint and the position of its first checkpoint
+        private long candidateSequence;
+        private long candidatePosition;
+        // buffer that is currently read, either the compacted file or a segment
+        private ByteBuffer buffer;
+        private boolean compacted;
+        private int offset;
+        private int limit;
+        private boolean done;
+        private JournalRecord next;
+
+        private RecordIterator(final int groupAddress, final long from, final long to, final @Nullable ByteBuffer compactedBuffer) {
+            this.groupAddress = groupAddress;
+            this.from = from;
+            this.to = to;
+            this.compactedSequence = compactedBuffer == null ? 0L : compactedBuffer.getLong(OFFSET_COMPACTED_SEQUENCE);
+            final var groupCheckpoints = index.get(groupAddress);
+            this.checkpoints = groupCheckpoints == null ? null : groupCheckpoints.cursor(from);
+            if (compactedBuffer != null) {
+                // records of a group address are stored contiguously, look up the first by a binary search
+                var low = 0;
+                var high = (compactedBuffer.limit() - HEADER_SIZE) / RECORD_SIZE;
+                while (low < high) {
+                    final var mid = (low + high) >>> 1;
+                    if (Short.toUnsignedInt(compactedBuffer.getShort(HEADER_SIZE + mid * RECORD_SIZE + OFFSET_GROUP_ADDRESS)) < groupAddress) {
+                        low = mid + 1;
+                    } else {
+                        high = mid;
+                    }
+                }
+                this.buffer = compactedBuffer;
+                this.compacted = true;
+                this.offset = HEADER_SIZE + low * RECORD_SIZE;
+                this.limit = compactedBuffer.limit();
+            }
+        }
+
+        @Override
+        public boolean hasNext() {
+            if (next == null && !done) {
+                next = advance();
+                done = next == null;
+            }
+            return next != null;
+        }
+
+        @Override
+        public JournalRecord next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            final var record = next;
+            next = null;
+            return record;
+        }
+
+        @Nullable
+        private JournalRecord advance() {
+            while (buffer != null || nextSegment()) {
+                while (offset + RECORD_SIZE <= limit) {
+                    final var recordOffset = offset;
+                    offset += RECORD_SIZE;
+                    final var timestamp = buffer.getLong(recordOffset + OFFSET_TIMESTAMP);
+                    final var address = Short.toUnsignedInt(buffer.getShort(recordOffset + OFFSET_GROUP_ADDRESS));
+                    if (compacted && address != groupAddress) {
+                        // end of records of group address in compacted file
+                        break;
+                    } else if (timestamp == 0) {
+                        // end of records in segment
+                        break;
+                    } else if (address == groupAddress && timestamp >= from && timestamp <= to) {
+                        return JournalRecord.of(buffer, recordOffset);
+                    }
+                }
+                buffer = null;
+            }
+            return null;
+        }
+
+        /**
+         * Maps the next segment that contains records of group address within the time range
+         *
+         * @return {@code true} if a segment has been mapped, otherwise {@code false}
+         */
+        private boolean nextSegment() {
+            if (checkpoints == null) {
+                return false;
+            }
+
+            while (checkpoints.next()) {
+                final var position = checkpoints.getPosition();
+                final var sequence = JournalIndex.toSegmentSequence(position);
+                if (sequence <= compactedSequence || sequence == lastSequence) {
+                    // segment has been already read
+                    continue;
+                } else if (sequence != candidateSequence) {
+                    // first checkpoint of segment, the segment is read from here if it is a candidate
+                    candidateSequence = sequence;
+                    candidatePosition = position;
+                }
+                if (checkpoints.getTimestamp() > to) {
+                    // a later checkpoint may be within the time range if the clock has been stepped back
+                    continue;
+                }
+                lastSequence = sequence;
+
+                final MappedByteBuffer segmentBuffer;
+                try {
+                    segmentBuffer = mapSegment(sequence);
+                } catch (final IOException e) {
+                    throw new UncheckedIOException("Could not read the journal segment: " + sequence, e);
+                }
+                if (segmentBuffer == null) {
+                    throw new UncheckedIOException(new NoSuchFileException(getSegmentPath(directory, sequence).toString(),
+                            null, "Journal segment has been deleted while reading"));
+                }
+                buffer = segmentBuffer;
+                compacted = false;
+                offset = JournalIndex.toOffset(candidatePosition);
+                limit = sequence == JournalIndex.toSegmentSequence(committed)
+                        ? JournalIndex.toOffset(committed)
+                        : segmentBuffer.limit();
+                return true;
+            }
+            return false;
+        }
+    }
+}
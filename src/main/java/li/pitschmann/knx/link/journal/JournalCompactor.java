@@ -0,0 +1,363 @@
+/*
+ * Copyright (C) 2021 Pitschmann Christoph
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package li.pitschmann.knx.link.journal;
+
+import li.pitschmann.knx.core.utils.Preconditions;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Objects;
+import java.util.concurrent.TimeUnit;
+
+import static li.pitschmann.knx.link.journal.JournalRecord.OFFSET_GROUP_ADDRESS;
+import static li.pitschmann.knx.link.journal.JournalRecord.OFFSET_TIMESTAMP;
+import static li.pitschmann.knx.link.journal.JournalRecord.RECORD_SIZE;
+
+/**
+ * Background compaction of the {@link Journal}.
+ *
+ * <p> Older segments are merged into the compacted file of journal, keeping only the
+ * last value per group address. If a downsample interval is set, the last value per
+ * group address of every interval is kept instead, which keeps a coarse history.
+ * The most recent segments are retained untouched. After the compacted file has been
+ * replaced atomically, the merged segment files are deleted.
+ *
+ * <p> The records are merged per group address without copying them onto the heap: the
+ * records of the segments are bucketed by group address (counting sort of record numbers),
+ * and the compacted file, which is already sorted by group address, is streamed alongside.
+ * The heap usage is bounded by the number of records merged per round, which are at most
+ * {@link #MAX_MERGED_RECORDS} plus the records of one segment; more segments are merged
+ * in further rounds.
+ *
+ * <p> The compaction reads and writes at most {@code rate} bytes per second, so it
+ * doesn't compete for the I/O bandwidth (e.g. of an SD card) with the live traffic.
+ *
+ * <p> After every check the index of journal is maintained, see {@link Journal#maintainIndex(long)}.
+ */
+public final class JournalCompactor implements Runnable {
+    /**
+     * Number of segment records after which no further segment is merged in same round
+     */
+    static final int MAX_MERGED_RECORDS = 1024 * 1024;
+    private static final Logger LOG = LoggerFactory.getLogger(JournalCompactor.class);
+    private static final long CHECK_INTERVAL = TimeUnit.MINUTES.toMillis(1);
+    private static final int CHUNK_SIZE = 64 * 1024;
+    private static final int GROUP_ADDRESSES = 65536;
+    private final Journal journal;
+    private final int retainedSegments;
+    private final long downsampleInterval;
+    private final long rate;
+    private final int maxMergedRecords;
+    private long throttleStartTime;
+    private long throttleBytes;
+    private long unthrottledBytes;
+
+    /**
+     * Creates a new {@link JournalCompactor}
+     *
+     * @param journal            the journal to be compacted; may not be null
+     * @param retainedSegments   the number of most recent segments that are not compacted; may not be negative
+     * @param downsampleInterval the interval in milliseconds of which the last value per group address is
+     *                           kept; {@code 0} to keep the last value per group address only
+     * @param rate               the maximum I/O bandwidth in bytes per second; must be positive
+     */
+    public JournalCompactor(final Journal journal, final int retainedSegments, final long downsampleInterval, final long rate) {
+        this(journal, retainedSegments, downsampleInterval, rate, MAX_MERGED_RECORDS);
+    }
+
+    JournalCompactor(final Journal journal,
+                     final int retainedSegments,
+                     final long downsampleInterval,
+                     final long rate,
+                     final int maxMergedRecords) {
+        Preconditions.checkArgument(retainedSegments >= 0, "Retained segments may not be negative: {}", retainedSegments);
+        Preconditions.checkArgument(downsampleInterval >= 0, "Downsample interval may not be negative: {}", downsampleInterval);
+        Preconditions.checkArgument(rate > 0, "Rate must be positive: {}", rate);
+        this.journal = Objects.requireNonNull(journal);
+        this.retainedSegments = retainedSegments;
+        this.downsampleInterval = downsampleInterval;
+        this.rate = rate;
+        this.maxMergedRecords = maxMergedRecords;
+    }
+
+    @Override
+    public void run() {
+        LOG.trace("*** START ***");
+        try {
+            while (!Thread.currentThread().isInterrupted()) {
+                try {
+                    while (compact()) {
+                        // merge the remaining segments in further rounds
+                    }
+                    journal.maintainIndex(Journal.getCompactedSequence(journal.getDirectory()));
+                } catch (final IOException e) {
+                    LOG.error("Could not compact the journal at: {}", journal.getDirectory(), e);
+                }
+                Thread.sleep(CHECK_INTERVAL);
+            }
+        } catch (final InterruptedException ie) {
+            LOG.debug("Interrupt signal caught");
+            Thread.currentThread().interrupt();
+        } finally {
+            LOG.trace("*** END ***");
+        }
+    }
+
+    /**
+     * Merges the segments that are older than the retained segments into the compacted file.
+     * If the segments contain more records than merged per round, the oldest segments are
+     * merged only and the method has to be called again.
+     *
+     * @return {@code true} if segments have been compacted, {@code false} if there was nothing to compact
+     * @throws IOException          if the journal could not be read or written
+     * @throws InterruptedException if interrupted while throttling
+     */
+    boolean compact() throws IOException, InterruptedException {
+        final var directory = journal.getDirectory();
+        final var compactedSequence = Journal.getCompactedSequence(directory);
+        // current segment is still written and never compacted
+        final var maxSequence = journal.getSegmentSequence() - 1 - retainedSegments;
+        if (maxSequence <= compactedSequence) {
+            return false;
+        }
+
+        throttleStartTime = System.nanoTime();
+        throttleBytes = 0;
+        unthrottledBytes = 0;
+
+        // count the records per group address of segments, at least one segment is merged
+        final var segments = new ArrayList<ByteBuffer>();
+        final var starts = new int[GROUP_ADDRESSES + 1];
+        var recordCount = 0;
+        var lastSequence = compactedSequence;
+        while (lastSequence < maxSequence && recordCount < maxMergedRecords) {
+            final var buffer = journal.mapSegment(++lastSequence);
+            final var segmentRecordCount = buffer == null ? 0 : countRecords(buffer, starts);
+            if (segmentRecordCount > 0) {
+                segments.add(buffer);
+                recordCount += segmentRecordCount;
+            }
+        }
+        for (var i = 0; i < GROUP_ADDRESSES; i++) {
+            starts[i + 1] += starts[i];
+        }
+
+        // bucket the record numbers by group address, in order they have been appended
+        final var segmentFirstRecords = new int[segments.size()];
+        final var recordNumbers = new int[recordCount];
+        final var next = Arrays.copyOf(starts, GROUP_ADDRESSES);
+        var recordNumber = 0;
+        for (var i = 0; i < segments.size(); i++) {
+            final var buffer = segments.get(i);
+            segmentFirstRecords[i] = recordNumber;
+            for (var offset = Journal.HEADER_SIZE; offset + RECORD_SIZE <= buffer.limit(); offset += RECORD_SIZE) {
+                if (buffer.getLong(offset + OFFSET_TIMESTAMP) == 0) {
+                    break;
+                }
+                recordNumbers[next[Short.toUnsignedInt(buffer.getShort(offset + OFFSET_GROUP_ADDRESS))]++] = recordNumber++;
+                read(RECORD_SIZE);
+            }
+        }
+
+        final var tempPath = directory.resolve(Journal.COMPACTED_FILE_NAME + ".tmp");
+        final var compacted = journal.mapCompacted();
+        var compactedOffset = Journal.HEADER_SIZE;
+        try (final var writer = new CompactedWriter(FileChannel.open(tempPath,
+                StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE), lastSequence)) {
+            for (var groupAddress = 0; groupAddress < GROUP_ADDRESSES; groupAddress++) {
+                // records of compacted file first, they are older than the records of segments
+                while (compacted != null && compactedOffset + RECORD_SIZE <= compacted.limit()
+                        && Short.toUnsignedInt(compacted.getShort(compactedOffset + OFFSET_GROUP_ADDRESS)) == groupAddress) {
+                    writer.offer(compacted, compactedOffset);
+                    compactedOffset += RECORD_SIZE;
+                    read(RECORD_SIZE);
+                }
+                for (var i = starts[groupAddress]; i < starts[groupAddress + 1]; i++) {
+                    final var segmentIndex = segmentIndexOf(segmentFirstRecords, recordNumbers[i]);
+                    final var offset = Journal.HEADER_SIZE + (recordNumbers[i] - segmentFirstRecords[segmentIndex]) * RECORD_SIZE;
+                    writer.offer(segments.get(segmentIndex), offset);
+                    read(RECORD_SIZE);
+                }
+                writer.endOfGroupAddress();
+            }
+            writer.finish();
+            LOG.info("Journal compacted up to segment {} with {} record(s) for {} group address(es)",
+                    lastSequence, writer.recordCount, writer.groupAddressCount);
+        }
+        Files.move(tempPath, directory.resolve(Journal.COMPACTED_FILE_NAME),
+                StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        for (var sequence = compactedSequence + 1; sequence <= lastSequence; sequence++) {
+            Files.deleteIfExists(Journal.getSegmentPath(directory, sequence));
+        }
+        return true;
+    }
+
+    /**
+     * Counts the records per group address of segment
+     *
+     * @param buffer the buffer of segment
+     * @param counts the counts per group address, at index of group address + 1
+     * @return number of records in segment
+     * @throws InterruptedException if interrupted while throttling
+     */
+    private int countRecords(final ByteBuffer buffer, final int[] counts) throws InterruptedException {
+        var count = 0;
+        for (var offset = Journal.HEADER_SIZE; offset + RECORD_SIZE <= buffer.limit(); offset += RECORD_SIZE) {
+            if (buffer.getLong(offset + OFFSET_TIMESTAMP) == 0) {
+                break;
+            }
+            counts[Short.toUnsignedInt(buffer.getShort(offset + OFFSET_GROUP_ADDRESS)) + 1]++;
+            count++;
+            read(RECORD_SIZE);
+        }
+        return count;
+    }
+
+    /**
+     * Returns the index of segment that contains the record
+     *
+     * @param segmentFirstRecords the number of first record per segment, ascending
+     * @param recordNumber        the number of record
+     * @return index of segment
+     */
+    private static int segmentIndexOf(final int[] segmentFirstRecords, final int recordNumber) {
+        final var index = Arrays.binarySearch(segmentFirstRecords, recordNumber);
+        return index >= 0 ? index : -index - 2;
+    }
+
+    private long toBucket(final long timestamp) {
+        return downsampleInterval == 0 ? 0 : timestamp / downsampleInterval;
+    }
+
+    /**
+     * Accounts the bytes that have been read, throttled per chunk
+     *
+     * @param bytes the number of bytes that have been read
+     * @throws InterruptedException if interrupted while throttling
+     */
+    private void read(final int bytes) throws InterruptedException {
+        unthrottledBytes += bytes;
+        if (unthrottledBytes >= CHUNK_SIZE) {
+            throttle(unthrottledBytes);
+            unthrottledBytes = 0;
+        }
+    }
+
+    /**
+     * Sleeps when more bytes have been processed than allowed by the rate
+     *
+     * @param bytes the number of bytes that have been read or written
+     * @throws InterruptedException if interrupted while sleeping
+     */
+    private void throttle(final long bytes) throws InterruptedException {
+        throttleBytes += bytes;
+        final var expectedMillis = throttleBytes * 1000 / rate;
+        final var elapsedMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - throttleStartTime);
+        if (expectedMillis > elapsedMillis) {
+            Thread.sleep(expectedMillis - elapsedMillis);
+        }
+    }
+
+    /**
+     * Writer of the compacted file. The records of a group address are offered in order,
+     * a record is kept back until it is known to be the last one of its downsample interval.
+     */
+    private final class CompactedWriter implements AutoCloseable {
+        private final FileChannel channel;
+        private final ByteBuffer buffer = ByteBuffer.allocate(CHUNK_SIZE);
+        private ByteBuffer pendingBuffer;
+        private int pendingOffset;
+        private boolean groupAddressWritten;
+        private int recordCount;
+        private int groupAddressCount;
+
+        private CompactedWriter(final FileChannel channel, final long lastSequence) {
+            this.channel = channel;
+            buffer.putInt(Journal.MAGIC);
+            buffer.putShort(Journal.VERSION);
+            buffer.putShort((short) RECORD_SIZE);
+            buffer.putLong(lastSequence);
+            buffer.position(Journal.HEADER_SIZE);
+        }
+
+        /**
+         * Offers the next record of current group address
+         *
+         * @param source the buffer that contains the record
+         * @param offset the offset of record in buffer
+         * @throws IOException          if the compacted file could not be written
+         * @throws InterruptedException if interrupted while throttling
+         */
+        private void offer(final ByteBuffer source, final int offset) throws IOException, InterruptedException {
+            if (pendingBuffer != null
+                    && toBucket(pendingBuffer.getLong(pendingOffset + OFFSET_TIMESTAMP)) != toBucket(source.getLong(offset + OFFSET_TIMESTAMP))) {
+                writePending();
+            }
+            pendingBuffer = source;
+            pendingOffset = offset;
+        }
+
+        private void endOfGroupAddress() throws IOException, InterruptedException {
+            if (pendingBuffer != null) {
+                writePending();
+            }
+            if (groupAddressWritten) {
+                groupAddressCount++;
+                groupAddressWritten = false;
+            }
+        }
+
+        private void writePending() throws IOException, InterruptedException {
+            if (!buffer.hasRemaining()) {
+                writeFully();
+            }
+            buffer.put(pendingBuffer.duplicate().position(pendingOffset).limit(pendingOffset + RECORD_SIZE));
+            pendingBuffer = null;
+            groupAddressWritten = true;
+            recordCount++;
+        }
+
+        private void finish() throws IOException, InterruptedException {
+            writeFully();
+            channel.force(true);
+        }
+
+        private void writeFully() throws IOException, InterruptedException {
+            buffer.flip();
+            final var length = buffer.remaining();
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+            buffer.clear();
+            throttle(length);
+        }
+
+        @Override
+        public void close() throws IOException {
+            channel.close();
+        }
+    }
+}
@@ -0,0 +1,338 @@
+/*
+ * Copyright (C) 2021 Pitschmann Christoph
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package li.pitschmann.knx.link.journal;
+
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Sparse index of journal positions per group address.
+ *
+ * <p> For every group address a list of (timestamp, position) checkpoints is kept,
+ * whereas the position is the segment sequence (upper 32 bits) and the offset of
+ * record within segment (lower 32 bits). A checkpoint is added for the first record
+ * of a group address in every segment and afterwards for every
+ * {@link #CHECKPOINT_INTERVAL}th record of the group address. Segments without a
+ * checkpoint don't contain any record of the group address and can be skipped.
+ *
+ * <p> The timestamps of records are not monotonic if the clock has been stepped back
+ * (e.g. by NTP). A checkpoint is added for every record that is older than the previous
+ * record of group address, so the records between two checkpoints are still ordered.
+ *
+ * <p> The index has a single writer, which is the writer of {@link Journal}. Readers
+ * may read the checkpoints concurrently without locks: the checkpoints are published
+ * with release semantics and read with acquire semantics. The checkpoints are stored
+ * in blocks of fixed size, which are never copied. The blocks and the checkpoints of
+ * new group addresses are preallocated by {@link #preallocate()} outside of the append
+ * path; the writer allocates only when the preallocated blocks are used up.
+ *
+ * <p> Checkpoints of segments that have been deleted by compaction are removed by
+ * {@link #prune(long)}.
+ */
+final class JournalIndex {
+    /**
+     * Number of records of a group address between two checkpoints in same segment
+     */
+    static final int CHECKPOINT_INTERVAL = 64;
+    /**
+     * Number of checkpoints per block
+     */
+    static final int BLOCK_SIZE = 64;
+    /**
+     * Number of blocks and checkpoints that are kept preallocated
+     */
+    static final int PREALLOCATED_SIZE = 64;
+    private final AtomicReferenceArray<Checkpoints> index = new AtomicReferenceArray<>(65536);
+    private final Queue<Block> spareBlocks = new ConcurrentLinkedQueue<>();
+    private final Queue<Checkpoints> spareCheckpoints = new ConcurrentLinkedQueue<>();
+
+    JournalIndex() {
+        preallocate();
+    }
+
+    /**
+     * Adds the record to the index
+     *
+     * @param groupAddress    the 16-bit group address of record
+     * @param timestamp       the timestamp of record
+     * @param segmentSequence the sequence of segment that contains the record
+     * @param offset          the offset of record in segment
+     */
+    void add(final int groupAddress, final long timestamp, final long segmentSequence, final int offset) {
+        // single writer: the plain read sees its own writes
+        var checkpoints = index.getPlain(groupAddress);
+        if (checkpoints == null) {
+            checkpoints = spareCheckpoints.poll();
+            if (checkpoints == null) {
+                checkpoints = new Checkpoints(new Block(0));
+            }
+            index.setRelease(groupAddress, checkpoints);
+        }
+        checkpoints.add(timestamp, segmentSequence, offset, this);
+    }
+
+    /**
+     * Returns the checkpoints of group address
+     *
+     * @param groupAddress the 16-bit group address
+     * @return checkpoints, or {@code null} if there is no record for the group address
+     */
+    Checkpoints get(final int groupAddress) {
+        return index.getAcquire(groupAddress);
+    }
+
+    /**
+     * Fills up the preallocated blocks and checkpoints. This method is called by a
+     * background thread, so the writer doesn't need to allocate while appending.
+     */
+    void preallocate() {
+        for (var i = spareBlocks.size(); i < PREALLOCATED_SIZE; i++) {
+            spareBlocks.add(new Block(0));
+        }
+        for (var i = spareCheckpoints.size(); i < PREALLOCATED_SIZE; i++) {
+            spareCheckpoints.add(new Checkpoints(new Block(0)));
+        }
+    }
+
+    /**
+     * Removes the checkpoints that point into segments before the given segment sequence,
+     * e.g. because the segments have been deleted by compaction
+     *
+     * @param segmentSequence the sequence of first segment which checkpoints are kept
+     */
+    void prune(final long segmentSequence) {
+        for (var i = 0; i < index.length(); i++) {
+            final var checkpoints = index.getAcquire(i);
+            if (checkpoints != null) {
+                checkpoints.prune(segmentSequence);
+            }
+        }
+    }
+
+    /**
+     * Returns the position of record
+     *
+     * @param segmentSequence the sequence of segment
+     * @param offset          the offset of record in segment
+     * @return position
+     */
+    static long toPosition(final long segmentSequence, final int offset) {
+        return (segmentSequence << 32) | offset;
+    }
+
+    static long toSegmentSequence(final long position) {
+        return position >>> 32;
+    }
+
+    static int toOffset(final long position) {
+        return (int) position;
+    }
+
+    /**
+     * Returns a block for the checkpoints from the given index, preferably a preallocated block
+     *
+     * @param base the index of first checkpoint in block
+     * @return block
+     */
+    private Block takeBlock(final long base) {
+        final var block = spareBlocks.poll();
+        if (block == null) {
+            return new Block(base);
+        }
+        block.base = base;
+        return block;
+    }
+
+    /**
+     * Fixed-size block of checkpoints. The fields are written before the block is
+     * published by the volatile {@link #next} of previous block or by the index.
+     */
+    private static final class Block {
+        private final long[] timestamps = new long[BLOCK_SIZE];
+        private final long[] positions = new long[BLOCK_SIZE];
+        private long base;
+        private volatile Block next;
+
+        private Block(final long base) {
+            this.base = base;
+        }
+    }
+
+    /**
+     * Checkpoints of a single group address, ordered by position. The checkpoints are
+     * numbered continuously; pruned checkpoints are not counted anymore.
+     */
+    static final class Checkpoints {
+        // written by the writer of journal only
+        private Block tail;
+        private long lastSegmentSequence;
+        private int recordsSinceCheckpoint;
+        private long lastTimestamp;
+        // true if the clock has been stepped back, the checkpoints are not ordered by timestamp then
+        private volatile boolean steppedBack;
+        // number of checkpoints that have been added, published after the checkpoint has been written
+        private volatile long end;
+        // written by the pruning thread only
+        private volatile Block head;
+        private volatile long first;
+
+        private Checkpoints(final Block block) {
+            this.head = block;
+            this.tail = block;
+        }
+
+        private void add(final long timestamp, final long segmentSequence, final int offset, final JournalIndex index) {
+            final var isSteppedBack = timestamp < lastTimestamp;
+            lastTimestamp = timestamp;
+            if (isSteppedBack) {
+                steppedBack = true;
+            } else if (segmentSequence == lastSegmentSequence && ++recordsSinceCheckpoint < CHECKPOINT_INTERVAL) {
+                return;
+            }
+            lastSegmentSequence = segmentSequence;
+            recordsSinceCheckpoint = 0;
+
+            final var n = end;
+            var block = tail;
+            if (n - block.base == BLOCK_SIZE) {
+                final var newBlock = index.takeBlock(n);
+                block.next = newBlock;
+                tail = newBlock;
+                block = newBlock;
+            }
+            final var i = (int) (n - block.base);
+            block.timestamps[i] = timestamp;
+            block.positions[i] = toPosition(segmentSequence, offset);
+            // publish the checkpoint
+            end = n + 1;
+        }
+
+        private void prune(final long segmentSequence) {
+            final var end = this.end;
+            var block = head;
+            var i = Math.max(first, block.base);
+            while (i < end) {
+                if (i - block.base == BLOCK_SIZE) {
+                    block = block.next;
+                }
+                if (toSegmentSequence(block.positions[(int) (i - block.base)]) >= segmentSequence) {
+                    break;
+                }
+                i++;
+            }
+            first = i;
+            // keep the block of first checkpoint, the block after is not published yet if all are pruned
+            head = block;
+        }
+
+        /**
+         * Returns the number of checkpoints
+         *
+         * @return number of checkpoints
+         */
+        int size() {
+            return (int) (end - first);
+        }
+
+        /**
+         * Returns a cursor that starts at the last checkpoint with a timestamp before
+         * or equal to given timestamp; this is the checkpoint where to start reading.
+         * If all checkpoints are after the timestamp or the clock has been stepped back,
+         * the cursor starts at the first checkpoint.
+         *
+         * @param timestamp the timestamp to search
+         * @return cursor
+         */
+        Cursor cursor(final long timestamp) {
+            // read the bounds first, the head may only move forward in the meantime
+            final var end = this.end;
+            final var first = this.first;
+            var block = head;
+            var start = Math.max(first, block.base);
+            if (steppedBack) {
+                // checkpoints are not ordered by timestamp, no binary search
+                return new Cursor(block, start, end);
+            }
+
+            // skip the blocks which start before the timestamp
+            var next = block.next;
+            while (next != null && next.base < end && next.timestamps[0] <= timestamp) {
+                block = next;
+                start = Math.max(first, block.base);
+                next = block.next;
+            }
+
+            // binary search within block
+            var low = start;
+            var high = Math.min(end, block.base + BLOCK_SIZE) - 1;
+            while (low <= high) {
+                final var mid = (low + high) >>> 1;
+                if (block.timestamps[(int) (mid - block.base)] <= timestamp) {
+                    start = mid;
+                    low = mid + 1;
+                } else {
+                    high = mid - 1;
+                }
+            }
+            return new Cursor(block, start, end);
+        }
+    }
+
+    /**
+     * Cursor over the checkpoints which have been published when the cursor was created
+     */
+    static final class Cursor {
+        private final long end;
+        private Block block;
+        private long index;
+        private int blockIndex = -1;
+
+        private Cursor(final Block block, final long index, final long end) {
+            this.block = block;
+            this.index = index - 1;
+            this.end = end;
+        }
+
+        /**
+         * Moves the cursor to the next checkpoint
+         *
+         * @return {@code true} if there is a checkpoint, otherwise {@code false}
+         */
+        boolean next() {
+            if (index + 1 >= end) {
+                return false;
+            }
+            index++;
+            blockIndex = (int) (index - block.base);
+            if (blockIndex == BLOCK_SIZE) {
+                block = block.next;
+                blockIndex = 0;
+            }
+            return true;
+        }
+
+        long getTimestamp() {
+            return block.timestamps[blockIndex];
+        }
+
+        long getPosition() {
+            return block.positions[blockIndex];
+        }
+    }
+}
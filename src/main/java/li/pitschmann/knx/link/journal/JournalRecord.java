@@ -0,0 +1,169 @@
+/*
+ * Copyright (C) 2021 Pitschmann Christoph
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package li.pitschmann.knx.link.journal;
+
+import li.pitschmann.knx.core.utils.ByteFormatter;
+import li.pitschmann.knx.core.utils.Strings;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.Objects;
+
+/**
+ * Record of a group telegram in the {@link Journal}. This class is immutable.
+ *
+ * <pre>
+ * Offset  Length  Field
+ *      0       8  Timestamp (milliseconds since epoch)
+ *      8       2  Source Address (individual address)
+ *     10       2  Group Address
+ *     12       2  APCI code (e.g. 0x0080 for GroupValueWrite)
+ *     14       1  Value Length [0, 14]
+ *     15       1  Flags (bit 0: value has been truncated)
+ *     16      14  Value (raw data of telegram, zero-padded)
+ *     30       2  Reserved
+ * </pre>
+ *
+ * <p> Every record has a fixed size of {@link #RECORD_SIZE} octets. The timestamp of
+ * a record is written last and a timestamp of {@code 0} marks the end of records
+ * in a segment.
+ */
+public final class JournalRecord {
+    /**
+     * Size of a record in octets
+     */
+    public static final int RECORD_SIZE = 32;
+    /**
+     * Maximum length of value in octets
+     */
+    public static final int MAX_VALUE_LENGTH = 14;
+    static final int OFFSET_TIMESTAMP = 0;
+    static final int OFFSET_SOURCE_ADDRESS = 8;
+    static final int OFFSET_GROUP_ADDRESS = 10;
+    static final int OFFSET_APCI = 12;
+    static final int OFFSET_VALUE_LENGTH = 14;
+    static final int OFFSET_FLAGS = 15;
+    static final int OFFSET_VALUE = 16;
+    static final int FLAG_TRUNCATED = 0x01;
+
+    private final long timestamp;
+    private final int sourceAddress;
+    private final int groupAddress;
+    private final int apci;
+    private final boolean truncated;
+    private final byte[] value;
+
+    private JournalRecord(final ByteBuffer buffer, final int offset) {
+        timestamp = buffer.getLong(offset + OFFSET_TIMESTAMP);
+        sourceAddress = Short.toUnsignedInt(buffer.getShort(offset + OFFSET_SOURCE_ADDRESS));
+        groupAddress = Short.toUnsignedInt(buffer.getShort(offset + OFFSET_GROUP_ADDRESS));
+        apci = Short.toUnsignedInt(buffer.getShort(offset + OFFSET_APCI));
+        truncated = (buffer.get(offset + OFFSET_FLAGS) & FLAG_TRUNCATED) != 0;
+        value = new byte[Math.min(Byte.toUnsignedInt(buffer.get(offset + OFFSET_VALUE_LENGTH)), MAX_VALUE_LENGTH)];
+        for (var i = 0; i < value.length; i++) {
+            value[i] = buffer.get(offset + OFFSET_VALUE + i);
+        }
+    }
+
+    /**
+     * Reads the {@link JournalRecord} from the buffer at given offset
+     *
+     * @param buffer the buffer that contains the record; may not be null
+     * @param offset the offset of record in buffer
+     * @return a new {@link JournalRecord}, or {@code null} if there is no record at offset
+     */
+    public static JournalRecord of(final ByteBuffer buffer, final int offset) {
+        if (offset + RECORD_SIZE > buffer.limit() || buffer.getLong(offset + OFFSET_TIMESTAMP) == 0) {
+            return null;
+        }
+        return new JournalRecord(buffer, offset);
+    }
+
+    public long getTimestamp() {
+        return timestamp;
+    }
+
+    /**
+     * Returns the individual address of device that sent the telegram
+     *
+     * @return the 16-bit individual address
+     */
+    public int getSourceAddress() {
+        return sourceAddress;
+    }
+
+    /**
+     * Returns the group address of telegram
+     *
+     * @return the 16-bit group address
+     */
+    public int getGroupAddress() {
+        return groupAddress;
+    }
+
+    public int getApci() {
+        return apci;
+    }
+
+    /**
+     * Returns if the value of telegram was longer than {@link #MAX_VALUE_LENGTH}
+     * and has been truncated
+     *
+     * @return {@code true} if truncated, otherwise {@code false}
+     */
+    public boolean isTruncated() {
+        return truncated;
+    }
+
+    public byte[] getValue() {
+        return value.clone();
+    }
+
+    @Override
+    public boolean equals(final Object obj) {
+        if (this == obj) {
+            return true;
+        } else if (obj instanceof JournalRecord) {
+            final var other = (JournalRecord) obj;
+            return timestamp == other.timestamp
+                    && sourceAddress == other.sourceAddress
+                    && groupAddress == other.groupAddress
+                    && apci == other.apci
+                    && truncated == other.truncated
+                    && Arrays.equals(value, other.value);
+        }
+        return false;
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(timestamp, sourceAddress, groupAddress, apci, truncated, Arrays.hashCode(value));
+    }
+
+    @Override
+    public String toString() {
+        return Strings.toStringHelper(this)
+                .add("timestamp", timestamp)
+                .add("sourceAddress", sourceAddress)
+                .add("groupAddress", groupAddress)
+                .add("apci", apci)
+                .add("truncated", truncated)
+                .add("value", ByteFormatter.formatHexAsString(value))
+                .toString();
+    }
+}
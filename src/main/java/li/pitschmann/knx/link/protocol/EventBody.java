@@ -0,0 +1,120 @@
+/*
+ * Copyright (C) 2021 Pitschmann Christoph
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package li.pitschmann.knx.link.protocol;
+
+import li.pitschmann.knx.core.address.GroupAddress;
+import li.pitschmann.knx.core.utils.ByteFormatter;
+import li.pitschmann.knx.core.utils.Preconditions;
+import li.pitschmann.knx.core.utils.Strings;
+import li.pitschmann.knx.link.protocol.helpers.ProtocolHelper;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Objects;
+
+/**
+ * Implementation for Event. This class is immutable.
+ * Events are pushed by the server to the subscribed clients.
+ *
+ * <pre>
+ *             +-7-+-6-+-5-+-4-+-3-+-2-+-1-+-0-+-7-+-6-+-5-+-4-+-3-+-2-+-1-+-0-+
+ *             |                                                               |
+ *             |                       HEADER (3 octets)                       |
+ *             |            (Protocol Version, Action Type, Length)            |
+ *             |                                                               |
+ *             +-7-+-6-+-5-+-4-+-3-+-2-+-1-+-0-+-7-+-6-+-5-+-4-+-3-+-2-+-1-+-0-+
+ * Field Names | (Group Address)                                               |
+ *             +-7-+-6-+-5-+-4-+-3-+-2-+-1-+-0-+-7-+-6-+-5-+-4-+-3-+-2-+-1-+-0-+
+ *             | (Byte 1)                        (Byte 2)                      |
+ *             +-7-+-6-+-5-+-4-+-3-+-2-+-1-+-0-+-7-+-6-+-5-+-4-+-3-+-2-+-1-+-0-+
+ *             |                    ... variable length ...                    |
+ *             +-7-+-6-+-5-+-4-+-3-+-2-+-1-+-0-+-7-+-6-+-5-+-4-+-3-+-2-+-1-+-0-+
+ *             |                                 (Byte N)                      |
+ *             +---+---+---+---+---+---+---+---+---+---+---+---+---+---+---+---+
+ *
+ * Length:     Minimum 2 octets
+ * Fields:
+ *             Group Address       (2 octets): [1, 65535]
+ *             Value Bytes                   : N bytes for the value of group address
+ *                                             (encoded as UTF-8 String)
+ * </pre>
+ *
+ * @author PITSCHR
+ */
+public final class EventBody {
+    private static final int MIN_STRUCTURE_LENGTH = 2;
+    private final GroupAddress groupAddress;
+    private final byte[] data;
+
+    private EventBody(final GroupAddress groupAddress, final byte[] data) {
+        this.groupAddress = Objects.requireNonNull(groupAddress);
+        this.data = data.clone();
+    }
+
+    public static EventBody of(final GroupAddress groupAddress, final String value) {
+        return new EventBody(groupAddress, value.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static EventBody of(final byte[] bytes) {
+        Preconditions.checkArgument(bytes != null && bytes.length >= MIN_STRUCTURE_LENGTH,
+                "Bytes must not be null and minimum 2 bytes: {}", bytes);
+        return new EventBody(
+                ProtocolHelper.parseGroupAddress(new byte[]{bytes[0], bytes[1]}),
+                Arrays.copyOfRange(bytes, 2, bytes.length)
+        );
+    }
+
+    public GroupAddress getGroupAddress() {
+        return groupAddress;
+    }
+
+    public String getValue() {
+        return new String(data, StandardCharsets.UTF_8);
+    }
+
+    public byte[] getBytes() {
+        final var newBytes = new byte[data.length + 2];
+        final var groupAddressAsBytes = groupAddress.toByteArray();
+        newBytes[0] = groupAddressAsBytes[0];
+        newBytes[1] = groupAddressAsBytes[1];
+        System.arraycopy(data, 0, newBytes, 2, data.length);
+        return newBytes;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        final var other = (EventBody) o;
+        return Objects.equals(groupAddress, other.groupAddress) && Arrays.equals(data, other.data);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(groupAddress, Arrays.hashCode(data));
+    }
+
+    @Override
+    public String toString() {
+        return Strings.toStringHelper(this)
+                .add("groupAddress", groupAddress.getAddressLevel3())
+                .add("data", ByteFormatter.formatHexAsString(data))
+                .add("data(String)", getValue())
+                .toString();
+    }
+}
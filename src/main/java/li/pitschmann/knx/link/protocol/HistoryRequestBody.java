@@ -0,0 +1,119 @@
+/*
+ * Copyright (C) 2021 Pitschmann Christoph
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package li.pitschmann.knx.link.protocol;
+
+import li.pitschmann.knx.core.address.GroupAddress;
+import li.pitschmann.knx.core.datapoint.DataPointType;
+import li.pitschmann.knx.core.utils.ByteFormatter;
+import li.pitschmann.knx.core.utils.Preconditions;
+import li.pitschmann.knx.link.protocol.helpers.ProtocolHelper;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Implementation for History Request. This class is immutable.
+ *
+ * <pre>
+ *             +-7-+-6-+-5-+-4-+-3-+-2-+-1-+-0-+-7-+-6-+-5-+-4-+-3-+-2-+-1-+-0-+
+ *             |                                                               |
+ *             |                       HEADER (3 octets)                       |
+ *             |            (Protocol Version, Action Type, Length)            |
+ *             |                                                               |
+ *             +-7-+-6-+-5-+-4-+-3-+-2-+-1-+-0-+-7-+-6-+-5-+-4-+-3-+-2-+-1-+-0-+
+ * Field Names | (Group Address)                                               |
+ *             +-7-+-6-+-5-+-4-+-3-+-2-+-1-+-0-+-7-+-6-+-5-+-4-+-3-+-2-+-1-+-0-+
+ *             | (Data Point Type)                                             |
+ *             +-7-+-6-+-5-+-4-+-3-+-2-+-1-+-0-+-7-+-6-+-5-+-4-+-3-+-2-+-1-+-0-+
+ *             | (Data Point Sub Type)                                         |
+ *             +-7-+-6-+-5-+-4-+-3-+-2-+-1-+-0-+-7-+-6-+-5-+-4-+-3-+-2-+-1-+-0-+
+ *             | (From)                                                        |
+ *             |                                                               |
+ *             |                                                               |
+ *             |                                                               |
+ *             +-7-+-6-+-5-+-4-+-3-+-2-+-1-+-0-+-7-+-6-+-5-+-4-+-3-+-2-+-1-+-0-+
+ *             | (To)                                                          |
+ *             |                                                               |
+ *             |                                                               |
+ *             |                                                               |
+ *             +---+---+---+---+---+---+---+---+---+---+---+---+---+---+---+---+
+ *
+ * Length:     22 octets
+ * Fields:
+ *             Group Address       (2 octets): [1, 65535]
+ *             Data Point Type     (2 octets): [0, 65535]
+ *             Data Point Sub Type (2 octets): [0, 65535]
+ *             From                (8 octets): milliseconds since epoch, inclusive
+ *             To                  (8 octets): milliseconds since epoch, inclusive
+ * </pre>
+ *
+ * <p> For action <strong>history request</strong> the total length of 22 octets
+ * is expected. The values of group address within the time range are read from the
+ * telegram journal, translated by the data point type and streamed to the client.
+ *
+ * @author PITSCHR
+ */
+public final class HistoryRequestBody {
+    private static final int STRUCTURE_LENGTH = 22;
+    private final GroupAddress groupAddress;
+    private final DataPointType dataPointType;
+    private final long from;
+    private final long to;
+
+    private HistoryRequestBody(final byte[] bytes) {
+        groupAddress = ProtocolHelper.parseGroupAddress(new byte[]{bytes[0], bytes[1]});
+        dataPointType = ProtocolHelper.parseDataPointType(new byte[]{bytes[2], bytes[3], bytes[4], bytes[5]});
+        final var buffer = ByteBuffer.wrap(bytes);
+        from = buffer.getLong(6);
+        to = buffer.getLong(14);
+    }
+
+    public static HistoryRequestBody of(final byte[] bytes) {
+        Preconditions.checkArgument(bytes.length == STRUCTURE_LENGTH,
+                "Wrong structure length: {}", ByteFormatter.formatHexAsString(bytes));
+        final var body = new HistoryRequestBody(bytes);
+        Preconditions.checkArgument(body.from >= 0 && body.from <= body.to,
+                "Invalid time range: {}", ByteFormatter.formatHexAsString(bytes));
+        return body;
+    }
+
+    public GroupAddress getGroupAddress() {
+        return groupAddress;
+    }
+
+    public DataPointType getDataPointType() {
+        return dataPointType;
+    }
+
+    /**
+     * Returns the start of time range
+     *
+     * @return milliseconds since epoch (inclusive)
+     */
+    public long getFrom() {
+        return from;
+    }
+
+    /**
+     * Returns the end of time range
+     *
+     * @return milliseconds since epoch (inclusive)
+     */
+    public long getTo() {
+        return to;
+    }
+}
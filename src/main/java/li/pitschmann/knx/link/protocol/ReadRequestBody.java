@@ -23,6 +23,8 @@ import li.pitschmann.knx.core.utils.ByteFormatter;
 import li.pitschmann.knx.core.utils.Preconditions;
 import li.pitschmann.knx.link.protocol.helpers.ProtocolHelper;
 
+import java.nio.ByteBuffer;
+
 /**
  * Implementation for Read Request. This class is immutable.
  *
@@ -38,35 +40,62 @@ import li.pitschmann.knx.link.protocol.helpers.ProtocolHelper;
  *             | (Data Point Type)                                             |
  *             +-7-+-6-+-5-+-4-+-3-+-2-+-1-+-0-+-7-+-6-+-5-+-4-+-3-+-2-+-1-+-0-+
  *             | (Data Point Sub Type)                                         |
- *             +---+---+---+---+---+---+---+---+---+---+---+---+---+---+---+---+
+ *             +-7-+-6-+-5-+-4-+-3-+-2-+-1-+-0-+-7-+-6-+-5-+-4-+-3-+-2-+-1-+-0-+
+ *             | (Maximum Age, optional)                                       |
+ *             |                                                               |
+ *             +-7-+-6-+-5-+-4-+-3-+-2-+-1-+-0-+---+---+---+---+---+---+---+---+
+ *             | (Options, optional)           |
+ *             +---+---+---+---+---+---+---+---+
  *
- * Length:     6 octets
+ * Length:     6 or 11 octets
  * Fields:
  *             Group Address       (2 octets): [1, 65535]
  *             Data Point Type     (2 octets): [0, 65535]
  *             Data Point Sub Type (2 octets): [0, 65535]
+ *             Maximum Age         (4 octets): [0, 2147483647]
+ *             Options             (1 octet):  Bit 0 = restored values accepted
  * </pre>
  *
- * <p> For action <strong>read request</strong> the total length of 6 octets
+ * <p> For action <strong>read request</strong> the total length of 6 or 11 octets
  * is expected. If the length differs, then packet is considered as corrupted and
  * shall be dropped with a warning.
  *
+ * <p> With the optional maximum age in milliseconds the last known value of group
+ * address is returned from cache if it is not older than the maximum age; otherwise
+ * the value is read from the KNX Net/IP device. Values that have been restored from
+ * the snapshot at startup are only returned if the option bit 0 is set. A maximum
+ * age of {@code 0} reads the value always from the KNX Net/IP device.
+ *
  * @author PITSCHR
  */
 public final class ReadRequestBody {
     private static final int STRUCTURE_LENGTH = 6;
+    private static final int STRUCTURE_LENGTH_WITH_MAX_AGE = 11;
+    private static final int OPTION_RESTORED_ACCEPTED = 0x01;
     private final GroupAddress groupAddress;
     private final DataPointType dataPointType;
+    private final long maxAge;
+    private final boolean restoredAccepted;
 
     private ReadRequestBody(final byte[] bytes) {
         groupAddress = ProtocolHelper.parseGroupAddress(new byte[]{bytes[0], bytes[1]});
         dataPointType = ProtocolHelper.parseDataPointType(new byte[]{bytes[2], bytes[3], bytes[4], bytes[5]});
+        if (bytes.length == STRUCTURE_LENGTH_WITH_MAX_AGE) {
+            maxAge = ByteBuffer.wrap(bytes, 6, 4).getInt();
+            restoredAccepted = (bytes[10] & OPTION_RESTORED_ACCEPTED) != 0;
+        } else {
+            maxAge = 0;
+            restoredAccepted = false;
+        }
     }
 
     public static ReadRequestBody of(final byte[] bytes) {
-        Preconditions.checkArgument(bytes.length == STRUCTURE_LENGTH,
+        Preconditions.checkArgument(bytes.length == STRUCTURE_LENGTH || bytes.length == STRUCTURE_LENGTH_WITH_MAX_AGE,
                 "Wrong structure length: {}", ByteFormatter.formatHexAsString(bytes));
-        return new ReadRequestBody(bytes);
+        final var body = new ReadRequestBody(bytes);
+        Preconditions.checkArgument(body.maxAge >= 0,
+                "Maximum age must not be negative: {}", ByteFormatter.formatHexAsString(bytes));
+        return body;
     }
 
     public GroupAddress getGroupAddress() {
@@ -76,4 +105,22 @@ public final class ReadRequestBody {
     public DataPointType getDataPointType() {
         return dataPointType;
     }
+
+    /**
+     * Returns the maximum age of cached value that is accepted
+     *
+     * @return maximum age in milliseconds, {@code 0} if the value should be read from KNX
+     */
+    public long getMaxAge() {
+        return maxAge;
+    }
+
+    /**
+     * Returns if values that have been restored from snapshot are accepted
+     *
+     * @return {@code true} if restored values are accepted, otherwise {@code false}
+     */
+    public boolean isRestoredAccepted() {
+        return restoredAccepted;
+    }
 }
@@ -0,0 +1,104 @@
+/*
+ * Copyright (C) 2021 Pitschmann Christoph
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package li.pitschmann.knx.link.protocol;
+
+import li.pitschmann.knx.core.address.GroupAddress;
+import li.pitschmann.knx.core.datapoint.DataPointType;
+import li.pitschmann.knx.core.utils.ByteFormatter;
+import li.pitschmann.knx.core.utils.Preconditions;
+import li.pitschmann.knx.link.protocol.helpers.ProtocolHelper;
+
+/**
+ * Implementation for Subscribe Request. This class is immutable.
+ *
+ * <pre>
+ *             +-7-+-6-+-5-+-4-+-3-+-2-+-1-+-0-+-7-+-6-+-5-+-4-+-3-+-2-+-1-+-0-+
+ *             |                                                               |
+ *             |                       HEADER (3 octets)                       |
+ *             |            (Protocol Version, Action Type, Length)            |
+ *             |                                                               |
+ *             +-7-+-6-+-5-+-4-+-3-+-2-+-1-+-0-+-7-+-6-+-5-+-4-+-3-+-2-+-1-+-0-+
+ * Field Names | (Group Address)                                               |
+ *             +-7-+-6-+-5-+-4-+-3-+-2-+-1-+-0-+-7-+-6-+-5-+-4-+-3-+-2-+-1-+-0-+
+ *             | (Data Point Type)                                             |
+ *             +-7-+-6-+-5-+-4-+-3-+-2-+-1-+-0-+-7-+-6-+-5-+-4-+-3-+-2-+-1-+-0-+
+ *             | (Data Point Sub Type)                                         |
+ *             +-7-+-6-+-5-+-4-+-3-+-2-+-1-+-0-+-7-+-6-+-5-+-4-+-3-+-2-+-1-+-0-+
+ *             | (Last Group Address, optional)                                |
+ *             +---+---+---+---+---+---+---+---+---+---+---+---+---+---+---+---+
+ *
+ * Length:     6 or 8 octets
+ * Fields:
+ *             Group Address       (2 octets): [1, 65535]
+ *             Data Point Type     (2 octets): [0, 65535]
+ *             Data Point Sub Type (2 octets): [0, 65535]
+ *             Last Group Address  (2 octets): [1, 65535]
+ * </pre>
+ *
+ * <p> For action <strong>subscribe request</strong> the total length of 6 octets
+ * is expected to subscribe a single group address. With the optional last group
+ * address (total length of 8 octets) all group addresses from group address to last
+ * group address are subscribed, e.g. {@code 1/0/0 - 1/7/255} for main group {@code 1}
+ * or {@code 1/2/0 - 1/2/255} for middle group {@code 1/2}. The data point type is
+ * used to translate the values of the group address which are pushed to the client
+ * as events.
+ *
+ * @author PITSCHR
+ */
+public final class SubscribeRequestBody {
+    private static final int STRUCTURE_LENGTH = 6;
+    private static final int STRUCTURE_LENGTH_WITH_RANGE = 8;
+    private final GroupAddress groupAddress;
+    private final DataPointType dataPointType;
+    private final GroupAddress lastGroupAddress;
+
+    private SubscribeRequestBody(final byte[] bytes) {
+        groupAddress = ProtocolHelper.parseGroupAddress(new byte[]{bytes[0], bytes[1]});
+        dataPointType = ProtocolHelper.parseDataPointType(new byte[]{bytes[2], bytes[3], bytes[4], bytes[5]});
+        lastGroupAddress = bytes.length == STRUCTURE_LENGTH_WITH_RANGE
+                ? ProtocolHelper.parseGroupAddress(new byte[]{bytes[6], bytes[7]})
+                : groupAddress;
+    }
+
+    public static SubscribeRequestBody of(final byte[] bytes) {
+        Preconditions.checkArgument(bytes.length == STRUCTURE_LENGTH || bytes.length == STRUCTURE_LENGTH_WITH_RANGE,
+                "Wrong structure length: {}", ByteFormatter.formatHexAsString(bytes));
+        final var body = new SubscribeRequestBody(bytes);
+        Preconditions.checkArgument(body.groupAddress.getAddressAsInt() <= body.lastGroupAddress.getAddressAsInt(),
+                "Last group address must not be before group address: {}", ByteFormatter.formatHexAsString(bytes));
+        return body;
+    }
+
+    public GroupAddress getGroupAddress() {
+        return groupAddress;
+    }
+
+    public DataPointType getDataPointType() {
+        return dataPointType;
+    }
+
+    /**
+     * Returns the last group address of subscription range. It is the same
+     * as {@link #getGroupAddress()} when a single group address is subscribed.
+     *
+     * @return last {@link GroupAddress}
+     */
+    public GroupAddress getLastGroupAddress() {
+        return lastGroupAddress;
+    }
+}
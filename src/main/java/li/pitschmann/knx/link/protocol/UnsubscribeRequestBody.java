@@ -0,0 +1,88 @@
+/*
+ * Copyright (C) 2021 Pitschmann Christoph
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package li.pitschmann.knx.link.protocol;
+
+import li.pitschmann.knx.core.address.GroupAddress;
+import li.pitschmann.knx.core.utils.ByteFormatter;
+import li.pitschmann.knx.core.utils.Preconditions;
+import li.pitschmann.knx.link.protocol.helpers.ProtocolHelper;
+
+/**
+ * Implementation for Unsubscribe Request. This class is immutable.
+ *
+ * <pre>
+ *             +-7-+-6-+-5-+-4-+-3-+-2-+-1-+-0-+-7-+-6-+-5-+-4-+-3-+-2-+-1-+-0-+
+ *             |                                                               |
+ *             |                       HEADER (3 octets)                       |
+ *             |            (Protocol Version, Action Type, Length)            |
+ *             |                                                               |
+ *             +-7-+-6-+-5-+-4-+-3-+-2-+-1-+-0-+-7-+-6-+-5-+-4-+-3-+-2-+-1-+-0-+
+ * Field Names | (Group Address)                                               |
+ *             +-7-+-6-+-5-+-4-+-3-+-2-+-1-+-0-+-7-+-6-+-5-+-4-+-3-+-2-+-1-+-0-+
+ *             | (Last Group Address, optional)                                |
+ *             +---+---+---+---+---+---+---+---+---+---+---+---+---+---+---+---+
+ *
+ * Length:     2 or 4 octets
+ * Fields:
+ *             Group Address       (2 octets): [1, 65535]
+ *             Last Group Address  (2 octets): [1, 65535]
+ * </pre>
+ *
+ * <p> For action <strong>unsubscribe request</strong> the total length of 2 octets
+ * is expected to unsubscribe a single group address. With the optional last group
+ * address (total length of 4 octets) all group addresses from group address to last
+ * group address are unsubscribed.
+ *
+ * @author PITSCHR
+ */
+public final class UnsubscribeRequestBody {
+    private static final int STRUCTURE_LENGTH = 2;
+    private static final int STRUCTURE_LENGTH_WITH_RANGE = 4;
+    private final GroupAddress groupAddress;
+    private final GroupAddress lastGroupAddress;
+
+    private UnsubscribeRequestBody(final byte[] bytes) {
+        groupAddress = ProtocolHelper.parseGroupAddress(new byte[]{bytes[0], bytes[1]});
+        lastGroupAddress = bytes.length == STRUCTURE_LENGTH_WITH_RANGE
+                ? ProtocolHelper.parseGroupAddress(new byte[]{bytes[2], bytes[3]})
+                : groupAddress;
+    }
+
+    public static UnsubscribeRequestBody of(final byte[] bytes) {
+        Preconditions.checkArgument(bytes.length == STRUCTURE_LENGTH || bytes.length == STRUCTURE_LENGTH_WITH_RANGE,
+                "Wrong structure length: {}", ByteFormatter.formatHexAsString(bytes));
+        final var body = new UnsubscribeRequestBody(bytes);
+        Preconditions.checkArgument(body.groupAddress.getAddressAsInt() <= body.lastGroupAddress.getAddressAsInt(),
+                "Last group address must not be before group address: {}", ByteFormatter.formatHexAsString(bytes));
+        return body;
+    }
+
+    public GroupAddress getGroupAddress() {
+        return groupAddress;
+    }
+
+    /**
+     * Returns the last group address of range to be unsubscribed. It is the same
+     * as {@link #getGroupAddress()} when a single group address is unsubscribed.
+     *
+     * @return last {@link GroupAddress}
+     */
+    public GroupAddress getLastGroupAddress() {
+        return lastGroupAddress;
+    }
+}
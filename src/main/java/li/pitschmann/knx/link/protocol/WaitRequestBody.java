@@ -0,0 +1,101 @@
+/*
+ * Copyright (C) 2021 Pitschmann Christoph
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package li.pitschmann.knx.link.protocol;
+
+import li.pitschmann.knx.core.address.GroupAddress;
+import li.pitschmann.knx.core.datapoint.DataPointType;
+import li.pitschmann.knx.core.utils.ByteFormatter;
+import li.pitschmann.knx.core.utils.Preconditions;
+import li.pitschmann.knx.link.protocol.helpers.ProtocolHelper;
+
+/**
+ * Implementation for Wait Request. This class is immutable.
+ *
+ * <pre>
+ *             +-7-+-6-+-5-+-4-+-3-+-2-+-1-+-0-+-7-+-6-+-5-+-4-+-3-+-2-+-1-+-0-+
+ *             |                                                               |
+ *             |                       HEADER (3 octets)                       |
+ *             |            (Protocol Version, Action Type, Length)            |
+ *             |                                                               |
+ *             +-7-+-6-+-5-+-4-+-3-+-2-+-1-+-0-+-7-+-6-+-5-+-4-+-3-+-2-+-1-+-0-+
+ * Field Names | (Group Address)                                               |
+ *             +-7-+-6-+-5-+-4-+-3-+-2-+-1-+-0-+-7-+-6-+-5-+-4-+-3-+-2-+-1-+-0-+
+ *             | (Data Point Type)                                             |
+ *             +-7-+-6-+-5-+-4-+-3-+-2-+-1-+-0-+-7-+-6-+-5-+-4-+-3-+-2-+-1-+-0-+
+ *             | (Data Point Sub Type)                                         |
+ *             +-7-+-6-+-5-+-4-+-3-+-2-+-1-+-0-+-7-+-6-+-5-+-4-+-3-+-2-+-1-+-0-+
+ *             | (Timeout)                                                     |
+ *             |                                                               |
+ *             +---+---+---+---+---+---+---+---+---+---+---+---+---+---+---+---+
+ *
+ * Length:     10 octets
+ * Fields:
+ *             Group Address       (2 octets): [1, 65535]
+ *             Data Point Type     (2 octets): [0, 65535]
+ *             Data Point Sub Type (2 octets): [0, 65535]
+ *             Timeout             (4 octets): [1, 2147483647]
+ * </pre>
+ *
+ * <p> For action <strong>wait request</strong> the total length of 10 octets
+ * is expected. The server waits up to timeout (in milliseconds) for the next
+ * value change of group address and responds with the new value translated
+ * by the data point type.
+ *
+ * @author PITSCHR
+ */
+public final class WaitRequestBody {
+    private static final int STRUCTURE_LENGTH = 10;
+    private final GroupAddress groupAddress;
+    private final DataPointType dataPointType;
+    private final long timeout;
+
+    private WaitRequestBody(final byte[] bytes) {
+        groupAddress = ProtocolHelper.parseGroupAddress(new byte[]{bytes[0], bytes[1]});
+        dataPointType = ProtocolHelper.parseDataPointType(new byte[]{bytes[2], bytes[3], bytes[4], bytes[5]});
+        timeout = Integer.toUnsignedLong(
+                (Byte.toUnsignedInt(bytes[6]) << 24) | (Byte.toUnsignedInt(bytes[7]) << 16)
+                        | (Byte.toUnsignedInt(bytes[8]) << 8) | Byte.toUnsignedInt(bytes[9])
+        );
+    }
+
+    public static WaitRequestBody of(final byte[] bytes) {
+        Preconditions.checkArgument(bytes.length == STRUCTURE_LENGTH,
+                "Wrong structure length: {}", ByteFormatter.formatHexAsString(bytes));
+        final var body = new WaitRequestBody(bytes);
+        Preconditions.checkArgument(body.timeout > 0 && body.timeout <= Integer.MAX_VALUE,
+                "Timeout out of range: {}", ByteFormatter.formatHexAsString(bytes));
+        return body;
+    }
+
+    public GroupAddress getGroupAddress() {
+        return groupAddress;
+    }
+
+    public DataPointType getDataPointType() {
+        return dataPointType;
+    }
+
+    /**
+     * Returns the time in milliseconds how long the client waits for the value change
+     *
+     * @return timeout in milliseconds
+     */
+    public long getTimeout() {
+        return timeout;
+    }
+}
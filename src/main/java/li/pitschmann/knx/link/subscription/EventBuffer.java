@@ -0,0 +1,189 @@
+/*
+ * Copyright (C) 2021 Pitschmann Christoph
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package li.pitschmann.knx.link.subscription;
+
+import li.pitschmann.knx.core.utils.Preconditions;
+import li.pitschmann.knx.link.ClientChannel;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.Objects;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Bounded ring buffer of event packets for a single subscriber.
+ *
+ * <p> The packets are offered by the telegram listener thread and are sent to the
+ * {@link ClientChannel} by the {@link EventDispatcher} thread. The channel serializes
+ * the events with the responses of the same client, events are only sent while the
+ * channel is writable and remain in this buffer otherwise. The packet bytes are
+ * shared across all subscribers and must not be modified. When the buffer is full
+ * the {@link OverflowPolicy} decides what should happen with the new packet.
+ */
+final class EventBuffer {
+    private static final Logger LOG = LoggerFactory.getLogger(EventBuffer.class);
+    private final ClientChannel channel;
+    private final OverflowPolicy overflowPolicy;
+    private final LongAdder droppedCounter;
+    private final int[] addresses;
+    private final byte[][] packets;
+    private int head;
+    private int size;
+    private boolean scheduled;
+    private boolean closed;
+
+    /**
+     * Creates a new {@link EventBuffer}
+     *
+     * @param channel        the channel of subscriber; may not be null
+     * @param capacity       the maximum number of pending events; must be positive
+     * @param overflowPolicy the policy when buffer is full; may not be null
+     * @param droppedCounter the counter to be incremented for every dropped event; may not be null
+     */
+    EventBuffer(final ClientChannel channel,
+                final int capacity,
+                final OverflowPolicy overflowPolicy,
+                final LongAdder droppedCounter) {
+        Preconditions.checkArgument(capacity > 0, "Capacity must be positive: {}", capacity);
+        this.channel = Objects.requireNonNull(channel);
+        this.overflowPolicy = Objects.requireNonNull(overflowPolicy);
+        this.droppedCounter = Objects.requireNonNull(droppedCounter);
+        this.addresses = new int[capacity];
+        this.packets = new byte[capacity][];
+    }
+
+    /**
+     * Offers the event packet to the buffer
+     *
+     * @param address the 16-bit group address of event
+     * @param packet  the bytes of event packet; may not be null and must not be modified
+     * @return {@code true} if the buffer must be scheduled for dispatching, otherwise
+     * {@code false} if it is already scheduled or the buffer has been closed
+     */
+    synchronized boolean offer(final int address, final byte[] packet) {
+        if (closed) {
+            return false;
+        }
+
+        if (size == packets.length) {
+            droppedCounter.increment();
+            if (overflowPolicy == OverflowPolicy.DISCONNECT) {
+                LOG.warn("Event buffer of channel '{}' is full. Disconnect the channel.", channel);
+                close();
+                return false;
+            } else if (overflowPolicy == OverflowPolicy.CONFLATE && conflate(address, packet)) {
+                return false;
+            }
+            poll();
+        }
+
+        final var tail = (head + size) % packets.length;
+        addresses[tail] = address;
+        packets[tail] = packet;
+        size++;
+
+        if (scheduled) {
+            return false;
+        }
+        scheduled = true;
+        return true;
+    }
+
+    /**
+     * Replaces the latest pending event packet of same group address
+     *
+     * @param address the 16-bit group address of event
+     * @param packet  the bytes of event packet
+     * @return {@code true} if a pending packet has been replaced, otherwise {@code false}
+     */
+    private boolean conflate(final int address, final byte[] packet) {
+        for (var i = size - 1; i >= 0; i--) {
+            final var index = (head + i) % packets.length;
+            if (addresses[index] == address) {
+                packets[index] = packet;
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private byte[] poll() {
+        final var packet = packets[head];
+        packets[head] = null;
+        head = (head + 1) % packets.length;
+        size--;
+        return packet;
+    }
+
+    /**
+     * Sends the pending event packets to the channel until the buffer is empty
+     * or the channel is not writable anymore.
+     *
+     * @return {@code true} if all pending packets have been sent, otherwise
+     * {@code false} if the channel is not writable and should be retried later
+     */
+    boolean flush() {
+        while (true) {
+            final byte[] packet;
+            synchronized (this) {
+                if (size == 0 || closed) {
+                    scheduled = false;
+                    return true;
+                } else if (!channel.isWritable()) {
+                    if (!channel.isConnected()) {
+                        close();
+                        scheduled = false;
+                        return true;
+                    }
+                    return false;
+                }
+                packet = poll();
+            }
+
+            if (!channel.send(packet)) {
+                LOG.debug("Channel has been closed, pending events are discarded: {}", channel);
+                synchronized (this) {
+                    close();
+                    scheduled = false;
+                }
+                return true;
+            }
+        }
+    }
+
+    private void close() {
+        closed = true;
+        while (size > 0) {
+            poll();
+        }
+        channel.close();
+    }
+
+    /**
+     * Returns the number of event packets that are pending for the subscriber
+     *
+     * @return number of pending event packets
+     */
+    synchronized int getLag() {
+        return size;
+    }
+
+    ClientChannel getChannel() {
+        return channel;
+    }
+}
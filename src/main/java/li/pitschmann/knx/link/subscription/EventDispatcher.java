@@ -0,0 +1,83 @@
+/*
+ * Copyright (C) 2021 Pitschmann Christoph
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package li.pitschmann.knx.link.subscription;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayDeque;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Dispatcher that writes the pending events of subscribers to their channels.
+ *
+ * <p> The dispatcher sends the events as long as the channel of a subscriber is
+ * writable and continues with the next subscriber, a slow subscriber therefore
+ * doesn't stall the other subscribers. Subscribers with a channel that is not
+ * writable are retried after {@link #RETRY_INTERVAL} milliseconds.
+ */
+public final class EventDispatcher implements Runnable {
+    private static final Logger LOG = LoggerFactory.getLogger(EventDispatcher.class);
+    private static final long RETRY_INTERVAL = 10L;
+    private final BlockingQueue<EventBuffer> readyQueue = new LinkedBlockingQueue<>();
+
+    EventDispatcher() {
+        // package-private
+    }
+
+    /**
+     * Schedules the {@link EventBuffer} for dispatching
+     *
+     * @param buffer the buffer that has pending events; may not be null
+     */
+    void schedule(final EventBuffer buffer) {
+        readyQueue.add(buffer);
+    }
+
+    @Override
+    public void run() {
+        LOG.trace("*** START ***");
+        final var pending = new ArrayDeque<EventBuffer>();
+        try {
+            while (!Thread.currentThread().isInterrupted()) {
+                final var buffer = pending.isEmpty()
+                        ? readyQueue.take()
+                        : readyQueue.poll(RETRY_INTERVAL, TimeUnit.MILLISECONDS);
+                if (buffer != null) {
+                    pending.add(buffer);
+                }
+                readyQueue.drainTo(pending);
+
+                for (var i = pending.size(); i > 0; i--) {
+                    final var next = pending.poll();
+                    if (!next.flush()) {
+                        // channel is not writable, retry later
+                        pending.add(next);
+                    }
+                }
+            }
+        } catch (final InterruptedException ie) {
+            LOG.debug("Interrupt signal caught");
+            Thread.currentThread().interrupt();
+        } finally {
+            LOG.trace("*** END ***");
+        }
+    }
+}
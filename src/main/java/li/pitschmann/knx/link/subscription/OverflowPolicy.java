@@ -0,0 +1,57 @@
+/*
+ * Copyright (C) 2021 Pitschmann Christoph
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package li.pitschmann.knx.link.subscription;
+
+/**
+ * Policy what should happen when the event buffer of a subscriber is full,
+ * because the subscriber doesn't consume the events fast enough.
+ */
+public enum OverflowPolicy {
+    /**
+     * The oldest event in the buffer is dropped
+     */
+    DROP_OLDEST("drop-oldest"),
+    /**
+     * The pending event of same group address is replaced by the latest value;
+     * if there is no pending event for the group address, the oldest event is dropped
+     */
+    CONFLATE("conflate"),
+    /**
+     * The subscriber is disconnected
+     */
+    DISCONNECT("disconnect");
+
+    private final String policy;
+
+    OverflowPolicy(final String policy) {
+        this.policy = policy;
+    }
+
+    public static OverflowPolicy of(final String policy) {
+        for (final var overflowPolicy : values()) {
+            if (overflowPolicy.policy.equalsIgnoreCase(policy)) {
+                return overflowPolicy;
+            }
+        }
+        throw new IllegalArgumentException("Overflow policy is not supported: " + policy);
+    }
+
+    public String getPolicy() {
+        return policy;
+    }
+}
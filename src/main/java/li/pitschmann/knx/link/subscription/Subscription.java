@@ -0,0 +1,54 @@
+/*
+ * Copyright (C) 2021 Pitschmann Christoph
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package li.pitschmann.knx.link.subscription;
+
+import li.pitschmann.knx.core.datapoint.DataPointType;
+import li.pitschmann.knx.core.utils.Strings;
+import li.pitschmann.knx.link.ClientChannel;
+
+import java.util.Objects;
+
+/**
+ * Subscription of a {@link ClientChannel} with the {@link DataPointType} that
+ * is used to translate the values of group address. This class is immutable.
+ */
+final class Subscription {
+    private final ClientChannel channel;
+    private final DataPointType dataPointType;
+
+    Subscription(final ClientChannel channel, final DataPointType dataPointType) {
+        this.channel = Objects.requireNonNull(channel);
+        this.dataPointType = Objects.requireNonNull(dataPointType);
+    }
+
+    ClientChannel getChannel() {
+        return channel;
+    }
+
+    DataPointType getDataPointType() {
+        return dataPointType;
+    }
+
+    @Override
+    public String toString() {
+        return Strings.toStringHelper(this)
+                .add("channel", channel)
+                .add("dataPointType", dataPointType.getId())
+                .toString();
+    }
+}
@@ -0,0 +1,180 @@
+/*
+ * Copyright (C) 2021 Pitschmann Christoph
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package li.pitschmann.knx.link.subscription;
+
+import li.pitschmann.knx.core.datapoint.DataPointType;
+import li.pitschmann.knx.core.utils.Preconditions;
+import li.pitschmann.knx.link.ClientChannel;
+
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Inverted index from the 16-bit group address to its subscriptions.
+ *
+ * <p> Every group address has an immutable array of {@link Subscription}s, therefore
+ * the look-up of subscriptions for an incoming telegram is O(1) and lock-free,
+ * no matter how many subscribers and patterns are registered. Patterns like main
+ * group ({@code 1/*}{@code /*}), middle group ({@code 1/2/*}) or arbitrary ranges
+ * are compiled into the index when subscribing, by updating the slot of every
+ * group address that is covered by the range.
+ *
+ * <p> Every subscriber has a 65536-bit {@link BitSet} of its subscribed group
+ * addresses which is used to remove the subscriber from the index incrementally.
+ * Changes to the index are rare compared to look-ups and are synchronized.
+ */
+final class SubscriptionIndex {
+    /**
+     * Number of group addresses (16-bit address space)
+     */
+    static final int SIZE = 65536;
+    private static final Subscription[] EMPTY = new Subscription[0];
+    private final AtomicReferenceArray<Subscription[]> index = new AtomicReferenceArray<>(SIZE);
+    private final Map<ClientChannel, BitSet> subscribers = new HashMap<>();
+
+    /**
+     * Returns the subscriptions for given group address
+     *
+     * @param address the 16-bit group address
+     * @return array of subscriptions, empty if there is no subscription; the array may not be modified
+     */
+    Subscription[] get(final int address) {
+        final var subscriptions = index.get(address);
+        return subscriptions == null ? EMPTY : subscriptions;
+    }
+
+    /**
+     * Adds the subscription for all group addresses from {@code fromAddress} to
+     * {@code toAddress} (both inclusive). An existing subscription of the channel
+     * for a group address within the range is replaced.
+     *
+     * @param channel       the channel of subscriber; may not be null
+     * @param fromAddress   the first 16-bit group address of range
+     * @param toAddress     the last 16-bit group address of range
+     * @param dataPointType the data point type for subscription; may not be null
+     */
+    synchronized void add(final ClientChannel channel,
+                          final int fromAddress,
+                          final int toAddress,
+                          final DataPointType dataPointType) {
+        checkRange(fromAddress, toAddress);
+        final var subscription = new Subscription(channel, dataPointType);
+        final var bitSet = subscribers.computeIfAbsent(channel, c -> new BitSet(SIZE));
+        for (var address = fromAddress; address <= toAddress; address++) {
+            final var subscriptions = get(address);
+            if (bitSet.get(address)) {
+                // replace existing subscription of channel
+                final var newSubscriptions = subscriptions.clone();
+                newSubscriptions[indexOf(subscriptions, channel)] = subscription;
+                index.set(address, newSubscriptions);
+            } else {
+                final var newSubscriptions = new Subscription[subscriptions.length + 1];
+                System.arraycopy(subscriptions, 0, newSubscriptions, 0, subscriptions.length);
+                newSubscriptions[subscriptions.length] = subscription;
+                index.set(address, newSubscriptions);
+            }
+        }
+        bitSet.set(fromAddress, toAddress + 1);
+    }
+
+    /**
+     * Removes the subscriptions of channel for all group addresses from {@code fromAddress}
+     * to {@code toAddress} (both inclusive).
+     *
+     * @param channel     the channel of subscriber; may not be null
+     * @param fromAddress the first 16-bit group address of range
+     * @param toAddress   the last 16-bit group address of range
+     * @return {@code true} if at least one subscription has been removed, otherwise {@code false}
+     */
+    synchronized boolean remove(final ClientChannel channel, final int fromAddress, final int toAddress) {
+        checkRange(fromAddress, toAddress);
+        final var bitSet = subscribers.get(channel);
+        if (bitSet == null) {
+            return false;
+        }
+
+        var removed = false;
+        for (var address = bitSet.nextSetBit(fromAddress); address >= 0 && address <= toAddress; address = bitSet.nextSetBit(address + 1)) {
+            removeFromSlot(channel, address);
+            removed = true;
+        }
+        bitSet.clear(fromAddress, toAddress + 1);
+        if (bitSet.isEmpty()) {
+            subscribers.remove(channel);
+        }
+        return removed;
+    }
+
+    /**
+     * Removes all subscriptions of channel
+     *
+     * @param channel the channel of subscriber; may not be null
+     * @return {@code true} if at least one subscription has been removed, otherwise {@code false}
+     */
+    synchronized boolean removeAll(final ClientChannel channel) {
+        return remove(channel, 0, SIZE - 1);
+    }
+
+    /**
+     * Returns if the channel has at least one subscription
+     *
+     * @param channel the channel of subscriber; may not be null
+     * @return {@code true} if subscribed, otherwise {@code false}
+     */
+    synchronized boolean isSubscribed(final ClientChannel channel) {
+        return subscribers.containsKey(channel);
+    }
+
+    /**
+     * Returns the number of subscribers that have at least one subscription
+     *
+     * @return number of subscribers
+     */
+    synchronized int getSubscriberCount() {
+        return subscribers.size();
+    }
+
+    private void removeFromSlot(final ClientChannel channel, final int address) {
+        final var subscriptions = get(address);
+        if (subscriptions.length == 1) {
+            index.set(address, null);
+        } else {
+            final var i = indexOf(subscriptions, channel);
+            final var newSubscriptions = new Subscription[subscriptions.length - 1];
+            System.arraycopy(subscriptions, 0, newSubscriptions, 0, i);
+            System.arraycopy(subscriptions, i + 1, newSubscriptions, i, newSubscriptions.length - i);
+            index.set(address, newSubscriptions);
+        }
+    }
+
+    private static int indexOf(final Subscription[] subscriptions, final ClientChannel channel) {
+        for (var i = 0; i < subscriptions.length; i++) {
+            if (subscriptions[i].getChannel() == channel) {
+                return i;
+            }
+        }
+        throw new AssertionError("Subscription for channel not found: " + channel);
+    }
+
+    private static void checkRange(final int fromAddress, final int toAddress) {
+        Preconditions.checkArgument(fromAddress >= 0 && toAddress < SIZE && fromAddress <= toAddress,
+                "Invalid range of group addresses: {} - {}", fromAddress, toAddress);
+    }
+}
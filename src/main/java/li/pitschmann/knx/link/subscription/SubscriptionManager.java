@@ -0,0 +1,253 @@
+/*
+ * Copyright (C) 2021 Pitschmann Christoph
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package li.pitschmann.knx.link.subscription;
+
+import li.pitschmann.knx.core.address.GroupAddress;
+import li.pitschmann.knx.core.cemi.APCI;
+import li.pitschmann.knx.core.cemi.CEMI;
+import li.pitschmann.knx.core.datapoint.DataPointType;
+import li.pitschmann.knx.core.utils.ByteFormatter;
+import li.pitschmann.knx.core.utils.Preconditions;
+import li.pitschmann.knx.link.ClientChannel;
+import li.pitschmann.knx.link.SocketWriter;
+import li.pitschmann.knx.link.TelegramListener;
+import li.pitschmann.knx.link.protocol.EventBody;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Manages the subscriptions of clients for group addresses. Every value change
+ * of a subscribed group address, seen as {@link APCI#GROUP_VALUE_WRITE} or
+ * {@link APCI#GROUP_VALUE_RESPONSE} telegram, is pushed to the subscribed
+ * client as an event.
+ *
+ * <p> A client may subscribe a single group address or a range of group addresses
+ * (e.g. {@code 1/2/0 - 1/2/255} for all group addresses of middle group {@code 1/2}).
+ * The subscriptions are compiled into a {@link SubscriptionIndex}, so matching an
+ * incoming telegram against the subscriptions is O(1). A client has at most one
+ * subscription per group address; subscribing the same group address again replaces
+ * the data point type of existing subscription.
+ *
+ * <p> The event packet is encoded once per data point type and shared across the
+ * subscribers. Every subscriber has a bounded {@link EventBuffer} which is written
+ * by the {@link EventDispatcher}, so a slow subscriber doesn't stall the telegram
+ * listener thread or the other subscribers.
+ *
+ * <p> The subscriptions and the event buffers are changed together under a lock, so a
+ * channel that is closed while subscribing doesn't leave an orphaned event buffer.
+ */
+public final class SubscriptionManager implements TelegramListener, SubscriptionManagerMXBean {
+    private static final Logger LOG = LoggerFactory.getLogger(SubscriptionManager.class);
+    private final SubscriptionIndex index = new SubscriptionIndex();
+    private final Map<ClientChannel, EventBuffer> buffers = new ConcurrentHashMap<>();
+    private final Object lock = new Object();
+    private final EventDispatcher eventDispatcher = new EventDispatcher();
+    private final LongAdder droppedCounter = new LongAdder();
+    private final int bufferSize;
+    private final OverflowPolicy overflowPolicy;
+
+    /**
+     * Creates a new {@link SubscriptionManager}
+     *
+     * @param bufferSize     the maximum number of pending events per subscriber; must be positive
+     * @param overflowPolicy the policy when the event buffer of a subscriber is full; may not be null
+     */
+    public SubscriptionManager(final int bufferSize, final OverflowPolicy overflowPolicy) {
+        Preconditions.checkArgument(bufferSize > 0, "Buffer size must be positive: {}", bufferSize);
+        this.bufferSize = bufferSize;
+        this.overflowPolicy = Objects.requireNonNull(overflowPolicy);
+    }
+
+    /**
+     * Returns the {@link EventDispatcher} which writes the events to the subscribers.
+     * It must be started by the server.
+     *
+     * @return the {@link EventDispatcher}
+     */
+    public EventDispatcher getEventDispatcher() {
+        return eventDispatcher;
+    }
+
+    /**
+     * Subscribes the {@link ClientChannel} for value changes of {@link GroupAddress}
+     *
+     * @param channel       the channel that should receive the events; may not be null
+     * @param groupAddress  the group address to be subscribed; may not be null
+     * @param dataPointType the data point type to translate the values; may not be null
+     */
+    public void subscribe(final ClientChannel channel, final GroupAddress groupAddress, final DataPointType dataPointType) {
+        subscribe(channel, groupAddress, groupAddress, dataPointType);
+    }
+
+    /**
+     * Subscribes the {@link ClientChannel} for value changes of all group addresses
+     * between {@code fromGroupAddress} and {@code toGroupAddress} (both inclusive)
+     *
+     * @param channel          the channel that should receive the events; may not be null
+     * @param fromGroupAddress the first group address to be subscribed; may not be null
+     * @param toGroupAddress   the last group address to be subscribed; may not be null
+     * @param dataPointType    the data point type to translate the values; may not be null
+     */
+    public void subscribe(final ClientChannel channel,
+                          final GroupAddress fromGroupAddress,
+                          final GroupAddress toGroupAddress,
+                          final DataPointType dataPointType) {
+        synchronized (lock) {
+            index.add(channel, fromGroupAddress.getAddressAsInt(), toGroupAddress.getAddressAsInt(), dataPointType);
+            buffers.computeIfAbsent(channel, c -> new EventBuffer(c, bufferSize, overflowPolicy, droppedCounter));
+            if (!channel.isConnected()) {
+                // channel has been closed in the meantime and may have been unsubscribed already
+                unsubscribeAll(channel);
+                return;
+            }
+        }
+        LOG.debug("Channel '{}' subscribed for group addresses: {} - {}", channel, fromGroupAddress, toGroupAddress);
+    }
+
+    /**
+     * Un-subscribes the {@link GroupAddress} for the {@link ClientChannel}
+     *
+     * @param channel      the channel that should not receive the events anymore; may not be null
+     * @param groupAddress the group address to be unsubscribed; may not be null
+     * @return {@code true} if the subscription existed, otherwise {@code false}
+     */
+    public boolean unsubscribe(final ClientChannel channel, final GroupAddress groupAddress) {
+        return unsubscribe(channel, groupAddress, groupAddress);
+    }
+
+    /**
+     * Un-subscribes all group addresses between {@code fromGroupAddress} and
+     * {@code toGroupAddress} (both inclusive) for the {@link ClientChannel}
+     *
+     * @param channel          the channel that should not receive the events anymore; may not be null
+     * @param fromGroupAddress the first group address to be unsubscribed; may not be null
+     * @param toGroupAddress   the last group address to be unsubscribed; may not be null
+     * @return {@code true} if at least one subscription existed, otherwise {@code false}
+     */
+    public boolean unsubscribe(final ClientChannel channel,
+                               final GroupAddress fromGroupAddress,
+                               final GroupAddress toGroupAddress) {
+        synchronized (lock) {
+            if (!index.remove(channel, fromGroupAddress.getAddressAsInt(), toGroupAddress.getAddressAsInt())) {
+                return false;
+            }
+            if (!index.isSubscribed(channel)) {
+                buffers.remove(channel);
+            }
+        }
+        LOG.debug("Channel '{}' unsubscribed for group addresses: {} - {}", channel, fromGroupAddress, toGroupAddress);
+        return true;
+    }
+
+    /**
+     * Un-subscribes all group addresses for the {@link ClientChannel}
+     * (e.g. when the channel has been closed)
+     *
+     * @param channel the channel which subscriptions should be removed; may not be null
+     */
+    public void unsubscribeAll(final ClientChannel channel) {
+        final boolean removed;
+        synchronized (lock) {
+            buffers.remove(channel);
+            removed = index.removeAll(channel);
+        }
+        if (removed) {
+            LOG.debug("All subscriptions removed for channel: {}", channel);
+        }
+    }
+
+    @Override
+    public int getSubscriberCount() {
+        return index.getSubscriberCount();
+    }
+
+    @Override
+    public Map<String, Integer> getSubscriberLags() {
+        final var lags = new HashMap<String, Integer>();
+        for (final var buffer : buffers.values()) {
+            lags.put(String.valueOf(buffer.getChannel().getRemoteAddress()), buffer.getLag());
+        }
+        return lags;
+    }
+
+    @Override
+    public long getDroppedEventCount() {
+        return droppedCounter.sum();
+    }
+
+    @Override
+    public void onTelegram(final CEMI cemi) {
+        if (cemi.getAPCI() != APCI.GROUP_VALUE_WRITE && cemi.getAPCI() != APCI.GROUP_VALUE_RESPONSE) {
+            return;
+        }
+
+        final var groupAddress = (GroupAddress) cemi.getDestinationAddress();
+        final var subscriptions = index.get(groupAddress.getAddressAsInt());
+        if (subscriptions.length == 0) {
+            return;
+        }
+
+        // encode the event packet only once per data point type
+        final var packets = new HashMap<DataPointType, byte[]>();
+        for (final var subscription : subscriptions) {
+            final var channel = subscription.getChannel();
+            if (!channel.isConnected()) {
+                // channel has been disconnected in meanwhile
+                unsubscribeAll(channel);
+                continue;
+            }
+
+            final var packet = packets.computeIfAbsent(subscription.getDataPointType(),
+                    dpt -> toPacketBytes(groupAddress, dpt, cemi.getData()));
+            final var buffer = buffers.get(channel);
+            if (packet != null && buffer != null && buffer.offer(groupAddress.getAddressAsInt(), packet)) {
+                eventDispatcher.schedule(buffer);
+            }
+        }
+    }
+
+    /**
+     * Translates the data to the {@link DataPointType} and creates the bytes of event packet
+     *
+     * @param groupAddress  the group address of event
+     * @param dataPointType the data point type to translate the data
+     * @param data          the raw data from telegram
+     * @return bytes of event packet, or {@code null} if the data could not be translated
+     */
+    private static byte[] toPacketBytes(final GroupAddress groupAddress,
+                                        final DataPointType dataPointType,
+                                        final byte[] data) {
+        final String value;
+        try {
+            value = dataPointType.of(data).toText() + dataPointType.getUnit();
+        } catch (final Exception e) {
+            LOG.warn("Could not parse the data for group address '{}' and data point type '{}': {}",
+                    groupAddress.getAddressLevel3(), dataPointType.getId(), ByteFormatter.formatHexAsString(data));
+            return null;
+        }
+
+        LOG.debug("Event for group address '{}': {}", groupAddress, value);
+        return SocketWriter.toPacketBytes(EventBody.of(groupAddress, value));
+    }
+}
@@ -0,0 +1,50 @@
+/*
+ * Copyright (C) 2021 Pitschmann Christoph
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package li.pitschmann.knx.link.subscription;
+
+import java.util.Map;
+
+/**
+ * Management interface of {@link SubscriptionManager} to export the
+ * subscription metrics via JMX
+ */
+public interface SubscriptionManagerMXBean {
+
+    /**
+     * Returns the number of channels that have at least one subscription
+     *
+     * @return number of subscribers
+     */
+    int getSubscriberCount();
+
+    /**
+     * Returns the lag of every subscriber, which is the number of events
+     * that are pending to be written to the subscriber
+     *
+     * @return map of remote address of subscriber and number of pending events
+     */
+    Map<String, Integer> getSubscriberLags();
+
+    /**
+     * Returns the total number of events that have been dropped or conflated,
+     * because the subscribers didn't consume the events fast enough
+     *
+     * @return number of dropped events
+     */
+    long getDroppedEventCount();
+}
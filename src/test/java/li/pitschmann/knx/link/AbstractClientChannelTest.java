@@ -0,0 +1,195 @@
+/*
+ * Copyright (C) 2021 Pitschmann Christoph
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+
+package li.pitschmann.knx.link;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.net.SocketAddress;
+import java.nio.ByteBuffer;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Test for {@link AbstractClientChannel}
+ */
+class AbstractClientChannelTest {
+
+    @Test
+    @DisplayName("Packet is written directly when nothing is pending")
+    void test_send_Direct() {
+        final var channel = new TestChannel(Integer.MAX_VALUE);
+
+        assertThat(channel.send(new byte[]{1, 2, 3})).isTrue();
+        assertThat(channel.written.toByteArray()).containsExactly(1, 2, 3);
+        assertThat(channel.flushRequested).isFalse();
+        assertThat(channel.isWritable()).isTrue();
+    }
+
+    @Test
+    @DisplayName("Packets are queued in order and flushed when the transport is ready")
+    void test_send_Queued() {
+        final var channel = new TestChannel(2);
+
+        assertThat(channel.send(new byte[]{1, 2, 3})).isTrue();
+        assertThat(channel.send(new byte[]{4, 5})).isTrue();
+        assertThat(channel.written.toByteArray()).containsExactly(1, 2);
+        assertThat(channel.flushRequested).isTrue();
+
+        channel.capacity = 2;
+        assertThat(channel.flush()).isFalse();
+        assertThat(channel.written.toByteArray()).containsExactly(1, 2, 3, 4);
+
+        channel.capacity = 2;
+        assertThat(channel.flush()).isTrue();
+        assertThat(channel.written.toByteArray()).containsExactly(1, 2, 3, 4, 5);
+        assertThat(channel.flushRequested).isFalse();
+    }
+
+    @Test
+    @DisplayName("Channel is not writable above watermark and disconnected when too many octets are pending")
+    void test_send_TooManyPending() {
+        final var channel = new TestChannel(0);
+
+        assertThat(channel.send(new byte[AbstractClientChannel.WRITABLE_WATERMARK])).isTrue();
+        assertThat(channel.isWritable()).isFalse();
+        assertThat(channel.isConnected()).isTrue();
+
+        assertThat(channel.send(new byte[AbstractClientChannel.MAX_PENDING_BYTES])).isFalse();
+        assertThat(channel.isConnected()).isFalse();
+        assertThat(channel.transportClosed).isTrue();
+        assertThat(channel.send(new byte[]{1})).isFalse();
+    }
+
+    @Test
+    @DisplayName("Packets of stream are pulled while the transport takes them")
+    void test_stream() {
+        final var channel = new TestChannel(2);
+
+        channel.stream(List.of(new byte[]{1, 2}, new byte[]{3, 4}, new byte[]{5}).iterator());
+        // stream is not pulled by the caller
+        assertThat(channel.written.toByteArray()).isEmpty();
+        assertThat(channel.flushRequested).isTrue();
+        assertThat(channel.isWritable()).isFalse();
+
+        assertThat(channel.flush()).isFalse();
+        assertThat(channel.written.toByteArray()).containsExactly(1, 2);
+
+        // packet sent after stream is written when the stream is exhausted
+        assertThat(channel.send(new byte[]{6})).isTrue();
+        channel.capacity = 2;
+        assertThat(channel.flush()).isFalse();
+        assertThat(channel.written.toByteArray()).containsExactly(1, 2, 3, 4);
+
+        channel.capacity = 2;
+        assertThat(channel.flush()).isTrue();
+        assertThat(channel.written.toByteArray()).containsExactly(1, 2, 3, 4, 5, 6);
+        assertThat(channel.isWritable()).isTrue();
+    }
+
+    @Test
+    @DisplayName("Stream is pulled in bounded rounds")
+    void test_stream_Budget() {
+        final var channel = new TestChannel(Integer.MAX_VALUE);
+        final var pulled = new AtomicInteger();
+        // endless stream of 1 KiB packets
+        channel.stream(Stream.generate(() -> {
+            pulled.incrementAndGet();
+            return new byte[1024];
+        }).iterator());
+        assertThat(pulled).hasValue(0);
+
+        assertThat(channel.flush()).isFalse();
+        assertThat(pulled).hasValue(AbstractClientChannel.STREAM_BUDGET_BYTES / 1024);
+        assertThat(channel.flushRequested).isTrue();
+
+        assertThat(channel.flush()).isFalse();
+        assertThat(pulled).hasValue(2 * AbstractClientChannel.STREAM_BUDGET_BYTES / 1024);
+    }
+
+    @Test
+    @DisplayName("Channel is closed on I/O Exception")
+    void test_IOException() {
+        final var channel = new TestChannel(-1);
+
+        assertThat(channel.send(new byte[]{1})).isFalse();
+        assertThat(channel.isConnected()).isFalse();
+        assertThat(channel.transportClosed).isTrue();
+        assertThat(channel.closeCount).isEqualTo(1);
+
+        // close listener is notified once only
+        channel.close();
+        assertThat(channel.closeCount).isEqualTo(1);
+    }
+
+    /**
+     * Transport that takes at most {@code capacity} octets until the capacity is
+     * refilled by the test; a negative capacity simulates an I/O failure
+     */
+    private static final class TestChannel extends AbstractClientChannel {
+        private final ByteArrayOutputStream written = new ByteArrayOutputStream();
+        private int capacity;
+        private boolean flushRequested;
+        private boolean transportClosed;
+        private int closeCount;
+
+        private TestChannel(final int capacity) {
+            super(channel -> ((TestChannel) channel).closeCount++);
+            this.capacity = capacity;
+        }
+
+        @Override
+        protected boolean transfer(final ByteBuffer buffer) throws IOException {
+            if (capacity < 0) {
+                throw new IOException();
+            }
+            final var length = Math.min(capacity, buffer.remaining());
+            final var bytes = new byte[length];
+            buffer.get(bytes);
+            written.write(bytes);
+            capacity -= length;
+            return !buffer.hasRemaining();
+        }
+
+        @Override
+        protected void requestFlush(final boolean requested) {
+            flushRequested = requested;
+        }
+
+        @Override
+        protected boolean isTransportOpen() {
+            return !transportClosed;
+        }
+
+        @Override
+        protected void closeTransport() {
+            transportClosed = true;
+        }
+
+        @Override
+        public SocketAddress getRemoteAddress() {
+            return null;
+        }
+    }
+}
@@ -0,0 +1,94 @@
+/*
+ * Copyright (C) 2021 Pitschmann Christoph
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package li.pitschmann.knx.link;
+
+import li.pitschmann.knx.core.address.GroupAddress;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.net.InetAddress;
+import java.net.UnknownHostException;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Test for {@link AccessRule}
+ */
+class AccessRuleTest {
+
+    @Test
+    @DisplayName("Clients of access rule")
+    void test_Clients() throws UnknownHostException {
+        final var rule = new AccessRule("test", List.of("192.168.1.0/24", "10.0.0.1"), List.of(), List.of());
+
+        assertThat(rule.getName()).isEqualTo("test");
+        assertThat(rule.appliesTo(InetAddress.getByName("192.168.1.77"))).isTrue();
+        assertThat(rule.appliesTo(InetAddress.getByName("10.0.0.1"))).isTrue();
+        assertThat(rule.appliesTo(InetAddress.getByName("10.0.0.2"))).isFalse();
+    }
+
+    @Test
+    @DisplayName("Readable group address ranges")
+    void test_Readable() {
+        final var rule = new AccessRule("test", List.of("10.0.0.1"), List.of("1/0/0-1/0/255", "1/1/0 - 1/1/9", "2/0/5"), List.of());
+
+        assertThat(rule.isReadable(address("1/0/0"), address("1/0/0"))).isTrue();
+        assertThat(rule.isReadable(address("1/0/0"), address("1/1/9"))).isTrue();
+        assertThat(rule.isReadable(address("1/0/0"), address("1/1/10"))).isFalse();
+        assertThat(rule.isReadable(address("2/0/5"), address("2/0/5"))).isTrue();
+        assertThat(rule.isReadable(address("2/0/4"), address("2/0/5"))).isFalse();
+        assertThat(rule.isReadable(address("31/7/255"), address("31/7/255"))).isFalse();
+    }
+
+    @Test
+    @DisplayName("Writable group address ranges")
+    void test_Writable() {
+        final var rule = new AccessRule("test", List.of("10.0.0.1"), List.of("0/0/1-31/7/255"), List.of("1/2/3", "3/0/0-3/7/255"));
+
+        assertThat(rule.isWritable(address("1/2/3"))).isTrue();
+        assertThat(rule.isWritable(address("1/2/4"))).isFalse();
+        assertThat(rule.isWritable(address("3/4/5"))).isTrue();
+        assertThat(rule.isWritable(address("4/0/0"))).isFalse();
+    }
+
+    @Test
+    @DisplayName("Invalid group address ranges")
+    void test_InvalidRanges() {
+        assertThatThrownBy(() -> new AccessRule("test", List.of("10.0.0.1"), List.of("1/0/9-1/0/0"), List.of()))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("Group address range must be ascending: 1/0/9-1/0/0");
+        assertThatThrownBy(() -> new AccessRule("test", List.of("10.0.0.1"), List.of(), List.of("foobar")))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    @DisplayName("#toString()")
+    void testToString() {
+        final var rule = new AccessRule("test", List.of("10.0.0.1"), List.of("1/0/0-1/0/255"), List.of("1/2/3"));
+
+        assertThat(rule).hasToString(
+                "AccessRule{name=test, clients=[10.0.0.1], readable=[1/0/0-1/0/255], writable=[1/2/3]}"
+        );
+    }
+
+    private static int address(final String groupAddress) {
+        return GroupAddress.of(groupAddress).getAddressAsInt();
+    }
+}
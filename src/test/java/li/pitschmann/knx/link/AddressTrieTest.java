@@ -0,0 +1,86 @@
+/*
+ * Copyright (C) 2021 Pitschmann Christoph
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package li.pitschmann.knx.link;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.net.InetAddress;
+import java.net.UnknownHostException;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Test for {@link AddressTrie}
+ */
+class AddressTrieTest {
+
+    @Test
+    @DisplayName("Single IPv4 and IPv6 addresses")
+    void test_SingleAddresses() throws UnknownHostException {
+        final var trie = new AddressTrie();
+        trie.add("192.168.1.4");
+        trie.add("2001:db8::1");
+
+        assertThat(trie.contains(InetAddress.getByName("192.168.1.4"))).isTrue();
+        assertThat(trie.contains(InetAddress.getByName("192.168.1.5"))).isFalse();
+        assertThat(trie.contains(InetAddress.getByName("2001:db8:0:0:0:0:0:1"))).isTrue();
+        assertThat(trie.contains(InetAddress.getByName("2001:db8::2"))).isFalse();
+    }
+
+    @Test
+    @DisplayName("Networks in CIDR notation")
+    void test_Networks() throws UnknownHostException {
+        final var trie = new AddressTrie();
+        trie.add("10.0.0.0/8");
+        trie.add("172.16.0.0/12");
+        trie.add("fd00::/8");
+
+        assertThat(trie.contains(InetAddress.getByName("10.255.1.2"))).isTrue();
+        assertThat(trie.contains(InetAddress.getByName("11.0.0.1"))).isFalse();
+        assertThat(trie.contains(InetAddress.getByName("172.31.255.255"))).isTrue();
+        assertThat(trie.contains(InetAddress.getByName("172.32.0.0"))).isFalse();
+        assertThat(trie.contains(InetAddress.getByName("fdff::1"))).isTrue();
+        assertThat(trie.contains(InetAddress.getByName("fe00::1"))).isFalse();
+
+        // IPv4 networks don't match IPv6 addresses and vice versa
+        assertThat(trie.contains(InetAddress.getByName("a00::1"))).isFalse();
+    }
+
+    @Test
+    @DisplayName("Network with prefix length zero contains all addresses of its family")
+    void test_AllAddresses() throws UnknownHostException {
+        final var trie = new AddressTrie();
+        trie.add("0.0.0.0/0");
+
+        assertThat(trie.contains(InetAddress.getByName("1.2.3.4"))).isTrue();
+        assertThat(trie.contains(InetAddress.getByName("::2"))).isFalse();
+    }
+
+    @Test
+    @DisplayName("Invalid networks")
+    void test_Invalid() {
+        final var trie = new AddressTrie();
+        assertThatThrownBy(() -> trie.add("localhost")).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> trie.add("10.0.0.0/33")).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> trie.add("fd00::/129")).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> trie.add("fd00::zz")).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> trie.add("10.0.0.0/x")).isInstanceOf(IllegalArgumentException.class);
+    }
+}
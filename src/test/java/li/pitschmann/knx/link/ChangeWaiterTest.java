@@ -0,0 +1,75 @@
+/*
+ * Copyright (C) 2021 Pitschmann Christoph
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package li.pitschmann.knx.link;
+
+import li.pitschmann.knx.core.address.GroupAddress;
+import li.pitschmann.knx.core.cemi.APCI;
+import li.pitschmann.knx.core.datapoint.DPT1;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeoutException;
+
+import static li.pitschmann.knx.link.test.Helper.createTelegram;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Test for {@link ChangeWaiter}
+ */
+class ChangeWaiterTest {
+
+    @Test
+    @DisplayName("Invalid timeout")
+    void test_InvalidTimeout() {
+        assertThatThrownBy(() -> new ChangeWaiter().await(GroupAddress.of(1, 2, 3), 0))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    @DisplayName("All waiters of group address are released by write telegram")
+    void test_Release() throws ExecutionException, InterruptedException {
+        final var changeWaiter = new ChangeWaiter();
+        final var groupAddress = GroupAddress.of(1, 2, 3);
+        final var future1 = changeWaiter.await(groupAddress, 10000);
+        final var future2 = changeWaiter.await(groupAddress, 10000);
+        final var futureOther = changeWaiter.await(GroupAddress.of(1, 2, 4), 10000);
+        assertThat(changeWaiter.getWaitingCount()).isEqualTo(3);
+
+        // read telegram is not a value change
+        changeWaiter.onTelegram(createTelegram(groupAddress, APCI.GROUP_VALUE_READ, DPT1.SWITCH.of(true)).getCEMI());
+        assertThat(future1).isNotDone();
+
+        changeWaiter.onTelegram(createTelegram(groupAddress, APCI.GROUP_VALUE_WRITE, DPT1.SWITCH.of(true)).getCEMI());
+        assertThat(future1.get().getData()).containsExactly(0x01);
+        assertThat(future2.get().getData()).containsExactly(0x01);
+        assertThat(futureOther).isNotDone();
+        assertThat(changeWaiter.getWaitingCount()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Waiter is removed after timeout")
+    void test_Timeout() {
+        final var changeWaiter = new ChangeWaiter();
+        final var future = changeWaiter.await(GroupAddress.of(1, 2, 3), 10);
+
+        assertThatThrownBy(future::get).hasCauseInstanceOf(TimeoutException.class);
+        assertThat(changeWaiter.getWaitingCount()).isZero();
+    }
+}
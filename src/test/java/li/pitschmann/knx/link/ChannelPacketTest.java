@@ -20,8 +20,6 @@ package li.pitschmann.knx.link;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 
-import java.nio.channels.SocketChannel;
-
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.when;
@@ -34,17 +32,50 @@ class ChannelPacketTest {
     @Test
     @DisplayName("Test #getChannel() and #getBytes()")
     void testGetChannelAndBytes() {
-        final var channelMock = mock(SocketChannel.class);
+        final var channelMock = mock(ClientChannel.class);
 
         final var packet = new ChannelPacket(channelMock, new byte[]{0x34, 0x56});
         assertThat(packet.getChannel()).isSameAs(channelMock);
         assertThat(packet.getBytes()).containsExactly(0x34, 0x56);
     }
 
+    @Test
+    @DisplayName("Test #isExpired()")
+    void testIsExpired() throws InterruptedException {
+        final var channelMock = mock(ClientChannel.class);
+
+        final var packetWithoutTimeout = new ChannelPacket(channelMock, new byte[]{0x01});
+        final var packetWithTimeout = new ChannelPacket(channelMock, new byte[]{0x01}, 10);
+        final var packetWithLongTimeout = new ChannelPacket(channelMock, new byte[]{0x01}, 60000);
+        Thread.sleep(20);
+
+        assertThat(packetWithoutTimeout.isExpired()).isFalse();
+        assertThat(packetWithTimeout.isExpired()).isTrue();
+        assertThat(packetWithLongTimeout.isExpired()).isFalse();
+    }
+
+    @Test
+    @DisplayName("Test #getResponseAction()")
+    void testGetResponseAction() {
+        final var channelMock = mock(ClientChannel.class);
+
+        assertThat(new ChannelPacket(channelMock, new byte[]{0x01, Action.READ_REQUEST.getByte()}).getResponseAction()).isSameAs(Action.READ_RESPONSE);
+        assertThat(new ChannelPacket(channelMock, new byte[]{0x01, Action.WRITE_REQUEST.getByte()}).getResponseAction()).isSameAs(Action.WRITE_RESPONSE);
+        assertThat(new ChannelPacket(channelMock, new byte[]{0x01, Action.SUBSCRIBE_REQUEST.getByte()}).getResponseAction()).isSameAs(Action.SUBSCRIBE_RESPONSE);
+        assertThat(new ChannelPacket(channelMock, new byte[]{0x01, Action.UNSUBSCRIBE_REQUEST.getByte()}).getResponseAction()).isSameAs(Action.UNSUBSCRIBE_RESPONSE);
+        assertThat(new ChannelPacket(channelMock, new byte[]{0x01, Action.WAIT_REQUEST.getByte()}).getResponseAction()).isSameAs(Action.WAIT_RESPONSE);
+        assertThat(new ChannelPacket(channelMock, new byte[]{0x01, Action.HISTORY_REQUEST.getByte()}).getResponseAction()).isSameAs(Action.HISTORY_RESPONSE);
+
+        // not a request, unknown action or no action at all
+        assertThat(new ChannelPacket(channelMock, new byte[]{0x01, Action.EVENT.getByte()}).getResponseAction()).isSameAs(Action.GENERAL_MESSAGE);
+        assertThat(new ChannelPacket(channelMock, new byte[]{0x01, (byte) 0xEE}).getResponseAction()).isSameAs(Action.GENERAL_MESSAGE);
+        assertThat(new ChannelPacket(channelMock, new byte[]{0x01}).getResponseAction()).isSameAs(Action.GENERAL_MESSAGE);
+    }
+
     @Test
     @DisplayName("Test #toString()")
     void testToString() {
-        final var channelMock = mock(SocketChannel.class);
+        final var channelMock = mock(ClientChannel.class);
         when(channelMock.toString()).thenReturn("CHANNEL-MOCK");
 
         final var packet = new ChannelPacket(channelMock, new byte[]{0x01, 0x02, 0x03});
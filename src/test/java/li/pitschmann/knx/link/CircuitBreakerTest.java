@@ -0,0 +1,103 @@
+/*
+ * Copyright (C) 2021 Pitschmann Christoph
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package li.pitschmann.knx.link;
+
+import li.pitschmann.knx.core.utils.Sleeper;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeoutException;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Test for {@link CircuitBreaker}
+ */
+class CircuitBreakerTest {
+
+    @Test
+    @DisplayName("Invalid arguments")
+    void test_InvalidArguments() {
+        assertThatThrownBy(() -> new CircuitBreaker(-1, 1000)).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> new CircuitBreaker(3, 0)).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    @DisplayName("Disabled circuit breaker never opens")
+    void test_Disabled() {
+        final var circuitBreaker = new CircuitBreaker(0, 1000);
+        for (var i = 0; i < 10; i++) {
+            assertThat(circuitBreaker.tryAcquire()).isTrue();
+            circuitBreaker.record(false);
+        }
+        assertThat(circuitBreaker.getState()).isEqualTo("CLOSED");
+        assertThat(circuitBreaker.getOpenCount()).isZero();
+    }
+
+    @Test
+    @DisplayName("Opens after consecutive failures only")
+    void test_Open() {
+        final var circuitBreaker = new CircuitBreaker(3, 60000);
+
+        // failures that are interrupted by a success
+        circuitBreaker.track(CompletableFuture.completedFuture(false));
+        circuitBreaker.track(CompletableFuture.failedFuture(new TimeoutException()));
+        assertThat(circuitBreaker.getConsecutiveFailures()).isEqualTo(2);
+        circuitBreaker.track(CompletableFuture.completedFuture(true));
+        assertThat(circuitBreaker.getConsecutiveFailures()).isZero();
+        assertThat(circuitBreaker.getState()).isEqualTo("CLOSED");
+
+        // consecutive failures
+        circuitBreaker.record(false);
+        circuitBreaker.record(false);
+        circuitBreaker.record(false);
+        assertThat(circuitBreaker.getState()).isEqualTo("OPEN");
+        assertThat(circuitBreaker.getOpenCount()).isEqualTo(1);
+
+        assertThat(circuitBreaker.tryAcquire()).isFalse();
+        assertThat(circuitBreaker.tryAcquire()).isFalse();
+        assertThat(circuitBreaker.getRejectedCount()).isEqualTo(2);
+    }
+
+    @Test
+    @DisplayName("Half-open probe closes or re-opens the circuit breaker")
+    void test_HalfOpen() {
+        final var circuitBreaker = new CircuitBreaker(1, 100);
+        circuitBreaker.record(false);
+        assertThat(circuitBreaker.getState()).isEqualTo("OPEN");
+
+        // failed probe opens again
+        Sleeper.milliseconds(150);
+        assertThat(circuitBreaker.tryAcquire()).isTrue();
+        assertThat(circuitBreaker.getState()).isEqualTo("HALF_OPEN");
+        assertThat(circuitBreaker.tryAcquire()).isFalse();
+        circuitBreaker.record(false);
+        assertThat(circuitBreaker.getState()).isEqualTo("OPEN");
+        assertThat(circuitBreaker.getOpenCount()).isEqualTo(2);
+
+        // successful probe closes
+        Sleeper.milliseconds(150);
+        assertThat(circuitBreaker.tryAcquire()).isTrue();
+        circuitBreaker.record(true);
+        assertThat(circuitBreaker.getState()).isEqualTo("CLOSED");
+        assertThat(circuitBreaker.tryAcquire()).isTrue();
+        assertThat(circuitBreaker.tryAcquire()).isTrue();
+    }
+}
@@ -0,0 +1,151 @@
+/*
+ * Copyright (C) 2021 Pitschmann Christoph
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package li.pitschmann.knx.link;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Test for {@link ConcurrencyLimiter}
+ */
+class ConcurrencyLimiterTest {
+    private static final long ONE_MILLISECOND = TimeUnit.MILLISECONDS.toNanos(1);
+
+    @Test
+    @DisplayName("Invalid maximum limit")
+    void test_InvalidMaxLimit() {
+        assertThatThrownBy(() -> new ConcurrencyLimiter(-1)).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    @DisplayName("Disabled limiter permits every request")
+    void test_Disabled() {
+        final var limiter = new ConcurrencyLimiter(0);
+        for (var i = 0; i < 100; i++) {
+            assertThat(limiter.tryAcquire()).isTrue();
+        }
+        assertThat(limiter.getInFlightCount()).isEqualTo(100);
+
+        limiter.release(ONE_MILLISECOND, false);
+        limiter.release(2 * ONE_MILLISECOND, true);
+        assertThat(limiter.getLimit()).isZero();
+        assertThat(limiter.getInFlightCount()).isEqualTo(98);
+        assertThat(limiter.getRttMillis()).isEqualTo(2.0);
+    }
+
+    @Test
+    @DisplayName("Requests are rejected when limit is reached")
+    void test_LimitReached() {
+        final var limiter = new ConcurrencyLimiter(2);
+        assertThat(limiter.getLimit()).isEqualTo(2);
+        assertThat(limiter.tryAcquire()).isTrue();
+        assertThat(limiter.tryAcquire()).isTrue();
+        assertThat(limiter.tryAcquire()).isFalse();
+
+        // permit is released when the future is completed
+        final var future = new CompletableFuture<Boolean>();
+        final var tracked = limiter.track(future);
+        assertThat(limiter.tryAcquire()).isFalse();
+        future.complete(true);
+        assertThat(tracked).isCompletedWithValue(true);
+        assertThat(limiter.getInFlightCount()).isEqualTo(1);
+        assertThat(limiter.tryAcquire()).isTrue();
+    }
+
+    @Test
+    @DisplayName("Limit grows while round-trip time is stable, up to the maximum limit")
+    void test_Increase() {
+        final var limiter = new ConcurrencyLimiter(20);
+        assertThat(limiter.getLimit()).isEqualTo(ConcurrencyLimiter.INITIAL_LIMIT);
+
+        acquireAndRelease(limiter, 5, ONE_MILLISECOND);
+        assertThat(limiter.getLimit()).isBetween(ConcurrencyLimiter.INITIAL_LIMIT + 1, 20);
+
+        acquireAndRelease(limiter, 100, ONE_MILLISECOND);
+        assertThat(limiter.getLimit()).isEqualTo(20);
+        assertThat(limiter.getRttMillis()).isEqualTo(1.0);
+        assertThat(limiter.getMinRttMillis()).isEqualTo(1.0);
+    }
+
+    @Test
+    @DisplayName("Limit shrinks when round-trip time increases")
+    void test_DecreaseOnLatency() {
+        final var limiter = new ConcurrencyLimiter(20);
+        limiter.tryAcquire();
+        limiter.release(ONE_MILLISECOND, true);
+
+        for (var i = 0; i < 50; i++) {
+            limiter.tryAcquire();
+            limiter.release(10 * ONE_MILLISECOND, true);
+        }
+        assertThat(limiter.getLimit()).isLessThan(ConcurrencyLimiter.INITIAL_LIMIT);
+        assertThat(limiter.getRttMillis()).isGreaterThan(ConcurrencyLimiter.RTT_TOLERANCE);
+        assertThat(limiter.getMinRttMillis()).isEqualTo(1.0);
+    }
+
+    @Test
+    @DisplayName("Limit shrinks when requests are not acknowledged")
+    void test_DecreaseOnFailure() {
+        final var limiter = new ConcurrencyLimiter(20);
+
+        // acknowledge with 'false'
+        limiter.tryAcquire();
+        assertThat(limiter.track(CompletableFuture.completedFuture(false))).isCompletedWithValue(false);
+        assertThat(limiter.getLimit()).isEqualTo(5);
+
+        // acknowledge timed out
+        limiter.tryAcquire();
+        assertThat(limiter.track(CompletableFuture.failedFuture(new TimeoutException()))).isCompletedExceptionally();
+        assertThat(limiter.getLimit()).isEqualTo(2);
+
+        // never below one
+        for (var i = 0; i < 10; i++) {
+            limiter.tryAcquire();
+            limiter.release(ONE_MILLISECOND, false);
+        }
+        assertThat(limiter.getLimit()).isEqualTo(1);
+        assertThat(limiter.getInFlightCount()).isZero();
+        assertThat(limiter.getRttMillis()).isZero();
+    }
+
+    /**
+     * Acquires all permits and releases them with the given round-trip time, repeatedly
+     *
+     * @param limiter the limiter
+     * @param rounds  number of rounds
+     * @param rtt     the round-trip time in nanoseconds
+     */
+    private static void acquireAndRelease(final ConcurrencyLimiter limiter, final int rounds, final long rtt) {
+        for (var i = 0; i < rounds; i++) {
+            var acquired = 0;
+            while (limiter.tryAcquire()) {
+                acquired++;
+            }
+            for (var j = 0; j < acquired; j++) {
+                limiter.release(rtt, true);
+            }
+        }
+    }
+}
@@ -0,0 +1,71 @@
+/*
+ * Copyright (C) 2021 Pitschmann Christoph
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package li.pitschmann.knx.link;
+
+import li.pitschmann.knx.link.protocol.ResponseBody;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.DatagramChannel;
+import java.util.Arrays;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Test for {@link DatagramReplyChannel}
+ */
+class DatagramReplyChannelTest {
+
+    @Test
+    @DisplayName("Response is sent back as acknowledge datagram")
+    void test_AckEnabled() throws IOException {
+        try (final var serverChannel = DatagramChannel.open().bind(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0));
+             final var clientChannel = DatagramChannel.open().bind(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0))) {
+            final var channel = new DatagramReplyChannel(serverChannel, clientChannel.getLocalAddress(), true);
+            assertThat(channel.isConnected()).isTrue();
+            assertThat(channel.getRemoteAddress()).isEqualTo(clientChannel.getLocalAddress());
+
+            SocketWriter.writeToChannel(channel, Action.WRITE_RESPONSE, ResponseBody.of(true, Status.SUCCESS));
+
+            final var buffer = ByteBuffer.allocate(512);
+            assertThat(clientChannel.receive(buffer)).isEqualTo(serverChannel.getLocalAddress());
+            final var bytes = Arrays.copyOf(buffer.array(), buffer.position());
+            assertThat(bytes).hasSize(5);
+            assertThat(bytes[1]).isEqualTo(Action.WRITE_RESPONSE.getByte());
+            assertThat(ResponseBody.of(Arrays.copyOfRange(bytes, 3, 5)).getStatus()).isSameAs(Status.SUCCESS);
+        }
+    }
+
+    @Test
+    @DisplayName("Response is discarded when acknowledge datagrams are disabled")
+    void test_AckDisabled() throws IOException {
+        try (final var serverChannel = DatagramChannel.open().bind(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0));
+             final var clientChannel = DatagramChannel.open().bind(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0))) {
+            final var channel = new DatagramReplyChannel(serverChannel, clientChannel.getLocalAddress(), false);
+
+            assertThat(channel.send(new byte[]{0x01, 0x03, 0x02, (byte) 0x80, 0x00})).isTrue();
+
+            clientChannel.configureBlocking(false);
+            assertThat(clientChannel.receive(ByteBuffer.allocate(512))).isNull();
+        }
+    }
+}
@@ -18,6 +18,7 @@
 package li.pitschmann.knx.link;
 
 import li.pitschmann.knx.core.address.GroupAddress;
+import li.pitschmann.knx.core.cemi.APCI;
 import li.pitschmann.knx.core.communication.KnxClient;
 import li.pitschmann.knx.core.datapoint.DPT1;
 import li.pitschmann.knx.core.datapoint.DPT11;
@@ -27,7 +28,10 @@ import li.pitschmann.knx.core.datapoint.DPT2;
 import li.pitschmann.knx.core.datapoint.DPT28;
 import li.pitschmann.knx.core.datapoint.DPTRaw;
 import li.pitschmann.knx.core.datapoint.value.DPT19Value;
+import li.pitschmann.knx.core.exceptions.KnxException;
+import li.pitschmann.knx.core.utils.Sleeper;
 import li.pitschmann.knx.link.config.Config;
+import li.pitschmann.knx.link.protocol.EventBody;
 import li.pitschmann.knx.link.protocol.ResponseBody;
 import li.pitschmann.knx.link.test.TestClient;
 import org.junit.jupiter.api.AfterEach;
@@ -35,18 +39,37 @@ import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.SocketTimeoutException;
+import java.nio.channels.SocketChannel;
 import java.time.DayOfWeek;
 import java.time.LocalDate;
 import java.time.LocalTime;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
 
 import static li.pitschmann.knx.link.test.Helper.createConfigMock;
 import static li.pitschmann.knx.link.test.Helper.createKnxClientMock;
-import static li.pitschmann.knx.link.test.Helper.createKnxStatusDataMock;
+import static li.pitschmann.knx.link.test.Helper.createTelegram;
+import static li.pitschmann.knx.link.test.Helper.simulateReadResponse;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.atLeastOnce;
+import static org.mockito.Mockito.doAnswer;
 import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.spy;
 import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
 
 /**
  * Test for {@link DefaultServer}
@@ -75,15 +98,13 @@ class DefaultServerTest {
     @Test
     @DisplayName("Read Request with DPT 1.004 - Ramp")
     void test_Server_ReadRequest_DPT1() {
-        createKnxStatusDataMock(knxClientMock, DPT1.RAMP.of(true));
+        simulateReadResponse(knxClientMock, server.telegramPlugin, DPT1.RAMP.of(true));
 
         client.readRequest("8/3/250", "1.004");
 
         final var expectedGroupAddress = GroupAddress.of(8, 3, 250);
         verify(knxClientMock, timeout(1000))
                 .readRequest(expectedGroupAddress);
-        verify(knxClientMock.getStatusPool(), timeout(1000))
-                .getStatusFor(expectedGroupAddress);
 
         client.verifyReceivedResponses(
                 ResponseBody.of(false, Status.SUCCESS),
@@ -94,15 +115,13 @@ class DefaultServerTest {
     @Test
     @DisplayName("Read Request with DPT 11.001 - Date")
     void test_Server_ReadRequest_DPT11() {
-        createKnxStatusDataMock(knxClientMock, DPT11.DATE.of(LocalDate.of(2021, 3, 28)));
+        simulateReadResponse(knxClientMock, server.telegramPlugin, DPT11.DATE.of(LocalDate.of(2021, 3, 28)));
 
         client.readRequest("1/2/3", "11.001");
 
         final var expectedGroupAddress = GroupAddress.of(1, 2, 3);
         verify(knxClientMock, timeout(1000))
                 .readRequest(expectedGroupAddress);
-        verify(knxClientMock.getStatusPool(), timeout(1000))
-                .getStatusFor(expectedGroupAddress);
 
         client.verifyReceivedResponses(
                 ResponseBody.of(false, Status.SUCCESS),
@@ -113,15 +132,13 @@ class DefaultServerTest {
     @Test
     @DisplayName("Read Request with unsupported DPT")
     void test_Server_ReadRequest_UnsupportedDPT() {
-        createKnxStatusDataMock(knxClientMock, DPTRaw.VALUE.of((byte) 0x12, (byte) 0x67));
+        simulateReadResponse(knxClientMock, server.telegramPlugin, DPTRaw.VALUE.of((byte) 0x12, (byte) 0x67));
 
         client.readRequest("1/2/3", "99.9999");
 
         final var expectedGroupAddress = GroupAddress.of(1, 2, 3);
         verify(knxClientMock, timeout(1000))
                 .readRequest(expectedGroupAddress);
-        verify(knxClientMock.getStatusPool(), timeout(1000))
-                .getStatusFor(expectedGroupAddress);
 
         client.verifyReceivedResponses(
                 ResponseBody.of(false, Status.SUCCESS),
@@ -145,6 +162,134 @@ class DefaultServerTest {
         );
     }
 
+    @Test
+    @DisplayName("Each loop of server runs in a named thread of its own")
+    void test_Server_Threads() {
+        final var names = List.of("KnxLink-Server", "KnxLink-SocketListener", "KnxLink-EventDispatcher", "KnxLink-TimeoutService");
+        final var allStarted = Sleeper.milliseconds(50, () -> Thread.getAllStackTraces().keySet().stream()
+                .map(Thread::getName).collect(Collectors.toSet()).containsAll(names), 5000);
+        assertThat(allStarted).isTrue();
+    }
+
+    @Test
+    @DisplayName("Reload: Write Request rejected by the reloaded config")
+    void test_Server_Reload() {
+        client.writeRequest("1/2/150", "1.001", "on");
+        client.verifyReceivedResponses(
+                ResponseBody.of(true, Status.SUCCESS)
+        );
+
+        final var reloadedConfig = createConfigMock();
+        when(reloadedConfig.hasSameKnxSettings(any(Config.class))).thenReturn(true);
+        when(reloadedConfig.getSecurityAuditor().isWriteAuthorized(any(ClientChannel.class), any(GroupAddress.class))).thenReturn(false);
+        server.reload(reloadedConfig);
+
+        client.writeRequest("1/2/151", "1.001", "on");
+        client.verifyReceivedResponses(
+                ResponseBody.of(true, Status.SUCCESS),
+                ResponseBody.of(true, Status.ERROR_CLIENT_NOT_AUTHORIZED, "Access denied for group address: 1/2/151")
+        );
+
+        // KNX settings are same, no reconnect
+        verify(server).getKnxClient();
+        verify(knxClientMock, never()).writeRequest(eq(GroupAddress.of(1, 2, 151)), any());
+    }
+
+    @Test
+    @DisplayName("Reload: KNX client is reconnected when the KNX settings have been changed")
+    void test_Server_Reload_Reconnect() {
+        final var newKnxClientMock = createKnxClientMock();
+        doReturn(newKnxClientMock).when(server).getKnxClient();
+
+        final var reloadedConfig = createConfigMock();
+        when(reloadedConfig.hasSameKnxSettings(any(Config.class))).thenReturn(false);
+        server.reload(reloadedConfig);
+        verify(knxClientMock).close();
+        verify(server, times(2)).getKnxClient();
+
+        // requests are sent by the new KNX client
+        client.writeRequest("1/2/150", "1.001", "on");
+        verify(newKnxClientMock, timeout(1000)).writeRequest(eq(GroupAddress.of(1, 2, 150)), eq(DPT1.SWITCH.of(true)));
+        verify(knxClientMock, never()).writeRequest(any(GroupAddress.class), any());
+        assertThat(server.isRunning()).isTrue();
+    }
+
+    @Test
+    @DisplayName("Reload: requests are rejected as busy while the KNX client is reconnecting")
+    void test_Server_Reload_Reconnecting() throws Exception {
+        // ensure that the server is ready
+        client.writeRequest("1/2/149", "1.001", "on");
+        client.verifyReceivedResponses(
+                ResponseBody.of(true, Status.SUCCESS)
+        );
+
+        final var connecting = new CountDownLatch(1);
+        final var connected = new CountDownLatch(1);
+        final var newKnxClientMock = createKnxClientMock();
+        doAnswer(invocation -> {
+            connecting.countDown();
+            connected.await();
+            return newKnxClientMock;
+        }).when(server).getKnxClient();
+
+        final var reloadedConfig = createConfigMock();
+        when(reloadedConfig.hasSameKnxSettings(any(Config.class))).thenReturn(false);
+        final var reload = CompletableFuture.runAsync(() -> server.reload(reloadedConfig));
+        assertThat(connecting.await(5, TimeUnit.SECONDS)).isTrue();
+
+        client.writeRequest("1/2/150", "1.001", "on");
+        client.verifyReceivedResponses(
+                ResponseBody.of(true, Status.SUCCESS),
+                ResponseBody.of(true, Status.ERROR_BUSY, "Server is reconnecting, please try again later")
+        );
+
+        connected.countDown();
+        reload.get(5, TimeUnit.SECONDS);
+        client.writeRequest("1/2/150", "1.001", "on");
+        verify(newKnxClientMock, timeout(1000)).writeRequest(eq(GroupAddress.of(1, 2, 150)), eq(DPT1.SWITCH.of(true)));
+        verify(knxClientMock, never()).writeRequest(eq(GroupAddress.of(1, 2, 150)), any());
+        assertThat(server.isRunning()).isTrue();
+    }
+
+    @Test
+    @DisplayName("Reload: server is stopped when the KNX client could not reconnect")
+    void test_Server_Reload_Reconnect_Failed() {
+        // ensure that the server is ready
+        client.writeRequest("1/2/149", "1.001", "on");
+        client.verifyReceivedResponses(
+                ResponseBody.of(true, Status.SUCCESS)
+        );
+
+        doThrow(new KnxException("Connection failed")).when(server).getKnxClient();
+
+        final var reloadedConfig = createConfigMock();
+        when(reloadedConfig.hasSameKnxSettings(any(Config.class))).thenReturn(false);
+        server.reload(reloadedConfig);
+
+        verify(knxClientMock, atLeastOnce()).close();
+        assertThat(Sleeper.milliseconds(50, () -> !server.isRunning(), 5000)).isTrue();
+    }
+
+    @Test
+    @DisplayName("Reload: idle timeout enabled by the reloaded config disconnects idle clients")
+    void test_Server_Reload_IdleTimeout() throws IOException {
+        try (final var idleChannel = SocketChannel.open(new InetSocketAddress("localhost", Config.DEFAULT_SERVER_PORT))) {
+            // idle timeout is disabled at startup
+            final var socket = idleChannel.socket();
+            socket.setSoTimeout(300);
+            assertThatThrownBy(() -> socket.getInputStream().read()).isInstanceOf(SocketTimeoutException.class);
+
+            final var reloadedConfig = createConfigMock();
+            when(reloadedConfig.hasSameKnxSettings(any(Config.class))).thenReturn(true);
+            when(reloadedConfig.getServerIdleTimeout()).thenReturn(200L);
+            server.reload(reloadedConfig);
+
+            // the existing connection is closed by the server
+            socket.setSoTimeout(5000);
+            assertThat(socket.getInputStream().read()).isEqualTo(-1);
+        }
+    }
+
     @Test
     @DisplayName("Write Request: DPT 2.001 - Alarm Control 'No Alarm, Not Controlled'")
     void test_Server_WriteRequest_DPT2() {
@@ -213,4 +358,23 @@ class DefaultServerTest {
                 ResponseBody.of(true, Status.SUCCESS)
         );
     }
+
+    @Test
+    @DisplayName("Subscribe Request: DPT 1.001 - Events for 'On' and 'Off'")
+    void test_Server_SubscribeRequest_DPT1() {
+        client.subscribeRequest("1/2/3", "1.001");
+        client.verifyReceivedResponses(
+                ResponseBody.of(true, Status.SUCCESS)
+        );
+
+        final var groupAddress = GroupAddress.of(1, 2, 3);
+        server.telegramPlugin.onIncomingBody(createTelegram(groupAddress, APCI.GROUP_VALUE_WRITE, DPT1.SWITCH.of(true)));
+        server.telegramPlugin.onIncomingBody(createTelegram(GroupAddress.of(1, 2, 4), APCI.GROUP_VALUE_WRITE, DPT1.SWITCH.of(true)));
+        server.telegramPlugin.onIncomingBody(createTelegram(groupAddress, APCI.GROUP_VALUE_RESPONSE, DPT1.SWITCH.of(false)));
+
+        client.verifyReceivedEvents(
+                EventBody.of(groupAddress, "On"),
+                EventBody.of(groupAddress, "Off")
+        );
+    }
 }
@@ -0,0 +1,140 @@
+/*
+ * Copyright (C) 2021 Pitschmann Christoph
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package li.pitschmann.knx.link;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.UnixDomainSocketAddress;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Test for {@link FairQueue}
+ */
+class FairQueueTest {
+
+    @Test
+    @DisplayName("Flooding client does not starve other clients")
+    void test_RoundRobin() throws Exception {
+        final var queue = new FairQueue(Map.of());
+        final var floodingChannel = createChannelMock("192.168.1.1", 4711);
+        final var otherChannel = createChannelMock("192.168.1.2", 4712);
+
+        for (var i = 0; i < 5; i++) {
+            queue.add(new ChannelPacket(floodingChannel, new byte[]{(byte) i}));
+        }
+        queue.add(new ChannelPacket(otherChannel, new byte[]{0x10}));
+        queue.add(new ChannelPacket(otherChannel, new byte[]{0x11}));
+        assertThat(queue.size()).isEqualTo(7);
+
+        assertThat(takeAll(queue, 7)).containsExactly(0x00, 0x10, 0x01, 0x11, 0x02, 0x03, 0x04);
+        assertThat(queue.size()).isZero();
+    }
+
+    @Test
+    @DisplayName("Weighted clients get a bigger share")
+    void test_Weights() throws Exception {
+        final var queue = new FairQueue(Map.of(InetAddress.getByName("192.168.1.1"), 2));
+        final var weightedChannel = createChannelMock("192.168.1.1", 4711);
+        final var otherChannel = createChannelMock("192.168.1.2", 4712);
+
+        for (var i = 0; i < 4; i++) {
+            queue.add(new ChannelPacket(weightedChannel, new byte[]{(byte) i}));
+            queue.add(new ChannelPacket(otherChannel, new byte[]{(byte) (0x10 + i)}));
+        }
+
+        assertThat(takeAll(queue, 8)).containsExactly(0x00, 0x01, 0x10, 0x02, 0x03, 0x11, 0x12, 0x13);
+    }
+
+    @Test
+    @DisplayName("Weights of IPv6 clients are found regardless of the notation")
+    void test_Weights_IPv6() throws Exception {
+        final var queue = new FairQueue(Map.of(InetAddress.getByName("::1"), 2));
+        final var weightedChannel = createChannelMock("0:0:0:0:0:0:0:1", 4711);
+        final var otherChannel = createChannelMock("192.168.1.2", 4712);
+
+        for (var i = 0; i < 4; i++) {
+            queue.add(new ChannelPacket(weightedChannel, new byte[]{(byte) i}));
+            queue.add(new ChannelPacket(otherChannel, new byte[]{(byte) (0x10 + i)}));
+        }
+
+        assertThat(takeAll(queue, 8)).containsExactly(0x00, 0x01, 0x10, 0x02, 0x03, 0x11, 0x12, 0x13);
+    }
+
+    @Test
+    @DisplayName("Connections of same IP address share the queue, local connections don't")
+    void test_ClientKey() throws Exception {
+        final var queue = new FairQueue(Map.of());
+        final var firstConnection = createChannelMock("192.168.1.1", 4711);
+        final var secondConnection = createChannelMock("192.168.1.1", 4712);
+        final var otherChannel = createChannelMock("192.168.1.2", 4713);
+        final var firstLocalChannel = mock(ClientChannel.class);
+        when(firstLocalChannel.getRemoteAddress()).thenReturn(UnixDomainSocketAddress.of(""));
+        final var secondLocalChannel = mock(ClientChannel.class);
+        when(secondLocalChannel.getRemoteAddress()).thenReturn(UnixDomainSocketAddress.of(""));
+
+        queue.add(new ChannelPacket(firstConnection, new byte[]{0x00}));
+        queue.add(new ChannelPacket(secondConnection, new byte[]{0x01}));
+        queue.add(new ChannelPacket(otherChannel, new byte[]{0x10}));
+        queue.add(new ChannelPacket(firstLocalChannel, new byte[]{0x20}));
+        queue.add(new ChannelPacket(secondLocalChannel, new byte[]{0x30}));
+
+        assertThat(takeAll(queue, 5)).containsExactly(0x00, 0x10, 0x20, 0x30, 0x01);
+    }
+
+    @Test
+    @DisplayName("Take is blocking until a packet is available")
+    void test_Blocking() throws Exception {
+        final var queue = new FairQueue(Map.of());
+        final var future = CompletableFuture.supplyAsync(() -> {
+            try {
+                return queue.take();
+            } catch (final InterruptedException e) {
+                throw new AssertionError(e);
+            }
+        });
+        Thread.sleep(100);
+        assertThat(future).isNotDone();
+
+        final var packet = new ChannelPacket(createChannelMock("192.168.1.1", 4711), new byte[]{0x01});
+        queue.add(packet);
+        assertThat(future.get(5, TimeUnit.SECONDS)).isSameAs(packet);
+    }
+
+    private static ClientChannel createChannelMock(final String address, final int port) {
+        final var channelMock = mock(ClientChannel.class);
+        when(channelMock.getRemoteAddress()).thenReturn(new InetSocketAddress(address, port));
+        return channelMock;
+    }
+
+    private static byte[] takeAll(final FairQueue queue, final int count) throws InterruptedException {
+        final var bytes = new byte[count];
+        for (var i = 0; i < count; i++) {
+            bytes[i] = queue.take().getBytes()[0];
+        }
+        return bytes;
+    }
+}
@@ -0,0 +1,118 @@
+/*
+ * Copyright (C) 2021 Pitschmann Christoph
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package li.pitschmann.knx.link;
+
+import li.pitschmann.knx.link.ipc.IpcConnection;
+import li.pitschmann.knx.link.protocol.ResponseBody;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Test for {@link IpcListener} and {@link IpcChannel}
+ */
+class IpcListenerTest {
+
+    @Test
+    @DisplayName("Request is received and response is written via shared memory")
+    void test_RequestAndResponse(final @TempDir Path tempDir) throws IOException {
+        final var packets = new ArrayList<ChannelPacket>();
+        final var listener = new IpcListener(tempDir, 0, packets::add, channel -> {});
+        final var client = IpcConnection.create(tempDir.resolve("client" + IpcConnection.FILE_SUFFIX), 1024);
+
+        listener.scan();
+        assertThat(listener.poll()).isFalse();
+
+        client.getRequestRing().offer(ByteBuffer.wrap(new byte[]{0x01, 0x00, 0x01, 0x0A}));
+        client.getRequestRing().offer(ByteBuffer.wrap(new byte[]{0x01, 0x01, 0x00}));
+        assertThat(listener.poll()).isTrue();
+        assertThat(packets).hasSize(2);
+        assertThat(packets.get(0).getBytes()).containsExactly(0x01, 0x00, 0x01, 0x0A);
+        assertThat(packets.get(1).getBytes()).containsExactly(0x01, 0x01, 0x00);
+
+        // response to the channel of packet
+        final var channel = packets.get(0).getChannel();
+        assertThat(channel).isInstanceOf(IpcChannel.class);
+        assertThat(channel.isConnected()).isTrue();
+        assertThat(channel.getRemoteAddress()).hasToString("ipc:" + client.getPath());
+        SocketWriter.writeToChannel(channel, ResponseBody.of(true, Status.SUCCESS));
+        final var response = client.getResponseRing().poll();
+        assertThat(response).hasSize(5);
+        assertThat(ResponseBody.of(Arrays.copyOfRange(response, 3, 5)).getStatus()).isSameAs(Status.SUCCESS);
+    }
+
+    @Test
+    @DisplayName("Closed connection is removed and its file is deleted")
+    void test_ClosedByClient(final @TempDir Path tempDir) throws IOException {
+        final var packets = new ArrayList<ChannelPacket>();
+        final var closedChannels = new ArrayList<ClientChannel>();
+        final var listener = new IpcListener(tempDir, 0, packets::add, closedChannels::add);
+        final var client = IpcConnection.create(tempDir.resolve("client" + IpcConnection.FILE_SUFFIX), 1024);
+        listener.scan();
+
+        client.getRequestRing().offer(ByteBuffer.wrap(new byte[]{0x01, 0x01, 0x00}));
+        client.close();
+        assertThat(listener.poll()).isTrue();
+        assertThat(packets.get(0).getChannel().isConnected()).isFalse();
+        assertThat(closedChannels).containsExactly(packets.get(0).getChannel());
+        assertThat(Files.exists(client.getPath())).isFalse();
+    }
+
+    @Test
+    @DisplayName("Connection is closed when its file has been deleted")
+    void test_FileDeleted(final @TempDir Path tempDir) throws IOException {
+        final var packets = new ArrayList<ChannelPacket>();
+        final var closedChannels = new ArrayList<ClientChannel>();
+        final var listener = new IpcListener(tempDir, 0, packets::add, closedChannels::add);
+        final var client = IpcConnection.create(tempDir.resolve("client" + IpcConnection.FILE_SUFFIX), 1024);
+        listener.scan();
+
+        client.getRequestRing().offer(ByteBuffer.wrap(new byte[]{0x01, 0x01, 0x00}));
+        listener.poll();
+        final var channel = packets.get(0).getChannel();
+
+        Files.delete(client.getPath());
+        listener.scan();
+        assertThat(channel.isConnected()).isFalse();
+        assertThat(closedChannels).containsExactly(channel);
+        assertThat(client.isClosed()).isTrue();
+    }
+
+    @Test
+    @DisplayName("Invalid files are ignored")
+    void test_InvalidFile(final @TempDir Path tempDir) throws IOException {
+        final var packets = new ArrayList<ChannelPacket>();
+        final var listener = new IpcListener(tempDir, 0, packets::add, channel -> {});
+        Files.write(tempDir.resolve("invalid" + IpcConnection.FILE_SUFFIX), new byte[]{1, 2, 3});
+        Files.write(tempDir.resolve("other.txt"), new byte[]{1, 2, 3});
+
+        listener.scan();
+        listener.scan();
+        assertThat(listener.poll()).isFalse();
+        assertThat(packets).isEmpty();
+    }
+}
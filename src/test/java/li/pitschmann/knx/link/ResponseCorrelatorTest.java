@@ -0,0 +1,88 @@
+/*
+ * Copyright (C) 2021 Pitschmann Christoph
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package li.pitschmann.knx.link;
+
+import li.pitschmann.knx.core.address.GroupAddress;
+import li.pitschmann.knx.core.cemi.APCI;
+import li.pitschmann.knx.core.datapoint.DPT1;
+import li.pitschmann.knx.core.datapoint.DPT5;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeoutException;
+
+import static li.pitschmann.knx.link.test.Helper.createTelegram;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Test for {@link ResponseCorrelator}
+ */
+class ResponseCorrelatorTest {
+
+    @Test
+    @DisplayName("Correlator with invalid timeout")
+    void test_InvalidTimeout() {
+        assertThatThrownBy(() -> new ResponseCorrelator(0))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("Timeout must be positive: 0");
+    }
+
+    @Test
+    @DisplayName("Future completed by response telegram")
+    void test_ResponseReceived() throws Exception {
+        final var correlator = new ResponseCorrelator(1000);
+        final var groupAddress = GroupAddress.of(1, 2, 3);
+
+        final var future = correlator.register(groupAddress);
+        assertThat(correlator.register(groupAddress)).isSameAs(future);
+        assertThat(correlator.getPendingCount()).isEqualTo(1);
+
+        correlator.onTelegram(createTelegram(groupAddress, APCI.GROUP_VALUE_RESPONSE, DPT5.SCALING.of(50)).getCEMI());
+
+        assertThat(future.get().getData()).containsExactly(DPT5.SCALING.of(50).toByteArray());
+        assertThat(correlator.getPendingCount()).isZero();
+    }
+
+    @Test
+    @DisplayName("Future not completed by write telegram or other group address")
+    void test_NoMatchingResponse() {
+        final var correlator = new ResponseCorrelator(1000);
+        final var groupAddress = GroupAddress.of(1, 2, 3);
+
+        final var future = correlator.register(groupAddress);
+        correlator.onTelegram(createTelegram(groupAddress, APCI.GROUP_VALUE_WRITE, DPT1.SWITCH.of(true)).getCEMI());
+        correlator.onTelegram(createTelegram(GroupAddress.of(1, 2, 4), APCI.GROUP_VALUE_RESPONSE, DPT1.SWITCH.of(true)).getCEMI());
+
+        assertThat(future).isNotDone();
+        assertThat(correlator.getPendingCount()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Future completed exceptionally after timeout")
+    void test_Timeout() {
+        final var correlator = new ResponseCorrelator(50);
+
+        final var future = correlator.register(GroupAddress.of(1, 2, 3));
+        assertThatThrownBy(future::get)
+                .isInstanceOf(ExecutionException.class)
+                .hasCauseInstanceOf(TimeoutException.class);
+        assertThat(correlator.getPendingCount()).isZero();
+    }
+}
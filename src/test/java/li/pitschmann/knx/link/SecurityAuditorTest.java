@@ -17,13 +17,15 @@
 
 package li.pitschmann.knx.link;
 
+import li.pitschmann.knx.core.address.GroupAddress;
+import li.pitschmann.knx.core.utils.Sleeper;
 import li.pitschmann.knx.link.protocol.ResponseBody;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 
-import java.io.IOException;
 import java.net.InetSocketAddress;
-import java.nio.channels.SocketChannel;
+import java.net.UnixDomainSocketAddress;
+import java.nio.channels.DatagramChannel;
 import java.util.List;
 import java.util.Set;
 
@@ -40,70 +42,234 @@ import static org.mockito.Mockito.when;
 class SecurityAuditorTest {
 
     @Test
-    @DisplayName("#isRemoteAddressValid(SocketChannel): 127.0.0.1, in whitelist")
-    void test_remoteAddress_127_0_0_1() throws IOException {
+    @DisplayName("#isRemoteAddressValid(ClientChannel): 127.0.0.1, in whitelist")
+    void test_remoteAddress_127_0_0_1() {
         final var auditor = new SecurityAuditor(Set.of());
 
         // 127.0.0.1 should be always whitelisted
         final var socketChannelPacketMock = createChannelPacketMock();
-        when(((InetSocketAddress) socketChannelPacketMock.getChannel().getRemoteAddress()).getAddress().getHostAddress())
-                .thenReturn("127.0.0.1"); // simulate the request coming from client with ip address 10.0.0.1
+        when(socketChannelPacketMock.getChannel().getRemoteAddress()).thenReturn(new InetSocketAddress("127.0.0.1", 4711));
 
         assertThat(auditor.isRemoteAddressValid(socketChannelPacketMock.getChannel())).isTrue();
         verifyNoChannelPackets(socketChannelPacketMock);
     }
 
     @Test
-    @DisplayName("#isRemoteAddressValid(SocketChannel): 198.168.0.1, in whitelist")
-    void test_remoteAddress_198_168_0_1() throws IOException {
+    @DisplayName("#isRemoteAddressValid(ClientChannel): 198.168.0.1, in whitelist")
+    void test_remoteAddress_198_168_0_1() {
         final var auditor = new SecurityAuditor(Set.of("198.168.0.1"));
 
-        // 127.0.0.1 should be always whitelisted
         final var socketChannelPacketMock = createChannelPacketMock();
-        when(((InetSocketAddress) socketChannelPacketMock.getChannel().getRemoteAddress()).getAddress().getHostAddress())
-                .thenReturn("198.168.0.1");
+        when(socketChannelPacketMock.getChannel().getRemoteAddress()).thenReturn(new InetSocketAddress("198.168.0.1", 4711));
 
         assertThat(auditor.isRemoteAddressValid(socketChannelPacketMock.getChannel())).isTrue();
         verifyNoChannelPackets(socketChannelPacketMock);
     }
 
     @Test
-    @DisplayName("#isRemoteAddressValid(SocketChannel): 10.0.0.1, not in whitelist")
-    void test_remoteAddress_10_0_0_1() throws IOException {
+    @DisplayName("#isRemoteAddressValid(ClientChannel): 10.0.0.1, not in whitelist")
+    void test_remoteAddress_10_0_0_1() {
         final var auditor = new SecurityAuditor(Set.of("192.168.0.111"));
 
         final var socketChannelPacketMock = createChannelPacketMock();
-        when(((InetSocketAddress) socketChannelPacketMock.getChannel().getRemoteAddress()).getAddress().getHostAddress())
-                .thenReturn("10.0.0.1"); // simulate the request coming from client with ip address 10.0.0.1
+        when(socketChannelPacketMock.getChannel().getRemoteAddress())
+                .thenReturn(new InetSocketAddress("10.0.0.1", 4711)); // simulate the request coming from client with ip address 10.0.0.1
 
         assertThat(auditor.isRemoteAddressValid(socketChannelPacketMock.getChannel())).isFalse();
 
         final var expectedResponseBodies = List.of(
                 ResponseBody.of(true, Status.ERROR_CLIENT_NOT_AUTHORIZED,
-                        "Your IP Address '10.0.0.1' is not whitelisted. To add your IP Address to whitelist, add " +
+                        "Your IP Address is not whitelisted. To add your IP Address to whitelist, add " +
                                 "it to the property 'server.allowed.addresses' of your 'server.cfg' file.")
         );
         verifyChannelPackets(socketChannelPacketMock, expectedResponseBodies);
     }
 
     @Test
-    @DisplayName("#isRemoteAddressValid(SocketChannel): IOException")
-    void test_remoteAddress_IOException() throws IOException {
+    @DisplayName("#isRemoteAddressValid(ClientChannel): IPv6 loopback and CIDR networks")
+    void test_remoteAddress_Networks() {
+        final var auditor = new SecurityAuditor(Set.of("192.168.1.0/24", "fd00::/8"));
+
+        assertThat(auditor.isRemoteAddressValid(createChannelMock("::1", 4711))).isTrue();
+        assertThat(auditor.isRemoteAddressValid(createChannelMock("127.0.0.2", 4711))).isTrue();
+        assertThat(auditor.isRemoteAddressValid(createChannelMock("192.168.1.17", 4711))).isTrue();
+        assertThat(auditor.isRemoteAddressValid(createChannelMock("fd12:3456::1", 4711))).isTrue();
+        assertThat(auditor.isRemoteAddressValid(createChannelMock("192.168.2.17", 4711))).isFalse();
+        assertThat(auditor.isRemoteAddressValid(createChannelMock("fe80::1", 4711))).isFalse();
+    }
+
+    @Test
+    @DisplayName("#isRemoteAddressValid(ClientChannel): Unix domain socket")
+    void test_remoteAddress_UnixDomainSocket() {
+        final var auditor = new SecurityAuditor(Set.of());
+
+        // access to Unix domain socket is controlled by file permissions
+        final var socketChannelMock = mock(ClientChannel.class);
+        when(socketChannelMock.getRemoteAddress()).thenReturn(UnixDomainSocketAddress.of(""));
+
+        assertThat(auditor.isRemoteAddressValid(socketChannelMock)).isTrue();
+    }
+
+    @Test
+    @DisplayName("#isRemoteAddressValid(ClientChannel): Unknown remote address")
+    void test_remoteAddress_Unknown() {
         final var auditor = new SecurityAuditor(Set.of());
 
-        final var socketChannelMock = mock(SocketChannel.class);
-        when(socketChannelMock.getRemoteAddress()).thenThrow(new IOException());
+        final var socketChannelMock = mock(ClientChannel.class);
+        when(socketChannelMock.getRemoteAddress()).thenReturn(null);
 
         assertThat(auditor.isRemoteAddressValid(socketChannelMock)).isFalse();
     }
 
+    @Test
+    @DisplayName("#isSourceAddressValid(SocketAddress)")
+    void test_sourceAddress() {
+        final var auditor = new SecurityAuditor(Set.of("198.168.0.1"));
+
+        assertThat(auditor.isSourceAddressValid(new InetSocketAddress("127.0.0.1", 4711))).isTrue();
+        assertThat(auditor.isSourceAddressValid(new InetSocketAddress("198.168.0.1", 4711))).isTrue();
+        assertThat(auditor.isSourceAddressValid(new InetSocketAddress("10.0.0.1", 4711))).isFalse();
+        assertThat(auditor.isSourceAddressValid(UnixDomainSocketAddress.of(""))).isFalse();
+    }
+
+    @Test
+    @DisplayName("#isRequestPermitted(ClientChannel): No rate limits")
+    void test_requestPermitted_Unlimited() {
+        final var auditor = new SecurityAuditor(Set.of());
+        final var socketChannelMock = createChannelMock("10.0.0.1", 4711);
+
+        for (var i = 0; i < 100; i++) {
+            assertThat(auditor.isRequestPermitted(socketChannelMock)).isTrue();
+        }
+    }
+
+    @Test
+    @DisplayName("#isRequestPermitted(ClientChannel): Rate limit per connection")
+    void test_requestPermitted_Connection() {
+        final var auditor = new SecurityAuditor(Set.of(), 0, 1, 3, List.of());
+        final var socketChannelMock = createChannelMock("10.0.0.1", 4711);
+        final var otherSocketChannelMock = createChannelMock("10.0.0.1", 4712);
+
+        // burst of 3 requests
+        assertThat(auditor.isRequestPermitted(socketChannelMock)).isTrue();
+        assertThat(auditor.isRequestPermitted(socketChannelMock)).isTrue();
+        assertThat(auditor.isRequestPermitted(socketChannelMock)).isTrue();
+        assertThat(auditor.isRequestPermitted(socketChannelMock)).isFalse();
+
+        // other connection of same IP address has its own limit
+        assertThat(auditor.isRequestPermitted(otherSocketChannelMock)).isTrue();
+
+        // datagrams are not limited by connection
+        final var datagramChannel = new DatagramReplyChannel(mock(DatagramChannel.class), new InetSocketAddress("10.0.0.1", 4713), false);
+        for (var i = 0; i < 10; i++) {
+            assertThat(auditor.isRequestPermitted(datagramChannel)).isTrue();
+        }
+    }
+
+    @Test
+    @DisplayName("#release(ClientChannel): Rate limit of closed connection is released")
+    void test_release() {
+        final var auditor = new SecurityAuditor(Set.of(), 0, 1, 1, List.of());
+        final var socketChannelMock = createChannelMock("10.0.0.1", 4711);
+
+        assertThat(auditor.isRequestPermitted(socketChannelMock)).isTrue();
+        assertThat(auditor.isRequestPermitted(socketChannelMock)).isFalse();
+
+        // bucket of connection is removed, the channel has a full burst again
+        auditor.release(socketChannelMock);
+        assertThat(auditor.isRequestPermitted(socketChannelMock)).isTrue();
+    }
+
+    @Test
+    @DisplayName("#inheritRateLimits(SecurityAuditor): Rate limits are carried over on reload")
+    void test_inheritRateLimits() {
+        final var auditor = new SecurityAuditor(Set.of(), 1, 1, 1, List.of());
+        final var socketChannelMock = createChannelMock("10.0.0.1", 4711);
+        assertThat(auditor.isRequestPermitted(socketChannelMock)).isTrue();
+
+        // reloaded auditor knows the used up rate limits of previous auditor
+        final var reloadedAuditor = new SecurityAuditor(Set.of(), 1, 1, 1, List.of());
+        reloadedAuditor.inheritRateLimits(auditor);
+        assertThat(reloadedAuditor.isRequestPermitted(socketChannelMock)).isFalse();
+        assertThat(reloadedAuditor.isRequestPermitted(createChannelMock("10.0.0.2", 4711))).isTrue();
+    }
+
+    @Test
+    @DisplayName("#isRequestPermitted(ClientChannel): Rate limit per IP address")
+    void test_requestPermitted_Address() {
+        final var auditor = new SecurityAuditor(Set.of(), 1, 0, 2, List.of());
+
+        // connections and datagrams of same IP address share the limit
+        assertThat(auditor.isRequestPermitted(createChannelMock("10.0.0.1", 4711))).isTrue();
+        assertThat(auditor.isRequestPermitted(
+                new DatagramReplyChannel(mock(DatagramChannel.class), new InetSocketAddress("10.0.0.1", 4712), false))).isTrue();
+        assertThat(auditor.isRequestPermitted(createChannelMock("10.0.0.1", 4713))).isFalse();
+
+        // other IP address has its own limit
+        assertThat(auditor.isRequestPermitted(createChannelMock("10.0.0.2", 4711))).isTrue();
+
+        // tokens are refilled, 1 per second
+        Sleeper.milliseconds(1100);
+        assertThat(auditor.isRequestPermitted(createChannelMock("10.0.0.1", 4711))).isTrue();
+        assertThat(auditor.isRequestPermitted(createChannelMock("10.0.0.1", 4711))).isFalse();
+    }
+
+    @Test
+    @DisplayName("#isReadAuthorized(..) and #isWriteAuthorized(..): No access rules")
+    void test_authorized_NoAccessRules() {
+        final var auditor = new SecurityAuditor(Set.of());
+        final var channelMock = createChannelMock("10.0.0.1", 4711);
+
+        assertThat(auditor.isReadAuthorized(channelMock, GroupAddress.of("0/0/1"), GroupAddress.of("31/7/255"))).isTrue();
+        assertThat(auditor.isWriteAuthorized(channelMock, GroupAddress.of("1/2/3"))).isTrue();
+    }
+
+    @Test
+    @DisplayName("#isReadAuthorized(..) and #isWriteAuthorized(..): With access rules")
+    void test_authorized_AccessRules() {
+        final var auditor = new SecurityAuditor(Set.of(), 0, 0, 1, List.of(
+                new AccessRule("lights", List.of("10.0.0.0/24"), List.of("1/0/0-1/7/255"), List.of("1/0/0-1/0/255")),
+                new AccessRule("sensors", List.of("10.0.0.1"), List.of("2/0/0-2/0/255"), List.of())
+        ));
+
+        // 10.0.0.1 is restricted by both access rules
+        final var channelMock = createChannelMock("10.0.0.1", 4711);
+        assertThat(auditor.isReadAuthorized(channelMock, GroupAddress.of("1/2/3"), GroupAddress.of("1/2/3"))).isTrue();
+        assertThat(auditor.isReadAuthorized(channelMock, GroupAddress.of("2/0/0"), GroupAddress.of("2/0/255"))).isTrue();
+        assertThat(auditor.isReadAuthorized(channelMock, GroupAddress.of("2/0/0"), GroupAddress.of("2/1/0"))).isFalse();
+        assertThat(auditor.isReadAuthorized(channelMock, GroupAddress.of("3/0/0"), GroupAddress.of("3/0/0"))).isFalse();
+        assertThat(auditor.isWriteAuthorized(channelMock, GroupAddress.of("1/0/10"))).isTrue();
+        assertThat(auditor.isWriteAuthorized(channelMock, GroupAddress.of("1/1/10"))).isFalse();
+        assertThat(auditor.isWriteAuthorized(channelMock, GroupAddress.of("2/0/10"))).isFalse();
+
+        // 10.0.0.2 is restricted by 'lights' only
+        final var otherChannelMock = createChannelMock("10.0.0.2", 4711);
+        assertThat(auditor.isReadAuthorized(otherChannelMock, GroupAddress.of("2/0/0"), GroupAddress.of("2/0/0"))).isFalse();
+
+        // 10.0.1.1 is not restricted by any access rule
+        final var unrestrictedChannelMock = createChannelMock("10.0.1.1", 4711);
+        assertThat(auditor.isReadAuthorized(unrestrictedChannelMock, GroupAddress.of("3/0/0"), GroupAddress.of("3/0/0"))).isTrue();
+        assertThat(auditor.isWriteAuthorized(unrestrictedChannelMock, GroupAddress.of("3/0/0"))).isTrue();
+
+        // local clients without IP address are not restricted
+        final var localChannelMock = mock(ClientChannel.class);
+        when(localChannelMock.getRemoteAddress()).thenReturn(UnixDomainSocketAddress.of("/tmp/knx-link.sock"));
+        assertThat(auditor.isWriteAuthorized(localChannelMock, GroupAddress.of("3/0/0"))).isTrue();
+    }
+
     @Test
     @DisplayName("#toString()")
     void testToString() {
         final var auditor = new SecurityAuditor(Set.of("1.2.3.4"));
 
         assertThat(auditor).hasToString(
-                "SecurityAuditor{allowedAddresses=[1.2.3.4]}"
+                "SecurityAuditor{allowedAddresses=[1.2.3.4], addressRateLimit=0, connectionRateLimit=0, rateLimitBurst=1, accessRules=[]}"
         );
     }
+
+    private static ClientChannel createChannelMock(final String address, final int port) {
+        final var socketChannelMock = mock(ClientChannel.class);
+        when(socketChannelMock.getRemoteAddress()).thenReturn(new InetSocketAddress(address, port));
+        return socketChannelMock;
+    }
 }
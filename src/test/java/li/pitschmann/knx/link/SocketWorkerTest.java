@@ -18,27 +18,49 @@
 package li.pitschmann.knx.link;
 
 import li.pitschmann.knx.core.address.GroupAddress;
+import li.pitschmann.knx.core.cemi.APCI;
+import li.pitschmann.knx.core.communication.KnxClient;
+import li.pitschmann.knx.core.datapoint.DPT1;
+import li.pitschmann.knx.core.datapoint.value.DataPointValue;
 import li.pitschmann.knx.core.datapoint.DPT7;
 import li.pitschmann.knx.core.exceptions.KnxEnumNotFoundException;
+import li.pitschmann.knx.link.cache.ValueCache;
+import li.pitschmann.knx.link.cache.ValueTable;
+import li.pitschmann.knx.link.journal.Journal;
 import li.pitschmann.knx.link.protocol.ResponseBody;
+import li.pitschmann.knx.link.subscription.OverflowPolicy;
+import li.pitschmann.knx.link.subscription.SubscriptionManager;
 import li.pitschmann.knx.link.test.Helper;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
 
 import java.io.IOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.SocketAddress;
 import java.nio.ByteBuffer;
+import java.nio.file.Path;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Set;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeoutException;
 
 import static li.pitschmann.knx.link.test.Helper.createChannelPacketMock;
 import static li.pitschmann.knx.link.test.Helper.createKnxClientMock;
-import static li.pitschmann.knx.link.test.Helper.createKnxStatusDataMock;
+import static li.pitschmann.knx.link.test.Helper.createTelegram;
+import static li.pitschmann.knx.link.test.Helper.simulateReadResponse;
 import static li.pitschmann.knx.link.test.Helper.verifyChannelPackets;
 import static li.pitschmann.knx.link.test.Helper.verifyNoChannelPackets;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.entry;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.mockito.ArgumentMatchers.any;
-import static org.mockito.Mockito.doThrow;
+import static org.mockito.ArgumentMatchers.argThat;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 /**
@@ -49,20 +71,77 @@ class SocketWorkerTest {
     @Test
     @DisplayName("Worker without Knx Client")
     void test_NoKnxClient() {
-        assertThatThrownBy(() -> new SocketWorker(null)).isInstanceOf(NullPointerException.class);
+        assertThatThrownBy(() -> new SocketWorker(null, new TimeoutService(1000), new ConcurrencyLimiter(0), new CircuitBreaker(0, 1000), 0, new SecurityAuditor(Set.of()), new ResponseCorrelator(1000), new SubscriptionManager(16, OverflowPolicy.CONFLATE), new ChangeWaiter(), new ValueCache(), null))
+                .isInstanceOf(NullPointerException.class);
+    }
+
+    @Test
+    @DisplayName("Worker without Timeout Service")
+    void test_NoTimeoutService() {
+        assertThatThrownBy(() -> new SocketWorker(createKnxClientMock(), null, new ConcurrencyLimiter(0), new CircuitBreaker(0, 1000), 0, new SecurityAuditor(Set.of()), new ResponseCorrelator(1000), new SubscriptionManager(16, OverflowPolicy.CONFLATE), new ChangeWaiter(), new ValueCache(), null))
+                .isInstanceOf(NullPointerException.class);
+    }
+
+    @Test
+    @DisplayName("Worker without Concurrency Limiter")
+    void test_NoConcurrencyLimiter() {
+        assertThatThrownBy(() -> new SocketWorker(createKnxClientMock(), new TimeoutService(1000), null, new CircuitBreaker(0, 1000), 0, new SecurityAuditor(Set.of()), new ResponseCorrelator(1000), new SubscriptionManager(16, OverflowPolicy.CONFLATE), new ChangeWaiter(), new ValueCache(), null))
+                .isInstanceOf(NullPointerException.class);
+    }
+
+    @Test
+    @DisplayName("Worker without Circuit Breaker")
+    void test_NoCircuitBreaker() {
+        assertThatThrownBy(() -> new SocketWorker(createKnxClientMock(), new TimeoutService(1000), new ConcurrencyLimiter(0), null, 0, new SecurityAuditor(Set.of()), new ResponseCorrelator(1000), new SubscriptionManager(16, OverflowPolicy.CONFLATE), new ChangeWaiter(), new ValueCache(), null))
+                .isInstanceOf(NullPointerException.class);
+    }
+
+    @Test
+    @DisplayName("Worker without Security Auditor")
+    void test_NoSecurityAuditor() {
+        assertThatThrownBy(() -> new SocketWorker(createKnxClientMock(), new TimeoutService(1000), new ConcurrencyLimiter(0), new CircuitBreaker(0, 1000), 0, null, new ResponseCorrelator(1000), new SubscriptionManager(16, OverflowPolicy.CONFLATE), new ChangeWaiter(), new ValueCache(), null))
+                .isInstanceOf(NullPointerException.class);
+    }
+
+    @Test
+    @DisplayName("Worker without Response Correlator")
+    void test_NoResponseCorrelator() {
+        assertThatThrownBy(() -> new SocketWorker(createKnxClientMock(), new TimeoutService(1000), new ConcurrencyLimiter(0), new CircuitBreaker(0, 1000), 0, new SecurityAuditor(Set.of()), null, new SubscriptionManager(16, OverflowPolicy.CONFLATE), new ChangeWaiter(), new ValueCache(), null))
+                .isInstanceOf(NullPointerException.class);
+    }
+
+    @Test
+    @DisplayName("Worker without Subscription Manager")
+    void test_NoSubscriptionManager() {
+        assertThatThrownBy(() -> new SocketWorker(createKnxClientMock(), new TimeoutService(1000), new ConcurrencyLimiter(0), new CircuitBreaker(0, 1000), 0, new SecurityAuditor(Set.of()), new ResponseCorrelator(1000), null, new ChangeWaiter(), new ValueCache(), null))
+                .isInstanceOf(NullPointerException.class);
+    }
+
+    @Test
+    @DisplayName("Worker without Change Waiter")
+    void test_NoChangeWaiter() {
+        assertThatThrownBy(() -> new SocketWorker(createKnxClientMock(), new TimeoutService(1000), new ConcurrencyLimiter(0), new CircuitBreaker(0, 1000), 0, new SecurityAuditor(Set.of()), new ResponseCorrelator(1000), new SubscriptionManager(16, OverflowPolicy.CONFLATE), null, new ValueCache(), null))
+                .isInstanceOf(NullPointerException.class);
+    }
+
+    @Test
+    @DisplayName("Worker without Value Cache")
+    void test_NoValueCache() {
+        assertThatThrownBy(() -> new SocketWorker(createKnxClientMock(), new TimeoutService(1000), new ConcurrencyLimiter(0), new CircuitBreaker(0, 1000), 0, new SecurityAuditor(Set.of()), new ResponseCorrelator(1000), new SubscriptionManager(16, OverflowPolicy.CONFLATE), new ChangeWaiter(), null, null))
+                .isInstanceOf(NullPointerException.class);
     }
 
     @Test
     @DisplayName("#execute(ChannelPacket) with NULL")
     void test_execute_Null() {
-        final var worker = new SocketWorker(createKnxClientMock());
+        final var worker = createWorker(createKnxClientMock());
         assertThatThrownBy(() -> worker.execute(null)).isInstanceOf(NullPointerException.class);
     }
 
     @Test
     @DisplayName("#execute(ChannelPacket) without bytes")
     void test_execute_NullBytes() {
-        final var worker = new SocketWorker(createKnxClientMock());
+        final var worker = createWorker(createKnxClientMock());
 
         final var channelPacketMock = mock(ChannelPacket.class);
         when(channelPacketMock.getBytes()).thenReturn(null);
@@ -75,7 +154,7 @@ class SocketWorkerTest {
     @Test
     @DisplayName("#execute(ChannelPacket) with empty bytes")
     void test_execute_EmptyBytes() {
-        final var worker = new SocketWorker(createKnxClientMock());
+        final var worker = createWorker(createKnxClientMock());
 
         final var channelPacketMock = mock(ChannelPacket.class);
         when(channelPacketMock.getBytes()).thenReturn(new byte[0]);
@@ -88,7 +167,7 @@ class SocketWorkerTest {
     @Test
     @DisplayName("#execute(ChannelPacket) with unsupported protocol version")
     void test_execute_UnsupportedProtocolVersion() {
-        final var worker = new SocketWorker(createKnxClientMock());
+        final var worker = createWorker(createKnxClientMock());
 
         final var channelPacketMock = mock(ChannelPacket.class);
         when(channelPacketMock.getBytes()).thenReturn(new byte[]{(byte) 0xFF, 0x00, 0x00});
@@ -101,7 +180,7 @@ class SocketWorkerTest {
     @Test
     @DisplayName("#execute(ChannelPacket) with unsupported action")
     void test_execute_UnsupportedAction() {
-        final var worker = new SocketWorker(createKnxClientMock());
+        final var worker = createWorker(createKnxClientMock());
 
         final var channelPacketMock = mock(ChannelPacket.class);
         when(channelPacketMock.getBytes()).thenReturn(new byte[]{0x01, (byte) 0xEE, 0x00});
@@ -114,13 +193,16 @@ class SocketWorkerTest {
     @DisplayName("#execute(ChannelPacket) - READ REQUEST - Successful")
     void test_execute_ReadRequest() throws IOException {
         final var knxClientMock = createKnxClientMock();
-        createKnxStatusDataMock(knxClientMock, DPT7.ABSOLUTE_COLOR_TEMPERATURE.of(4711));
+        final var telegramPlugin = new TelegramPlugin();
+        simulateReadResponse(knxClientMock, telegramPlugin, DPT7.ABSOLUTE_COLOR_TEMPERATURE.of(4711));
 
         final var channelPacketMock = createChannelPacketMock(
                 Helper.createProtocolV1Packet(Action.READ_REQUEST, "1/2/3", "7.600", null)
         );
 
-        final var worker = new SocketWorker(knxClientMock);
+        final var correlator = new ResponseCorrelator(1000);
+        telegramPlugin.addListener(correlator);
+        final var worker = new SocketWorker(knxClientMock, new TimeoutService(1000), new ConcurrencyLimiter(0), new CircuitBreaker(0, 1000), 0, new SecurityAuditor(Set.of()), correlator, new SubscriptionManager(16, OverflowPolicy.CONFLATE), new ChangeWaiter(), new ValueCache(), null);
         worker.execute(channelPacketMock);
 
         verifyChannelPackets(channelPacketMock,
@@ -131,6 +213,50 @@ class SocketWorkerTest {
         );
     }
 
+    @Test
+    @DisplayName("#execute(ChannelPacket) - READ REQUEST - Value from Cache")
+    void test_execute_ReadRequest_Cached() {
+        final var knxClientMock = createKnxClientMock();
+        final var valueCache = new ValueCache();
+        valueCache.onTelegram(createTelegram(GroupAddress.of(1, 2, 3), APCI.GROUP_VALUE_WRITE, DPT1.SWITCH.of(true)).getCEMI());
+
+        // 1/2/3, DPT 1.001, maximum age 60000 ms
+        final var channelPacketMock = createChannelPacketMock(
+                new byte[]{0x01, Action.READ_REQUEST.getByte(), 0x0B, 0x0A, 0x03, 0x00, 0x01, 0x00, 0x01, 0x00, 0x00, (byte) 0xEA, 0x60, 0x00}
+        );
+
+        final var worker = new SocketWorker(knxClientMock, new TimeoutService(1000), new ConcurrencyLimiter(0), new CircuitBreaker(0, 1000), 0, new SecurityAuditor(Set.of()), new ResponseCorrelator(100), new SubscriptionManager(16, OverflowPolicy.CONFLATE), new ChangeWaiter(), valueCache, null);
+        worker.execute(channelPacketMock);
+
+        verifyChannelPackets(channelPacketMock, List.of(ResponseBody.of(true, Status.SUCCESS, "On")));
+        verify(knxClientMock, never()).readRequest(any(GroupAddress.class));
+    }
+
+    @Test
+    @DisplayName("#execute(ChannelPacket) - READ REQUEST - Restored value from Cache")
+    void test_execute_ReadRequest_CachedRestored() {
+        final var knxClientMock = createKnxClientMock();
+        final var valueTable = new ValueTable();
+        valueTable.write(GroupAddress.of(1, 2, 3).getAddressAsInt(), System.currentTimeMillis(), new byte[]{0x01}, true);
+        final var valueCache = new ValueCache(valueTable);
+        final var worker = new SocketWorker(knxClientMock, new TimeoutService(1000), new ConcurrencyLimiter(0), new CircuitBreaker(0, 1000), 0, new SecurityAuditor(Set.of()), new ResponseCorrelator(100), new SubscriptionManager(16, OverflowPolicy.CONFLATE), new ChangeWaiter(), valueCache, null);
+
+        // 1/2/3, DPT 1.001, maximum age 60000 ms, restored values accepted
+        final var acceptedPacketMock = createChannelPacketMock(
+                new byte[]{0x01, Action.READ_REQUEST.getByte(), 0x0B, 0x0A, 0x03, 0x00, 0x01, 0x00, 0x01, 0x00, 0x00, (byte) 0xEA, 0x60, 0x01}
+        );
+        worker.execute(acceptedPacketMock);
+        verifyChannelPackets(acceptedPacketMock, List.of(ResponseBody.of(true, Status.SUCCESS, "On")));
+        verify(knxClientMock, never()).readRequest(any(GroupAddress.class));
+
+        // 1/2/3, DPT 1.001, maximum age 60000 ms, restored values not accepted
+        final var notAcceptedPacketMock = createChannelPacketMock(
+                new byte[]{0x01, Action.READ_REQUEST.getByte(), 0x0B, 0x0A, 0x03, 0x00, 0x01, 0x00, 0x01, 0x00, 0x00, (byte) 0xEA, 0x60, 0x00}
+        );
+        worker.execute(notAcceptedPacketMock);
+        verify(knxClientMock).readRequest(GroupAddress.of(1, 2, 3));
+    }
+
     @Test
     @DisplayName("#execute(ChannelPacket) - READ REQUEST - Read Request Failed")
     void test_execute_ReadRequest_Failure() throws IOException {
@@ -141,7 +267,7 @@ class SocketWorkerTest {
                 Helper.createProtocolV1Packet(Action.READ_REQUEST, "1/2/3", "7.600", null)
         );
 
-        final var worker = new SocketWorker(knxClientMock);
+        final var worker = createWorker(knxClientMock);
         worker.execute(channelPacketMock);
 
         verifyChannelPackets(channelPacketMock, List.of(
@@ -157,7 +283,7 @@ class SocketWorkerTest {
         );
         when(channelPacketMock.getChannel().isConnected()).thenReturn(false); // HERE: not connected!
 
-        final var worker = new SocketWorker(createKnxClientMock());
+        final var worker = createWorker(createKnxClientMock());
         worker.execute(channelPacketMock);
 
         verifyNoChannelPackets(channelPacketMock);
@@ -170,7 +296,7 @@ class SocketWorkerTest {
                 Helper.createProtocolV1Packet(Action.READ_REQUEST, "1/2/3", "7.600", null)
         );
 
-        final var worker = new SocketWorker(createKnxClientMock());
+        final var worker = createWorker(createKnxClientMock());
         worker.execute(channelPacketMock); // should be fine, we silently ignore I/O
 
         verifyChannelPackets(channelPacketMock, List.of(
@@ -186,9 +312,9 @@ class SocketWorkerTest {
                 Helper.createProtocolV1Packet(Action.READ_REQUEST, "1/2/3", "7.600", null)
         );
         final var channelMock = channelPacketMock.getChannel();
-        doThrow(new IOException()).when(channelMock).write(any(ByteBuffer.class)); // HERE: I/O Exception!
+        when(channelMock.send(any(byte[].class))).thenReturn(false); // HERE: channel closed due I/O Exception!
 
-        final var worker = new SocketWorker(createKnxClientMock());
+        final var worker = createWorker(createKnxClientMock());
         worker.execute(channelPacketMock); // should be fine, we silently ignore I/O
     }
 
@@ -199,7 +325,7 @@ class SocketWorkerTest {
                 Helper.createProtocolV1Packet(Action.WRITE_REQUEST, "1/2/3", "7.600", new String[]{"4711"})
         );
 
-        final var worker = new SocketWorker(createKnxClientMock());
+        final var worker = createWorker(createKnxClientMock());
         worker.execute(channelPacketMock);
 
         verifyChannelPackets(channelPacketMock, List.of(
@@ -207,6 +333,136 @@ class SocketWorkerTest {
         ));
     }
 
+    @Test
+    @DisplayName("#execute(ChannelPacket) - WRITE REQUEST - No acknowledge within timeout")
+    void test_execute_WriteRequest_Timeout() throws IOException {
+        final var channelPacketMock = createChannelPacketMock(
+                Helper.createProtocolV1Packet(Action.WRITE_REQUEST, "1/2/3", "7.600", new String[]{"4711"})
+        );
+
+        final var knxClientMock = createKnxClientMock();
+        when(knxClientMock.writeRequest(any(GroupAddress.class), any(DataPointValue.class)))
+                .thenReturn(CompletableFuture.failedFuture(new TimeoutException()));
+        final var worker = createWorker(knxClientMock);
+        worker.execute(channelPacketMock);
+
+        verifyChannelPackets(channelPacketMock, List.of(
+                ResponseBody.of(true, Status.ERROR_TIMEOUT, "No acknowledge received for group address: 1/2/3")
+        ));
+    }
+
+    @Test
+    @DisplayName("#execute(ChannelPacket) - WRITE REQUEST - Completed exceptionally")
+    void test_execute_WriteRequest_Exception() throws IOException {
+        final var channelPacketMock = createChannelPacketMock(
+                Helper.createProtocolV1Packet(Action.WRITE_REQUEST, "1/2/3", "7.600", new String[]{"4711"})
+        );
+
+        final var knxClientMock = createKnxClientMock();
+        when(knxClientMock.writeRequest(any(GroupAddress.class), any(DataPointValue.class)))
+                .thenReturn(CompletableFuture.failedFuture(new IllegalStateException()));
+        final var worker = createWorker(knxClientMock);
+        worker.execute(channelPacketMock);
+
+        verifyChannelPackets(channelPacketMock, List.of(
+                ResponseBody.of(true, Status.ERROR_REQUEST, "Request failed for group address: 1/2/3")
+        ));
+    }
+
+    @Test
+    @DisplayName("#execute(ChannelPacket) - WRITE REQUEST - Expired request is dropped")
+    void test_execute_WriteRequest_Expired() throws IOException {
+        final var channelPacketMock = createChannelPacketMock(
+                Helper.createProtocolV1Packet(Action.WRITE_REQUEST, "1/2/3", "7.600", new String[]{"4711"})
+        );
+        when(channelPacketMock.isExpired()).thenReturn(true);
+
+        final var knxClientMock = createKnxClientMock();
+        final var worker = createWorker(knxClientMock);
+        worker.execute(channelPacketMock);
+
+        verifyChannelPackets(channelPacketMock, List.of(
+                ResponseBody.of(true, Status.ERROR_TIMEOUT, "Request expired before it could be executed")
+        ));
+        verify(channelPacketMock.getChannel()).send(argThat(bytes -> bytes[1] == Action.WRITE_RESPONSE.getByte()));
+        verify(knxClientMock, never()).writeRequest(any(GroupAddress.class), any(DataPointValue.class));
+        assertThat(worker.getDroppedRequestCounts()).containsExactly(entry("EXPIRED", 1L), entry("ORPHANED", 0L), entry("BUSY", 0L));
+    }
+
+    @Test
+    @DisplayName("#execute(ChannelPacket) - WRITE REQUEST - Request of closed channel is dropped")
+    void test_execute_WriteRequest_Orphaned() throws IOException {
+        final var channelPacketMock = createChannelPacketMock(
+                Helper.createProtocolV1Packet(Action.WRITE_REQUEST, "1/2/3", "7.600", new String[]{"4711"})
+        );
+        when(channelPacketMock.getChannel().isConnected()).thenReturn(false);
+
+        final var knxClientMock = createKnxClientMock();
+        final var worker = createWorker(knxClientMock);
+        worker.execute(channelPacketMock);
+
+        verifyNoChannelPackets(channelPacketMock);
+        verify(knxClientMock, never()).writeRequest(any(GroupAddress.class), any(DataPointValue.class));
+        assertThat(worker.getDroppedRequestCounts()).containsExactly(entry("EXPIRED", 0L), entry("ORPHANED", 1L), entry("BUSY", 0L));
+    }
+
+    @Test
+    @DisplayName("#execute(ChannelPacket) - WRITE REQUEST - Rejected when in-flight watermark is reached")
+    void test_execute_WriteRequest_Busy() throws IOException {
+        final var knxClientMock = createKnxClientMock();
+        when(knxClientMock.writeRequest(any(GroupAddress.class), any(DataPointValue.class)))
+                .thenReturn(new CompletableFuture<>());
+        final var worker = new SocketWorker(knxClientMock, new TimeoutService(1000), new ConcurrencyLimiter(0), new CircuitBreaker(0, 1000), 1, new SecurityAuditor(Set.of()), new ResponseCorrelator(100),
+                new SubscriptionManager(16, OverflowPolicy.CONFLATE), new ChangeWaiter(), new ValueCache(), null);
+
+        // first request is in-flight as the KNX client never acknowledges it
+        final var firstPacketMock = createChannelPacketMock(
+                Helper.createProtocolV1Packet(Action.WRITE_REQUEST, "1/2/3", "7.600", new String[]{"4711"})
+        );
+        worker.execute(firstPacketMock);
+        verifyNoChannelPackets(firstPacketMock);
+
+        // second request exceeds the watermark
+        final var secondPacketMock = createChannelPacketMock(
+                Helper.createProtocolV1Packet(Action.WRITE_REQUEST, "1/2/4", "7.600", new String[]{"4712"})
+        );
+        worker.execute(secondPacketMock);
+        verifyChannelPackets(secondPacketMock, List.of(
+                ResponseBody.of(true, Status.ERROR_BUSY, "Server is busy, please try again later")
+        ));
+        verify(knxClientMock).writeRequest(any(GroupAddress.class), any(DataPointValue.class));
+        assertThat(worker.getDroppedRequestCounts()).containsEntry("BUSY", 1L);
+    }
+
+    @Test
+    @DisplayName("#execute(ChannelPacket) - WRITE REQUEST - Rejected when circuit breaker is open")
+    void test_execute_WriteRequest_CircuitBreakerOpen() throws IOException {
+        final var knxClientMock = createKnxClientMock();
+        when(knxClientMock.writeRequest(any(GroupAddress.class), any(DataPointValue.class)))
+                .thenReturn(CompletableFuture.completedFuture(false));
+        final var circuitBreaker = new CircuitBreaker(1, 60000);
+        final var worker = new SocketWorker(knxClientMock, new TimeoutService(1000), new ConcurrencyLimiter(0), circuitBreaker, 0, new SecurityAuditor(Set.of()),
+                new ResponseCorrelator(100), new SubscriptionManager(16, OverflowPolicy.CONFLATE), new ChangeWaiter(), new ValueCache(), null);
+
+        // first request is not acknowledged and opens the circuit breaker
+        final var firstPacketMock = createChannelPacketMock(
+                Helper.createProtocolV1Packet(Action.WRITE_REQUEST, "1/2/3", "7.600", new String[]{"4711"})
+        );
+        worker.execute(firstPacketMock);
+        verifyChannelPackets(firstPacketMock, List.of(ResponseBody.of(true, Status.ERROR_REQUEST)));
+        assertThat(circuitBreaker.getState()).isEqualTo("OPEN");
+
+        // second request fails fast
+        final var secondPacketMock = createChannelPacketMock(
+                Helper.createProtocolV1Packet(Action.WRITE_REQUEST, "1/2/4", "7.600", new String[]{"4712"})
+        );
+        worker.execute(secondPacketMock);
+        verifyChannelPackets(secondPacketMock, List.of(
+                ResponseBody.of(true, Status.ERROR_REQUEST, "KNX Net/IP device is not available")
+        ));
+        verify(knxClientMock).writeRequest(any(GroupAddress.class), any(DataPointValue.class));
+    }
+
     @Test
     @DisplayName("#execute(ChannelPacket) - WRITE REQUEST - Incompatible value for DataPointType")
     void test_execute_WriteRequest_IncompatibleDataPointType() throws IOException {
@@ -214,7 +470,7 @@ class SocketWorkerTest {
                 Helper.createProtocolV1Packet(Action.WRITE_REQUEST, "1/2/3", "1.001", new String[]{"foobar"})
         );
 
-        final var worker = new SocketWorker(createKnxClientMock());
+        final var worker = createWorker(createKnxClientMock());
         worker.execute(channelPacketMock);
 
         verifyChannelPackets(channelPacketMock, List.of(
@@ -222,4 +478,257 @@ class SocketWorkerTest {
                         "I could not understand value for group address '1/2/3' and data point type '1.001': [foobar]")
         ));
     }
+
+    @Test
+    @DisplayName("#execute(ChannelPacket) - SUBSCRIBE REQUEST and UNSUBSCRIBE REQUEST")
+    void test_execute_SubscribeAndUnsubscribeRequest() throws IOException {
+        final var subscriptionManager = new SubscriptionManager(16, OverflowPolicy.CONFLATE);
+        final var worker = new SocketWorker(createKnxClientMock(), new TimeoutService(1000), new ConcurrencyLimiter(0), new CircuitBreaker(0, 1000), 0, new SecurityAuditor(Set.of()), new ResponseCorrelator(100), subscriptionManager, new ChangeWaiter(), new ValueCache(), null);
+
+        final var subscribePacketMock = createChannelPacketMock(
+                Helper.createProtocolV1Packet(Action.SUBSCRIBE_REQUEST, "1/2/3", "1.001", null)
+        );
+        worker.execute(subscribePacketMock);
+        verifyChannelPackets(subscribePacketMock, List.of(ResponseBody.of(true, Status.SUCCESS)));
+        assertThat(subscriptionManager.getSubscriberCount()).isEqualTo(1);
+
+        final var unsubscribePacketMock = createChannelPacketMock(
+                new byte[]{0x01, Action.UNSUBSCRIBE_REQUEST.getByte(), 0x02, 0x0A, 0x03}
+        );
+        worker.execute(unsubscribePacketMock);
+        verifyChannelPackets(unsubscribePacketMock, List.of(ResponseBody.of(true, Status.SUCCESS)));
+    }
+
+    @Test
+    @DisplayName("#execute(ChannelPacket) - WRITE REQUEST - Rejected when client is not authorized")
+    void test_execute_WriteRequest_NotAuthorized() throws IOException {
+        final var knxClientMock = createKnxClientMock();
+        final var securityAuditorMock = mock(SecurityAuditor.class);
+        when(securityAuditorMock.isWriteAuthorized(any(ClientChannel.class), any(GroupAddress.class))).thenReturn(false);
+        final var worker = new SocketWorker(knxClientMock, new TimeoutService(1000), new ConcurrencyLimiter(0), new CircuitBreaker(0, 1000), 0, securityAuditorMock,
+                new ResponseCorrelator(100), new SubscriptionManager(16, OverflowPolicy.CONFLATE), new ChangeWaiter(), new ValueCache(), null);
+
+        final var channelPacketMock = createChannelPacketMock(
+                Helper.createProtocolV1Packet(Action.WRITE_REQUEST, "1/2/3", "7.600", new String[]{"4711"})
+        );
+        worker.execute(channelPacketMock);
+
+        verifyChannelPackets(channelPacketMock, List.of(
+                ResponseBody.of(true, Status.ERROR_CLIENT_NOT_AUTHORIZED, "Access denied for group address: 1/2/3")
+        ));
+        verify(knxClientMock, never()).writeRequest(any(GroupAddress.class), any(DataPointValue.class));
+    }
+
+    @Test
+    @DisplayName("#execute(ChannelPacket) - SUBSCRIBE REQUEST - Rejected when client is not authorized")
+    void test_execute_SubscribeRequest_NotAuthorized() {
+        final var subscriptionManager = new SubscriptionManager(16, OverflowPolicy.CONFLATE);
+        final var securityAuditorMock = mock(SecurityAuditor.class);
+        when(securityAuditorMock.isReadAuthorized(any(ClientChannel.class), any(GroupAddress.class), any(GroupAddress.class))).thenReturn(false);
+        final var worker = new SocketWorker(createKnxClientMock(), new TimeoutService(1000), new ConcurrencyLimiter(0), new CircuitBreaker(0, 1000), 0, securityAuditorMock,
+                new ResponseCorrelator(100), subscriptionManager, new ChangeWaiter(), new ValueCache(), null);
+
+        // 1/2/0 - 1/2/255 (DPT 1.001)
+        final var subscribePacketMock = createChannelPacketMock(
+                new byte[]{0x01, Action.SUBSCRIBE_REQUEST.getByte(), 0x08, 0x0A, 0x00, 0x00, 0x01, 0x00, 0x01, 0x0A, (byte) 0xFF}
+        );
+        worker.execute(subscribePacketMock);
+
+        verifyChannelPackets(subscribePacketMock, List.of(
+                ResponseBody.of(true, Status.ERROR_CLIENT_NOT_AUTHORIZED, "Access denied for group addresses: 1/2/0 - 1/2/255")
+        ));
+        assertThat(subscriptionManager.getSubscriberCount()).isZero();
+    }
+
+    @Test
+    @DisplayName("#execute(ChannelPacket) - SUBSCRIBE REQUEST and UNSUBSCRIBE REQUEST for range of group addresses")
+    void test_execute_SubscribeAndUnsubscribeRequest_Range() {
+        final var subscriptionManager = new SubscriptionManager(16, OverflowPolicy.CONFLATE);
+        final var worker = new SocketWorker(createKnxClientMock(), new TimeoutService(1000), new ConcurrencyLimiter(0), new CircuitBreaker(0, 1000), 0, new SecurityAuditor(Set.of()), new ResponseCorrelator(100), subscriptionManager, new ChangeWaiter(), new ValueCache(), null);
+
+        // 1/2/0 - 1/2/255 (DPT 1.001)
+        final var subscribePacketMock = createChannelPacketMock(
+                new byte[]{0x01, Action.SUBSCRIBE_REQUEST.getByte(), 0x08, 0x0A, 0x00, 0x00, 0x01, 0x00, 0x01, 0x0A, (byte) 0xFF}
+        );
+        worker.execute(subscribePacketMock);
+        verifyChannelPackets(subscribePacketMock, List.of(ResponseBody.of(true, Status.SUCCESS)));
+        assertThat(subscriptionManager.getSubscriberCount()).isEqualTo(1);
+
+        // 1/2/0 - 1/2/255
+        final var channel = subscribePacketMock.getChannel();
+        final var unsubscribePacketMock = mock(ChannelPacket.class);
+        when(unsubscribePacketMock.getChannel()).thenReturn(channel);
+        when(unsubscribePacketMock.getBytes()).thenReturn(
+                new byte[]{0x01, Action.UNSUBSCRIBE_REQUEST.getByte(), 0x04, 0x0A, 0x00, 0x0A, (byte) 0xFF}
+        );
+        worker.execute(unsubscribePacketMock);
+        assertThat(subscriptionManager.getSubscriberCount()).isZero();
+    }
+
+    @Test
+    @DisplayName("#execute(ChannelPacket) - WAIT REQUEST - Value Changed")
+    void test_execute_WaitRequest() {
+        final var changeWaiter = new ChangeWaiter();
+        final var worker = new SocketWorker(createKnxClientMock(), new TimeoutService(1000), new ConcurrencyLimiter(0), new CircuitBreaker(0, 1000), 0, new SecurityAuditor(Set.of()), new ResponseCorrelator(100),
+                new SubscriptionManager(16, OverflowPolicy.CONFLATE), changeWaiter, new ValueCache(), null);
+
+        // 1/2/3, DPT 1.001, timeout 10000 ms
+        final var channelPacketMock = createChannelPacketMock(
+                new byte[]{0x01, Action.WAIT_REQUEST.getByte(), 0x0A, 0x0A, 0x03, 0x00, 0x01, 0x00, 0x01, 0x00, 0x00, 0x27, 0x10}
+        );
+        worker.execute(channelPacketMock);
+        verifyNoChannelPackets(channelPacketMock);
+        assertThat(changeWaiter.getWaitingCount()).isEqualTo(1);
+
+        changeWaiter.onTelegram(createTelegram(GroupAddress.of(1, 2, 3), APCI.GROUP_VALUE_WRITE, DPT1.SWITCH.of(true)).getCEMI());
+        verifyChannelPackets(channelPacketMock, List.of(ResponseBody.of(true, Status.SUCCESS, "On")));
+    }
+
+    @Test
+    @DisplayName("#execute(ChannelPacket) - WAIT REQUEST - Timeout")
+    void test_execute_WaitRequest_Timeout() {
+        final var worker = createWorker(createKnxClientMock());
+
+        // 1/2/3, DPT 1.001, timeout 100 ms
+        final var channelPacketMock = createChannelPacketMock(
+                new byte[]{0x01, Action.WAIT_REQUEST.getByte(), 0x0A, 0x0A, 0x03, 0x00, 0x01, 0x00, 0x01, 0x00, 0x00, 0x00, 0x64}
+        );
+        worker.execute(channelPacketMock);
+        verifyChannelPackets(channelPacketMock,
+                List.of(ResponseBody.of(true, Status.ERROR_TIMEOUT, "No value change for group address: 1/2/3")));
+    }
+
+    @Test
+    @DisplayName("#execute(ChannelPacket) - HISTORY REQUEST")
+    void test_execute_HistoryRequest(final @TempDir Path tempDir) throws IOException {
+        try (final var journal = Journal.open(tempDir, 1024)) {
+            journal.onTelegram(createTelegram(GroupAddress.of(1, 2, 3), APCI.GROUP_VALUE_WRITE, DPT1.SWITCH.of(true)).getCEMI());
+            journal.onTelegram(createTelegram(GroupAddress.of(1, 2, 4), APCI.GROUP_VALUE_WRITE, DPT1.SWITCH.of(true)).getCEMI());
+            journal.onTelegram(createTelegram(GroupAddress.of(1, 2, 3), APCI.GROUP_VALUE_WRITE, DPT1.SWITCH.of(false)).getCEMI());
+            final var timestamps = new ArrayList<Long>();
+            journal.query(GroupAddress.of(1, 2, 3).getAddressAsInt(), 0, Long.MAX_VALUE, record -> timestamps.add(record.getTimestamp()));
+
+            final var worker = new SocketWorker(createKnxClientMock(), new TimeoutService(1000), new ConcurrencyLimiter(0), new CircuitBreaker(0, 1000), 0, new SecurityAuditor(Set.of()), new ResponseCorrelator(100),
+                    new SubscriptionManager(16, OverflowPolicy.CONFLATE), new ChangeWaiter(), new ValueCache(), journal);
+
+            // 1/2/3, DPT 1.001, from 0 to Long.MAX_VALUE
+            final var channelPacketMock = createChannelPacketMock(
+                    new byte[]{0x01, Action.HISTORY_REQUEST.getByte(), 0x16, 0x0A, 0x03, 0x00, 0x01, 0x00, 0x01,
+                            0x00, 0x00, 0x00, 0x00, 0x00, 0x00, 0x00, 0x00,
+                            0x7F, (byte) 0xFF, (byte) 0xFF, (byte) 0xFF, (byte) 0xFF, (byte) 0xFF, (byte) 0xFF, (byte) 0xFF}
+            );
+            worker.execute(channelPacketMock);
+            verifyChannelPackets(channelPacketMock, List.of(
+                    ResponseBody.of(false, Status.SUCCESS, timestamps.get(0) + " On"),
+                    ResponseBody.of(false, Status.SUCCESS, timestamps.get(1) + " Off"),
+                    ResponseBody.of(true, Status.SUCCESS)
+            ));
+        }
+    }
+
+    @Test
+    @DisplayName("#execute(ChannelPacket) - HISTORY REQUEST - large history doesn't delay a READ REQUEST of another channel")
+    void test_execute_HistoryRequest_Large(final @TempDir Path tempDir) throws IOException {
+        try (final var journal = Journal.open(tempDir, 1024 * 1024)) {
+            for (var i = 0; i < 10_000; i++) {
+                journal.onTelegram(createTelegram(GroupAddress.of(1, 2, 3), APCI.GROUP_VALUE_WRITE, DPT1.SWITCH.of(i % 2 == 0)).getCEMI());
+            }
+            final var valueCache = new ValueCache();
+            valueCache.onTelegram(createTelegram(GroupAddress.of(1, 2, 4), APCI.GROUP_VALUE_WRITE, DPT1.SWITCH.of(true)).getCEMI());
+            final var worker = new SocketWorker(createKnxClientMock(), new TimeoutService(1000), new ConcurrencyLimiter(0), new CircuitBreaker(0, 1000), 0, new SecurityAuditor(Set.of()), new ResponseCorrelator(100),
+                    new SubscriptionManager(16, OverflowPolicy.CONFLATE), new ChangeWaiter(), valueCache, journal);
+
+            // 1/2/3, DPT 1.001, from 0 to Long.MAX_VALUE
+            final var historyChannel = new CountingChannel();
+            final var historyPacketMock = mock(ChannelPacket.class);
+            when(historyPacketMock.getChannel()).thenReturn(historyChannel);
+            when(historyPacketMock.getBytes()).thenReturn(
+                    new byte[]{0x01, Action.HISTORY_REQUEST.getByte(), 0x16, 0x0A, 0x03, 0x00, 0x01, 0x00, 0x01,
+                            0x00, 0x00, 0x00, 0x00, 0x00, 0x00, 0x00, 0x00,
+                            0x7F, (byte) 0xFF, (byte) 0xFF, (byte) 0xFF, (byte) 0xFF, (byte) 0xFF, (byte) 0xFF, (byte) 0xFF}
+            );
+            worker.execute(historyPacketMock);
+            // history is not read by the worker
+            assertThat(historyChannel.packetCount).isZero();
+
+            // 1/2/4, DPT 1.001, maximum age 60000 ms
+            final var readPacketMock = createChannelPacketMock(
+                    new byte[]{0x01, Action.READ_REQUEST.getByte(), 0x0B, 0x0A, 0x04, 0x00, 0x01, 0x00, 0x01, 0x00, 0x00, (byte) 0xEA, 0x60, 0x00}
+            );
+            worker.execute(readPacketMock);
+            verifyChannelPackets(readPacketMock, List.of(ResponseBody.of(true, Status.SUCCESS, "On")));
+
+            // history is written in bounded rounds by the thread that flushes the channel
+            assertThat(historyChannel.flush()).isFalse();
+            assertThat(historyChannel.packetCount).isPositive().isLessThan(10_000);
+            while (!historyChannel.flush()) {
+                // next round
+            }
+            // 10000 records and the final packet
+            assertThat(historyChannel.packetCount).isEqualTo(10_001);
+        }
+    }
+
+    @Test
+    @DisplayName("#execute(ChannelPacket) - HISTORY REQUEST without journal")
+    void test_execute_HistoryRequest_NoJournal() {
+        final var worker = createWorker(createKnxClientMock());
+
+        final var channelPacketMock = createChannelPacketMock(
+                new byte[]{0x01, Action.HISTORY_REQUEST.getByte(), 0x16, 0x0A, 0x03, 0x00, 0x01, 0x00, 0x01,
+                        0x00, 0x00, 0x00, 0x00, 0x00, 0x00, 0x00, 0x00,
+                        0x00, 0x00, 0x00, 0x00, 0x00, 0x00, 0x00, 0x01}
+        );
+        worker.execute(channelPacketMock);
+        verifyChannelPackets(channelPacketMock, List.of(ResponseBody.of(true, Status.ERROR, "Journal is not enabled")));
+    }
+
+    /**
+     * Creates a {@link SocketWorker} with a short read timeout for response telegrams
+     *
+     * @param knxClient the KNX client; may not be null
+     * @return a new {@link SocketWorker}
+     */
+    private static SocketWorker createWorker(final KnxClient knxClient) {
+        return new SocketWorker(knxClient, new TimeoutService(1000), new ConcurrencyLimiter(0), new CircuitBreaker(0, 1000), 0, new SecurityAuditor(Set.of()), new ResponseCorrelator(100), new SubscriptionManager(16, OverflowPolicy.CONFLATE), new ChangeWaiter(), new ValueCache(), null);
+    }
+
+    /**
+     * Channel whose transport takes all packets and counts them
+     */
+    private static final class CountingChannel extends AbstractClientChannel {
+        private int packetCount;
+
+        private CountingChannel() {
+            super(channel -> {
+            });
+        }
+
+        @Override
+        protected boolean transfer(final ByteBuffer buffer) {
+            buffer.position(buffer.limit());
+            packetCount++;
+            return true;
+        }
+
+        @Override
+        protected void requestFlush(final boolean requested) {
+            // flushed by the test
+        }
+
+        @Override
+        protected boolean isTransportOpen() {
+            return true;
+        }
+
+        @Override
+        protected void closeTransport() {
+            // nothing to close
+        }
+
+        @Override
+        public SocketAddress getRemoteAddress() {
+            return new InetSocketAddress(InetAddress.getLoopbackAddress(), 4711);
+        }
+    }
 }
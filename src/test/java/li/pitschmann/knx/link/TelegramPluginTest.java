@@ -0,0 +1,83 @@
+/*
+ * Copyright (C) 2021 Pitschmann Christoph
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package li.pitschmann.knx.link;
+
+import li.pitschmann.knx.core.address.GroupAddress;
+import li.pitschmann.knx.core.body.ConnectionStateRequestBody;
+import li.pitschmann.knx.core.cemi.APCI;
+import li.pitschmann.knx.core.datapoint.DPT1;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static li.pitschmann.knx.link.test.Helper.createTelegram;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+
+/**
+ * Test for {@link TelegramPlugin}
+ */
+class TelegramPluginTest {
+
+    @Test
+    @DisplayName("Group telegram is forwarded to all listeners")
+    void test_GroupTelegram() {
+        final var plugin = new TelegramPlugin();
+        final var listenerMock1 = mock(TelegramListener.class);
+        final var listenerMock2 = mock(TelegramListener.class);
+        plugin.addListener(listenerMock1);
+        plugin.addListener(listenerMock2);
+
+        // first listener fails, the second one must be notified anyway
+        doThrow(new RuntimeException()).when(listenerMock1).onTelegram(any());
+
+        final var body = createTelegram(GroupAddress.of(1, 2, 3), APCI.GROUP_VALUE_WRITE, DPT1.SWITCH.of(true));
+        plugin.onIncomingBody(body);
+
+        verify(listenerMock1).onTelegram(body.getCEMI());
+        verify(listenerMock2).onTelegram(body.getCEMI());
+    }
+
+    @Test
+    @DisplayName("Removed listener is not notified anymore")
+    void test_RemoveListener() {
+        final var plugin = new TelegramPlugin();
+        final var listenerMock = mock(TelegramListener.class);
+        plugin.addListener(listenerMock);
+        plugin.removeListener(listenerMock);
+
+        plugin.onIncomingBody(createTelegram(GroupAddress.of(1, 2, 3), APCI.GROUP_VALUE_WRITE, DPT1.SWITCH.of(true)));
+
+        verify(listenerMock, never()).onTelegram(any());
+    }
+
+    @Test
+    @DisplayName("Bodies without CEMI are ignored")
+    void test_NonCEMIBody() {
+        final var plugin = new TelegramPlugin();
+        final var listenerMock = mock(TelegramListener.class);
+        plugin.addListener(listenerMock);
+
+        plugin.onIncomingBody(mock(ConnectionStateRequestBody.class));
+        plugin.onOutgoingBody(createTelegram(GroupAddress.of(1, 2, 3), APCI.GROUP_VALUE_WRITE, DPT1.SWITCH.of(true)));
+
+        verify(listenerMock, never()).onTelegram(any());
+    }
+}
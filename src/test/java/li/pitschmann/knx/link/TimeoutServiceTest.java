@@ -0,0 +1,181 @@
+/*
+ * Copyright (C) 2021 Pitschmann Christoph
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package li.pitschmann.knx.link;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Test for {@link TimeoutService}
+ */
+class TimeoutServiceTest {
+
+    @Test
+    @DisplayName("Invalid timeout")
+    void test_InvalidTimeout() {
+        assertThatThrownBy(() -> new TimeoutService(0)).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    @DisplayName("Future completed within timeout")
+    void test_Completed() throws Exception {
+        final var service = new TimeoutService(1000);
+        final var future = new CompletableFuture<Boolean>();
+
+        final var tracked = service.track(future);
+        assertThat(service.getInFlightCount()).isEqualTo(1);
+
+        future.complete(true);
+        assertThat(tracked.get()).isTrue();
+        assertThat(service.getInFlightCount()).isZero();
+
+        // already completed futures are not tracked
+        assertThat(service.track(CompletableFuture.completedFuture(false)).get()).isFalse();
+        assertThat(service.getInFlightCount()).isZero();
+        assertThat(service.getTimedOutCount()).isZero();
+    }
+
+    @Test
+    @DisplayName("Future not completed within timeout")
+    void test_Timeout() {
+        final var service = new TimeoutService(50);
+        final var future = new CompletableFuture<Boolean>();
+        final var tracked = service.track(future);
+
+        // 50 ms are at least 5 ticks
+        service.tick();
+        service.tick();
+        assertThat(tracked).isNotDone();
+
+        for (var i = 0; i < 100; i++) {
+            service.tick();
+        }
+        assertThat(tracked).isCompletedExceptionally();
+        assertThat(future).isNotDone();
+        assertThat(service.getInFlightCount()).isZero();
+        assertThat(service.getTimedOutCount()).isEqualTo(1);
+
+        // late completion of original future is ignored
+        future.complete(true);
+        assertThat(tracked).isCompletedExceptionally();
+    }
+
+    @Test
+    @DisplayName("Timeout longer than a rotation of timer wheel")
+    void test_TimeoutMultipleRounds() {
+        final var rotation = TimeoutService.WHEEL_SIZE * TimeoutService.TICK_DURATION;
+        final var service = new TimeoutService(rotation + 500);
+        final var tracked = service.track(new CompletableFuture<Boolean>());
+
+        for (var i = 0; i < TimeoutService.WHEEL_SIZE; i++) {
+            service.tick();
+        }
+        assertThat(tracked).isNotDone();
+
+        for (var i = 0; i < 100; i++) {
+            service.tick();
+        }
+        assertThat(tracked).isCompletedExceptionally();
+    }
+
+    @Test
+    @DisplayName("Timeout fired by the thread of service")
+    void test_Run() throws InterruptedException {
+        final var service = new TimeoutService(50);
+        final var executor = Executors.newSingleThreadExecutor();
+        try {
+            executor.submit(service);
+            final var tracked = service.track(new CompletableFuture<Boolean>());
+
+            assertThatThrownBy(() -> tracked.get(2, TimeUnit.SECONDS))
+                    .isInstanceOf(ExecutionException.class)
+                    .hasCauseInstanceOf(TimeoutException.class);
+        } finally {
+            executor.shutdownNow();
+            assertThat(executor.awaitTermination(1, TimeUnit.SECONDS)).isTrue();
+        }
+    }
+
+    @Test
+    @DisplayName("Wheel: Invalid tick duration and wheel size")
+    void test_Wheel_Invalid() {
+        assertThatThrownBy(() -> new TimeoutService.Wheel<String>(0, 8, 0)).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> new TimeoutService.Wheel<String>(100, 0, 0)).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> new TimeoutService.Wheel<String>(100, 6, 0)).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    @DisplayName("Wheel: Items expire not before their deadline, also beyond one rotation")
+    void test_Wheel_Expire() {
+        final var wheel = new TimeoutService.Wheel<String>(100, 4, 1000);
+        wheel.schedule("A", 1250);
+        wheel.schedule("B", 1300);
+        // same bucket as 'B', but three rotations later
+        wheel.schedule("C", 2500);
+        // deadline in the past
+        wheel.schedule("D", 500);
+        assertThat(wheel.size()).isEqualTo(4);
+
+        final var expired = new ArrayList<String>();
+        wheel.advance(1099, expired::add);
+        assertThat(expired).isEmpty();
+        wheel.advance(1100, expired::add);
+        assertThat(expired).containsExactly("D");
+
+        wheel.advance(1299, expired::add);
+        assertThat(expired).containsExactly("D");
+        wheel.advance(1300, expired::add);
+        assertThat(expired).containsExactly("D", "A", "B");
+
+        wheel.advance(2499, expired::add);
+        assertThat(expired).containsExactly("D", "A", "B");
+        wheel.advance(5000, expired::add);
+        assertThat(expired).containsExactly("D", "A", "B", "C");
+        assertThat(wheel.size()).isZero();
+    }
+
+    @Test
+    @DisplayName("Wheel: Items can be re-scheduled while expiring")
+    void test_Wheel_Reschedule() {
+        final var wheel = new TimeoutService.Wheel<String>(100, 8, 0);
+        wheel.schedule("A", 100);
+
+        final var expired = new ArrayList<String>();
+        wheel.advance(100, item -> {
+            expired.add(item);
+            wheel.schedule(item, 900);
+        });
+        assertThat(expired).containsExactly("A");
+        assertThat(wheel.size()).isEqualTo(1);
+
+        wheel.advance(899, expired::add);
+        assertThat(expired).containsExactly("A");
+        wheel.advance(900, expired::add);
+        assertThat(expired).containsExactly("A", "A");
+    }
+}
@@ -0,0 +1,80 @@
+/*
+ * Copyright (C) 2021 Pitschmann Christoph
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package li.pitschmann.knx.link.cache;
+
+import li.pitschmann.knx.core.address.GroupAddress;
+import li.pitschmann.knx.core.cemi.APCI;
+import li.pitschmann.knx.core.datapoint.DPT1;
+import li.pitschmann.knx.core.datapoint.DPT9;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Path;
+
+import static li.pitschmann.knx.link.test.Helper.createTelegram;
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Test for {@link ValueCache}
+ */
+class ValueCacheTest {
+
+    @Test
+    @DisplayName("Values of group value write and response telegrams are cached")
+    void test_OnTelegram() {
+        final var valueCache = new ValueCache();
+        final var groupAddress = GroupAddress.of(1, 2, 3);
+        assertThat(valueCache.get(groupAddress)).isNull();
+
+        valueCache.onTelegram(createTelegram(groupAddress, APCI.GROUP_VALUE_WRITE, DPT1.SWITCH.of(true)).getCEMI());
+        final var value = valueCache.get(groupAddress);
+        assertThat(value.getData()).containsExactly(0x01);
+        assertThat(value.getTimestamp()).isPositive();
+        assertThat(value.isRestored()).isFalse();
+
+        valueCache.onTelegram(createTelegram(groupAddress, APCI.GROUP_VALUE_RESPONSE, DPT1.SWITCH.of(false)).getCEMI());
+        assertThat(valueCache.get(groupAddress).getData()).containsExactly(0x00);
+    }
+
+    @Test
+    @DisplayName("Group value read telegrams are ignored")
+    void test_OnTelegram_Read() {
+        final var valueCache = new ValueCache();
+        valueCache.onTelegram(createTelegram(GroupAddress.of(1, 2, 3), APCI.GROUP_VALUE_READ, DPT1.SWITCH.of(true)).getCEMI());
+        assertThat(valueCache.get(GroupAddress.of(1, 2, 3))).isNull();
+    }
+
+    @Test
+    @DisplayName("Values of a restored table are marked as restored")
+    void test_Restored(final @TempDir Path tempDir) throws IOException {
+        final var path = tempDir.resolve("snapshot.bin");
+        try (final var table = ValueTable.restore(path)) {
+            final var valueCache = new ValueCache(table);
+            valueCache.onTelegram(createTelegram(GroupAddress.of(1, 2, 3), APCI.GROUP_VALUE_WRITE, DPT9.TEMPERATURE.of(21.5)).getCEMI());
+            assertThat(valueCache.get(GroupAddress.of(1, 2, 3)).isRestored()).isFalse();
+        }
+
+        try (final var table = ValueTable.restore(path)) {
+            final var value = new ValueCache(table).get(GroupAddress.of(1, 2, 3));
+            assertThat(value.isRestored()).isTrue();
+            assertThat(value.getData()).containsExactly(DPT9.TEMPERATURE.of(21.5).toByteArray());
+        }
+    }
+}
@@ -0,0 +1,201 @@
+/*
+ * Copyright (C) 2021 Pitschmann Christoph
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package li.pitschmann.knx.link.cache;
+
+import li.pitschmann.knx.core.datapoint.DPT1;
+import li.pitschmann.knx.core.datapoint.DPT9;
+import li.pitschmann.knx.core.datapoint.DPTRaw;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Test for {@link ValueTable}
+ */
+class ValueTableTest {
+
+    @Test
+    @DisplayName("Write and read the values")
+    void test_WriteAndRead() {
+        final var table = new ValueTable();
+        assertThat(table.read(0x0A03)).isNull();
+        assertThat(table.getSequence(0x0A03)).isZero();
+
+        assertThat(table.write(0x0A03, 4711L, new byte[]{0x0C, 0x1A}, false)).isTrue();
+        assertThat(table.write(0xFFFF, 4712L, new byte[]{0x01}, true)).isTrue();
+        assertThat(table.write(0x0A04, 4713L, new byte[15], false)).isFalse();
+
+        assertThat(table.read(0x0A03)).isEqualTo(new CachedValue(new byte[]{0x0C, 0x1A}, 4711L, false));
+        assertThat(table.read(0xFFFF)).isEqualTo(new CachedValue(new byte[]{0x01}, 4712L, true));
+        assertThat(table.read(0x0A04)).isNull();
+        assertThat(table.getSequence(0x0A03)).isEqualTo(2);
+    }
+
+    @Test
+    @DisplayName("Data point type hint")
+    void test_DataPointTypeHint() {
+        final var table = new ValueTable();
+        assertThat(table.getDataPointTypeHint(0x0A03)).isZero();
+
+        table.setDataPointTypeHint(0x0A03, ValueTable.toDataPointTypeHint(DPT9.TEMPERATURE));
+        assertThat(table.getDataPointTypeHint(0x0A03)).isEqualTo(0x00090001);
+        assertThat(table.getSequence(0x0A03)).isEqualTo(2);
+
+        // same hint again: slot is not written
+        table.setDataPointTypeHint(0x0A03, ValueTable.toDataPointTypeHint(DPT9.TEMPERATURE));
+        assertThat(table.getSequence(0x0A03)).isEqualTo(2);
+
+        assertThat(ValueTable.toDataPointTypeHint(DPT1.SWITCH)).isEqualTo(0x00010001);
+        assertThat(ValueTable.toDataPointTypeHint(DPTRaw.VALUE)).isZero();
+    }
+
+    @Test
+    @DisplayName("Table placed in a file")
+    void test_File(final @TempDir Path tempDir) throws IOException {
+        final var path = tempDir.resolve("knx-link.table");
+        Files.write(path, new byte[]{1, 2, 3});
+
+        try (final var table = ValueTable.open(path)) {
+            table.write(0x0A03, 4711L, new byte[]{0x0C, 0x1A}, false);
+            table.setDataPointTypeHint(0x0A03, ValueTable.toDataPointTypeHint(DPT9.TEMPERATURE));
+
+            final var file = ByteBuffer.wrap(Files.readAllBytes(path));
+            assertThat(file.capacity()).isEqualTo(ValueTable.HEADER_SIZE + ValueTable.TABLE_SIZE);
+            assertThat(file.getInt(0)).isEqualTo(ValueTable.MAGIC);
+            assertThat(file.getShort(4)).isEqualTo(ValueTable.VERSION);
+            assertThat(file.getShort(6)).isEqualTo((short) ValueTable.SLOT_SIZE);
+            assertThat(file.getInt(8)).isEqualTo(65536);
+            assertThat(file.getInt(12)).isEqualTo(ValueTable.STATE_RUNNING);
+            assertThat(file.getLong(16)).isPositive();
+
+            final var slot = ValueTable.HEADER_SIZE + 0x0A03 * ValueTable.SLOT_SIZE;
+            assertThat(file.getInt(slot)).isEqualTo(4);
+            assertThat(file.getShort(slot + 4)).isEqualTo((short) 9);
+            assertThat(file.getShort(slot + 6)).isEqualTo((short) 1);
+            assertThat(file.getLong(slot + 8)).isEqualTo(4711L);
+            assertThat(file.get(slot + 16)).isEqualTo((byte) 2);
+            assertThat(file.get(slot + 17)).isZero();
+            assertThat(file.get(slot + 18)).isEqualTo((byte) 0x0C);
+            assertThat(file.get(slot + 19)).isEqualTo((byte) 0x1A);
+        }
+
+        assertThat(ByteBuffer.wrap(Files.readAllBytes(path)).getInt(12)).isEqualTo(ValueTable.STATE_STOPPED);
+    }
+
+    @Test
+    @DisplayName("Values are restored from file")
+    void test_Restore(final @TempDir Path tempDir) throws IOException {
+        final var path = tempDir.resolve("snapshot.bin");
+        try (final var table = ValueTable.restore(path)) {
+            assertThat(table.read(0x0A03)).isNull();
+            table.write(0x0A03, 4711L, new byte[]{0x0C, 0x1A}, false);
+            table.write(0xFFFF, 4712L, new byte[]{0x01}, false);
+            table.setDataPointTypeHint(0x0A03, ValueTable.toDataPointTypeHint(DPT9.TEMPERATURE));
+        }
+        assertThat(Files.size(path)).isEqualTo(ValueTable.HEADER_SIZE + ValueTable.TABLE_SIZE);
+
+        try (final var table = ValueTable.restore(path)) {
+            assertThat(table.read(0x0A03)).isEqualTo(new CachedValue(new byte[]{0x0C, 0x1A}, 4711L, true));
+            assertThat(table.read(0xFFFF)).isEqualTo(new CachedValue(new byte[]{0x01}, 4712L, true));
+            assertThat(table.read(0x0A04)).isNull();
+            assertThat(table.getDataPointTypeHint(0x0A03)).isEqualTo(0x00090001);
+            assertThat(ByteBuffer.wrap(Files.readAllBytes(path)).getInt(12)).isEqualTo(ValueTable.STATE_RUNNING);
+        }
+    }
+
+    @Test
+    @DisplayName("Torn value is not restored from file")
+    void test_Restore_TornValue(final @TempDir Path tempDir) throws IOException {
+        final var path = tempDir.resolve("snapshot.bin");
+        try (final var table = ValueTable.restore(path)) {
+            table.write(0x0A03, 4711L, new byte[]{0x0C, 0x1A}, false);
+            table.write(0x0A04, 4712L, new byte[]{0x01}, false);
+        }
+
+        // the process died in the middle of a write: sequence is odd and the value is new partially
+        try (final var channel = FileChannel.open(path, StandardOpenOption.WRITE)) {
+            final var slot = ValueTable.HEADER_SIZE + 0x0A03 * ValueTable.SLOT_SIZE;
+            channel.write(ByteBuffer.wrap(new byte[]{0x00, 0x00, 0x00, 0x03}), slot);
+            channel.write(ByteBuffer.wrap(new byte[]{0x0D}), slot + 18);
+        }
+
+        try (final var table = ValueTable.restore(path)) {
+            assertThat(table.read(0x0A03)).isNull();
+            assertThat(table.getSequence(0x0A03)).isEqualTo(4);
+            assertThat(table.read(0x0A04)).isEqualTo(new CachedValue(new byte[]{0x01}, 4712L, true));
+        }
+    }
+
+    @Test
+    @DisplayName("Invalid file is initialized again when restoring")
+    void test_Restore_InvalidFile(final @TempDir Path tempDir) throws IOException {
+        final var path = tempDir.resolve("snapshot.bin");
+        Files.write(path, new byte[ValueTable.HEADER_SIZE + ValueTable.TABLE_SIZE]);
+        Files.write(path, new byte[]{1, 2, 3, 4, 5, 6, 7, 8, 9, 10, 11, 12, 13, 14, 15, 16}, StandardOpenOption.WRITE);
+        try (final var channel = FileChannel.open(path, StandardOpenOption.WRITE)) {
+            channel.write(ByteBuffer.wrap(new byte[]{0x00, 0x00, 0x00, 0x02, 0x00, 0x00, 0x00, 0x00, 0x00, 0x00, 0x00, 0x01}),
+                    ValueTable.HEADER_SIZE);
+        }
+
+        try (final var table = ValueTable.restore(path)) {
+            assertThat(table.read(0)).isNull();
+            assertThat(table.getSequence(0)).isZero();
+            assertThat(ByteBuffer.wrap(Files.readAllBytes(path)).getInt(0)).isEqualTo(ValueTable.MAGIC);
+        }
+    }
+
+    @Test
+    @DisplayName("Reads are consistent while the slot is written concurrently")
+    void test_ConcurrentReads() throws InterruptedException {
+        final var table = new ValueTable();
+        final var stopped = new AtomicBoolean();
+        final var executor = Executors.newSingleThreadExecutor();
+        executor.submit(() -> {
+            for (var i = 1; !stopped.get(); i++) {
+                final var b = (byte) i;
+                table.write(1, i, new byte[]{b, b, b, b, b, b, b, b, b, b, b, b, b, b}, false);
+            }
+        });
+
+        try {
+            for (var i = 0; i < 100_000; i++) {
+                final var value = table.read(1);
+                if (value != null) {
+                    final var data = value.getData();
+                    assertThat(data).hasSize(14).containsOnly((byte) value.getTimestamp());
+                }
+            }
+        } finally {
+            stopped.set(true);
+            executor.shutdown();
+            assertThat(executor.awaitTermination(5, TimeUnit.SECONDS)).isTrue();
+        }
+    }
+}
@@ -19,10 +19,16 @@ package li.pitschmann.knx.link.config;
 
 import li.pitschmann.knx.core.config.CoreConfigs;
 import li.pitschmann.knx.core.utils.Networker;
+import li.pitschmann.knx.link.subscription.OverflowPolicy;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 
+import java.net.InetAddress;
+import java.net.UnknownHostException;
 import java.nio.file.Paths;
+import java.nio.file.attribute.PosixFilePermissions;
+import java.util.Map;
+import java.util.Properties;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
@@ -38,7 +44,34 @@ class ConfigReaderTest {
         final var config = ConfigReader.load(Paths.get("src/test/resources/config_blank.cfg"));
 
         assertThat(config.getServerPort()).isEqualTo(Config.DEFAULT_SERVER_PORT);
+        assertThat(config.getServerReadTimeout()).isEqualTo(Config.DEFAULT_SERVER_READ_TIMEOUT);
+        assertThat(config.getServerEventBufferSize()).isEqualTo(Config.DEFAULT_SERVER_EVENT_BUFFER_SIZE);
+        assertThat(config.getServerEventOverflowPolicy()).isEqualTo(Config.DEFAULT_SERVER_EVENT_OVERFLOW_POLICY);
+        assertThat(config.getServerJournalPath()).isNull();
+        assertThat(config.getServerJournalSegmentSize()).isEqualTo(Config.DEFAULT_SERVER_JOURNAL_SEGMENT_SIZE);
+        assertThat(config.getServerJournalRetainedSegments()).isEqualTo(Config.DEFAULT_SERVER_JOURNAL_RETAINED_SEGMENTS);
+        assertThat(config.getServerJournalDownsampleInterval()).isEqualTo(Config.DEFAULT_SERVER_JOURNAL_DOWNSAMPLE_INTERVAL);
+        assertThat(config.getServerJournalCompactionRate()).isEqualTo(Config.DEFAULT_SERVER_JOURNAL_COMPACTION_RATE);
+        assertThat(config.getServerSnapshotPath()).isNull();
+        assertThat(config.getServerStateTablePath()).isNull();
+        assertThat(config.getServerIpcPath()).isNull();
+        assertThat(config.getServerUnixPath()).isNull();
+        assertThat(config.getServerUnixPermissions()).isEqualTo(Config.DEFAULT_SERVER_UNIX_PERMISSIONS);
+        assertThat(config.getServerUdpPort()).isEqualTo(Config.DEFAULT_SERVER_UDP_PORT);
+        assertThat(config.isServerUdpAckEnabled()).isEqualTo(Config.DEFAULT_SERVER_UDP_ACK_ENABLED);
+        assertThat(config.getServerRequestTimeout()).isEqualTo(Config.DEFAULT_SERVER_REQUEST_TIMEOUT);
+        assertThat(config.getServerAckTimeout()).isEqualTo(Config.DEFAULT_SERVER_ACK_TIMEOUT);
+        assertThat(config.getServerBusyQueueWatermark()).isEqualTo(Config.DEFAULT_SERVER_BUSY_QUEUE_WATERMARK);
+        assertThat(config.getServerBusyInflightWatermark()).isEqualTo(Config.DEFAULT_SERVER_BUSY_INFLIGHT_WATERMARK);
+        assertThat(config.getServerLimiterMax()).isEqualTo(Config.DEFAULT_SERVER_LIMITER_MAX);
+        assertThat(config.getServerBreakerThreshold()).isEqualTo(Config.DEFAULT_SERVER_BREAKER_THRESHOLD);
+        assertThat(config.getServerBreakerOpenDuration()).isEqualTo(Config.DEFAULT_SERVER_BREAKER_OPEN_DURATION);
+        assertThat(config.getServerFairWeights()).isEqualTo(Config.DEFAULT_SERVER_FAIR_WEIGHTS);
         assertThat(config.getSecurityAuditor().getAllowedAddresses()).containsExactly("127.0.0.1");
+        assertThat(config.getSecurityAuditor().getAddressRateLimit()).isEqualTo(Config.DEFAULT_SERVER_RATE_LIMIT_ADDRESS);
+        assertThat(config.getSecurityAuditor().getConnectionRateLimit()).isEqualTo(Config.DEFAULT_SERVER_RATE_LIMIT_CONNECTION);
+        assertThat(config.getSecurityAuditor().getRateLimitBurst()).isEqualTo(Config.DEFAULT_SERVER_RATE_LIMIT_BURST);
+        assertThat(config.getSecurityAuditor().getAccessRules()).isEmpty();
 
         final var knxClientConfig = config.getKnxClientConfig();
         assertThat(knxClientConfig.getRemoteControlAddress().isAnyLocalAddress()).isTrue();
@@ -53,6 +86,10 @@ class ConfigReaderTest {
         final var config = ConfigReader.load(Paths.get("src/test/resources/config_emptyValues.cfg"));
 
         assertThat(config.getServerPort()).isEqualTo(Config.DEFAULT_SERVER_PORT);
+        assertThat(config.getServerConnectionsMax()).isEqualTo(Config.DEFAULT_SERVER_CONNECTIONS_MAX);
+        assertThat(config.getServerConnectionsMaxAddress()).isEqualTo(Config.DEFAULT_SERVER_CONNECTIONS_MAX_ADDRESS);
+        assertThat(config.getServerAcceptRate()).isEqualTo(Config.DEFAULT_SERVER_ACCEPT_RATE);
+        assertThat(config.getServerIdleTimeout()).isEqualTo(Config.DEFAULT_SERVER_IDLE_TIMEOUT);
         assertThat(config.getSecurityAuditor().getAllowedAddresses()).containsExactly("127.0.0.1");
 
         final var knxClientConfig = config.getKnxClientConfig();
@@ -68,8 +105,43 @@ class ConfigReaderTest {
         final var config = ConfigReader.load(Paths.get("src/test/resources/config_tunneling.cfg"));
 
         assertThat(config.getServerPort()).isEqualTo(4567);
+        assertThat(config.getServerReadTimeout()).isEqualTo(5000);
+        assertThat(config.getServerEventBufferSize()).isEqualTo(16);
+        assertThat(config.getServerEventOverflowPolicy()).isEqualTo(OverflowPolicy.DISCONNECT);
+        assertThat(config.getServerJournalPath()).isEqualTo(Paths.get("/tmp/knx-journal"));
+        assertThat(config.getServerJournalSegmentSize()).isEqualTo(1024);
+        assertThat(config.getServerJournalRetainedSegments()).isEqualTo(2);
+        assertThat(config.getServerJournalDownsampleInterval()).isEqualTo(3600000);
+        assertThat(config.getServerJournalCompactionRate()).isEqualTo(65536);
+        assertThat(config.getServerSnapshotPath()).isEqualTo(Paths.get("/tmp/knx-snapshot.bin"));
+        assertThat(config.getServerStateTablePath()).isEqualTo(Paths.get("/dev/shm/knx-link.table"));
+        assertThat(config.getServerIpcPath()).isEqualTo(Paths.get("/dev/shm/knx-link"));
+        assertThat(config.getServerUnixPath()).isEqualTo(Paths.get("/run/knx-link/knx-link.sock"));
+        assertThat(config.getServerUnixPermissions()).isEqualTo(PosixFilePermissions.fromString("rw-------"));
+        assertThat(config.getServerUdpPort()).isEqualTo(3673);
+        assertThat(config.isServerUdpAckEnabled()).isTrue();
+        assertThat(config.getServerRequestTimeout()).isEqualTo(5000L);
+        assertThat(config.getServerAckTimeout()).isEqualTo(2000L);
+        assertThat(config.getServerBusyQueueWatermark()).isEqualTo(200);
+        assertThat(config.getServerBusyInflightWatermark()).isEqualTo(20);
+        assertThat(config.getServerLimiterMax()).isEqualTo(30);
+        assertThat(config.getServerBreakerThreshold()).isEqualTo(3);
+        assertThat(config.getServerBreakerOpenDuration()).isEqualTo(5000L);
+        assertThat(config.getServerFairWeights()).isEqualTo(Map.of(
+                Networker.getByAddress("192.168.3.6"), 4,
+                Networker.getByAddress("192.168.3.7"), 2));
+        assertThat(config.getServerConnectionsMax()).isEqualTo(500);
+        assertThat(config.getServerConnectionsMaxAddress()).isEqualTo(10);
+        assertThat(config.getServerAcceptRate()).isEqualTo(20);
+        assertThat(config.getServerIdleTimeout()).isEqualTo(600000L);
         assertThat(config.getSecurityAuditor().getAllowedAddresses())
                 .containsExactlyInAnyOrder("192.168.3.6", "192.168.3.8", "192.168.3.14");
+        assertThat(config.getSecurityAuditor().getAddressRateLimit()).isEqualTo(50);
+        assertThat(config.getSecurityAuditor().getConnectionRateLimit()).isEqualTo(20);
+        assertThat(config.getSecurityAuditor().getRateLimitBurst()).isEqualTo(5);
+        assertThat(config.getSecurityAuditor().getAccessRules()).hasToString(
+                "[AccessRule{name=visualization, clients=[192.168.3.0/24], readable=[0/0/1-31/7/255], writable=[1/0/0-1/7/255, 2/0/1]}]"
+        );
 
         final var knxClientConfig = config.getKnxClientConfig();
         assertThat(knxClientConfig.getRemoteControlAddress()).isEqualTo(Networker.getByAddress("192.168.1.2"));
@@ -131,4 +203,63 @@ class ConfigReaderTest {
                 .isInstanceOf(ConfigException.class)
                 .hasMessage("Could not read the configuration: src/test/resources/loremIpsum.cfg");
     }
+
+    @Test
+    @DisplayName("Fair weights are keyed by IP address, regardless of the notation")
+    void testFairWeightsIPv6() throws UnknownHostException {
+        final var properties = new Properties();
+        properties.setProperty("server.fair.weights", "::1=3, 192.168.3.6=2");
+        final var config = ConfigReader.create(properties);
+        assertThat(config.getServerFairWeights()).isEqualTo(Map.of(
+                InetAddress.getByName("0:0:0:0:0:0:0:1"), 3,
+                InetAddress.getByName("192.168.3.6"), 2));
+    }
+
+    @Test
+    @DisplayName("Fair weights with host name instead of IP address")
+    void testFairWeightsHostName() {
+        final var properties = new Properties();
+        properties.setProperty("server.fair.weights", "localhost=3");
+        assertThatThrownBy(() -> ConfigReader.create(properties))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("IP address expected for 'server.fair.weights': localhost");
+    }
+
+    @Test
+    @DisplayName("Timeouts and journal settings out of range")
+    void testOutOfRange() {
+        assertOutOfRange("server.read.timeout", "0", "Value of 'server.read.timeout' must be between 1 and 9223372036854775807: 0");
+        assertOutOfRange("server.ack.timeout", "-1", "Value of 'server.ack.timeout' must be between 1 and 9223372036854775807: -1");
+        assertOutOfRange("server.journal.segment.size", "63",
+                "Value of 'server.journal.segment.size' must be between 64 and 2147483647: 63");
+        assertOutOfRange("server.journal.segment.size", "2147483648",
+                "Value of 'server.journal.segment.size' must be between 64 and 2147483647: 2147483648");
+        assertOutOfRange("server.journal.retained.segments", "-1",
+                "Value of 'server.journal.retained.segments' must be between 0 and 2147483647: -1");
+        assertOutOfRange("server.journal.downsample.interval", "-1",
+                "Value of 'server.journal.downsample.interval' must be between 0 and 9223372036854775807: -1");
+        assertOutOfRange("server.journal.compaction.rate", "0",
+                "Value of 'server.journal.compaction.rate' must be between 1 and 9223372036854775807: 0");
+    }
+
+    @Test
+    @DisplayName("Rate limit burst of zero is only allowed when rate limits are disabled")
+    void testRateLimitBurstZero() {
+        final var properties = new Properties();
+        properties.setProperty("server.rate.limit.burst", "0");
+        assertThat(ConfigReader.create(properties).getSecurityAuditor().getRateLimitBurst()).isZero();
+
+        properties.setProperty("server.rate.limit.connection", "10");
+        assertThatThrownBy(() -> ConfigReader.create(properties))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("Value of 'server.rate.limit.burst' must be positive when a rate limit is enabled: 0");
+    }
+
+    private static void assertOutOfRange(final String key, final String value, final String message) {
+        final var properties = new Properties();
+        properties.setProperty(key, value);
+        assertThatThrownBy(() -> ConfigReader.create(properties))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage(message);
+    }
 }
@@ -17,11 +17,13 @@
 
 package li.pitschmann.knx.link.config;
 
+import li.pitschmann.knx.core.config.CoreConfigs;
 import li.pitschmann.knx.core.utils.Networker;
 import li.pitschmann.knx.link.SecurityAuditor;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 
+import java.nio.file.Paths;
 import java.util.Set;
 
 import static org.assertj.core.api.Assertions.assertThat;
@@ -37,6 +39,33 @@ class ConfigTest {
         final var config = Config.useDefault();
 
         assertThat(config.getServerPort()).isEqualTo(Config.DEFAULT_SERVER_PORT);
+        assertThat(config.getServerReadTimeout()).isEqualTo(Config.DEFAULT_SERVER_READ_TIMEOUT);
+        assertThat(config.getServerEventBufferSize()).isEqualTo(Config.DEFAULT_SERVER_EVENT_BUFFER_SIZE);
+        assertThat(config.getServerEventOverflowPolicy()).isEqualTo(Config.DEFAULT_SERVER_EVENT_OVERFLOW_POLICY);
+        assertThat(config.getServerJournalPath()).isNull();
+        assertThat(config.getServerJournalSegmentSize()).isEqualTo(Config.DEFAULT_SERVER_JOURNAL_SEGMENT_SIZE);
+        assertThat(config.getServerJournalRetainedSegments()).isEqualTo(Config.DEFAULT_SERVER_JOURNAL_RETAINED_SEGMENTS);
+        assertThat(config.getServerJournalDownsampleInterval()).isEqualTo(Config.DEFAULT_SERVER_JOURNAL_DOWNSAMPLE_INTERVAL);
+        assertThat(config.getServerJournalCompactionRate()).isEqualTo(Config.DEFAULT_SERVER_JOURNAL_COMPACTION_RATE);
+        assertThat(config.getServerSnapshotPath()).isNull();
+        assertThat(config.getServerStateTablePath()).isNull();
+        assertThat(config.getServerIpcPath()).isNull();
+        assertThat(config.getServerUnixPath()).isNull();
+        assertThat(config.getServerUnixPermissions()).isEqualTo(Config.DEFAULT_SERVER_UNIX_PERMISSIONS);
+        assertThat(config.getServerUdpPort()).isEqualTo(Config.DEFAULT_SERVER_UDP_PORT);
+        assertThat(config.isServerUdpAckEnabled()).isEqualTo(Config.DEFAULT_SERVER_UDP_ACK_ENABLED);
+        assertThat(config.getServerRequestTimeout()).isEqualTo(Config.DEFAULT_SERVER_REQUEST_TIMEOUT);
+        assertThat(config.getServerAckTimeout()).isEqualTo(Config.DEFAULT_SERVER_ACK_TIMEOUT);
+        assertThat(config.getServerBusyQueueWatermark()).isEqualTo(Config.DEFAULT_SERVER_BUSY_QUEUE_WATERMARK);
+        assertThat(config.getServerBusyInflightWatermark()).isEqualTo(Config.DEFAULT_SERVER_BUSY_INFLIGHT_WATERMARK);
+        assertThat(config.getServerLimiterMax()).isEqualTo(Config.DEFAULT_SERVER_LIMITER_MAX);
+        assertThat(config.getServerBreakerThreshold()).isEqualTo(Config.DEFAULT_SERVER_BREAKER_THRESHOLD);
+        assertThat(config.getServerBreakerOpenDuration()).isEqualTo(Config.DEFAULT_SERVER_BREAKER_OPEN_DURATION);
+        assertThat(config.getServerFairWeights()).isEqualTo(Config.DEFAULT_SERVER_FAIR_WEIGHTS);
+        assertThat(config.getServerConnectionsMax()).isEqualTo(Config.DEFAULT_SERVER_CONNECTIONS_MAX);
+        assertThat(config.getServerConnectionsMaxAddress()).isEqualTo(Config.DEFAULT_SERVER_CONNECTIONS_MAX_ADDRESS);
+        assertThat(config.getServerAcceptRate()).isEqualTo(Config.DEFAULT_SERVER_ACCEPT_RATE);
+        assertThat(config.getServerIdleTimeout()).isEqualTo(Config.DEFAULT_SERVER_IDLE_TIMEOUT);
         assertThat(config.getSecurityAuditor().getAllowedAddresses()).containsExactlyElementsOf(Config.DEFAULT_SERVER_ALLOWED_ADDRESSES);
 
         final var knxConfig = config.getKnxClientConfig();
@@ -44,6 +73,7 @@ class ConfigTest {
         assertThat(knxConfig.isNatEnabled()).isEqualTo(Config.DEFAULT_KNX_NAT_ENABLED);
         assertThat(knxConfig.getRemoteControlAddress().isAnyLocalAddress()).isTrue();
         assertThat(knxConfig.getRemoteControlPort()).isEqualTo(Config.DEFAULT_KNX_PORT);
+        assertThat(knxConfig.getValue(CoreConfigs.Plugin.EXECUTOR_POOL_SIZE)).isEqualTo(1);
 
         assertThat(config).hasToString(
                 "Config{" +
@@ -52,22 +82,66 @@ class ConfigTest {
                         "knxAddress=0.0.0.0, " +
                         "knxPort=3671, " +
                         "serverPort=3672, " +
-                        "securityAuditor=SecurityAuditor{allowedAddresses=[127.0.0.1]}" +
+                        "serverReadTimeout=3000, " +
+                        "serverEventBufferSize=1024, " +
+                        "serverEventOverflowPolicy=CONFLATE, " +
+                        "serverJournalPath=null, " +
+                        "serverJournalSegmentSize=67108864, " +
+                        "serverJournalRetainedSegments=4, " +
+                        "serverJournalDownsampleInterval=0, " +
+                        "serverJournalCompactionRate=1048576, " +
+                        "serverSnapshotPath=null, " +
+                        "serverStateTablePath=null, " +
+                        "serverIpcPath=null, " +
+                        "serverUnixPath=null, " +
+                        "serverUnixPermissions=rw-rw----, " +
+                        "serverUdpPort=0, " +
+                        "serverUdpAckEnabled=false, " +
+                        "serverRequestTimeout=10000, " +
+                        "serverAckTimeout=5000, " +
+                        "serverBusyQueueWatermark=1000, " +
+                        "serverBusyInflightWatermark=100, " +
+                        "serverLimiterMax=0, " +
+                        "serverBreakerThreshold=5, " +
+                        "serverBreakerOpenDuration=10000, " +
+                        "serverFairWeights={}, " +
+                        "serverConnectionsMax=1000, " +
+                        "serverConnectionsMaxAddress=0, " +
+                        "serverAcceptRate=0, " +
+                        "serverIdleTimeout=0, " +
+                        "securityAuditor=SecurityAuditor{allowedAddresses=[127.0.0.1], addressRateLimit=0, connectionRateLimit=0, rateLimitBurst=10, accessRules=[]}" +
                         "}"
         );
     }
 
+    @Test
+    @DisplayName("Test #hasSameKnxSettings(Config)")
+    void testHasSameKnxSettings() {
+        final var tunneling = ConfigReader.load(Paths.get("src/test/resources/config_tunneling.cfg"));
+
+        assertThat(tunneling.hasSameKnxSettings(ConfigReader.load(Paths.get("src/test/resources/config_tunneling.cfg")))).isTrue();
+        assertThat(tunneling.hasSameKnxSettings(ConfigReader.load(Paths.get("src/test/resources/config_tunneling_withNAT.cfg")))).isFalse();
+        assertThat(tunneling.hasSameKnxSettings(ConfigReader.load(Paths.get("src/test/resources/config_routing.cfg")))).isFalse();
+        assertThat(tunneling.hasSameKnxSettings(Config.useDefault())).isFalse();
+
+        // other knx.* configuration keys are compared too
+        final var properties = ConfigReader.readProperties(Paths.get("src/test/resources/config_tunneling.cfg"));
+        assertThat(ConfigReader.create(properties).hasSameKnxSettings(tunneling)).isTrue();
+        properties.setProperty("knx.interface", "eth1");
+        assertThat(ConfigReader.create(properties).hasSameKnxSettings(tunneling)).isFalse();
+    }
+
     @Test
     @DisplayName("Test config with custom settings")
     void testCustomSettings() {
-        final var config = new Config(
-                1234,
-                KnxMode.ROUTING,
-                false,
-                Networker.getByAddress(224, 6, 7, 8),
-                9123,
-                new SecurityAuditor(Set.of("10.0.1.2"))
-        );
+        final var config = Config.builder()
+                .serverPort(1234)
+                .knxMode(KnxMode.ROUTING)
+                .knxNatEnabled(false)
+                .knxAddress(Networker.getByAddress(224, 6, 7, 8))
+                .knxPort(9123)
+                .securityAuditor(new SecurityAuditor(Set.of("10.0.1.2")))
+                .build();
 
         assertThat(config.getServerPort()).isEqualTo(1234);
         assertThat(config.getSecurityAuditor().getAllowedAddresses()).containsExactly("10.0.1.2");
@@ -85,7 +159,34 @@ class ConfigTest {
                         "knxAddress=224.6.7.8, " +
                         "knxPort=9123, " +
                         "serverPort=1234, " +
-                        "securityAuditor=SecurityAuditor{allowedAddresses=[10.0.1.2]}" +
+                        "serverReadTimeout=3000, " +
+                        "serverEventBufferSize=1024, " +
+                        "serverEventOverflowPolicy=CONFLATE, " +
+                        "serverJournalPath=null, " +
+                        "serverJournalSegmentSize=67108864, " +
+                        "serverJournalRetainedSegments=4, " +
+                        "serverJournalDownsampleInterval=0, " +
+                        "serverJournalCompactionRate=1048576, " +
+                        "serverSnapshotPath=null, " +
+                        "serverStateTablePath=null, " +
+                        "serverIpcPath=null, " +
+                        "serverUnixPath=null, " +
+                        "serverUnixPermissions=rw-rw----, " +
+                        "serverUdpPort=0, " +
+                        "serverUdpAckEnabled=false, " +
+                        "serverRequestTimeout=10000, " +
+                        "serverAckTimeout=5000, " +
+                        "serverBusyQueueWatermark=1000, " +
+                        "serverBusyInflightWatermark=100, " +
+                        "serverLimiterMax=0, " +
+                        "serverBreakerThreshold=5, " +
+                        "serverBreakerOpenDuration=10000, " +
+                        "serverFairWeights={}, " +
+                        "serverConnectionsMax=1000, " +
+                        "serverConnectionsMaxAddress=0, " +
+                        "serverAcceptRate=0, " +
+                        "serverIdleTimeout=0, " +
+                        "securityAuditor=SecurityAuditor{allowedAddresses=[10.0.1.2], addressRateLimit=0, connectionRateLimit=0, rateLimitBurst=1, accessRules=[]}" +
                         "}"
         );
     }
@@ -0,0 +1,116 @@
+/*
+ * Copyright (C) 2021 Pitschmann Christoph
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package li.pitschmann.knx.link.config;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Test for {@link ConfigWatcher}
+ */
+class ConfigWatcherTest {
+
+    @Test
+    @DisplayName("Config is reloaded when the file has been changed")
+    void test_Reload(final @TempDir Path tempDir) throws IOException {
+        final var path = tempDir.resolve("server.cfg");
+        Files.writeString(path, "server.busy.queue.watermark=100\n");
+
+        final var configs = new ArrayList<Config>();
+        try (final var watcher = ConfigReader.watch(path, configs::add)) {
+            // no change
+            assertThat(watcher.poll(100, TimeUnit.MILLISECONDS)).isFalse();
+
+            Files.writeString(path, "server.busy.queue.watermark=200\n");
+            assertThat(pollUntilReloaded(watcher)).isTrue();
+            assertThat(configs).hasSize(1);
+            assertThat(configs.get(0).getServerBusyQueueWatermark()).isEqualTo(200);
+        }
+    }
+
+    @Test
+    @DisplayName("Config is not reloaded when no property has been changed")
+    void test_Reload_Unchanged(final @TempDir Path tempDir) throws IOException {
+        final var path = tempDir.resolve("server.cfg");
+        Files.writeString(path, "server.busy.queue.watermark=100\n");
+
+        final var configs = new ArrayList<Config>();
+        try (final var watcher = ConfigReader.watch(path, configs::add)) {
+            Files.writeString(path, "# comment only\nserver.busy.queue.watermark = 100\n");
+            assertThat(watcher.reload()).isFalse();
+            assertThat(configs).isEmpty();
+        }
+    }
+
+    @Test
+    @DisplayName("Previous config is kept when the file has invalid values")
+    void test_Reload_Invalid(final @TempDir Path tempDir) throws IOException {
+        final var path = tempDir.resolve("server.cfg");
+        Files.writeString(path, "server.busy.queue.watermark=100\n");
+
+        final var configs = new ArrayList<Config>();
+        try (final var watcher = ConfigReader.watch(path, configs::add)) {
+            Files.writeString(path, "server.busy.queue.watermark=foobar\n");
+            assertThat(watcher.reload()).isFalse();
+
+            Files.writeString(path, "server.busy.queue.watermark=300\n");
+            assertThat(watcher.reload()).isTrue();
+            assertThat(configs).hasSize(1);
+            assertThat(configs.get(0).getServerBusyQueueWatermark()).isEqualTo(300);
+        }
+    }
+
+    @Test
+    @DisplayName("Changes of other files in the same directory are ignored")
+    void test_OtherFile(final @TempDir Path tempDir) throws IOException {
+        final var path = tempDir.resolve("server.cfg");
+        Files.writeString(path, "server.busy.queue.watermark=100\n");
+
+        final var configs = new ArrayList<Config>();
+        try (final var watcher = ConfigReader.watch(path, configs::add)) {
+            Files.writeString(tempDir.resolve("other.cfg"), "server.busy.queue.watermark=200\n");
+            assertThat(watcher.poll(500, TimeUnit.MILLISECONDS)).isFalse();
+            assertThat(configs).isEmpty();
+        }
+    }
+
+    /**
+     * Polls the watcher until the config has been reloaded (up to 10 seconds), as some
+     * implementations of watch service are polling the file system
+     *
+     * @param watcher the watcher to be polled
+     * @return {@code true} if reloaded, otherwise {@code false}
+     */
+    private static boolean pollUntilReloaded(final ConfigWatcher watcher) {
+        for (var i = 0; i < 10; i++) {
+            if (watcher.poll(1, TimeUnit.SECONDS)) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
@@ -0,0 +1,74 @@
+/*
+ * Copyright (C) 2021 Pitschmann Christoph
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package li.pitschmann.knx.link.ipc;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Test for {@link IpcConnection}
+ */
+class IpcConnectionTest {
+
+    @Test
+    @DisplayName("Client and server exchange packets via the connection file")
+    void test_CreateAndOpen(final @TempDir Path tempDir) throws IOException {
+        final var path = tempDir.resolve("client" + IpcConnection.FILE_SUFFIX);
+        final var client = IpcConnection.create(path, 1024);
+        assertThat(Files.size(path)).isEqualTo(IpcConnection.HEADER_SIZE + 2L * IpcRing.sizeOf(1024));
+        assertThat(Files.exists(tempDir.resolve("client" + IpcConnection.FILE_SUFFIX + ".tmp"))).isFalse();
+
+        final var server = IpcConnection.open(path);
+        assertThat(server.getPath()).isEqualTo(path);
+        assertThat(server.isClosed()).isFalse();
+
+        assertThat(client.getRequestRing().offer(ByteBuffer.wrap(new byte[]{0x01, 0x00, 0x01, 0x0A}))).isTrue();
+        assertThat(server.getRequestRing().poll()).containsExactly(0x01, 0x00, 0x01, 0x0A);
+        assertThat(server.getResponseRing().offer(ByteBuffer.wrap(new byte[]{0x01, 0x02, 0x00}))).isTrue();
+        assertThat(client.getResponseRing().poll()).containsExactly(0x01, 0x02, 0x00);
+        assertThat(client.getRequestRing().poll()).isNull();
+
+        client.close();
+        assertThat(server.isClosed()).isTrue();
+    }
+
+    @Test
+    @DisplayName("Invalid connection files")
+    void test_Invalid(final @TempDir Path tempDir) throws IOException {
+        final var path = tempDir.resolve("client" + IpcConnection.FILE_SUFFIX);
+        Files.write(path, new byte[]{1, 2, 3});
+        assertThatThrownBy(() -> IpcConnection.open(path)).isInstanceOf(IOException.class);
+
+        Files.write(path, new byte[IpcConnection.HEADER_SIZE + 2 * IpcRing.sizeOf(1024)]);
+        assertThatThrownBy(() -> IpcConnection.open(path)).isInstanceOf(IOException.class);
+
+        assertThatThrownBy(() -> IpcConnection.create(tempDir.resolve("client.bin"), 1024))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> IpcConnection.create(tempDir.resolve("other" + IpcConnection.FILE_SUFFIX), 1000))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+}
@@ -0,0 +1,101 @@
+/*
+ * Copyright (C) 2021 Pitschmann Christoph
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package li.pitschmann.knx.link.ipc;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.nio.ByteBuffer;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Test for {@link IpcRing}
+ */
+class IpcRingTest {
+
+    @Test
+    @DisplayName("Packets are read in the order they have been written")
+    void test_OfferAndPoll() {
+        final var ring = new IpcRing(ByteBuffer.allocate(IpcRing.sizeOf(1024)));
+        assertThat(ring.getCapacity()).isEqualTo(1024);
+        assertThat(ring.poll()).isNull();
+
+        assertThat(ring.offer(ByteBuffer.wrap(new byte[]{0x01, 0x00, 0x02, 0x0A, 0x0B}))).isTrue();
+        assertThat(ring.offer(ByteBuffer.wrap(new byte[]{0x01, 0x01, 0x00}))).isTrue();
+        assertThat(ring.size()).isEqualTo(8);
+
+        assertThat(ring.poll()).containsExactly(0x01, 0x00, 0x02, 0x0A, 0x0B);
+        assertThat(ring.poll()).containsExactly(0x01, 0x01, 0x00);
+        assertThat(ring.poll()).isNull();
+        assertThat(ring.size()).isZero();
+    }
+
+    @Test
+    @DisplayName("Packet is not written when the ring is full")
+    void test_Full() {
+        final var ring = new IpcRing(ByteBuffer.allocate(IpcRing.sizeOf(1024)));
+        final var packet = new byte[3 + 253];
+        packet[2] = (byte) 253;
+
+        for (var i = 0; i < 4; i++) {
+            assertThat(ring.offer(ByteBuffer.wrap(packet))).isTrue();
+        }
+        // 1024 - 4 * 256 = 0 octets free
+        final var buffer = ByteBuffer.wrap(packet);
+        assertThat(ring.offer(buffer)).isFalse();
+        assertThat(buffer.remaining()).isEqualTo(packet.length);
+
+        assertThat(ring.poll()).isEqualTo(packet);
+        assertThat(ring.offer(buffer)).isTrue();
+    }
+
+    @Test
+    @DisplayName("Packets wrap around at the end of ring")
+    void test_WrapAround() {
+        final var ring = new IpcRing(ByteBuffer.allocate(IpcRing.sizeOf(1024)));
+        for (var i = 0; i < 1000; i++) {
+            final var packet = new byte[]{0x01, (byte) i, 0x02, (byte) (i >>> 8), (byte) i};
+            assertThat(ring.offer(ByteBuffer.wrap(packet))).isTrue();
+            assertThat(ring.poll()).isEqualTo(packet);
+        }
+    }
+
+    @Test
+    @DisplayName("Ring in a region of a larger buffer")
+    void test_Region() {
+        final var buffer = ByteBuffer.allocate(16 + IpcRing.sizeOf(1024) + 16);
+        final var ring = new IpcRing(buffer.duplicate().position(16).limit(16 + IpcRing.sizeOf(1024)));
+        assertThat(ring.getCapacity()).isEqualTo(1024);
+
+        assertThat(ring.offer(ByteBuffer.wrap(new byte[]{0x01, 0x00, 0x00}))).isTrue();
+        // tail is at the beginning of region
+        assertThat(buffer.getLong(16 + IpcRing.OFFSET_TAIL)).isEqualTo(3);
+        assertThat(buffer.get(16 + IpcRing.HEADER_SIZE)).isEqualTo((byte) 0x01);
+    }
+
+    @Test
+    @DisplayName("Invalid capacity of ring")
+    void test_InvalidCapacity() {
+        assertThatThrownBy(() -> new IpcRing(ByteBuffer.allocate(IpcRing.sizeOf(512))))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> new IpcRing(ByteBuffer.allocate(IpcRing.sizeOf(1500))))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+}
@@ -0,0 +1,154 @@
+/*
+ * Copyright (C) 2021 Pitschmann Christoph
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package li.pitschmann.knx.link.journal;
+
+import li.pitschmann.knx.core.cemi.APCI;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.mock;
+
+/**
+ * Test for {@link JournalCompactor}
+ */
+class JournalCompactorTest {
+
+    @Test
+    @DisplayName("Invalid arguments")
+    void test_InvalidArguments() {
+        final var journalMock = mock(Journal.class);
+        assertThatThrownBy(() -> new JournalCompactor(null, 0, 0, 1)).isInstanceOf(NullPointerException.class);
+        assertThatThrownBy(() -> new JournalCompactor(journalMock, -1, 0, 1)).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> new JournalCompactor(journalMock, 0, -1, 1)).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> new JournalCompactor(journalMock, 0, 0, 0)).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    @DisplayName("Compact to the last value per group address")
+    void test_Compact(final @TempDir Path tempDir) throws Exception {
+        // header + 2 records per segment
+        try (final var journal = Journal.open(tempDir, 96)) {
+            for (var i = 1; i <= 10; i++) {
+                append(journal, i * 100L, i % 2 + 1, i);
+            }
+            // segments: 1..5, segment 5 is current
+            final var compactor = new JournalCompactor(journal, 1, 0, Long.MAX_VALUE);
+            assertThat(compactor.compact()).isTrue();
+            assertThat(compactor.compact()).isFalse();
+
+            // segments 1..3 are merged, segment 4 is retained
+            assertThat(Files.exists(Journal.getSegmentPath(tempDir, 1))).isFalse();
+            assertThat(Files.exists(Journal.getSegmentPath(tempDir, 3))).isFalse();
+            assertThat(Files.exists(Journal.getSegmentPath(tempDir, 4))).isTrue();
+            assertThat(Journal.getCompactedSequence(tempDir)).isEqualTo(3);
+
+            // last values of segments 1..3 are 500 (GA 2) and 600 (GA 1)
+            assertThat(queryValues(journal, 1)).containsExactly(6, 8, 10);
+            assertThat(queryValues(journal, 2)).containsExactly(5, 7, 9);
+        }
+
+        // opened again: compacted records are still available
+        try (final var journal = Journal.open(tempDir, 96)) {
+            assertThat(queryValues(journal, 1)).containsExactly(6, 8, 10);
+            assertThat(queryValues(journal, 2)).containsExactly(5, 7, 9);
+
+            append(journal, 1100, 1, 11);
+            append(journal, 1200, 1, 12);
+            append(journal, 1300, 1, 13);
+            // merge into existing compacted file
+            assertThat(new JournalCompactor(journal, 0, 0, Long.MAX_VALUE).compact()).isTrue();
+            assertThat(queryValues(journal, 1)).containsExactly(12, 13);
+            assertThat(queryValues(journal, 2)).containsExactly(9);
+        }
+    }
+
+    @Test
+    @DisplayName("Compact in several rounds when the segments contain more records than merged per round")
+    void test_Compact_Rounds(final @TempDir Path tempDir) throws Exception {
+        try (final var journal = Journal.open(tempDir, 96)) {
+            for (var i = 1; i <= 10; i++) {
+                append(journal, i * 100L, i % 2 + 1, i);
+            }
+            // one segment per round
+            final var compactor = new JournalCompactor(journal, 1, 0, Long.MAX_VALUE, 1);
+            assertThat(compactor.compact()).isTrue();
+            assertThat(Journal.getCompactedSequence(tempDir)).isEqualTo(1);
+            assertThat(Files.exists(Journal.getSegmentPath(tempDir, 2))).isTrue();
+            assertThat(compactor.compact()).isTrue();
+            assertThat(compactor.compact()).isTrue();
+            assertThat(compactor.compact()).isFalse();
+
+            // same result as compacted in one round
+            assertThat(Journal.getCompactedSequence(tempDir)).isEqualTo(3);
+            assertThat(queryValues(journal, 1)).containsExactly(6, 8, 10);
+            assertThat(queryValues(journal, 2)).containsExactly(5, 7, 9);
+        }
+    }
+
+    @Test
+    @DisplayName("Compact with downsampling")
+    void test_Compact_Downsample(final @TempDir Path tempDir) throws Exception {
+        try (final var journal = Journal.open(tempDir, 1024)) {
+            for (var i = 0; i < 20; i++) {
+                append(journal, 1000 + i * 100L, 0x0A03, i);
+            }
+            // roll the segment
+            for (var i = 0; i < 30; i++) {
+                append(journal, 5000, 0x0A04, 99);
+            }
+
+            // keep the last value per second
+            assertThat(new JournalCompactor(journal, 0, 1000, Long.MAX_VALUE).compact()).isTrue();
+            assertThat(queryValues(journal, 0x0A03)).containsExactly(9, 19);
+        }
+    }
+
+    @Test
+    @DisplayName("Compaction is throttled by rate")
+    void test_Compact_Throttled(final @TempDir Path tempDir) throws Exception {
+        try (final var journal = Journal.open(tempDir, 96)) {
+            for (var i = 1; i <= 4; i++) {
+                append(journal, i, 1, i);
+            }
+
+            // header and 1 record (64 bytes) are written at 320 bytes/sec
+            final var start = System.nanoTime();
+            assertThat(new JournalCompactor(journal, 0, 0, 320).compact()).isTrue();
+            assertThat(System.nanoTime() - start).isGreaterThanOrEqualTo(150_000_000L);
+        }
+    }
+
+    private static void append(final Journal journal, final long timestamp, final int groupAddress, final int value) {
+        journal.append(timestamp, new byte[2], groupAddress, APCI.GROUP_VALUE_WRITE.getCode(), new byte[]{(byte) value});
+    }
+
+    private static List<Integer> queryValues(final Journal journal, final int groupAddress) throws IOException {
+        final var values = new ArrayList<Integer>();
+        journal.query(groupAddress, 0, Long.MAX_VALUE, record -> values.add((int) record.getValue()[0]));
+        return values;
+    }
+}
@@ -0,0 +1,160 @@
+/*
+ * Copyright (C) 2021 Pitschmann Christoph
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package li.pitschmann.knx.link.journal;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Test for {@link JournalIndex}
+ */
+class JournalIndexTest {
+
+    @Test
+    @DisplayName("No checkpoints for unknown group address")
+    void test_Empty() {
+        assertThat(new JournalIndex().get(0x0A03)).isNull();
+    }
+
+    @Test
+    @DisplayName("Checkpoint for first record in segment and every checkpoint interval")
+    void test_Checkpoints() {
+        final var index = new JournalIndex();
+        for (var i = 0; i < JournalIndex.CHECKPOINT_INTERVAL * 2 + 1; i++) {
+            index.add(0x0A03, 1000 + i, 1, 32 + i * 32);
+        }
+        index.add(0x0A03, 5000, 2, 32);
+
+        final var checkpoints = index.get(0x0A03);
+        assertThat(checkpoints.size()).isEqualTo(4);
+        assertThat(timestamps(checkpoints.cursor(0))).containsExactly(
+                1000L, 1000L + JournalIndex.CHECKPOINT_INTERVAL, 1000L + JournalIndex.CHECKPOINT_INTERVAL * 2, 5000L);
+
+        final var cursor = checkpoints.cursor(5000);
+        assertThat(cursor.next()).isTrue();
+        assertThat(cursor.getPosition()).isEqualTo(JournalIndex.toPosition(2, 32));
+        assertThat(cursor.next()).isFalse();
+    }
+
+    @Test
+    @DisplayName("Find the checkpoint where to start reading")
+    void test_Cursor() {
+        final var index = new JournalIndex();
+        index.add(1, 100, 1, 32);
+        index.add(1, 200, 2, 32);
+        index.add(1, 300, 3, 32);
+
+        final var checkpoints = index.get(1);
+        assertThat(timestamps(checkpoints.cursor(50))).containsExactly(100L, 200L, 300L);
+        assertThat(timestamps(checkpoints.cursor(100))).containsExactly(100L, 200L, 300L);
+        assertThat(timestamps(checkpoints.cursor(250))).containsExactly(200L, 300L);
+        assertThat(timestamps(checkpoints.cursor(300))).containsExactly(300L);
+        assertThat(timestamps(checkpoints.cursor(Long.MAX_VALUE))).containsExactly(300L);
+    }
+
+    @Test
+    @DisplayName("Checkpoint for a record after the clock has been stepped back")
+    void test_Cursor_SteppedBack() {
+        final var index = new JournalIndex();
+        index.add(1, 100, 1, 32);
+        index.add(1, 300, 1, 64);
+        index.add(1, 200, 1, 96);
+        index.add(1, 250, 1, 128);
+
+        // first record of segment and the record after the step back
+        final var checkpoints = index.get(1);
+        assertThat(checkpoints.size()).isEqualTo(2);
+        assertThat(timestamps(checkpoints.cursor(250))).containsExactly(100L, 200L);
+    }
+
+    @Test
+    @DisplayName("Checkpoints span multiple blocks")
+    void test_Blocks() {
+        final var index = new JournalIndex();
+        final var count = JournalIndex.BLOCK_SIZE * 3 + 5;
+        for (var i = 1; i <= count; i++) {
+            index.add(1, i * 10L, i, 32);
+        }
+
+        final var checkpoints = index.get(1);
+        assertThat(checkpoints.size()).isEqualTo(count);
+        assertThat(timestamps(checkpoints.cursor(0))).hasSize(count);
+        assertThat(timestamps(checkpoints.cursor(count * 10L - 15))).containsExactly(count * 10L - 20, count * 10L - 10, count * 10L);
+        // first checkpoint of a block
+        final var blockStart = (JournalIndex.BLOCK_SIZE + 1) * 10L;
+        assertThat(timestamps(checkpoints.cursor(blockStart))).first().isEqualTo(blockStart);
+        assertThat(timestamps(checkpoints.cursor(blockStart - 1))).first().isEqualTo(blockStart - 10);
+    }
+
+    @Test
+    @DisplayName("Checkpoints of compacted segments are pruned")
+    void test_Prune() {
+        final var index = new JournalIndex();
+        final var count = JournalIndex.BLOCK_SIZE * 2 + 5;
+        for (var i = 1; i <= count; i++) {
+            index.add(1, i * 10L, i, 32);
+        }
+        index.add(2, 10, 1, 64);
+
+        // segments 1 .. 100 have been compacted
+        index.prune(101);
+        assertThat(index.get(1).size()).isEqualTo(count - 100);
+        assertThat(timestamps(index.get(1).cursor(0))).first().isEqualTo(1010L);
+        assertThat(index.get(2).size()).isZero();
+        assertThat(timestamps(index.get(2).cursor(0))).isEmpty();
+
+        // checkpoints are added after pruning
+        index.add(1, 5000, count + 1, 32);
+        index.add(2, 5000, count + 1, 64);
+        assertThat(timestamps(index.get(1).cursor(Long.MAX_VALUE))).containsExactly(5000L);
+        assertThat(timestamps(index.get(2).cursor(0))).containsExactly(5000L);
+
+        // all pruned
+        index.prune(Long.MAX_VALUE);
+        assertThat(index.get(1).size()).isZero();
+        index.add(1, 6000, count + 2, 32);
+        assertThat(timestamps(index.get(1).cursor(0))).containsExactly(6000L);
+    }
+
+    @Test
+    @DisplayName("Position consists of segment sequence and offset")
+    void test_Position() {
+        final var position = JournalIndex.toPosition(4711, 1024);
+        assertThat(JournalIndex.toSegmentSequence(position)).isEqualTo(4711);
+        assertThat(JournalIndex.toOffset(position)).isEqualTo(1024);
+    }
+
+    /**
+     * Returns the timestamps of checkpoints from the cursor
+     *
+     * @param cursor the cursor to be read
+     * @return list of timestamps
+     */
+    private static List<Long> timestamps(final JournalIndex.Cursor cursor) {
+        final var timestamps = new ArrayList<Long>();
+        while (cursor.next()) {
+            timestamps.add(cursor.getTimestamp());
+        }
+        return timestamps;
+    }
+}
@@ -0,0 +1,235 @@
+/*
+ * Copyright (C) 2021 Pitschmann Christoph
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package li.pitschmann.knx.link.journal;
+
+import li.pitschmann.knx.core.address.GroupAddress;
+import li.pitschmann.knx.core.cemi.APCI;
+import li.pitschmann.knx.core.datapoint.DPT9;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.stream.Collectors;
+import java.util.stream.LongStream;
+
+import static li.pitschmann.knx.link.test.Helper.createTelegram;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Test for {@link Journal}
+ */
+class JournalTest {
+
+    @Test
+    @DisplayName("Invalid segment size")
+    void test_InvalidSegmentSize(final @TempDir Path tempDir) {
+        assertThatThrownBy(() -> Journal.open(tempDir, 63)).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> Journal.open(tempDir, Integer.MAX_VALUE + 1L)).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    @DisplayName("Append telegram to journal")
+    void test_Append(final @TempDir Path tempDir) throws IOException {
+        try (final var journal = Journal.open(tempDir, 1024)) {
+            journal.onTelegram(createTelegram(GroupAddress.of(1, 2, 3), APCI.GROUP_VALUE_WRITE, DPT9.TEMPERATURE.of(21.5)).getCEMI());
+            journal.append(4711L, new byte[]{0x11, 0x22}, 0x0A04, APCI.GROUP_VALUE_RESPONSE.getCode(), new byte[]{1, 2, 3, 4, 5, 6, 7, 8, 9, 10, 11, 12, 13, 14, 15});
+        }
+
+        final var segment = ByteBuffer.wrap(Files.readAllBytes(Journal.getSegmentPath(tempDir, 1)));
+        assertThat(segment.capacity()).isEqualTo(1024);
+        assertThat(segment.getInt(0)).isEqualTo(Journal.MAGIC);
+        assertThat(segment.getShort(4)).isEqualTo(Journal.VERSION);
+        assertThat(segment.getShort(6)).isEqualTo((short) JournalRecord.RECORD_SIZE);
+
+        final var record1 = JournalRecord.of(segment, Journal.HEADER_SIZE);
+        assertThat(record1.getTimestamp()).isPositive();
+        assertThat(record1.getGroupAddress()).isEqualTo(GroupAddress.of(1, 2, 3).getAddressAsInt());
+        assertThat(record1.getApci()).isEqualTo(APCI.GROUP_VALUE_WRITE.getCode());
+        assertThat(record1.getValue()).containsExactly(DPT9.TEMPERATURE.of(21.5).toByteArray());
+        assertThat(record1.isTruncated()).isFalse();
+
+        final var record2 = JournalRecord.of(segment, Journal.HEADER_SIZE + JournalRecord.RECORD_SIZE);
+        assertThat(record2.getTimestamp()).isEqualTo(4711L);
+        assertThat(record2.getSourceAddress()).isEqualTo(0x1122);
+        assertThat(record2.getGroupAddress()).isEqualTo(0x0A04);
+        assertThat(record2.getApci()).isEqualTo(APCI.GROUP_VALUE_RESPONSE.getCode());
+        assertThat(record2.getValue()).containsExactly(1, 2, 3, 4, 5, 6, 7, 8, 9, 10, 11, 12, 13, 14);
+        assertThat(record2.isTruncated()).isTrue();
+
+        // no more records
+        assertThat(JournalRecord.of(segment, Journal.HEADER_SIZE + 2 * JournalRecord.RECORD_SIZE)).isNull();
+    }
+
+    @Test
+    @DisplayName("Segments are rolled when full and not overwritten when opened again")
+    void test_Roll(final @TempDir Path tempDir) throws IOException {
+        // header + 2 records (+ 31 bytes that are cut off due alignment)
+        try (final var journal = Journal.open(tempDir, 127)) {
+            for (var i = 1; i <= 5; i++) {
+                journal.append(i, new byte[2], i, APCI.GROUP_VALUE_WRITE.getCode(), new byte[]{(byte) i});
+            }
+        }
+        try (final var journal = Journal.open(tempDir, 127)) {
+            journal.append(6, new byte[2], 6, APCI.GROUP_VALUE_WRITE.getCode(), new byte[]{6});
+        }
+
+        assertThat(Files.size(Journal.getSegmentPath(tempDir, 1))).isEqualTo(96);
+        final var segment3 = ByteBuffer.wrap(Files.readAllBytes(Journal.getSegmentPath(tempDir, 3)));
+        assertThat(JournalRecord.of(segment3, Journal.HEADER_SIZE).getTimestamp()).isEqualTo(5);
+        assertThat(JournalRecord.of(segment3, Journal.HEADER_SIZE + JournalRecord.RECORD_SIZE)).isNull();
+
+        // opened again: new segment
+        final var segment4 = ByteBuffer.wrap(Files.readAllBytes(Journal.getSegmentPath(tempDir, 4)));
+        assertThat(JournalRecord.of(segment4, Journal.HEADER_SIZE).getTimestamp()).isEqualTo(6);
+    }
+
+    @Test
+    @DisplayName("Query the records of group address within time range")
+    void test_Query(final @TempDir Path tempDir) throws IOException {
+        // header + 2 records per segment, group addresses 1 and 2 are alternating
+        try (final var journal = Journal.open(tempDir, 96)) {
+            for (var i = 1; i <= 10; i++) {
+                journal.append(i * 100L, new byte[2], i % 2 + 1, APCI.GROUP_VALUE_WRITE.getCode(), new byte[]{(byte) i});
+            }
+
+            assertThat(queryTimestamps(journal, 1, 0, Long.MAX_VALUE)).containsExactly(200L, 400L, 600L, 800L, 1000L);
+            assertThat(queryTimestamps(journal, 2, 0, Long.MAX_VALUE)).containsExactly(100L, 300L, 500L, 700L, 900L);
+            assertThat(queryTimestamps(journal, 1, 400, 800)).containsExactly(400L, 600L, 800L);
+            assertThat(queryTimestamps(journal, 2, 301, 699)).containsExactly(500L);
+            assertThat(queryTimestamps(journal, 2, 1001, 2000)).isEmpty();
+            assertThat(queryTimestamps(journal, 3, 0, Long.MAX_VALUE)).isEmpty();
+        }
+    }
+
+    @Test
+    @DisplayName("Query the records of group address with more records than checkpoint interval")
+    void test_Query_ManyRecords(final @TempDir Path tempDir) throws IOException {
+        try (final var journal = Journal.open(tempDir, 1024 * 1024)) {
+            for (var i = 1; i <= 1000; i++) {
+                journal.append(i, new byte[2], 0x0A03, APCI.GROUP_VALUE_WRITE.getCode(), new byte[]{(byte) i});
+            }
+
+            assertThat(queryTimestamps(journal, 0x0A03, 0, Long.MAX_VALUE)).hasSize(1000);
+            assertThat(queryTimestamps(journal, 0x0A03, 500, 520)).containsExactlyElementsOf(
+                    LongStream.rangeClosed(500, 520).boxed().collect(Collectors.toList()));
+        }
+    }
+
+    @Test
+    @DisplayName("Query the records that have been written before the journal was opened again")
+    void test_Query_Reopen(final @TempDir Path tempDir) throws IOException {
+        try (final var journal = Journal.open(tempDir, 96)) {
+            for (var i = 1; i <= 3; i++) {
+                journal.append(i, new byte[2], 1, APCI.GROUP_VALUE_WRITE.getCode(), new byte[]{(byte) i});
+            }
+        }
+        try (final var journal = Journal.open(tempDir, 96)) {
+            journal.append(4, new byte[2], 1, APCI.GROUP_VALUE_WRITE.getCode(), new byte[]{4});
+
+            final var records = new ArrayList<JournalRecord>();
+            assertThat(journal.query(1, 2, 4, records::add)).isEqualTo(3);
+            assertThat(records).extracting(JournalRecord::getValue).containsExactly(new byte[]{2}, new byte[]{3}, new byte[]{4});
+        }
+    }
+
+    @Test
+    @DisplayName("Iterate the records of group address across segments")
+    void test_Iterate(final @TempDir Path tempDir) throws IOException {
+        // header + 2 records per segment
+        try (final var journal = Journal.open(tempDir, 96)) {
+            for (var i = 1; i <= 5; i++) {
+                journal.append(i * 100L, new byte[2], 1, APCI.GROUP_VALUE_WRITE.getCode(), new byte[]{(byte) i});
+            }
+
+            final var iterator = journal.iterate(1, 200, 400);
+            assertThat(iterator.next().getTimestamp()).isEqualTo(200L);
+            assertThat(iterator.next().getTimestamp()).isEqualTo(300L);
+            assertThat(iterator.next().getTimestamp()).isEqualTo(400L);
+            assertThat(iterator.hasNext()).isFalse();
+            assertThatThrownBy(iterator::next).isInstanceOf(NoSuchElementException.class);
+        }
+    }
+
+    @Test
+    @DisplayName("Query the records after the clock has been stepped back")
+    void test_Query_ClockSteppedBack(final @TempDir Path tempDir) throws IOException {
+        // header + 2 records per segment
+        try (final var journal = Journal.open(tempDir, 96)) {
+            for (final var timestamp : new long[]{100, 500, 300, 400, 600, 200}) {
+                journal.append(timestamp, new byte[2], 1, APCI.GROUP_VALUE_WRITE.getCode(), new byte[]{1});
+            }
+
+            assertThat(queryTimestamps(journal, 1, 0, 450)).containsExactly(100L, 300L, 400L, 200L);
+            assertThat(queryTimestamps(journal, 1, 250, 450)).containsExactly(300L, 400L);
+            assertThat(queryTimestamps(journal, 1, 550, 650)).containsExactly(600L);
+        }
+    }
+
+    @Test
+    @DisplayName("Iterate the records when a segment has been deleted in the meantime")
+    void test_Iterate_SegmentDeleted(final @TempDir Path tempDir) throws IOException {
+        // header + 2 records per segment
+        try (final var journal = Journal.open(tempDir, 96)) {
+            for (var i = 1; i <= 5; i++) {
+                journal.append(i * 100L, new byte[2], 1, APCI.GROUP_VALUE_WRITE.getCode(), new byte[]{(byte) i});
+            }
+
+            final var iterator = journal.iterate(1, 0, Long.MAX_VALUE);
+            assertThat(iterator.next().getTimestamp()).isEqualTo(100L);
+            Files.delete(Journal.getSegmentPath(tempDir, 2));
+            assertThat(iterator.next().getTimestamp()).isEqualTo(200L);
+            assertThatThrownBy(iterator::hasNext)
+                    .isInstanceOf(UncheckedIOException.class)
+                    .hasCauseInstanceOf(NoSuchFileException.class);
+        }
+    }
+
+    @Test
+    @DisplayName("Parse the sequence of segment file")
+    void test_ParseSegmentSequence() {
+        assertThat(Journal.parseSegmentSequence(Path.of("00000000000000000042.journal"))).isEqualTo(42);
+        assertThat(Journal.parseSegmentSequence(Path.of("foobar.journal"))).isZero();
+        assertThat(Journal.parseSegmentSequence(Path.of("00000000000000000042.txt"))).isZero();
+    }
+
+    /**
+     * Returns the timestamps of records for group address
+     *
+     * @param journal      the journal to be queried
+     * @param groupAddress the 16-bit group address
+     * @param from         the timestamp from (inclusive)
+     * @param to           the timestamp to (inclusive)
+     * @return list of timestamps
+     * @throws IOException if the journal could not be read
+     */
+    private static List<Long> queryTimestamps(final Journal journal, final int groupAddress, final long from, final long to) throws IOException {
+        final var timestamps = new ArrayList<Long>();
+        journal.query(groupAddress, from, to, record -> timestamps.add(record.getTimestamp()));
+        return timestamps;
+    }
+}
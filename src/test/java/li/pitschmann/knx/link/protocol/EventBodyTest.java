@@ -0,0 +1,71 @@
+/*
+ * Copyright (C) 2021 Pitschmann Christoph
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package li.pitschmann.knx.link.protocol;
+
+import li.pitschmann.knx.core.address.GroupAddress;
+import nl.jqno.equalsverifier.EqualsVerifier;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Test for {@link EventBody}
+ */
+class EventBodyTest {
+    @Test
+    @DisplayName("Event with Group Address and Value")
+    void test_Event() {
+        final var body = EventBody.of(GroupAddress.of(1, 2, 3), "Hello");
+
+        assertThat(body.getGroupAddress()).isEqualTo(GroupAddress.of(1, 2, 3));
+        assertThat(body.getValue()).isEqualTo("Hello");
+        assertThat(body.getBytes()).containsExactly(0x0A, 0x03, 'H', 'e', 'l', 'l', 'o');
+
+        assertThat(body).hasToString(
+                "EventBody{" +
+                        "groupAddress=1/2/3, " +
+                        "data=0x48 65 6C 6C 6F, " +
+                        "data(String)=Hello" +
+                        "}");
+    }
+
+    @Test
+    @DisplayName("Event from bytes")
+    void test_EventFromBytes() {
+        final var body = EventBody.of(new byte[]{0x0A, 0x03, 'O', 'n'});
+
+        assertThat(body.getGroupAddress()).isEqualTo(GroupAddress.of(1, 2, 3));
+        assertThat(body.getValue()).isEqualTo("On");
+        assertThat(body).isEqualTo(EventBody.of(GroupAddress.of(1, 2, 3), "On"));
+    }
+
+    @Test
+    @DisplayName("Event from invalid bytes")
+    void test_EventFromInvalidBytes() {
+        assertThatThrownBy(() -> EventBody.of(new byte[]{0x0A}))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    @DisplayName("#equals() and #hashCode()")
+    void testEqualsAndHashCode() {
+        EqualsVerifier.forClass(EventBody.class).verify();
+    }
+}
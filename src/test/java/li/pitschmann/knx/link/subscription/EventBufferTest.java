@@ -0,0 +1,136 @@
+/*
+ * Copyright (C) 2021 Pitschmann Christoph
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package li.pitschmann.knx.link.subscription;
+
+import li.pitschmann.knx.link.ClientChannel;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+
+import java.util.List;
+import java.util.concurrent.atomic.LongAdder;
+
+import static li.pitschmann.knx.link.test.Helper.createChannelPacketMock;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Test for {@link EventBuffer}
+ */
+class EventBufferTest {
+
+    @Test
+    @DisplayName("Flush all pending packets in order")
+    void test_Flush() {
+        final var channelMock = createChannelPacketMock().getChannel();
+        final var buffer = new EventBuffer(channelMock, 4, OverflowPolicy.DROP_OLDEST, new LongAdder());
+
+        // first offer requires scheduling, the next not as long it is not flushed
+        assertThat(buffer.offer(1, new byte[]{1})).isTrue();
+        assertThat(buffer.offer(2, new byte[]{2})).isFalse();
+        assertThat(buffer.getLag()).isEqualTo(2);
+
+        assertThat(buffer.flush()).isTrue();
+        assertThat(buffer.getLag()).isZero();
+        assertThat(writtenPackets(channelMock, 2)).containsExactly(new byte[]{1}, new byte[]{2});
+
+        // flushed, scheduling is required again
+        assertThat(buffer.offer(3, new byte[]{3})).isTrue();
+    }
+
+    @Test
+    @DisplayName("Overflow with DROP_OLDEST policy")
+    void test_DropOldest() {
+        final var channelMock = createChannelPacketMock().getChannel();
+        final var droppedCounter = new LongAdder();
+        final var buffer = new EventBuffer(channelMock, 2, OverflowPolicy.DROP_OLDEST, droppedCounter);
+
+        buffer.offer(1, new byte[]{1});
+        buffer.offer(2, new byte[]{2});
+        buffer.offer(1, new byte[]{3});
+        assertThat(buffer.getLag()).isEqualTo(2);
+        assertThat(droppedCounter.sum()).isEqualTo(1);
+
+        buffer.flush();
+        assertThat(writtenPackets(channelMock, 2)).containsExactly(new byte[]{2}, new byte[]{3});
+    }
+
+    @Test
+    @DisplayName("Overflow with CONFLATE policy")
+    void test_Conflate() {
+        final var channelMock = createChannelPacketMock().getChannel();
+        final var droppedCounter = new LongAdder();
+        final var buffer = new EventBuffer(channelMock, 2, OverflowPolicy.CONFLATE, droppedCounter);
+
+        buffer.offer(1, new byte[]{1});
+        buffer.offer(2, new byte[]{2});
+        // conflate with pending packet of address 1
+        buffer.offer(1, new byte[]{3});
+        // no pending packet of address 3, drop oldest
+        buffer.offer(3, new byte[]{4});
+        assertThat(buffer.getLag()).isEqualTo(2);
+        assertThat(droppedCounter.sum()).isEqualTo(2);
+
+        buffer.flush();
+        assertThat(writtenPackets(channelMock, 2)).containsExactly(new byte[]{2}, new byte[]{4});
+    }
+
+    @Test
+    @DisplayName("Overflow with DISCONNECT policy")
+    void test_Disconnect() {
+        final var channelMock = createChannelPacketMock().getChannel();
+        final var buffer = new EventBuffer(channelMock, 1, OverflowPolicy.DISCONNECT, new LongAdder());
+
+        assertThat(buffer.offer(1, new byte[]{1})).isTrue();
+        assertThat(buffer.offer(2, new byte[]{2})).isFalse();
+        assertThat(buffer.getLag()).isZero();
+        verify(channelMock).close();
+
+        // closed buffer doesn't accept any packets anymore
+        assertThat(buffer.offer(3, new byte[]{3})).isFalse();
+    }
+
+    @Test
+    @DisplayName("Events are held back while the channel is not writable")
+    void test_NotWritable() {
+        final var channelMock = mock(ClientChannel.class);
+        when(channelMock.isConnected()).thenReturn(true);
+        when(channelMock.send(any(byte[].class))).thenReturn(true);
+        // writable for the first packet only
+        when(channelMock.isWritable()).thenReturn(true, false);
+        final var buffer = new EventBuffer(channelMock, 2, OverflowPolicy.DROP_OLDEST, new LongAdder());
+
+        buffer.offer(1, new byte[]{1, 2});
+        buffer.offer(2, new byte[]{3});
+        assertThat(buffer.flush()).isFalse();
+        assertThat(writtenPackets(channelMock, 1)).containsExactly(new byte[]{1, 2});
+        assertThat(buffer.getLag()).isEqualTo(1);
+        // still scheduled
+        assertThat(buffer.offer(3, new byte[]{4})).isFalse();
+    }
+
+    private static List<byte[]> writtenPackets(final ClientChannel channelMock, final int times) {
+        final var argCaptor = ArgumentCaptor.forClass(byte[].class);
+        verify(channelMock, times(times)).send(argCaptor.capture());
+        return argCaptor.getAllValues();
+    }
+}
@@ -0,0 +1,51 @@
+/*
+ * Copyright (C) 2021 Pitschmann Christoph
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package li.pitschmann.knx.link.subscription;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Test for {@link OverflowPolicy}
+ */
+class OverflowPolicyTest {
+
+    @Test
+    @DisplayName("Test all overflow policies")
+    void test_policies() {
+        assertThat(OverflowPolicy.DROP_OLDEST.getPolicy()).isEqualTo("drop-oldest");
+        assertThat(OverflowPolicy.of("Drop-Oldest")).isSameAs(OverflowPolicy.DROP_OLDEST);
+
+        assertThat(OverflowPolicy.CONFLATE.getPolicy()).isEqualTo("conflate");
+        assertThat(OverflowPolicy.of("CONFLATE")).isSameAs(OverflowPolicy.CONFLATE);
+
+        assertThat(OverflowPolicy.DISCONNECT.getPolicy()).isEqualTo("disconnect");
+        assertThat(OverflowPolicy.of("disconnect")).isSameAs(OverflowPolicy.DISCONNECT);
+    }
+
+    @Test
+    @DisplayName("Test unsupported overflow policy")
+    void test_unsupportedPolicy() {
+        assertThatThrownBy(() -> OverflowPolicy.of("foobar"))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("Overflow policy is not supported: foobar");
+    }
+}
@@ -0,0 +1,106 @@
+/*
+ * Copyright (C) 2021 Pitschmann Christoph
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package li.pitschmann.knx.link.subscription;
+
+import li.pitschmann.knx.core.datapoint.DPT1;
+import li.pitschmann.knx.core.datapoint.DPT9;
+import li.pitschmann.knx.link.ClientChannel;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.mock;
+
+/**
+ * Test for {@link SubscriptionIndex}
+ */
+class SubscriptionIndexTest {
+
+    @Test
+    @DisplayName("Empty index")
+    void test_Empty() {
+        final var index = new SubscriptionIndex();
+        assertThat(index.get(0)).isEmpty();
+        assertThat(index.get(65535)).isEmpty();
+        assertThat(index.getSubscriberCount()).isZero();
+        assertThat(index.remove(mock(ClientChannel.class), 0, 65535)).isFalse();
+    }
+
+    @Test
+    @DisplayName("Add and remove range of group addresses for multiple channels")
+    void test_AddAndRemove() {
+        final var index = new SubscriptionIndex();
+        final var channel1 = mock(ClientChannel.class);
+        final var channel2 = mock(ClientChannel.class);
+
+        // channel1: 1/2/0 - 1/2/255, channel2: 1/0/0 - 1/7/255
+        index.add(channel1, 0x0A00, 0x0AFF, DPT1.SWITCH);
+        index.add(channel2, 0x0800, 0x0FFF, DPT9.TEMPERATURE);
+        assertThat(index.getSubscriberCount()).isEqualTo(2);
+        assertThat(index.isSubscribed(channel1)).isTrue();
+
+        assertThat(index.get(0x07FF)).isEmpty();
+        assertThat(index.get(0x0800)).extracting(Subscription::getChannel).containsExactly(channel2);
+        assertThat(index.get(0x0A03)).extracting(Subscription::getChannel).containsExactly(channel1, channel2);
+        assertThat(index.get(0x0FFF)).extracting(Subscription::getChannel).containsExactly(channel2);
+        assertThat(index.get(0x1000)).isEmpty();
+
+        // remove 1/2/0 - 1/2/127 for channel2
+        assertThat(index.remove(channel2, 0x0A00, 0x0A7F)).isTrue();
+        assertThat(index.get(0x0A03)).extracting(Subscription::getChannel).containsExactly(channel1);
+        assertThat(index.get(0x0A80)).extracting(Subscription::getChannel).containsExactly(channel1, channel2);
+
+        // remove all of channel1
+        assertThat(index.removeAll(channel1)).isTrue();
+        assertThat(index.get(0x0A03)).isEmpty();
+        assertThat(index.get(0x0A80)).extracting(Subscription::getChannel).containsExactly(channel2);
+        assertThat(index.isSubscribed(channel1)).isFalse();
+        assertThat(index.getSubscriberCount()).isEqualTo(1);
+
+        assertThat(index.removeAll(channel2)).isTrue();
+        assertThat(index.get(0x0A80)).isEmpty();
+        assertThat(index.getSubscriberCount()).isZero();
+    }
+
+    @Test
+    @DisplayName("Subscribe same group address again replaces the data point type")
+    void test_Replace() {
+        final var index = new SubscriptionIndex();
+        final var channel = mock(ClientChannel.class);
+
+        index.add(channel, 0x0A00, 0x0AFF, DPT1.SWITCH);
+        index.add(channel, 0x0A03, 0x0A03, DPT9.TEMPERATURE);
+
+        assertThat(index.get(0x0A02)).extracting(Subscription::getDataPointType).containsExactly(DPT1.SWITCH);
+        assertThat(index.get(0x0A03)).extracting(Subscription::getDataPointType).containsExactly(DPT9.TEMPERATURE);
+        assertThat(index.getSubscriberCount()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Invalid range of group addresses")
+    void test_InvalidRange() {
+        final var index = new SubscriptionIndex();
+        final var channel = mock(ClientChannel.class);
+
+        assertThatThrownBy(() -> index.add(channel, 2, 1, DPT1.SWITCH)).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> index.add(channel, -1, 1, DPT1.SWITCH)).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> index.remove(channel, 0, 65536)).isInstanceOf(IllegalArgumentException.class);
+    }
+}
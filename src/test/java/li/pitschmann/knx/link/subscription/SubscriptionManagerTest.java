@@ -0,0 +1,206 @@
+/*
+ * Copyright (C) 2021 Pitschmann Christoph
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package li.pitschmann.knx.link.subscription;
+
+import li.pitschmann.knx.core.address.GroupAddress;
+import li.pitschmann.knx.core.cemi.APCI;
+import li.pitschmann.knx.core.datapoint.DPT1;
+import li.pitschmann.knx.core.datapoint.DPT9;
+import li.pitschmann.knx.link.ClientChannel;
+import li.pitschmann.knx.link.protocol.EventBody;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+
+import java.nio.ByteBuffer;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import static li.pitschmann.knx.link.test.Helper.createChannelPacketMock;
+import static li.pitschmann.knx.link.test.Helper.createTelegram;
+import static li.pitschmann.knx.link.test.Helper.verifyNoChannelPackets;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Test for {@link SubscriptionManager}
+ */
+class SubscriptionManagerTest {
+    private ExecutorService executorService;
+
+    @BeforeEach
+    void setUp() {
+        executorService = Executors.newSingleThreadExecutor();
+    }
+
+    @AfterEach
+    void tearDown() {
+        executorService.shutdownNow();
+    }
+
+    /**
+     * Creates a {@link SubscriptionManager} and starts its {@link EventDispatcher}
+     *
+     * @return a new {@link SubscriptionManager}
+     */
+    private SubscriptionManager createSubscriptionManager() {
+        final var manager = new SubscriptionManager(16, OverflowPolicy.CONFLATE);
+        executorService.submit(manager.getEventDispatcher());
+        return manager;
+    }
+
+    @Test
+    @DisplayName("Event is pushed to subscribed channel")
+    void test_Subscribe() {
+        final var manager = createSubscriptionManager();
+        final var channelMock = createChannelPacketMock().getChannel();
+        final var groupAddress = GroupAddress.of(1, 2, 3);
+        manager.subscribe(channelMock, groupAddress, DPT9.TEMPERATURE);
+
+        manager.onTelegram(createTelegram(groupAddress, APCI.GROUP_VALUE_WRITE, DPT9.TEMPERATURE.of(21.5)).getCEMI());
+
+        final var event = EventBody.of(groupAddress, "21.5°C");
+        final var expectedBytes = ByteBuffer.allocate(3 + event.getBytes().length)
+                .put(new byte[]{0x01, 0x08, (byte) event.getBytes().length})
+                .put(event.getBytes())
+                .array();
+        final var argCaptor = ArgumentCaptor.forClass(byte[].class);
+        verify(channelMock, timeout(1000)).send(argCaptor.capture());
+        assertThat(argCaptor.getValue()).containsExactly(expectedBytes);
+    }
+
+    @Test
+    @DisplayName("No event for read telegrams, other group addresses and after unsubscribe")
+    void test_NoEvent() {
+        final var manager = createSubscriptionManager();
+        final var channelPacketMock = createChannelPacketMock();
+        final var groupAddress = GroupAddress.of(1, 2, 3);
+        manager.subscribe(channelPacketMock.getChannel(), groupAddress, DPT1.SWITCH);
+
+        manager.onTelegram(createTelegram(groupAddress, APCI.GROUP_VALUE_READ, DPT1.SWITCH.of(true)).getCEMI());
+        manager.onTelegram(createTelegram(GroupAddress.of(1, 2, 4), APCI.GROUP_VALUE_WRITE, DPT1.SWITCH.of(true)).getCEMI());
+
+        assertThat(manager.unsubscribe(channelPacketMock.getChannel(), groupAddress)).isTrue();
+        assertThat(manager.unsubscribe(channelPacketMock.getChannel(), groupAddress)).isFalse();
+        manager.onTelegram(createTelegram(groupAddress, APCI.GROUP_VALUE_WRITE, DPT1.SWITCH.of(true)).getCEMI());
+
+        verifyNoChannelPackets(channelPacketMock);
+        assertThat(manager.getSubscriberLags()).isEmpty();
+    }
+
+    @Test
+    @DisplayName("Disconnected channels are removed")
+    void test_DisconnectedChannel() {
+        final var manager = createSubscriptionManager();
+        final var channelMock = mock(ClientChannel.class);
+        when(channelMock.isConnected()).thenReturn(true, false); // disconnected after subscribe
+        final var groupAddress = GroupAddress.of(1, 2, 3);
+        manager.subscribe(channelMock, groupAddress, DPT1.SWITCH);
+        assertThat(manager.getSubscriberCount()).isEqualTo(1);
+
+        manager.onTelegram(createTelegram(groupAddress, APCI.GROUP_VALUE_WRITE, DPT1.SWITCH.of(true)).getCEMI());
+
+        assertThat(manager.getSubscriberCount()).isZero();
+        verify(channelMock, never()).send(any(byte[].class));
+    }
+
+    @Test
+    @DisplayName("Channel closed while subscribing is not subscribed")
+    void test_ClosedWhileSubscribing() {
+        final var manager = createSubscriptionManager();
+        final var channelMock = mock(ClientChannel.class); // not connected
+        manager.subscribe(channelMock, GroupAddress.of(1, 2, 3), DPT1.SWITCH);
+
+        // the closed channel has been unsubscribed already, subscription and event buffer must not remain
+        assertThat(manager.getSubscriberCount()).isZero();
+        assertThat(manager.getSubscriberLags()).isEmpty();
+    }
+
+    @Test
+    @DisplayName("Event is pushed for range of group addresses")
+    void test_SubscribeRange() {
+        final var manager = createSubscriptionManager();
+        final var channelPacketMock = createChannelPacketMock();
+        manager.subscribe(channelPacketMock.getChannel(), GroupAddress.of(1, 2, 0), GroupAddress.of(1, 2, 255), DPT1.SWITCH);
+
+        manager.onTelegram(createTelegram(GroupAddress.of(1, 2, 3), APCI.GROUP_VALUE_WRITE, DPT1.SWITCH.of(true)).getCEMI());
+        manager.onTelegram(createTelegram(GroupAddress.of(1, 3, 0), APCI.GROUP_VALUE_WRITE, DPT1.SWITCH.of(true)).getCEMI());
+        manager.onTelegram(createTelegram(GroupAddress.of(1, 2, 255), APCI.GROUP_VALUE_WRITE, DPT1.SWITCH.of(false)).getCEMI());
+
+        verify(channelPacketMock.getChannel(), timeout(1000).times(2)).send(any(byte[].class));
+
+        assertThat(manager.unsubscribe(channelPacketMock.getChannel(), GroupAddress.of(1, 2, 0), GroupAddress.of(1, 2, 255))).isTrue();
+        assertThat(manager.getSubscriberCount()).isZero();
+    }
+
+    @Test
+    @DisplayName("#unsubscribeAll(ClientChannel)")
+    void test_UnsubscribeAll() {
+        final var manager = createSubscriptionManager();
+        final var channelMock = createChannelPacketMock().getChannel();
+        manager.subscribe(channelMock, GroupAddress.of(1, 2, 3), DPT1.SWITCH);
+        manager.subscribe(channelMock, GroupAddress.of(1, 2, 4), DPT1.SWITCH);
+        assertThat(manager.getSubscriberCount()).isEqualTo(1);
+
+        manager.unsubscribeAll(channelMock);
+        assertThat(manager.getSubscriberCount()).isZero();
+    }
+
+    @Test
+    @DisplayName("Event packet is encoded once and shared across subscribers")
+    void test_SharedEventPacket() {
+        final var manager = createSubscriptionManager();
+        final var channelMock1 = createChannelPacketMock().getChannel();
+        final var channelMock2 = createChannelPacketMock().getChannel();
+        final var groupAddress = GroupAddress.of(1, 2, 3);
+        manager.subscribe(channelMock1, groupAddress, DPT1.SWITCH);
+        manager.subscribe(channelMock2, groupAddress, DPT1.SWITCH);
+
+        manager.onTelegram(createTelegram(groupAddress, APCI.GROUP_VALUE_WRITE, DPT1.SWITCH.of(true)).getCEMI());
+
+        final var argCaptor1 = ArgumentCaptor.forClass(byte[].class);
+        final var argCaptor2 = ArgumentCaptor.forClass(byte[].class);
+        verify(channelMock1, timeout(1000)).send(argCaptor1.capture());
+        verify(channelMock2, timeout(1000)).send(argCaptor2.capture());
+        assertThat(argCaptor1.getValue()).isSameAs(argCaptor2.getValue());
+    }
+
+    @Test
+    @DisplayName("Lag and dropped events of a slow subscriber")
+    void test_SlowSubscriber() {
+        // no event dispatcher started, the events remain in the buffer
+        final var manager = new SubscriptionManager(2, OverflowPolicy.DROP_OLDEST);
+        final var channelMock = createChannelPacketMock().getChannel();
+        manager.subscribe(channelMock, GroupAddress.of(1, 2, 0), GroupAddress.of(1, 2, 255), DPT1.SWITCH);
+
+        for (var i = 0; i < 5; i++) {
+            manager.onTelegram(createTelegram(GroupAddress.of(1, 2, i), APCI.GROUP_VALUE_WRITE, DPT1.SWITCH.of(true)).getCEMI());
+        }
+
+        assertThat(manager.getSubscriberLags()).hasSize(1).containsValue(2);
+        assertThat(manager.getDroppedEventCount()).isEqualTo(3);
+        verify(channelMock, never()).send(any(byte[].class));
+    }
+}
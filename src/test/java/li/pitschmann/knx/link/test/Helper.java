@@ -19,29 +19,33 @@ package li.pitschmann.knx.link.test;
 
 import li.pitschmann.knx.core.address.GroupAddress;
 import li.pitschmann.knx.core.annotations.Nullable;
+import li.pitschmann.knx.core.body.TunnelingRequestBody;
+import li.pitschmann.knx.core.cemi.APCI;
+import li.pitschmann.knx.core.cemi.CEMI;
+import li.pitschmann.knx.core.cemi.MessageCode;
 import li.pitschmann.knx.core.communication.KnxClient;
-import li.pitschmann.knx.core.communication.KnxStatusData;
 import li.pitschmann.knx.core.communication.KnxStatusPool;
 import li.pitschmann.knx.core.datapoint.value.DataPointValue;
 import li.pitschmann.knx.link.Action;
 import li.pitschmann.knx.link.ChannelPacket;
+import li.pitschmann.knx.link.ClientChannel;
 import li.pitschmann.knx.link.SecurityAuditor;
+import li.pitschmann.knx.link.TelegramPlugin;
 import li.pitschmann.knx.link.config.Config;
 import li.pitschmann.knx.link.protocol.ResponseBody;
 import org.mockito.ArgumentCaptor;
 
-import java.io.IOException;
 import java.net.InetAddress;
 import java.net.InetSocketAddress;
-import java.nio.ByteBuffer;
-import java.nio.channels.SocketChannel;
 import java.nio.charset.StandardCharsets;
 import java.util.Arrays;
+import java.util.Iterator;
 import java.util.List;
 import java.util.concurrent.CompletableFuture;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.timeout;
@@ -57,7 +61,8 @@ public final class Helper {
      * Create a mock {@link Config} that is suitable for testing purposes only.
      * <p>
      * The server port is always {@link Config#DEFAULT_SERVER_PORT} by default.
-     * The {@link SecurityAuditor#isRemoteAddressValid(SocketChannel)} returns always {@code true} by default.
+     * The {@link SecurityAuditor#isRemoteAddressValid(ClientChannel)}, {@link SecurityAuditor#isRequestPermitted(ClientChannel)}
+     * and the authorization of group addresses return always {@code true} by default.
      *
      * @return mocked {@link Config}
      */
@@ -65,9 +70,17 @@ public final class Helper {
         final var configMock = mock(Config.class);
 
         when(configMock.getServerPort()).thenReturn(Config.DEFAULT_SERVER_PORT);
+        when(configMock.getServerReadTimeout()).thenReturn(Config.DEFAULT_SERVER_READ_TIMEOUT);
+        when(configMock.getServerAckTimeout()).thenReturn(Config.DEFAULT_SERVER_ACK_TIMEOUT);
+        when(configMock.getServerBreakerOpenDuration()).thenReturn(Config.DEFAULT_SERVER_BREAKER_OPEN_DURATION);
+        when(configMock.getServerEventBufferSize()).thenReturn(Config.DEFAULT_SERVER_EVENT_BUFFER_SIZE);
+        when(configMock.getServerEventOverflowPolicy()).thenReturn(Config.DEFAULT_SERVER_EVENT_OVERFLOW_POLICY);
 
         final var securityAuditor = mock(SecurityAuditor.class);
-        when(securityAuditor.isRemoteAddressValid(any(SocketChannel.class))).thenReturn(true);
+        when(securityAuditor.isRemoteAddressValid(any(ClientChannel.class))).thenReturn(true);
+        when(securityAuditor.isRequestPermitted(any(ClientChannel.class))).thenReturn(true);
+        when(securityAuditor.isReadAuthorized(any(ClientChannel.class), any(GroupAddress.class), any(GroupAddress.class))).thenReturn(true);
+        when(securityAuditor.isWriteAuthorized(any(ClientChannel.class), any(GroupAddress.class))).thenReturn(true);
         when(configMock.getSecurityAuditor()).thenReturn(securityAuditor);
 
         when(configMock.getKnxClientConfig()).thenReturn(mock(li.pitschmann.knx.core.config.Config.class));
@@ -92,20 +105,41 @@ public final class Helper {
     }
 
     /**
-     * Creates a mocked {@link KnxStatusData} to simulate a response from a KNX Net/IP device
-     * @param knxClientMock the mocked {@link KnxClient}; may not be null
-     * @param dpv the {@link DataPointValue} that should be returned for testing purpose; may not be null
-     * @return mocked {@link KnxStatusData}
+     * Simulates a response from a KNX Net/IP device. When {@link KnxClient#readRequest(GroupAddress)}
+     * is called, then the {@link TelegramPlugin} will receive a {@link APCI#GROUP_VALUE_RESPONSE}
+     * telegram with given {@link DataPointValue}.
+     *
+     * @param knxClientMock  the mocked {@link KnxClient}; may not be null
+     * @param telegramPlugin the plugin that should receive the response telegram; may not be null
+     * @param dpv            the {@link DataPointValue} that should be returned for testing purpose; may not be null
      */
-    public static KnxStatusData createKnxStatusDataMock(final KnxClient knxClientMock, final DataPointValue dpv) {
-        final var knxStatusDataMock = mock(KnxStatusData.class);
-        when(knxStatusDataMock.getData()).thenReturn(dpv.toByteArray());
-        when(knxClientMock.getStatusPool().getStatusFor(any(GroupAddress.class))).thenReturn(knxStatusDataMock);
-        return knxStatusDataMock;
+    public static void simulateReadResponse(final KnxClient knxClientMock,
+                                            final TelegramPlugin telegramPlugin,
+                                            final DataPointValue dpv) {
+        when(knxClientMock.readRequest(any(GroupAddress.class))).thenAnswer(invocation -> {
+            final GroupAddress groupAddress = invocation.getArgument(0);
+            telegramPlugin.onIncomingBody(createTelegram(groupAddress, APCI.GROUP_VALUE_RESPONSE, dpv));
+            return CompletableFuture.completedFuture(true);
+        });
     }
 
     /**
-     * Creates a mock {@link ChannelPacket} with mock {@link SocketChannel}
+     * Creates a {@link TunnelingRequestBody} that contains a group telegram as it would
+     * be received from a KNX Net/IP device
+     *
+     * @param groupAddress the group address of telegram; may not be null
+     * @param apci         the APCI of telegram; may not be null
+     * @param dpv          the {@link DataPointValue} of telegram; may not be null
+     * @return a new {@link TunnelingRequestBody}
+     */
+    public static TunnelingRequestBody createTelegram(final GroupAddress groupAddress,
+                                                      final APCI apci,
+                                                      final DataPointValue dpv) {
+        return TunnelingRequestBody.of(1, 0, CEMI.useDefault(MessageCode.L_DATA_IND, groupAddress, apci, dpv));
+    }
+
+    /**
+     * Creates a mock {@link ChannelPacket} with mock {@link ClientChannel}
      * and given {@code bytes} as byte array for {@link ChannelPacket#getBytes()}
      *
      * @param bytes the byte array containing data for read/write request operation
@@ -118,13 +152,17 @@ public final class Helper {
         final var socketAddressMock = mock(InetSocketAddress.class);
         when(socketAddressMock.getAddress()).thenReturn(inetAddressMock);
 
-        final var channelMock = mock(SocketChannel.class);
+        final var channelMock = mock(ClientChannel.class);
         when(channelMock.isConnected()).thenReturn(true);
-        try {
-            when(channelMock.getRemoteAddress()).thenReturn(socketAddressMock);
-        } catch (IOException e) {
-            throw new AssertionError("Should never happen with mock!");
-        }
+        when(channelMock.isWritable()).thenReturn(true);
+        when(channelMock.getRemoteAddress()).thenReturn(socketAddressMock);
+        // simulate that all packets have been written
+        when(channelMock.send(any(byte[].class))).thenReturn(true);
+        doAnswer(invocation -> {
+            final Iterator<byte[]> packets = invocation.getArgument(0);
+            packets.forEachRemaining(channelMock::send);
+            return null;
+        }).when(channelMock).stream(any());
 
         final var channelPacketMock = mock(ChannelPacket.class);
         when(channelPacketMock.getChannel()).thenReturn(channelMock);
@@ -149,19 +187,15 @@ public final class Helper {
      * @param expectedResponses list of {@link ResponseBody} to be expected; may not be null
      */
     public static void verifyChannelPackets(final ChannelPacket channelPacketMock, final List<ResponseBody> expectedResponses) {
-        final var argCaptor = ArgumentCaptor.forClass(ByteBuffer.class);
-        try {
-            verify(channelPacketMock.getChannel(), timeout(5000).times(expectedResponses.size()))
-                    .write(argCaptor.capture());
-        } catch (IOException e) {
-            throw new AssertionError("Should not happen!");
-        }
+        final var argCaptor = ArgumentCaptor.forClass(byte[].class);
+        verify(channelPacketMock.getChannel(), timeout(5000).times(expectedResponses.size()))
+                .send(argCaptor.capture());
 
         // first 3 bytes will be skipped:
         // Byte 0: Protocol Version
         // Byte 1: Type of response
         // Byte 2: Length of response byte array
-        assertThat(argCaptor.getAllValues().stream().map(ByteBuffer::array)
+        assertThat(argCaptor.getAllValues().stream()
                 .map(a -> ResponseBody.of(Arrays.copyOfRange(a, 3, a.length)))
         ).containsExactlyElementsOf(expectedResponses);
     }
@@ -172,11 +206,7 @@ public final class Helper {
      * @param channelPacketMock the channel packet to be inspected; may not be null
      */
     public static void verifyNoChannelPackets(final ChannelPacket channelPacketMock) {
-        try {
-            verify(channelPacketMock.getChannel(), never()).write(any(ByteBuffer.class));
-        } catch (IOException e) {
-            throw new AssertionError("Should not happen!");
-        }
+        verify(channelPacketMock.getChannel(), never()).send(any(byte[].class));
     }
 
     /**
@@ -21,6 +21,7 @@ import li.pitschmann.knx.core.utils.ByteFormatter;
 import li.pitschmann.knx.core.utils.Closeables;
 import li.pitschmann.knx.core.utils.Sleeper;
 import li.pitschmann.knx.link.Action;
+import li.pitschmann.knx.link.protocol.EventBody;
 import li.pitschmann.knx.link.protocol.Header;
 import li.pitschmann.knx.link.protocol.ResponseBody;
 import org.slf4j.Logger;
@@ -47,6 +48,7 @@ public final class TestClient implements AutoCloseable {
     private final int serverPort;
     private final ExecutorService executorService = Executors.newSingleThreadExecutor();
     private final List<ResponseBody> receivedResponses = new LinkedList<>();
+    private final List<EventBody> receivedEvents = new LinkedList<>();
     private Selector writeSelector;
     private Selector readSelector;
 
@@ -93,6 +95,22 @@ public final class TestClient implements AutoCloseable {
         }
     }
 
+    /**
+     * Verifies if the {@code expectedEventBodies} has been received by
+     * the current {@link TestClient} within 5 hardcoded-second timeout.
+     *
+     * @param expectedEventBodies expected array of {@link EventBody}; may be empty
+     * @throws AssertionError in case there was a mismatch or timeout occurred first
+     */
+    public void verifyReceivedEvents(EventBody... expectedEventBodies) {
+        var result = Sleeper.milliseconds(50, () -> receivedEvents.equals(Arrays.asList(expectedEventBodies)), 5000);
+
+        if (!result) {
+            throw new AssertionError("Not expected events received: " +
+                    "expected=" + Arrays.toString(expectedEventBodies) + ", actual=" + receivedEvents);
+        }
+    }
+
     public void readRequest(final String groupAddress, final String dataPointType) {
         send(
                 Helper.createProtocolV1Packet(Action.READ_REQUEST, groupAddress, dataPointType, null)
@@ -105,6 +123,12 @@ public final class TestClient implements AutoCloseable {
         );
     }
 
+    public void subscribeRequest(final String groupAddress, final String dataPointType) {
+        send(
+                Helper.createProtocolV1Packet(Action.SUBSCRIBE_REQUEST, groupAddress, dataPointType, null)
+        );
+    }
+
 
     private void start() {
         try {
@@ -219,11 +243,15 @@ public final class TestClient implements AutoCloseable {
                     final var responseBytes = Arrays.copyOfRange(receivedBytes, pos, pos + header.getLength());
                     // updates the position
                     pos += responseBytes.length;
-                    final var response = ResponseBody.of(responseBytes);
-                    if (LOG.isDebugEnabled()) {
+                    if (header.getAction() == Action.EVENT) {
+                        final var event = EventBody.of(responseBytes);
+                        LOG.debug("Receiving event packet: header={}, body={}", header, event);
+                        receivedEvents.add(event);
+                    } else {
+                        final var response = ResponseBody.of(responseBytes);
                         LOG.debug("Receiving packet: header={}, body={}", header, response);
+                        receivedResponses.add(response);
                     }
-                    receivedResponses.add(response);
                 }
             } finally {
                 byteBuffer.clear();